@@ -13,12 +13,20 @@ import java.io.ObjectOutputStream;
 import java.io.PrintWriter;
 import java.io.Serializable;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import cc.mallet.pipe.Pipe;
 import cc.mallet.types.Alphabet;
 import cc.mallet.types.FeatureSelection;
 import cc.mallet.types.FeatureVector;
 import cc.mallet.types.Instance;
+import cc.mallet.types.InstanceList;
 import cc.mallet.types.LabelAlphabet;
 import cc.mallet.types.LabelVector;
 import cc.mallet.types.MatrixOps;
@@ -35,6 +43,10 @@ public class MaxEnt extends Classifier implements Serializable
 	protected int defaultFeatureIndex;
 	protected FeatureSelection featureSelection;
 	protected FeatureSelection[] perClassFeatureSelection;
+	// Whether to score with the parameters transposed to <featureIndex,labelIndex>
+	protected transient boolean featureMajorScoring;
+	// The transposed parameters, or null until they are needed after a change of "parameters"
+	protected transient volatile double[] featureMajorParameters;
 
 	// The default feature is always the feature with highest index
 	public MaxEnt (Pipe dataPipe,
@@ -87,11 +99,71 @@ public class MaxEnt extends Classifier implements Serializable
 
 	public void setParameters(double[] parameters){
 		this.parameters = parameters;
+		parametersChanged ();
 	}
 
 	public void setParameter (int classIndex, int featureIndex, double value)
 	{
 		parameters[classIndex*(getAlphabet().size()+1) + featureIndex] = value;
+		double[] transposed = featureMajorParameters;
+		if (transposed != null)
+			transposed[featureIndex*(transposed.length / (defaultFeatureIndex+1)) + classIndex] = value;
+	}
+
+	/**
+	 * Tells the classifier that the array returned by {@link #getParameters} has been
+	 * changed in place, e.g. by an optimizable during training, so that feature-major
+	 * scoring transposes the parameters again.
+	 */
+	public void parametersChanged ()
+	{
+		featureMajorParameters = null;
+	}
+
+	/**
+	 * Chooses the layout of the parameters used for scoring.  The parameters are
+	 * indexed by &lt;labelIndex,featureIndex&gt;, so scoring walks each feature vector
+	 * once per label.  With feature-major scoring, a copy of the parameters transposed
+	 * to &lt;featureIndex,labelIndex&gt; is scored instead: each feature of the vector adds
+	 * its contiguous block of label weights to the scores in a single pass, which pays
+	 * off for classifiers with many labels.  The scores are the same in both layouts.
+	 * <p>
+	 * The transposed copy is built when it is first needed and is not serialized.
+	 * {@link #setParameters} and {@link #setParameter} keep it up to date, and the
+	 * trainers call {@link #parametersChanged} whenever they change the parameters in
+	 * place; do the same after changing the array returned by {@link #getParameters}.
+	 * Per-class feature selections are always scored label by label.
+	 */
+	public MaxEnt setFeatureMajorScoring (boolean featureMajor)
+	{
+		featureMajorScoring = featureMajor;
+		featureMajorParameters = null;
+		return this;
+	}
+
+	public boolean isFeatureMajorScoring ()
+	{
+		return featureMajorScoring;
+	}
+
+	// Returns the transposed parameters, transposing them first if they have changed
+	private double[] getFeatureMajorParameters ()
+	{
+		double[] transposed = featureMajorParameters;
+		if (transposed != null)
+			return transposed;
+		synchronized (this) {
+			if (featureMajorParameters == null) {
+				int numFeatures = defaultFeatureIndex + 1;
+				int numLabels = parameters.length / numFeatures;
+				transposed = new double[numLabels * numFeatures];
+				for (int li = 0; li < numLabels; li++)
+					for (int fi = 0; fi < numFeatures; fi++)
+						transposed[fi*numLabels + li] = parameters[li*numFeatures + fi];
+				featureMajorParameters = transposed;
+			}
+			return featureMajorParameters;
+		}
 	}
 
 	public FeatureSelection getFeatureSelection() {
@@ -138,6 +210,28 @@ public class MaxEnt extends Classifier implements Serializable
 		assert (fv.getAlphabet ()
 				== this.instancePipe.getDataAlphabet ());
 
+		double[] transposed = featureMajorScoring && perClassFeatureSelection == null
+				? getFeatureMajorParameters () : null;
+		if (transposed != null && transposed.length == numLabels * numFeatures) {
+			// Add the weights of each feature for all labels at once; the sums are
+			// accumulated in the order of rowDotProduct and thus equal its results
+			Arrays.fill (scores, 0);
+			int size = fv.numLocations();
+			for (int fil = 0; fil < size; fil++) {
+				int fi = fv.indexAtLocation (fil);
+				if (fi > defaultFeatureIndex || (featureSelection != null && !featureSelection.contains (fi)))
+					continue;
+				double value = fv.valueAtLocation (fil);
+				int offset = fi*numLabels;
+				for (int li = 0; li < numLabels; li++)
+					scores[li] += transposed[offset + li] * value;
+			}
+			int offset = defaultFeatureIndex*numLabels;
+			for (int li = 0; li < numLabels; li++)
+				scores[li] = transposed[offset + li] + scores[li];
+			return;
+		}
+
 		// Include the feature weights according to each label
 		for (int li = 0; li < numLabels; li++) {
 			scores[li] = parameters[li*numFeatures + defaultFeatureIndex]
@@ -190,6 +284,16 @@ public class MaxEnt extends Classifier implements Serializable
 	{
 		int numClasses = getLabelAlphabet().size();
 		double[] scores = new double[numClasses];
+		return classify (instance, scores);
+	}
+
+	/**
+	 * Classifies <code>instance</code> using <code>scores</code>, which has one
+	 * element per label, as buffer.  The returned Classification doesn't refer
+	 * to the buffer, so it can be reused for the next instance.
+	 */
+	protected Classification classify (Instance instance, double[] scores)
+	{
 		//getClassificationScores (instance, scores);
 		getClassificationScores(instance, scores);
 		// Create and return a Classification object
@@ -198,6 +302,64 @@ public class MaxEnt extends Classifier implements Serializable
 						scores));
 	}
 
+	public ArrayList<Classification> classify (InstanceList instances)
+	{
+		return classify (instances, null, 1);
+	}
+
+	/**
+	 * Classifies <code>instances</code> in <code>numParts</code> contiguous parts,
+	 * which are submitted to <code>executor</code> and each reuse one score buffer.
+	 * The executor belongs to the caller, so that it can be shared by repeated calls;
+	 * it is not shut down.  With fewer than two parts, or a null executor, the
+	 * instances are classified in the calling thread.
+	 *
+	 * @return the classifications, in the order of <code>instances</code>
+	 */
+	public ArrayList<Classification> classify (final InstanceList instances, ExecutorService executor,
+			int numParts)
+	{
+		final Classification[] ret = new Classification[instances.size()];
+		final int numLabels = getLabelAlphabet().size();
+		numParts = Math.max (1, Math.min (numParts, ret.length));
+		if (numParts == 1 || executor == null) {
+			double[] scores = new double[numLabels];
+			for (int i = 0; i < ret.length; i++)
+				ret[i] = classify (instances.get(i), scores);
+			return new ArrayList<Classification> (Arrays.asList (ret));
+		}
+
+		List<Future<?>> futures = new ArrayList<Future<?>> (numParts);
+		try {
+			for (int part = 0; part < numParts; part++) {
+				final int start = (int) ((long) ret.length * part / numParts);
+				final int end = (int) ((long) ret.length * (part + 1) / numParts);
+				futures.add (executor.submit (new Callable<Object> () {
+					public Object call () {
+						double[] scores = new double[numLabels];
+						for (int i = start; i < end; i++)
+							ret[i] = classify (instances.get(i), scores);
+						return null;
+					}
+				}));
+			}
+			for (Future<?> future : futures)
+				future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException ("Interrupted while classifying", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException (e.getCause());
+		} finally {
+			// Stop the parts that are left after a failure
+			for (Future<?> future : futures)
+				future.cancel (true);
+		}
+		return new ArrayList<Classification> (Arrays.asList (ret));
+	}
+
 	public void print () {
 		print(System.out);
 	}
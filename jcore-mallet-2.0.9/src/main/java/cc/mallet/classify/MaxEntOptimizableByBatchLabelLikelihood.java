@@ -0,0 +1,360 @@
+package cc.mallet.classify;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+
+import cc.mallet.optimize.Optimizable;
+import cc.mallet.types.Alphabet;
+import cc.mallet.types.FeatureSelection;
+import cc.mallet.types.FeatureVector;
+import cc.mallet.types.Instance;
+import cc.mallet.types.InstanceList;
+import cc.mallet.types.LabelAlphabet;
+import cc.mallet.types.Labeling;
+import cc.mallet.types.MatrixOps;
+import cc.mallet.util.MalletLogger;
+import cc.mallet.util.Maths;
+
+/**
+ * Implements label likelihood gradient computations for batches of data, can be
+ * easily parallelized. <p>
+ *
+ * The value and gradient are the same as those of
+ * <tt>MaxEntOptimizableByLabelLikelihood</tt>.  Each batch accumulates the
+ * expectations of its instances into an array of its own, so that batches can be
+ * computed in parallel without sharing, e.g. by
+ * <tt>cc.mallet.fst.ThreadedOptimizable</tt>; <tt>combineGradients</tt> reduces
+ * them.  The prior and the constraints are incorporated into the expectations of
+ * the last batch (see <tt>getBatchValue, getBatchValueGradient</tt>). <p>
+ *
+ * *Note*: Instead of stopping at the first instance with an infinite value, as
+ * <tt>MaxEntOptimizableByLabelLikelihood</tt> does, this implementation ignores
+ * such instances, and those with an undefined value, and logs their number.
+ *
+ * @see MaxEntTrainerByThreadedLabelLikelihood
+ */
+public class MaxEntOptimizableByBatchLabelLikelihood implements Optimizable.ByCombiningBatchGradient, Serializable {
+
+	private static Logger logger =
+		MalletLogger.getLogger(MaxEntOptimizableByBatchLabelLikelihood.class.getName());
+
+	static final double DEFAULT_GAUSSIAN_PRIOR_VARIANCE = 1;
+	static final double DEFAULT_HYPERBOLIC_PRIOR_SLOPE = 0.2;
+	static final double DEFAULT_HYPERBOLIC_PRIOR_SHARPNESS = 10.0;
+
+	boolean usingHyperbolicPrior = false;
+	boolean usingGaussianPrior = true;
+	double gaussianPriorVariance = DEFAULT_GAUSSIAN_PRIOR_VARIANCE;
+	double hyperbolicPriorSlope = DEFAULT_HYPERBOLIC_PRIOR_SLOPE;
+	double hyperbolicPriorSharpness = DEFAULT_HYPERBOLIC_PRIOR_SHARPNESS;
+
+	double[] parameters, constraints;
+	MaxEnt theClassifier;
+	InstanceList trainingList;
+	int numLabels;
+	int numFeatures;
+	int defaultFeatureIndex;						// just for clarity
+	FeatureSelection featureSelection;
+	FeatureSelection[] perLabelFeatureSelection;
+
+	// number of batches of training set
+	int numBatches;
+	// batch specific expectations, each batch only writes its own
+	List<double[]> expectations;
+	// value of each batch, to avoid sharing
+	double[] cachedValue;
+	// incremented whenever the parameters change, see MaxEntTrainerByThreadedLabelLikelihood
+	volatile int parametersChangeStamp = 0;
+
+	public MaxEntOptimizableByBatchLabelLikelihood (InstanceList trainingSet, MaxEnt initialClassifier, int numBatches)
+	{
+		assert (numBatches > 0) : "Invalid number of batches: " + numBatches;
+		this.trainingList = trainingSet;
+		this.numBatches = numBatches;
+		Alphabet fd = trainingSet.getDataAlphabet();
+		LabelAlphabet ld = (LabelAlphabet) trainingSet.getTargetAlphabet();
+		// Don't fd.stopGrowth, because someone might want to do feature induction
+		ld.stopGrowth();
+		// Add one feature for the "default feature".
+		this.numLabels = ld.size();
+		this.numFeatures = fd.size() + 1;
+		this.defaultFeatureIndex = numFeatures-1;
+		this.parameters = new double [numLabels * numFeatures];
+		this.constraints = new double [numLabels * numFeatures];
+		this.featureSelection = trainingSet.getFeatureSelection();
+		this.perLabelFeatureSelection = trainingSet.getPerLabelFeatureSelection();
+		// Add the default feature index to the selection
+		if (featureSelection != null)
+			featureSelection.add (defaultFeatureIndex);
+		if (perLabelFeatureSelection != null)
+			for (int i = 0; i < perLabelFeatureSelection.length; i++)
+				perLabelFeatureSelection[i].add (defaultFeatureIndex);
+		assert (featureSelection == null || perLabelFeatureSelection == null);
+		if (initialClassifier != null) {
+			this.theClassifier = initialClassifier;
+			this.parameters = theClassifier.parameters;
+			this.featureSelection = theClassifier.featureSelection;
+			this.perLabelFeatureSelection = theClassifier.perClassFeatureSelection;
+			this.defaultFeatureIndex = theClassifier.defaultFeatureIndex;
+			assert (initialClassifier.getInstancePipe() == trainingSet.getPipe());
+		}
+		else {
+			this.theClassifier = new MaxEnt (trainingSet.getPipe(), parameters, featureSelection, perLabelFeatureSelection);
+		}
+
+		cachedValue = new double[numBatches];
+		expectations = new ArrayList<double[]>(numBatches);
+		for (int i = 0; i < numBatches; i++)
+			expectations.add(new double[parameters.length]);
+
+		gatherConstraints();
+	}
+
+	/**
+	 * Sets the constraints to the weighted counts of the features with the true label of
+	 * each instance.
+	 */
+	protected void gatherConstraints ()
+	{
+		logger.fine("Number of instances in training list = " + trainingList.size());
+		for (Instance inst : trainingList) {
+			double instanceWeight = trainingList.getInstanceWeight(inst);
+			Labeling labeling = inst.getLabeling ();
+			if (labeling == null)
+				continue;
+			FeatureVector fv = (FeatureVector) inst.getData ();
+			assert (fv.getAlphabet() == trainingList.getDataAlphabet());
+			assert (!Double.isNaN(instanceWeight)) : "instanceWeight is NaN";
+			int li = labeling.getBestIndex();
+			MatrixOps.rowPlusEquals (constraints, numFeatures, li, fv, instanceWeight);
+			// For the default feature, whose weight is 1.0
+			constraints[li*numFeatures + defaultFeatureIndex] += 1.0 * instanceWeight;
+		}
+	}
+
+	public MaxEnt getClassifier () { return theClassifier; }
+
+	/**
+	 * Computes the log probability of the labels of a batch of training data and fills
+	 * in the corresponding expectations.
+	 */
+	protected double getExpectationValue (int batchIndex, int[] batchAssignments)
+	{
+		// Reset expectations to zero before we fill them again
+		double[] batchExpectations = expectations.get(batchIndex);
+		Arrays.fill (batchExpectations, 0.0);
+		double[] scores = new double[numLabels];
+		int numInfValue = 0;
+		double value = 0;
+		for (int ii = batchAssignments[0]; ii < batchAssignments[1]; ii++) {
+			Instance instance = trainingList.get(ii);
+			Labeling labeling = instance.getLabeling ();
+			if (labeling == null)
+				continue;
+			double instanceWeight = trainingList.getInstanceWeight(instance);
+			theClassifier.getClassificationScores (instance, scores);
+			double instanceValue = instanceWeight * Math.log (scores[labeling.getBestIndex()]);
+			if (Double.isInfinite(instanceValue) || Double.isNaN(instanceValue)) {
+				++numInfValue;
+				continue;
+			}
+			value += instanceValue;
+			FeatureVector fv = (FeatureVector) instance.getData ();
+			for (int si = 0; si < scores.length; si++) {
+				if (scores[si] == 0) continue;
+				MatrixOps.rowPlusEquals (batchExpectations, numFeatures,
+						si, fv, instanceWeight * scores[si]);
+				batchExpectations[numFeatures*si + defaultFeatureIndex] += instanceWeight * scores[si];
+			}
+		}
+		if (numInfValue > 0)
+			logger.warning("Batch: " + batchIndex + ", skipped " + numInfValue +
+					" instances with infinite or NaN value");
+		return value;
+	}
+
+	/**
+	 * Returns the log probability of the labels of a batch of training data, if last
+	 * batch then incorporate the prior on parameters as well.
+	 */
+	public double getBatchValue (int batchIndex, int[] batchAssignments)
+	{
+		assert (batchIndex < this.numBatches) : "Incorrect batch index: " + batchIndex + ", range(0, " +
+			this.numBatches + ")";
+		assert (batchAssignments.length == 2 && batchAssignments[0] <= batchAssignments[1])
+			: "Invalid batch assignments: " + Arrays.toString(batchAssignments);
+
+		double value = getExpectationValue(batchIndex, batchAssignments);
+
+		if (batchIndex == numBatches-1) {
+			double prior = 0;
+			if (usingHyperbolicPrior) {
+				for (int pi = 0; pi < parameters.length; pi++)
+					prior += (hyperbolicPriorSlope / hyperbolicPriorSharpness
+							* Math.log (Maths.cosh (hyperbolicPriorSharpness * parameters[pi])));
+			}
+			else if (usingGaussianPrior) {
+				for (int pi = 0; pi < parameters.length; pi++)
+					prior += parameters[pi] * parameters[pi] / (2 * gaussianPriorVariance);
+			}
+			value -= prior;
+		}
+		cachedValue[batchIndex] = value;
+		return value;
+	}
+
+	public void getBatchValueGradient (double[] buffer, int batchIndex, int[] batchAssignments)
+	{
+		assert (batchIndex < this.numBatches) : "Incorrect batch index: " + batchIndex + ", range(0, " +
+			this.numBatches + ")";
+		assert (batchAssignments.length == 2 && batchAssignments[0] <= batchAssignments[1])
+			: "Invalid batch assignments: " + Arrays.toString(batchAssignments);
+
+		double[] batchExpectations = expectations.get(batchIndex);
+
+		if (batchIndex == numBatches-1) {
+			// factor the constraints and the prior into the expectations of last batch
+			// Gradient = (constraints - expectations - prior) = -(expectations - constraints + prior)
+			// The minus sign is factored in combineGradients method after all gradients are computed
+			MatrixOps.plusEquals (batchExpectations, constraints, -1.0);
+			if (usingHyperbolicPrior) {
+				// d/dp slope/sharpness * log(cosh(sharpness * p)) = slope * tanh(sharpness * p)
+				for (int pi = 0; pi < parameters.length; pi++)
+					batchExpectations[pi] += hyperbolicPriorSlope
+							* Maths.tanh (hyperbolicPriorSharpness * parameters[pi]);
+			}
+			else if (usingGaussianPrior) {
+				MatrixOps.plusEquals (batchExpectations, parameters, 1.0 / gaussianPriorVariance);
+			}
+		}
+		System.arraycopy (batchExpectations, 0, buffer, 0, batchExpectations.length);
+	}
+
+	/**
+	 * Adds gradients from all batches. <p>
+	 * <b>Note:</b> assumes buffer is already initialized.
+	 */
+	public void combineGradients (Collection<double[]> batchGradients, double[] buffer)
+	{
+		assert (buffer.length == parameters.length)
+			: "Incorrect buffer length: " + buffer.length + ", expected: " + parameters.length;
+
+		Arrays.fill (buffer, 0);
+		for (double[] gradient : batchGradients)
+			MatrixOps.plusEquals (buffer, gradient);
+		// -(...) from getBatchValueGradient
+		MatrixOps.timesEquals (buffer, -1.0);
+
+		// A parameter may be set to -infinity by an external user.
+		// We set gradient to 0 because the parameter's value can
+		// never change anyway and it will mess up future calculations
+		// on the matrix, such as norm().
+		MatrixOps.substitute (buffer, Double.NEGATIVE_INFINITY, 0.0);
+		// Set to zero all the gradient dimensions that are not among the selected features
+		if (perLabelFeatureSelection == null) {
+			for (int labelIndex = 0; labelIndex < numLabels; labelIndex++)
+				MatrixOps.rowSetAll (buffer, numFeatures,
+						labelIndex, 0.0, featureSelection, false);
+		} else {
+			for (int labelIndex = 0; labelIndex < numLabels; labelIndex++)
+				MatrixOps.rowSetAll (buffer, numFeatures,
+						labelIndex, 0.0,
+						perLabelFeatureSelection[labelIndex], false);
+		}
+	}
+
+	public int getNumBatches () { return numBatches; }
+
+	public int getNumParameters () { return parameters.length; }
+
+	public double getParameter (int index) {
+		return parameters[index];
+	}
+
+	public void setParameter (int index, double v) {
+		parameters[index] = v;
+		parametersChangeStamp++;
+		theClassifier.parametersChanged ();
+	}
+
+	public void getParameters (double[] buff) {
+		System.arraycopy (parameters, 0, buff, 0, parameters.length);
+	}
+
+	public void setParameters (double[] buff) {
+		assert (buff != null && buff.length == parameters.length);
+		System.arraycopy (buff, 0, parameters, 0, buff.length);
+		parametersChangeStamp++;
+		theClassifier.parametersChanged ();
+	}
+
+	public MaxEntOptimizableByBatchLabelLikelihood useGaussianPrior () {
+		this.usingGaussianPrior = true;
+		this.usingHyperbolicPrior = false;
+		return this;
+	}
+
+	public MaxEntOptimizableByBatchLabelLikelihood useHyperbolicPrior () {
+		this.usingGaussianPrior = false;
+		this.usingHyperbolicPrior = true;
+		return this;
+	}
+
+	/**
+	 *  In some cases a prior term is implemented in the optimizer,
+	 *  (eg orthant-wise L-BFGS), so we occasionally want to only
+	 *   calculate the log likelihood.
+	 */
+	public MaxEntOptimizableByBatchLabelLikelihood useNoPrior () {
+		this.usingGaussianPrior = false;
+		this.usingHyperbolicPrior = false;
+		return this;
+	}
+
+	public MaxEntOptimizableByBatchLabelLikelihood setGaussianPriorVariance (double gaussianPriorVariance) {
+		this.usingGaussianPrior = true;
+		this.usingHyperbolicPrior = false;
+		this.gaussianPriorVariance = gaussianPriorVariance;
+		return this;
+	}
+
+	public MaxEntOptimizableByBatchLabelLikelihood setHyperbolicPriorSlope (double hyperbolicPriorSlope) {
+		this.usingGaussianPrior = false;
+		this.usingHyperbolicPrior = true;
+		this.hyperbolicPriorSlope = hyperbolicPriorSlope;
+		return this;
+	}
+
+	public MaxEntOptimizableByBatchLabelLikelihood setHyperbolicPriorSharpness (double hyperbolicPriorSharpness) {
+		this.usingGaussianPrior = false;
+		this.usingHyperbolicPrior = true;
+		this.hyperbolicPriorSharpness = hyperbolicPriorSharpness;
+		return this;
+	}
+
+	private static final long serialVersionUID = 1;
+	private static final int CURRENT_SERIAL_VERSION = 0;
+
+	private void writeObject (ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject ();
+		out.writeInt (CURRENT_SERIAL_VERSION);
+	}
+
+	private void readObject (ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject ();
+		in.readInt ();
+	}
+
+	public static class Factory {
+		public Optimizable.ByCombiningBatchGradient newMaxEntOptimizable (InstanceList trainingData, MaxEnt initialClassifier, int numBatches) {
+			return new MaxEntOptimizableByBatchLabelLikelihood (trainingData, initialClassifier, numBatches);
+		}
+	}
+}
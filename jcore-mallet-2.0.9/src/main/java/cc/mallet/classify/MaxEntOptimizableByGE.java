@@ -245,11 +245,13 @@ public class MaxEntOptimizableByGE implements Optimizable.ByGradientValue {
   public void setParameter(int index, double value) {
     cacheStale = true;
     parameters[index] = value;
+    classifier.parametersChanged();
   }
 
   public void setParameters(double[] params) {
     assert(params.length == parameters.length);
     cacheStale = true;
     System.arraycopy (params, 0, parameters, 0, parameters.length);
+    classifier.parametersChanged();
   }
 }
\ No newline at end of file
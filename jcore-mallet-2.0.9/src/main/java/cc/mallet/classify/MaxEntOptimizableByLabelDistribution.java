@@ -144,6 +144,7 @@ public class MaxEntOptimizableByLabelDistribution implements Optimizable.ByGradi
 		cachedValueStale = true;
 		cachedGradientStale = true;
 		parameters[index] = v;
+		theClassifier.parametersChanged ();
 	}
 
 	public int getNumParameters() {
@@ -163,6 +164,7 @@ public class MaxEntOptimizableByLabelDistribution implements Optimizable.ByGradi
 		if (buff.length != parameters.length)
 			parameters = new double[buff.length];
 		System.arraycopy (buff, 0, parameters, 0, buff.length);
+		theClassifier.parametersChanged ();
 	}
 
 
@@ -138,6 +138,7 @@ public class MaxEntOptimizableByLabelLikelihood implements Optimizable.ByGradien
 		cachedValueStale = true;
 		cachedGradientStale = true;
 		parameters[index] = v;
+		theClassifier.parametersChanged ();
 	}
 
 	public int getNumParameters() {
@@ -157,6 +158,7 @@ public class MaxEntOptimizableByLabelLikelihood implements Optimizable.ByGradien
 		if (buff.length != parameters.length)
 			parameters = new double[buff.length];
 		System.arraycopy (buff, 0, parameters, 0, buff.length);
+		theClassifier.parametersChanged ();
 	}
 
 
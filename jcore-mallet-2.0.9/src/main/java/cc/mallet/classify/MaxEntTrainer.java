@@ -446,8 +446,8 @@ public class MaxEntTrainer extends ClassifierTrainer<MaxEnt>
 					}
 			}
 
-			maxent.parameters = newParameters;
 			maxent.defaultFeatureIndex = inputAlphabet.size();
+			maxent.setParameters (newParameters);
 		}
 
 		// Finished feature induction
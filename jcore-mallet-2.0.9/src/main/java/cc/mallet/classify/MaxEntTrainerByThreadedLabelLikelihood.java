@@ -0,0 +1,243 @@
+package cc.mallet.classify;
+
+import java.util.logging.Logger;
+
+import cc.mallet.fst.CacheStaleIndicator;
+import cc.mallet.fst.ThreadedOptimizable;
+import cc.mallet.optimize.InvalidOptimizableException;
+import cc.mallet.optimize.LimitedMemoryBFGS;
+import cc.mallet.optimize.OptimizationException;
+import cc.mallet.optimize.Optimizer;
+import cc.mallet.types.Alphabet;
+import cc.mallet.types.InstanceList;
+import cc.mallet.util.MalletLogger;
+import cc.mallet.util.MalletProgressMessageLogger;
+
+/**
+ * Multi-threaded version of the MaxEnt trainer by label likelihood.  The training
+ * instances are split into one contiguous batch per thread; each thread accumulates
+ * the value and the expectations of its batch into arrays of its own, and the
+ * gradients of the batches are added up once all threads have finished.  The
+ * trained classifier is the same as that of <tt>MaxEntTrainer</tt> with a Gaussian
+ * prior, up to the rounding of the sums.
+ * <p>
+ * L1 regularization and feature induction are not supported by this trainer.  Call
+ * {@link #shutdown} after training to stop the threads.
+ *
+ * @see MaxEntOptimizableByBatchLabelLikelihood
+ */
+public class MaxEntTrainerByThreadedLabelLikelihood extends ClassifierTrainer<MaxEnt>
+	implements ClassifierTrainer.ByOptimization<MaxEnt> {
+
+	private static Logger logger = MalletLogger.getLogger(MaxEntTrainerByThreadedLabelLikelihood.class.getName());
+	private static Logger progressLogger = MalletProgressMessageLogger.getLogger(MaxEntTrainerByThreadedLabelLikelihood.class.getName()+"-pl");
+
+	static final double DEFAULT_GAUSSIAN_PRIOR_VARIANCE = 1;
+
+	int numThreads;
+	int numIterations = Integer.MAX_VALUE;
+	double gaussianPriorVariance = DEFAULT_GAUSSIAN_PRIOR_VARIANCE;
+
+	InstanceList trainingSet = null;
+	MaxEnt initialClassifier;
+
+	MaxEntOptimizableByBatchLabelLikelihood optimizable = null;
+	ThreadedOptimizable threadedOptimizable = null;
+	Optimizer optimizer = null;
+
+	public MaxEntTrainerByThreadedLabelLikelihood (int numThreads) {
+		assert (numThreads > 0) : "Invalid number of threads: " + numThreads;
+		this.numThreads = numThreads;
+	}
+
+	/** Construct a trainer using a trained classifier as initial values. */
+	public MaxEntTrainerByThreadedLabelLikelihood (MaxEnt theClassifierToTrain, int numThreads) {
+		this (numThreads);
+		this.initialClassifier = theClassifierToTrain;
+	}
+
+	public MaxEnt getClassifier () {
+		if (optimizable != null)
+			return optimizable.getClassifier();
+		return initialClassifier;
+	}
+
+	/**
+	 *  Initialize parameters using the provided classifier.
+	 */
+	public void setClassifier (MaxEnt theClassifierToTrain) {
+		assert (trainingSet == null || Alphabet.alphabetsMatch(theClassifierToTrain, trainingSet));
+		if (this.initialClassifier != theClassifierToTrain) {
+			shutdown();
+			this.initialClassifier = theClassifierToTrain;
+			optimizable = null;
+			optimizer = null;
+		}
+	}
+
+	public int getNumThreads () { return numThreads; }
+
+	public MaxEntOptimizableByBatchLabelLikelihood getOptimizable () {
+		return optimizable;
+	}
+
+	public MaxEntOptimizableByBatchLabelLikelihood getOptimizable (InstanceList trainingSet) {
+		if (optimizable == null || optimizable.trainingList != trainingSet) {
+			shutdown();
+			this.trainingSet = trainingSet;
+			optimizable = new MaxEntOptimizableByBatchLabelLikelihood (trainingSet, getClassifier(), numThreads);
+			optimizable.setGaussianPriorVariance(gaussianPriorVariance);
+			threadedOptimizable = new ThreadedOptimizable (optimizable, trainingSet,
+					optimizable.getNumParameters(), new ParametersCacheStaleIndicator(optimizable));
+			optimizer = null;
+		}
+		return optimizable;
+	}
+
+	public Optimizer getOptimizer () {
+		return optimizer;
+	}
+
+	/** This method is called by the train method. */
+	public Optimizer getOptimizer (InstanceList trainingSet) {
+		getOptimizable(trainingSet);
+		if (optimizer == null)
+			optimizer = new LimitedMemoryBFGS(threadedOptimizable);
+		return optimizer;
+	}
+
+	/**
+	 * Shuts down the threads computing the values and gradients.  They are started
+	 * again by the next call to <code>train</code>, which continues from the
+	 * classifier trained so far.
+	 */
+	public void shutdown () {
+		if (threadedOptimizable != null) {
+			threadedOptimizable.shutdown();
+			initialClassifier = optimizable.getClassifier();
+			threadedOptimizable = null;
+			optimizable = null;
+			optimizer = null;
+		}
+	}
+
+	/**
+	 * Specifies the maximum number of iterations to run during a single call
+	 * to <code>train</code>.
+	 * @return This trainer
+	 */
+	public MaxEntTrainerByThreadedLabelLikelihood setNumIterations (int i) {
+		numIterations = i;
+		return this;
+	}
+
+	public int getIteration () {
+		if (optimizable == null)
+			return 0;
+		else
+			return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Sets a parameter to prevent overtraining.  A smaller variance for the prior
+	 * means that feature weights are expected to hover closer to 0, so extra
+	 * evidence is required to set a higher weight.
+	 * @return This trainer
+	 */
+	public MaxEntTrainerByThreadedLabelLikelihood setGaussianPriorVariance (double gaussianPriorVariance) {
+		this.gaussianPriorVariance = gaussianPriorVariance;
+		return this;
+	}
+
+	public MaxEnt train (InstanceList trainingSet) {
+		return train (trainingSet, numIterations);
+	}
+
+	public MaxEnt train (InstanceList trainingSet, int numIterations)
+	{
+		logger.fine ("trainingSet.size() = "+trainingSet.size());
+		getOptimizer (trainingSet);  // This will set this.optimizer, this.optimizable
+
+		for (int i = 0; i < numIterations; i++) {
+			try {
+				finishedTraining = optimizer.optimize (1);
+			} catch (InvalidOptimizableException e) {
+				e.printStackTrace();
+				logger.warning("Catching InvalidOptimizatinException! saying converged.");
+				finishedTraining = true;
+			} catch (OptimizationException e) {
+				e.printStackTrace();
+				logger.info ("Catching OptimizationException; saying converged.");
+				finishedTraining = true;
+			}
+			if (finishedTraining)
+				break;
+		}
+
+		// only if any number of iterations is allowed
+		if (numIterations == Integer.MAX_VALUE) {
+			// Run it again because BFGS can still eke out more likelihood after
+			// first convergence by re-running without its gradient history.
+			optimizer = null;
+			getOptimizer(trainingSet);
+			try {
+				finishedTraining = optimizer.optimize ();
+			} catch (InvalidOptimizableException e) {
+				e.printStackTrace();
+				logger.warning("Catching InvalidOptimizatinException! saying converged.");
+				finishedTraining = true;
+			} catch (OptimizationException e) {
+				e.printStackTrace();
+				logger.info ("Catching OptimizationException; saying converged.");
+				finishedTraining = true;
+			}
+		}
+		progressLogger.info("\n"); //  progress messages are on one line; move on.
+		return optimizable.getClassifier();
+	}
+
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+
+		builder.append("MaxEntTrainerByThreadedLabelLikelihood");
+		builder.append(",numThreads=" + numThreads);
+		if (numIterations < Integer.MAX_VALUE) {
+			builder.append(",numIterations=" + numIterations);
+		}
+		builder.append(",gaussianPriorVariance=" + gaussianPriorVariance);
+
+		return builder.toString();
+	}
+
+	/**
+	 * Indicates when the value/gradient becomes stale based on updates to the
+	 * optimizable's parameters.
+	 */
+	static class ParametersCacheStaleIndicator implements CacheStaleIndicator {
+		MaxEntOptimizableByBatchLabelLikelihood optimizable;
+		int cachedValueChangeStamp = -1;
+		int cachedGradientChangeStamp = -1;
+
+		ParametersCacheStaleIndicator (MaxEntOptimizableByBatchLabelLikelihood optimizable) {
+			this.optimizable = optimizable;
+		}
+
+		public boolean isValueStale() {
+			int stamp = optimizable.parametersChangeStamp;
+			if (stamp != cachedValueChangeStamp) {
+				cachedValueChangeStamp = stamp;
+				return true;
+			}
+			return false;
+		}
+
+		public boolean isGradientStale() {
+			int stamp = optimizable.parametersChangeStamp;
+			if (stamp != cachedGradientChangeStamp) {
+				cachedGradientChangeStamp = stamp;
+				return true;
+			}
+			return false;
+		}
+	}
+}
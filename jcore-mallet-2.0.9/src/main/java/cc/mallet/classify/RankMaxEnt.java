@@ -16,6 +16,8 @@ package cc.mallet.classify;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
 
 import cc.mallet.pipe.Pipe;
 import cc.mallet.types.Alphabet;
@@ -158,6 +160,19 @@ public class RankMaxEnt extends MaxEnt
 		for (int li = 0; li < scores.length; li++) 
 			scores[li] /= sum;		
 	}
+	/** Classifies sequentially, as classifying may add labels to the label alphabet. */
+	public ArrayList<Classification> classify (InstanceList instances, ExecutorService executor,
+			int numParts)
+	{
+		return super.classify (instances, null, 1);
+	}
+
+	protected Classification classify (Instance instance, double[] scores)
+	{
+		// the number of scores depends on the instance
+		return classify (instance);
+	}
+
 	public Classification classify (Instance instance)
 	{
 		FeatureVectorSequence fvs = (FeatureVectorSequence) instance.getData();
@@ -0,0 +1,388 @@
+package cc.mallet.fst;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+import cc.mallet.types.ArraySequence;
+import cc.mallet.types.FeatureVector;
+import cc.mallet.types.FeatureVectorSequence;
+import cc.mallet.types.Sequence;
+
+import cc.mallet.fst.Transducer.State;
+
+import cc.mallet.util.MalletLogger;
+
+/**
+ * First-best Viterbi decoding for a <tt>CRF</tt> on primitive arrays. <p>
+ *
+ * <tt>MaxLatticeDefault</tt> works on any transducer: it creates a node object for
+ * every (position, state) cell of the lattice and a transition iterator, with its own
+ * array of weights, for every state at every position.  This lattice instead flattens
+ * the transitions of the CRF once and decodes on the <tt>double[]</tt> and
+ * <tt>int[]</tt> buffers of a {@link Workspace}, which can be reused for any number of
+ * sequences.  At every position, the dot product of each weight vector with the
+ * feature vector is computed once and shared by all transitions using it.  The best
+ * path and its weight equal those of <tt>MaxLatticeDefault</tt>. <p>
+ *
+ * Only the best sequence is available; n-best decoding requires
+ * <tt>MaxLatticeDefault</tt>.  A lattice copies its best path out of the workspace, but
+ * {@link #getDelta} reads the workspace and so fails once the workspace has decoded
+ * another sequence.  The {@link Factory} keeps one workspace per thread; set it with
+ * {@link Transducer#setMaxLatticeFactory} to have <tt>Transducer.transduce</tt> use it.
+ *
+ * @see MaxLatticeDefault
+ */
+public class CRFMaxLattice implements MaxLattice
+{
+	private static Logger logger = MalletLogger.getLogger(CRFMaxLattice.class.getName());
+
+	private CRF crf;
+	private Sequence input, providedOutput;
+	private int latticeLength;
+	private Workspace workspace;
+	private int decoding;
+	// the best path: the state at each lattice position, the output of each transition
+	private int[] bestStates;
+	private Object[] bestOutputs;
+	private double bestWeight = Transducer.IMPOSSIBLE_WEIGHT;
+
+	public CRFMaxLattice (CRF crf, Sequence inputSequence)
+	{
+		this (crf, inputSequence, null, new Workspace ());
+	}
+
+	public CRFMaxLattice (CRF crf, Sequence inputSequence, Sequence outputSequence)
+	{
+		this (crf, inputSequence, outputSequence, new Workspace ());
+	}
+
+	/** Decodes the inputSequence, constrained to match non-null parts of the outputSequence,
+	 * in the buffers of the given workspace. */
+	public CRFMaxLattice (CRF crf, Sequence inputSequence, Sequence outputSequence, Workspace workspace)
+	{
+		assert (inputSequence != null);
+		if (inputSequence.size() > 0 && !(inputSequence instanceof FeatureVectorSequence))
+			throw new UnsupportedOperationException ("CRFs are not generative models; must have a FeatureVectorSequence input.");
+		this.crf = crf;
+		this.input = inputSequence;
+		this.providedOutput = outputSequence;
+		this.latticeLength = inputSequence.size() + 1;
+		this.workspace = workspace;
+		this.decoding = workspace.decode (this);
+	}
+
+	public Transducer getTransducer () { return crf; }
+	public Sequence getInput () { return input; }
+	public Sequence getProvidedOutput () { return providedOutput; }
+
+	/**
+	 * Returns the weight of the best path from an initial state to the given state at the
+	 * given position, read from the workspace.
+	 *
+	 * @throws IllegalStateException if the workspace has decoded another sequence since
+	 */
+	public double getDelta (int ip, int stateIndex) {
+		if (workspace.decodings != decoding)
+			throw new IllegalStateException ("Attempt to call getDelta() after the workspace decoded another sequence.");
+		return workspace.delta[ip * workspace.numStates + stateIndex];
+	}
+
+	/**
+	 * Returns the weight of the best path.  As in <tt>MaxLatticeDefault.bestWeight()</tt>, this
+	 * is the sum of the weights of its transitions, without the initial and final weights that
+	 * are included in its delta at the last position.
+	 */
+	public double bestWeight () {
+		checkPath ();
+		return bestWeight;
+	}
+
+	private void checkPath () {
+		if (bestStates == null)
+			throw new IllegalStateException ("No path through the lattice reaches a final state.");
+	}
+
+	/**
+	 * Returns the best sequence of States.  Its length is inputLength+1, because the
+	 * first element is the start state.
+	 */
+	public Sequence<State> bestStateSequence () {
+		checkPath ();
+		State[] ss = new State[latticeLength];
+		for (int j = 0; j < latticeLength; j++)
+			ss[j] = crf.getState (bestStates[j]);
+		return new ArraySequence<State>(ss, false);
+	}
+
+	public List<Sequence<State>> bestStateSequences (int n) {
+		if (n != 1)
+			throw new UnsupportedOperationException ("Only the best sequence is available; use MaxLatticeDefault for n-best.");
+		List<Sequence<State>> ret = new ArrayList<Sequence<State>>(1);
+		ret.add (bestStateSequence());
+		return ret;
+	}
+
+	public Sequence<Object> bestOutputSequence () {
+		checkPath ();
+		return new ArraySequence<Object>(bestOutputs, true);
+	}
+
+	public List<Sequence<Object>> bestOutputSequences (int n) {
+		if (n != 1)
+			throw new UnsupportedOperationException ("Only the best sequence is available; use MaxLatticeDefault for n-best.");
+		List<Sequence<Object>> ret = new ArrayList<Sequence<Object>>(1);
+		ret.add (bestOutputSequence());
+		return ret;
+	}
+
+	public double elementwiseAccuracy (Sequence referenceOutput)
+	{
+		int accuracy = 0;
+		Sequence output = bestOutputSequence();
+		assert (referenceOutput.size() == output.size());
+		for (int i = 0; i < output.size(); i++) {
+			if (referenceOutput.get(i).toString().equals (output.get(i).toString())) {
+				accuracy++;
+			}
+		}
+		logger.info ("Number correct: " + accuracy + " out of " + output.size());
+		return ((double)accuracy)/output.size();
+	}
+
+	/**
+	 * The reusable buffers of the Viterbi recursion, together with the transitions of the
+	 * last decoded CRF flattened into arrays.  The buffers grow to the longest sequence
+	 * and the largest CRF decoded so far and are never shrunk. <p>
+	 *
+	 * A workspace is not thread-safe; use one per thread.
+	 */
+	public static class Workspace
+	{
+		// the flattened transitions, rebuilt when the CRF or its structure changes
+		CRF crf;
+		int structureStamp;
+		int numStates;
+		int[] firstTransition;     // transitions of state i are firstTransition[i] .. firstTransition[i+1]-1
+		int[] transitionDestinations;
+		String[] transitionLabels;
+		int[] firstWeights;        // weights indices of transition t are firstWeights[t] .. firstWeights[t+1]-1
+		int[] weightsIndices;
+
+		// per position
+		double[] weightsDotProducts = new double[0];
+		int[] weightsComputed = new int[0];
+		int position = 0;
+
+		// per lattice cell, indexed by position*numStates + state
+		double[] delta = new double[0];
+		int[] backPointers = new int[0];
+		int[] enteringTransitions = new int[0];
+
+		int decodings = 0;
+
+		private void compile (CRF crf)
+		{
+			if (this.crf == crf && structureStamp == crf.weightsStructureChangeStamp)
+				return;
+			this.crf = crf;
+			structureStamp = crf.weightsStructureChangeStamp;
+			numStates = crf.numStates();
+			int numTransitions = 0, numWeights = 0;
+			for (int i = 0; i < numStates; i++) {
+				CRF.State s = (CRF.State) crf.getState(i);
+				numTransitions += s.destinationNames.length;
+				for (int t = 0; t < s.weightsIndices.length; t++)
+					numWeights += s.weightsIndices[t].length;
+			}
+			firstTransition = new int[numStates+1];
+			transitionDestinations = new int[numTransitions];
+			transitionLabels = new String[numTransitions];
+			firstWeights = new int[numTransitions+1];
+			weightsIndices = new int[numWeights];
+			int t = 0, w = 0;
+			for (int i = 0; i < numStates; i++) {
+				CRF.State s = (CRF.State) crf.getState(i);
+				firstTransition[i] = t;
+				for (int j = 0; j < s.destinationNames.length; j++) {
+					transitionDestinations[t] = s.getDestinationState(j).getIndex();
+					transitionLabels[t] = s.labels[j];
+					firstWeights[t] = w;
+					for (int k = 0; k < s.weightsIndices[j].length; k++)
+						weightsIndices[w++] = s.weightsIndices[j][k];
+					t++;
+				}
+			}
+			firstTransition[numStates] = t;
+			firstWeights[numTransitions] = w;
+		}
+
+		private void ensureCapacity (int latticeLength)
+		{
+			int numWeightVectors = crf.parameters.weights.length;
+			if (weightsDotProducts.length < numWeightVectors) {
+				weightsDotProducts = new double[numWeightVectors];
+				weightsComputed = new int[numWeightVectors];
+				position = 0;
+			}
+			int numCells = latticeLength * numStates;
+			if (delta.length < numCells) {
+				numCells = Math.max (numCells, 2 * delta.length);
+				delta = new double[numCells];
+				backPointers = new int[numCells];
+				enteringTransitions = new int[numCells];
+			}
+		}
+
+		/** Returns the weight of a transition on the feature vector of the current position. */
+		private double transitionWeight (int transition, FeatureVector fv)
+		{
+			double weight = 0;
+			for (int k = firstWeights[transition]; k < firstWeights[transition+1]; k++) {
+				int swi = weightsIndices[k];
+				if (weightsComputed[swi] != position) {
+					// Here is the dot product of the feature weights with the lambda weights
+					// include with implicit weight 1.0 the default feature
+					weightsDotProducts[swi] = crf.parameters.weights[swi].dotProduct (fv)
+						+ crf.parameters.defaultWeights[swi];
+					weightsComputed[swi] = position;
+				}
+				weight += weightsDotProducts[swi];
+			}
+			assert (!Double.isNaN(weight));
+			assert (weight != Double.POSITIVE_INFINITY);
+			return weight;
+		}
+
+		/** Runs Viterbi for the lattice, fills in its best path and returns the number of this decoding. */
+		private int decode (CRFMaxLattice lattice)
+		{
+			CRF crf = lattice.crf;
+			compile (crf);
+			int latticeLength = lattice.latticeLength;
+			ensureCapacity (latticeLength);
+			int numStates = this.numStates;
+			double[] delta = this.delta;
+			int[] backPointers = this.backPointers;
+			int[] enteringTransitions = this.enteringTransitions;
+			Arrays.fill (delta, 0, latticeLength * numStates, Transducer.IMPOSSIBLE_WEIGHT);
+
+			boolean anyInitialState = false;
+			for (int i = 0; i < numStates; i++) {
+				double initialWeight = crf.parameters.initialWeights[i];
+				if (initialWeight > Transducer.IMPOSSIBLE_WEIGHT) {
+					delta[i] = initialWeight;
+					anyInitialState = true;
+				}
+			}
+			if (!anyInitialState) {
+				logger.warning ("Viterbi: No initial states!");
+			}
+
+			Sequence input = lattice.input;
+			for (int ip = 0; ip < latticeLength-1; ip++) {
+				FeatureVector fv = (FeatureVector) input.get(ip);
+				String output = lattice.providedOutput == null ? null : (String) lattice.providedOutput.get(ip);
+				// a new position invalidates the cached dot products
+				if (++position == 0)
+					Arrays.fill (weightsComputed, -1);
+				int from = ip * numStates, to = from + numStates;
+				boolean last = ip == latticeLength-2;
+				for (int i = 0; i < numStates; i++) {
+					double sourceDelta = delta[from + i];
+					if (sourceDelta == Transducer.IMPOSSIBLE_WEIGHT)
+						continue;
+					for (int t = firstTransition[i]; t < firstTransition[i+1]; t++) {
+						if (output != null && !output.equals (transitionLabels[t]))
+							continue;
+						int d = transitionDestinations[t];
+						double weight = transitionWeight (t, fv);
+						if (weight == Transducer.IMPOSSIBLE_WEIGHT)
+							continue;
+						weight += sourceDelta;
+						if (last)
+							weight += crf.parameters.finalWeights[d];
+						// as in MaxLatticeDefault, a node's output is that of the last transition visited
+						enteringTransitions[to + d] = t;
+						if (weight > delta[to + d]) {
+							delta[to + d] = weight;
+							backPointers[to + d] = i;
+						}
+					}
+				}
+			}
+
+			// Viterbi backward, from the best final state
+			int from = (latticeLength-1) * numStates;
+			int best = -1;
+			for (int i = 0; i < numStates; i++)
+				if (delta[from + i] > Transducer.IMPOSSIBLE_WEIGHT && (best < 0 || delta[from + i] > delta[from + best]))
+					best = i;
+			if (best >= 0) {
+				int[] states = new int[latticeLength];
+				Object[] outputs = new Object[latticeLength-1];
+				double weight = delta[from + best];
+				for (int ip = latticeLength-1; ip >= 0; ip--) {
+					states[ip] = best;
+					if (ip > 0) {
+						outputs[ip-1] = transitionLabels[enteringTransitions[ip * numStates + best]];
+						best = backPointers[ip * numStates + best];
+					}
+				}
+				// the weight of the transitions only, as in MaxLatticeDefault
+				weight -= crf.parameters.initialWeights[states[0]];
+				if (latticeLength > 1)
+					weight -= crf.parameters.finalWeights[states[latticeLength-1]];
+				lattice.bestWeight = weight;
+				lattice.bestStates = states;
+				lattice.bestOutputs = outputs;
+			}
+			return ++decodings;
+		}
+	}
+
+	/**
+	 * Creates <tt>CRFMaxLattice</tt>s decoding in one reused workspace per thread.  Other
+	 * transducers than CRFs are decoded by <tt>MaxLatticeDefault</tt>.
+	 */
+	public static class Factory extends MaxLatticeFactory implements Serializable
+	{
+		private transient volatile ThreadLocal<Workspace> workspaces;
+
+		private Workspace getWorkspace ()
+		{
+			if (workspaces == null) {
+				synchronized (this) {
+					if (workspaces == null)
+						workspaces = new ThreadLocal<Workspace>() {
+							protected Workspace initialValue () { return new Workspace (); }
+						};
+				}
+			}
+			return workspaces.get();
+		}
+
+		public MaxLattice newMaxLattice (Transducer trans, Sequence inputSequence, Sequence outputSequence)
+		{
+			if (!(trans instanceof CRF))
+				return new MaxLatticeDefault (trans, inputSequence, outputSequence);
+			return new CRFMaxLattice ((CRF) trans, inputSequence, outputSequence, getWorkspace());
+		}
+
+		private static final long serialVersionUID = 1;
+		private static final int CURRENT_SERIAL_VERSION = 0;
+
+		private void writeObject(ObjectOutputStream out) throws IOException {
+			out.writeInt(CURRENT_SERIAL_VERSION);
+		}
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			in.readInt();
+		}
+	}
+}
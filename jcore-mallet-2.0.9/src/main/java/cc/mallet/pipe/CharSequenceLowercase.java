@@ -18,6 +18,10 @@ import cc.mallet.types.Instance;
 
 public class CharSequenceLowercase extends Pipe implements Serializable {
 	
+	public boolean isThreadSafe () {
+		return true;
+	}
+
 	public Instance pipe (Instance carrier) {
 
 		if (carrier.getData() instanceof CharSequence) {
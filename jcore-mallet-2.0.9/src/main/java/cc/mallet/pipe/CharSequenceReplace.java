@@ -38,6 +38,11 @@ public class CharSequenceReplace extends Pipe implements Serializable
 		this.replacement = replacement;
 	}
 
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		String string = ((CharSequence)carrier.getData()).toString();
@@ -40,6 +40,11 @@ public class FeatureSequence2FeatureVector extends Pipe implements Serializable
 	}
 	
 	
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		FeatureSequence fs = (FeatureSequence) carrier.getData();
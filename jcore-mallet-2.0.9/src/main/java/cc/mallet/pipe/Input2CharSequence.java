@@ -37,6 +37,11 @@ public class Input2CharSequence extends Pipe implements Serializable
 		this.encoding = encoding;
 	}
 
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		try {
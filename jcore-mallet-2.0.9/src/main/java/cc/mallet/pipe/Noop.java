@@ -39,6 +39,11 @@ public class Noop extends Pipe implements Serializable
 		super (dataDict, targetDict);
 	}
 	
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		return carrier;
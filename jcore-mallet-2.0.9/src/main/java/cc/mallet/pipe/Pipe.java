@@ -174,6 +174,22 @@ public abstract class Pipe implements Serializable, AlphabetCarrying
 			return results[0];
 	}
 
+	/** Return true iff this pipe may process several instances at the same time
+	 *  in different threads.  Such a pipe must process each instance on its own,
+	 *  and must not change any state of its own, or only in a thread-safe way,
+	 *  while it processes instances.
+	 *  <p>
+	 *  {@link cc.mallet.pipe.iterator.ParallelPipeIterator} runs the other pipes
+	 *  for one instance at a time, in the order of the instances, so that they
+	 *  see the same sequence of instances as in a single thread.  Pipes that add
+	 *  entries to an Alphabet should therefore not declare themselves thread-safe,
+	 *  so that the entries get the same indices in every run.
+	 *  By default, pipes are not thread-safe. */
+	public boolean isThreadSafe ()
+	{
+		return false;
+	}
+
 	/** Set whether input is taken from target field of instance during processing.
 	 *  If argument is false, don't expect to find input material for the target.
 	 *  By default, this is true. */
@@ -86,6 +86,15 @@ public class SerialPipes extends Pipe implements Serializable
 			p.setTargetProcessing (lookForAndProcessTarget);
 	}
 	
+	/** Returns true iff all pipes in this sequence are thread-safe. */
+	public boolean isThreadSafe ()
+	{
+		for (Pipe p : pipes)
+			if (!p.isThreadSafe())
+				return false;
+		return true;
+	}
+
 	public Iterator<Instance> newIteratorFrom (Iterator<Instance> source)
 	{
 		if (pipes.size() == 0)
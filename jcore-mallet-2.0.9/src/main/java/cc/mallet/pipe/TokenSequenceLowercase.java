@@ -24,6 +24,11 @@ import cc.mallet.types.TokenSequence;
 public class TokenSequenceLowercase extends Pipe implements Serializable
 {
 	
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		TokenSequence ts = (TokenSequence) carrier.getData();
@@ -35,6 +35,11 @@ public class TokenSequenceRemoveNonAlpha extends Pipe {
 		this (false);
 	}
 
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		TokenSequence ts = (TokenSequence) carrier.getData();
@@ -146,6 +146,11 @@ public class TokenSequenceRemoveStopwords extends Pipe implements Serializable
 		return (String[]) wordarray.toArray(new String[]{});
 	}
 	
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		TokenSequence ts = (TokenSequence) carrier.getData();
@@ -0,0 +1,201 @@
+package cc.mallet.pipe.iterator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import cc.mallet.pipe.Pipe;
+import cc.mallet.pipe.SerialPipes;
+import cc.mallet.types.Instance;
+
+/**
+ * Runs the instances of a source iterator through a {@link Pipe} in several
+ * threads, and returns the processed instances in the order of the source.
+ * <p>
+ * A {@link SerialPipes} is run pipe by pipe.  Pipes that are
+ * {@link Pipe#isThreadSafe thread-safe} process several instances at the same
+ * time; every other pipe processes one instance at a time, in the order of the
+ * source, as it would in a single thread.  So pipes that add to the data or
+ * target Alphabets assign the same indices as <code>Pipe.newIteratorFrom</code>,
+ * and the instances returned are the same, while the thread-safe pipes,
+ * typically the feature extraction, run in parallel.
+ * <p>
+ * Each pipe is given the instances that come from one source instance
+ * separately.  Pipes that combine several source instances into one are
+ * therefore not supported.
+ * <p>
+ * The source iterator is only used by the thread that calls <code>hasNext</code>
+ * and <code>next</code>.  The worker threads stop when the source is exhausted,
+ * or when {@link #shutdown} is called.
+ */
+public class ParallelPipeIterator implements Iterator<Instance>
+{
+	// The number of source instances in process per worker thread
+	private static final int INSTANCES_PER_THREAD = 8;
+
+	private final Iterator<Instance> source;
+	private final Pipe[] pipes;
+	// The order of the instances for each pipe that is not thread-safe, null otherwise
+	private final Turn[] turns;
+
+	private final ExecutorService executor;
+	private final int maxInProcess;
+	private final ArrayDeque<Future<List<Instance>>> inProcess;
+	private Iterator<Instance> ready = null;
+	private long numSubmitted = 0;
+
+	public ParallelPipeIterator (Pipe pipe, Iterator<Instance> source, int numThreads)
+	{
+		assert (numThreads > 0) : "Invalid number of threads: " + numThreads;
+		this.source = source;
+
+		List<Pipe> pipeList = new ArrayList<Pipe> ();
+		addPipes (pipe, pipeList);
+		pipes = pipeList.toArray (new Pipe[pipeList.size()]);
+		turns = new Turn[pipes.length];
+		for (int i = 0; i < pipes.length; i++)
+			if (!pipes[i].isThreadSafe())
+				turns[i] = new Turn ();
+
+		executor = Executors.newFixedThreadPool (numThreads, new ThreadFactory() {
+			public Thread newThread (Runnable r) {
+				// Do not keep the JVM alive for an iterator that is not read to the end
+				Thread thread = Executors.defaultThreadFactory().newThread (r);
+				thread.setDaemon (true);
+				return thread;
+			}
+		});
+		maxInProcess = numThreads * INSTANCES_PER_THREAD;
+		inProcess = new ArrayDeque<Future<List<Instance>>> (maxInProcess);
+	}
+
+	private static void addPipes (Pipe pipe, List<Pipe> pipeList)
+	{
+		if (pipe instanceof SerialPipes)
+			for (Pipe p : ((SerialPipes) pipe).pipes())
+				addPipes (p, pipeList);
+		else
+			pipeList.add (pipe);
+	}
+
+	public boolean hasNext ()
+	{
+		while (ready == null || !ready.hasNext()) {
+			while (inProcess.size() < maxInProcess && source.hasNext())
+				inProcess.add (executor.submit (new Task (source.next(), numSubmitted++)));
+			if (inProcess.isEmpty()) {
+				executor.shutdown ();
+				return false;
+			}
+			ready = results (inProcess.poll()).iterator();
+		}
+		return true;
+	}
+
+	public Instance next ()
+	{
+		if (!hasNext())
+			throw new NoSuchElementException ();
+		return ready.next();
+	}
+
+	public void remove ()
+	{
+		throw new IllegalStateException ("This iterator does not support remove().");
+	}
+
+	/** Stops the worker threads, without waiting for the instances in process. */
+	public void shutdown ()
+	{
+		executor.shutdownNow ();
+		inProcess.clear ();
+	}
+
+	private List<Instance> results (Future<List<Instance>> future)
+	{
+		try {
+			return future.get ();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			shutdown ();
+			throw new IllegalStateException ("Interrupted while piping instances", e);
+		} catch (ExecutionException e) {
+			shutdown ();
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw new IllegalStateException (e.getCause());
+		}
+	}
+
+	/** Lets the instances through one at a time, in the order of the source. */
+	private static class Turn
+	{
+		private long next = 0;
+
+		synchronized void await (long number) throws InterruptedException {
+			while (next != number)
+				wait ();
+		}
+
+		synchronized void pass () {
+			next++;
+			notifyAll ();
+		}
+	}
+
+	/** Pipes the instances from one source instance. */
+	private class Task implements Callable<List<Instance>>
+	{
+		final Instance instance;
+		final long number;
+
+		Task (Instance instance, long number) {
+			this.instance = instance;
+			this.number = number;
+		}
+
+		public List<Instance> call () throws Exception {
+			List<Instance> instances = new ArrayList<Instance> (1);
+			instances.add (instance);
+			RuntimeException exception = null;
+
+			for (int i = 0; i < pipes.length; i++) {
+				// Every task passes every turn, even without instances, so
+				//  that the tasks after it do not wait for it forever.
+				if (turns[i] != null)
+					turns[i].await (number);
+				try {
+					if (!instances.isEmpty() && exception == null)
+						instances = pipe (pipes[i], instances);
+				} catch (RuntimeException e) {
+					exception = e;
+				} finally {
+					if (turns[i] != null)
+						turns[i].pass ();
+				}
+			}
+
+			if (exception != null)
+				throw exception;
+			return instances;
+		}
+
+		private List<Instance> pipe (Pipe pipe, List<Instance> instances) {
+			Iterator<Instance> piped = pipe.newIteratorFrom (instances.iterator());
+			List<Instance> ret = new ArrayList<Instance> (instances.size());
+			while (piped.hasNext())
+				ret.add (piped.next());
+			return ret;
+		}
+	}
+}
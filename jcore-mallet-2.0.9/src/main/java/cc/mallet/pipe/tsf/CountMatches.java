@@ -53,6 +53,11 @@ public class CountMatches extends Pipe
 		this (featureName, regex, INTEGER_COUNT);
 	}
 	
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		TokenSequence ts = (TokenSequence) carrier.getData();
@@ -95,6 +95,11 @@ public class FeaturesInWindow extends Pipe implements Serializable
 		this (namePrefix, leftBoundaryOffset, rightBoundaryOffset, null, true);
 	}
 	
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		TokenSequence ts = (TokenSequence) carrier.getData();
@@ -18,6 +18,7 @@
 package cc.mallet.pipe.tsf;
 
 import java.io.*;
+import java.util.*;
 
 import cc.mallet.pipe.*;
 import cc.mallet.types.*;
@@ -25,14 +26,18 @@ import cc.mallet.types.*;
 public class LexiconMembership extends Pipe implements Serializable
 {
 	String name;
-	gnu.trove.THashSet lexicon;
+	TokenLexicon lexicon;
 	boolean ignoreCase;
 	
 	public LexiconMembership (String name, Reader lexiconReader, boolean ignoreCase)
 	{
-		this.name = name;
-		this.lexicon = new gnu.trove.THashSet ();
-		this.ignoreCase = ignoreCase;
+		this (name, new TokenLexicon (readWords (lexiconReader).iterator(), ignoreCase));
+	}
+
+	// Each line is a one-token phrase
+	private static List<String[]> readWords (Reader lexiconReader)
+	{
+		List<String[]> words = new ArrayList<String[]> ();
 		LineNumberReader reader = new LineNumberReader (lexiconReader);
 		String line;
 		while (true) {
@@ -44,10 +49,18 @@ public class LexiconMembership extends Pipe implements Serializable
 			if (line == null) {
 				break;
 			} else {
-			//	System.out.println(name + " : " + (ignoreCase ? line.toLowerCase().intern() : line.intern()) );
-				lexicon.add (ignoreCase ? line.toLowerCase() : line);
+				words.add (new String[] {line});
 			}
 		}
+		return words;
+	}
+
+	/** Marks the one-token phrases of a compiled lexicon, which may be shared with other pipes. */
+	public LexiconMembership (String name, TokenLexicon lexicon)
+	{
+		this.name = name;
+		this.lexicon = lexicon;
+		this.ignoreCase = lexicon.isIgnoreCase();
 		if (lexicon.size() == 0)
 			throw new IllegalArgumentException ("Empty lexicon");
 	}
@@ -67,6 +80,16 @@ public class LexiconMembership extends Pipe implements Serializable
 		this (lexiconFile.getName(), lexiconFile, true);
 	}
 	
+	public TokenLexicon getLexicon ()
+	{
+		return lexicon;
+	}
+
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		TokenSequence ts = (TokenSequence) carrier.getData();
@@ -79,10 +102,10 @@ public class LexiconMembership extends Pipe implements Serializable
 				conS = conS.substring(1);
 			if(conS.endsWith(")") || conS.endsWith("."))
 				conS = conS.substring(0, conS.length()-1);
-			if (lexicon.contains (ignoreCase ? s.toLowerCase() : s))
+			if (lexicon.contains (s))
 				t.setFeatureValue (name, 1.0);
 			if(conS.compareTo(s) != 0) {
-				if (lexicon.contains (ignoreCase ? conS.toLowerCase() : conS))
+				if (lexicon.contains (conS))
 					t.setFeatureValue (name, 1.0);
 			}
 		}
@@ -92,7 +115,7 @@ public class LexiconMembership extends Pipe implements Serializable
 	// Serialization 
 	
 	private static final long serialVersionUID = 1;
-	private static final int CURRENT_SERIAL_VERSION = 0;
+	private static final int CURRENT_SERIAL_VERSION = 1;
 	
 	private void writeObject (ObjectOutputStream out) throws IOException {
 		out.writeInt (CURRENT_SERIAL_VERSION);
@@ -104,8 +127,16 @@ public class LexiconMembership extends Pipe implements Serializable
 	private void readObject (ObjectInputStream in) throws IOException, ClassNotFoundException {
 		int version = in.readInt ();
 		this.name = (String) in.readObject();
-		this.lexicon = (gnu.trove.THashSet) in.readObject();
+		Object lexicon = in.readObject();
 		this.ignoreCase = in.readBoolean();
+		if (version == 0) {
+			// The words of a gnu.trove.THashSet, lowercased if case is ignored
+			List<String[]> words = new ArrayList<String[]> ();
+			for (Object word : (Collection) lexicon)
+				words.add (new String[] {(String) word});
+			this.lexicon = new TokenLexicon (words.iterator(), ignoreCase);
+		} else
+			this.lexicon = (TokenLexicon) lexicon;
 	}
 
 
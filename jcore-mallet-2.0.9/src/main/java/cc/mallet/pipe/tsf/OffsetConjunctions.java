@@ -69,6 +69,11 @@ public class OffsetConjunctions extends Pipe implements Serializable
 		this (true, conjunctions);
 	}
 	
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		TokenSequence ts = (TokenSequence) carrier.getData();
@@ -41,6 +41,11 @@ public class RegexMatches extends Pipe implements Serializable
   //}
 	
 
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		TokenSequence ts = (TokenSequence) carrier.getData();
@@ -0,0 +1,361 @@
+package cc.mallet.pipe.tsf;
+
+import java.io.*;
+import java.util.*;
+
+import cc.mallet.types.Token;
+import cc.mallet.types.TokenSequence;
+
+/**
+ * An immutable lexicon of phrases, each phrase a sequence of tokens, compiled
+ * for fast matching against a {@link TokenSequence}.
+ * <p>
+ * The distinct tokens of the lexicon are numbered and kept in an open-addressing
+ * hash table; the phrases form a trie over the token numbers, stored as two int
+ * arrays with the nodes in breadth-first order, so that the children of a node
+ * are consecutive and sorted by token number.  When case is ignored, tokens of
+ * ASCII characters are looked up without creating a lowercase copy.
+ * <p>
+ * A TokenLexicon does not change after it is built, so one instance can be
+ * shared by several pipes and threads.  It serializes the tables only.
+ */
+public class TokenLexicon implements Serializable
+{
+	// Whether String.toLowerCase() maps ASCII letters to ASCII letters in the default locale
+	private static final boolean ASCII_LOWERCASE =
+		"ABCDEFGHIJKLMNOPQRSTUVWXYZ".toLowerCase().equals ("abcdefghijklmnopqrstuvwxyz");
+
+	boolean ignoreCase;
+	// The tokens by number, lowercased if case is ignored
+	String[] tokens;
+	// Open-addressing hash table of token numbers plus one, zero for empty slots
+	int[] slots;
+	// The children of node n are the nodes firstChild[n] to firstChild[n+1]-1; the root is node 0
+	int[] firstChild;
+	// The number of the token on the edge into each node
+	int[] edgeToken;
+	BitSet endOfPhrase;
+	int size;
+
+	/**
+	 * Compiles the given phrases.
+	 * @param phrases The token sequences of the phrases; phrases without tokens are ignored.
+	 * @param ignoreCase Whether tokens are matched regardless of case, as by <code>String.toLowerCase</code>.
+	 */
+	public TokenLexicon (Iterator<String[]> phrases, boolean ignoreCase)
+	{
+		this.ignoreCase = ignoreCase;
+		HashMap<String,Integer> tokenNumbers = new HashMap<String,Integer> ();
+		ArrayList<String> tokenList = new ArrayList<String> ();
+		ArrayList<int[]> phraseList = new ArrayList<int[]> ();
+		while (phrases.hasNext()) {
+			String[] phrase = phrases.next();
+			if (phrase.length == 0)
+				continue;
+			int[] numbers = new int[phrase.length];
+			for (int i = 0; i < phrase.length; i++) {
+				String token = ignoreCase ? phrase[i].toLowerCase() : phrase[i];
+				Integer number = tokenNumbers.get (token);
+				if (number == null) {
+					number = tokenList.size();
+					tokenNumbers.put (token, number);
+					tokenList.add (token);
+				}
+				numbers[i] = number;
+			}
+			phraseList.add (numbers);
+		}
+		tokens = tokenList.toArray (new String[tokenList.size()]);
+		buildSlots ();
+		buildTrie (phraseList.toArray (new int[phraseList.size()][]));
+	}
+
+	/**
+	 * Compiles the phrases of a reader, one phrase per line.
+	 * @param delim The delimiters of the tokens of a line, as for <code>StringTokenizer</code>.
+	 * @param includeDelims Whether the delimiters are tokens themselves.
+	 */
+	public TokenLexicon (Reader lexiconReader, boolean ignoreCase, boolean includeDelims, String delim)
+	{
+		this (readPhrases (lexiconReader, includeDelims, delim).iterator(), ignoreCase);
+	}
+
+	private static List<String[]> readPhrases (Reader lexiconReader, boolean includeDelims, String delim)
+	{
+		List<String[]> phrases = new ArrayList<String[]> ();
+		BufferedReader reader = new BufferedReader (lexiconReader);
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				StringTokenizer st = new StringTokenizer (line, delim, includeDelims);
+				String[] phrase = new String[st.countTokens()];
+				for (int i = 0; i < phrase.length; i++)
+					phrase[i] = st.nextToken();
+				phrases.add (phrase);
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException (e);
+		}
+		return phrases;
+	}
+
+	private void buildSlots ()
+	{
+		int capacity = 2;
+		while (capacity < tokens.length * 2)
+			capacity <<= 1;
+		slots = new int[capacity];
+		for (int t = 0; t < tokens.length; t++) {
+			int slot = hash (tokens[t]) & (capacity - 1);
+			while (slots[slot] != 0)
+				slot = (slot + 1) & (capacity - 1);
+			slots[slot] = t + 1;
+		}
+	}
+
+	private void buildTrie (int[][] phrases)
+	{
+		Arrays.sort (phrases, new Comparator<int[]>() {
+			public int compare (int[] a, int[] b) {
+				int n = Math.min (a.length, b.length);
+				for (int i = 0; i < n; i++)
+					if (a[i] != b[i])
+						return a[i] < b[i] ? -1 : 1;
+				return a.length - b.length;
+			}
+		});
+
+		// Each node covers the range of sorted phrases that start with its path;
+		//  a phrase equal to the path comes first in the range.
+		int maxNodes = 1;
+		for (int[] phrase : phrases)
+			maxNodes += phrase.length;
+		int[] rangeStart = new int[maxNodes], rangeEnd = new int[maxNodes], depth = new int[maxNodes];
+		int[] first = new int[maxNodes + 1];
+		int[] edges = new int[maxNodes];
+		BitSet ends = new BitSet ();
+		rangeEnd[0] = phrases.length;
+		int numNodes = 1;
+		for (int node = 0; node < numNodes; node++) {
+			first[node] = numNodes;
+			int d = depth[node];
+			int i = rangeStart[node];
+			if (i < rangeEnd[node] && phrases[i].length == d) {
+				if (d > 0)
+					ends.set (node);
+				// Skip duplicates of the phrase
+				while (i < rangeEnd[node] && phrases[i].length == d)
+					i++;
+			}
+			while (i < rangeEnd[node]) {
+				int token = phrases[i][d];
+				int j = i + 1;
+				while (j < rangeEnd[node] && phrases[j][d] == token)
+					j++;
+				edges[numNodes] = token;
+				depth[numNodes] = d + 1;
+				rangeStart[numNodes] = i;
+				rangeEnd[numNodes] = j;
+				numNodes++;
+				i = j;
+			}
+		}
+		first[numNodes] = numNodes;
+		firstChild = Arrays.copyOf (first, numNodes + 1);
+		edgeToken = Arrays.copyOf (edges, numNodes);
+		endOfPhrase = ends;
+		size = ends.cardinality();
+	}
+
+	/** Returns the number of distinct phrases. */
+	public int size ()
+	{
+		return size;
+	}
+
+	public boolean isIgnoreCase ()
+	{
+		return ignoreCase;
+	}
+
+	private static boolean isAscii (String s)
+	{
+		for (int i = 0; i < s.length(); i++)
+			if (s.charAt(i) >= 0x80)
+				return false;
+		return true;
+	}
+
+	private static char lowerAscii (char c)
+	{
+		return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+	}
+
+	private int hash (String s)
+	{
+		int h;
+		if (ignoreCase) {
+			h = 0;
+			for (int i = 0; i < s.length(); i++)
+				h = 31 * h + lowerAscii (s.charAt(i));
+		} else
+			h = s.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/** Returns the number of the token in this lexicon, or -1 if no phrase contains it. */
+	public int tokenNumber (String token)
+	{
+		// Only tokens of ASCII characters can be compared while lowercasing them char by char
+		boolean foldAscii = ignoreCase && ASCII_LOWERCASE && isAscii (token);
+		if (ignoreCase && !foldAscii)
+			token = token.toLowerCase();
+		int slot = hash (token) & (slots.length - 1);
+		while (slots[slot] != 0) {
+			String candidate = tokens[slots[slot] - 1];
+			if (foldAscii ? equalsLowerAscii (token, candidate) : token.equals (candidate))
+				return slots[slot] - 1;
+			slot = (slot + 1) & (slots.length - 1);
+		}
+		return -1;
+	}
+
+	private static boolean equalsLowerAscii (String token, String lowercase)
+	{
+		if (token.length() != lowercase.length())
+			return false;
+		for (int i = 0; i < token.length(); i++)
+			if (lowerAscii (token.charAt(i)) != lowercase.charAt(i))
+				return false;
+		return true;
+	}
+
+	private int child (int node, int token)
+	{
+		int lo = firstChild[node], hi = firstChild[node + 1] - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			if (edgeToken[mid] < token)
+				lo = mid + 1;
+			else if (edgeToken[mid] > token)
+				hi = mid - 1;
+			else
+				return mid;
+		}
+		return -1;
+	}
+
+	/** Returns true if the lexicon contains the one-token phrase <code>token</code>. */
+	public boolean contains (String token)
+	{
+		int number = tokenNumber (token);
+		if (number < 0)
+			return false;
+		int node = child (0, number);
+		return node > 0 && endOfPhrase.get (node);
+	}
+
+	/**
+	 * Returns the index of the last token of the longest phrase that starts at
+	 * <code>start</code> in the token sequence, or -1 if no phrase starts there.
+	 */
+	public int endOfPhrase (TokenSequence ts, int start)
+	{
+		int node = 0;
+		int end = -1;
+		for (int i = start; i < ts.size(); i++) {
+			int number = tokenNumber (ts.get(i).getText());
+			if (number < 0)
+				break;
+			node = child (node, number);
+			if (node < 0)
+				break;
+			if (endOfPhrase.get (node))
+				end = i;
+		}
+		return end;
+	}
+
+	/**
+	 * Sets the feature <code>featureName</code> to 1.0 on the tokens of the
+	 * phrases in the token sequence.  The sequence is scanned from left to
+	 * right, and the longest phrase starting at a token is marked before the
+	 * scan continues after it.
+	 */
+	public void addFeatures (TokenSequence ts, String featureName)
+	{
+		int i = 0;
+		while (i < ts.size()) {
+			int j = endOfPhrase (ts, i);
+			if (j == -1) {
+				i++;
+			} else {
+				for (; i <= j; i++) {
+					Token t = ts.get(i);
+					t.setFeatureValue (featureName, 1.0);
+				}
+			}
+		}
+	}
+
+	/** Returns the phrases of this lexicon, shorter phrases first. */
+	public List<String[]> phrases ()
+	{
+		List<String[]> ret = new ArrayList<String[]> (size);
+		int[] parent = new int[edgeToken.length];
+		for (int node = 0; node < edgeToken.length; node++)
+			for (int c = firstChild[node]; c < firstChild[node + 1]; c++)
+				parent[c] = node;
+		for (int node = endOfPhrase.nextSetBit (0); node >= 0; node = endOfPhrase.nextSetBit (node + 1)) {
+			int length = 0;
+			for (int n = node; n != 0; n = parent[n])
+				length++;
+			String[] phrase = new String[length];
+			for (int n = node; n != 0; n = parent[n])
+				phrase[--length] = tokens[edgeToken[n]];
+			ret.add (phrase);
+		}
+		return ret;
+	}
+
+	// Serialization
+
+	private static final long serialVersionUID = 1;
+	private static final int CURRENT_SERIAL_VERSION = 0;
+
+	private void writeObject (ObjectOutputStream out) throws IOException {
+		out.writeInt (CURRENT_SERIAL_VERSION);
+		out.writeBoolean (ignoreCase);
+		out.writeInt (tokens.length);
+		for (String token : tokens)
+			out.writeUTF (token);
+		out.writeInt (edgeToken.length);
+		// The children of a node are consecutive, so their numbers suffice
+		for (int node = 0; node < edgeToken.length; node++)
+			out.writeInt (firstChild[node + 1] - firstChild[node]);
+		for (int node = 1; node < edgeToken.length; node++)
+			out.writeInt (edgeToken[node]);
+		out.writeObject (endOfPhrase);
+	}
+
+	private void readObject (ObjectInputStream in) throws IOException, ClassNotFoundException {
+		int version = in.readInt ();
+		ignoreCase = in.readBoolean ();
+		tokens = new String[in.readInt ()];
+		for (int t = 0; t < tokens.length; t++)
+			tokens[t] = in.readUTF ();
+		int numNodes = in.readInt ();
+		firstChild = new int[numNodes + 1];
+		firstChild[0] = 1;
+		for (int node = 0; node < numNodes; node++)
+			firstChild[node + 1] = firstChild[node] + in.readInt ();
+		edgeToken = new int[numNodes];
+		for (int node = 1; node < numNodes; node++)
+			edgeToken[node] = in.readInt ();
+		endOfPhrase = (BitSet) in.readObject ();
+		size = endOfPhrase.cardinality ();
+		// The hash table is not stored, but rebuilt from the tokens
+		buildSlots ();
+	}
+
+}
@@ -43,6 +43,11 @@ public class TokenText extends Pipe implements Serializable
 	{
 	}
 
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		TokenSequence ts = (TokenSequence) carrier.getData();
@@ -47,6 +47,11 @@ public class TokenTextCharNGrams extends Pipe implements Serializable
 		this ("CHARBIGRAM=", new int[] {2});
 	}
 
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		TokenSequence ts = (TokenSequence) carrier.getData();
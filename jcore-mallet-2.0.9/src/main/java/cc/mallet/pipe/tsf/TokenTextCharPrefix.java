@@ -37,6 +37,11 @@ public class TokenTextCharPrefix extends Pipe implements Serializable
 		this ("PREFIX=", 2);
 	}
 
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		TokenSequence ts = (TokenSequence) carrier.getData();
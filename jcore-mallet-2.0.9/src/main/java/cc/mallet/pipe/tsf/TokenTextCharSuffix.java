@@ -37,6 +37,11 @@ public class TokenTextCharSuffix extends Pipe implements Serializable
 		this ("SUFFIX=", 2);
 	}
 
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		TokenSequence ts = (TokenSequence) carrier.getData();
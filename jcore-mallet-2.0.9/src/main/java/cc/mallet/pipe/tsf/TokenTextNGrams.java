@@ -41,6 +41,11 @@ public class TokenTextNGrams extends Pipe implements Serializable
 		this ("CHARBIGRAM=", new int[] {2});
 	}
 
+	public boolean isThreadSafe ()
+	{
+		return true;
+	}
+
 	public Instance pipe (Instance carrier)
 	{
 		TokenSequence ts = (TokenSequence) carrier.getData();
@@ -28,48 +28,27 @@ public class TrieLexiconMembership extends Pipe implements Serializable {
 
 	boolean ignoreCase;
 
-	TrieLexicon lexicon;
+	TokenLexicon lexicon;
 
 	public TrieLexiconMembership(String name, Reader lexiconReader,
 			boolean ignoreCase) {
-		this.name = name;
-		this.lexicon = new TrieLexicon(name, ignoreCase);
-		LineNumberReader reader = new LineNumberReader(lexiconReader);
-		String line;
-		while (true) {
-			try {
-				line = reader.readLine();
-			} catch (IOException e) {
-				throw new IllegalStateException();
-			}
-			if (line == null) {
-				break;
-			} else {
-				lexicon.add(line);
-			}
-		}
-		if (lexicon.size() == 0)
-			throw new IllegalArgumentException("Empty lexicon");
+		this(name, lexiconReader, ignoreCase, false, " ");
 	}
 
 	public TrieLexiconMembership(String name, Reader lexiconReader,
 			boolean ignoreCase, boolean includeDelims, String delim) {
+		this(name, new TokenLexicon(lexiconReader, ignoreCase, includeDelims,
+				delim));
+	}
+
+	/**
+	 * Marks the phrases of a compiled lexicon, which may be shared with other
+	 * pipes.
+	 */
+	public TrieLexiconMembership(String name, TokenLexicon lexicon) {
 		this.name = name;
-		this.lexicon = new TrieLexicon(name, ignoreCase);
-		LineNumberReader reader = new LineNumberReader(lexiconReader);
-		String line;
-		while (true) {
-			try {
-				line = reader.readLine();
-			} catch (IOException e) {
-				throw new IllegalStateException();
-			}
-			if (line == null) {
-				break;
-			} else {
-				lexicon.add(line, includeDelims, delim);
-			}
-		}
+		this.ignoreCase = lexicon.isIgnoreCase();
+		this.lexicon = lexicon;
 		if (lexicon.size() == 0)
 			throw new IllegalArgumentException("Empty lexicon");
 	}
@@ -95,9 +74,17 @@ public class TrieLexiconMembership extends Pipe implements Serializable {
 		this(lexiconFile.getName(), lexiconFile, true);
 	}
 
+	public TokenLexicon getLexicon() {
+		return lexicon;
+	}
+
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	public Instance pipe(Instance carrier) {
 		TokenSequence ts = (TokenSequence) carrier.getData();
-		lexicon.addFeatures(ts);
+		lexicon.addFeatures(ts, name);
 		return carrier;
 	}
 
@@ -105,7 +92,7 @@ public class TrieLexiconMembership extends Pipe implements Serializable {
 
 	private static final long serialVersionUID = 1;
 
-	private static final int CURRENT_SERIAL_VERSION = 0;
+	private static final int CURRENT_SERIAL_VERSION = 1;
 
 	private void writeObject(ObjectOutputStream out) throws IOException {
 		out.writeInt(CURRENT_SERIAL_VERSION);
@@ -118,10 +105,17 @@ public class TrieLexiconMembership extends Pipe implements Serializable {
 			ClassNotFoundException {
 		int version = in.readInt();
 		this.name = (String) in.readObject();
-		this.lexicon = (TrieLexicon) in.readObject();
+		if (version == 0)
+			this.lexicon = ((TrieLexicon) in.readObject()).compile();
+		else
+			this.lexicon = (TokenLexicon) in.readObject();
 		this.ignoreCase = in.readBoolean();
 	}
 
+	/**
+	 * The former lexicon of nested Hashtables, kept to read pipes serialized
+	 * with version 0.
+	 */
 	private static class TrieLexicon implements Serializable {
 		static final String END_OF_WORD_TOKEN = "end_of_word";
 
@@ -133,93 +127,29 @@ public class TrieLexiconMembership extends Pipe implements Serializable {
 
 		int size;
 
-		public TrieLexicon(String name, boolean ignoreCase) {
-			this.name = name;
-			this.ignoreCase = ignoreCase;
-			this.lex = new Hashtable();
-			this.size = 0;
-		}
-
-		public void add(String word) {
-			add(word, false, " ");
-		}
-
-		public void add(String word, boolean includeDelims, String delim) {
-			boolean newWord = false;
-			StringTokenizer st = new StringTokenizer(word, delim, includeDelims);
-			Hashtable currentLevel = lex;
-			while (st.hasMoreTokens()) {
-				String token = st.nextToken();
-				if (ignoreCase)
-					token = token.toLowerCase();
-				if (!currentLevel.containsKey(token)) {
-					currentLevel.put(token, new Hashtable());
-					newWord = true;
-				}
-				currentLevel = (Hashtable) currentLevel.get(token);
-			}
-			currentLevel.put(END_OF_WORD_TOKEN, "");
-			if (newWord)
-				size++;
+		TokenLexicon compile() {
+			List<String[]> phrases = new ArrayList<String[]>();
+			addPhrases(lex, new ArrayList<String>(), phrases);
+			return new TokenLexicon(phrases.iterator(), ignoreCase);
 		}
 
-		public void addFeatures(TokenSequence ts) {
-			int i = 0;
-			while (i < ts.size()) {
-				int j = endOfWord(ts, i);
-				if (j == -1) {
-					i++;
+		private static void addPhrases(Hashtable level, List<String> prefix,
+				List<String[]> phrases) {
+			for (Object key : level.keySet()) {
+				if (END_OF_WORD_TOKEN.equals(key)) {
+					phrases.add(prefix.toArray(new String[prefix.size()]));
 				} else {
-					for (; i <= j; i++) {
-						Token t = ts.get(i);
-						t.setFeatureValue(name, 1.0);
-					}
-				}
-			}
-		}
-
-		private int endOfWord(TokenSequence ts, int start) {
-			if (start < 0 || start >= ts.size()) {
-				System.err
-						.println("Lexicon.lastIndexOf: error - out of TokenSequence boundaries");
-				return -1;
-			}
-			Hashtable currentLevel = lex;
-			int end = -1;
-			for (int i = start; i < ts.size(); i++) {
-				Token t = ts.get(i);
-				String s = t.getText();
-				if (ignoreCase)
-					s = s.toLowerCase();
-				currentLevel = (Hashtable) currentLevel.get(s);
-				if (currentLevel == null) {
-					return end;
-				}
-				if (currentLevel.containsKey(END_OF_WORD_TOKEN)) {
-					end = i;
+					prefix.add((String) key);
+					addPhrases((Hashtable) level.get(key), prefix, phrases);
+					prefix.remove(prefix.size() - 1);
 				}
 			}
-			return end;
-		}
-
-		public int size() {
-			return size;
 		}
 
 		// Serialization
 
 		private static final long serialVersionUID = 1;
 
-		private static final int CURRENT_SERIAL_VERSION = 0;
-
-		private void writeObject(ObjectOutputStream out) throws IOException {
-			out.writeInt(CURRENT_SERIAL_VERSION);
-			out.writeObject(name);
-			out.writeObject(lex);
-			out.writeBoolean(ignoreCase);
-			out.writeInt(size);
-		}
-
 		private void readObject(ObjectInputStream in) throws IOException,
 				ClassNotFoundException {
 			int version = in.readInt();
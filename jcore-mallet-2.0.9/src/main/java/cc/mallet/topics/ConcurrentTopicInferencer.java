@@ -0,0 +1,532 @@
+package cc.mallet.topics;
+
+import cc.mallet.types.*;
+import cc.mallet.util.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ *  A thread-safe version of {@link TopicInferencer}, for serving many
+ *   inference requests with one copy of a topic model.
+ *  <p>
+ *  The type/topic counts are packed into a single array that is never
+ *   changed after construction, so any number of threads can sample from it.
+ *   The sampling state of a document and the random number generator are
+ *   kept per thread. Topic distributions of many documents can be inferred
+ *   in parallel with {@link #getSampledDistributions}, which starts a pool of
+ *   daemon worker threads on its first call; {@link #shutdown} stops them.
+ *  <p>
+ *  Given the same random numbers, the distributions are exactly those of
+ *   {@link TopicInferencer#getSampledDistribution}.
+ */
+public class ConcurrentTopicInferencer {
+
+	private static Logger logger = MalletLogger.getLogger(ConcurrentTopicInferencer.class.getName());
+
+	// The number of tasks per worker thread in a batch, to balance
+	//  documents of different lengths.
+	private static final int TASKS_PER_THREAD = 4;
+
+	protected final int numTopics;
+
+	// These values are used to encode type/topic counts as
+	//  count/topic pairs in a single int.
+	protected final int topicMask;
+	protected final int topicBits;
+
+	protected final int numTypes;
+
+	protected final double[] alpha;
+	protected final double beta;
+	protected final double betaSum;
+
+	// The non-zero count/topic pairs of type t are
+	//  typeTopicCounts[typeOffsets[t]] to typeTopicCounts[typeOffsets[t + 1] - 1].
+	protected final int[] typeOffsets;
+	protected final int[] typeTopicCounts;
+	protected final int[] tokensPerTopic;
+
+	protected final double smoothingOnlyMass;
+
+	final Alphabet alphabet;
+
+	private final int numThreads;
+	// Started by the first batch, guarded by this
+	private ExecutorService executor;
+
+	private volatile boolean seeded = false;
+	private volatile int randomSeed;
+
+	private final ThreadLocal<Sampler> samplers = new ThreadLocal<Sampler>() {
+		protected Sampler initialValue() {
+			return new Sampler();
+		}
+	};
+
+	/**
+	 *  Creates an inferencer for the model of <code>inferencer</code>.
+	 *
+	 *  @param numThreads The number of threads for batches of documents
+	 */
+	public ConcurrentTopicInferencer (TopicInferencer inferencer, int numThreads) {
+		assert (numThreads > 0) : "Invalid number of threads: " + numThreads;
+
+		this.alphabet = inferencer.alphabet;
+
+		numTopics = inferencer.numTopics;
+		topicMask = inferencer.topicMask;
+		topicBits = inferencer.topicBits;
+		numTypes = inferencer.numTypes;
+
+		alpha = inferencer.alpha.clone();
+		beta = inferencer.beta;
+		betaSum = inferencer.betaSum;
+		tokensPerTopic = inferencer.tokensPerTopic.clone();
+
+		// Keep the non-zero entries of each type. A type with room
+		//  for counts but none of them keeps one zero entry, since
+		//  TopicInferencer treats it as known and assigns it topic 0.
+		int[][] counts = inferencer.typeTopicCounts;
+		typeOffsets = new int[numTypes + 1];
+		for (int type = 0; type < numTypes; type++) {
+			typeOffsets[type + 1] = typeOffsets[type] + packedLength(counts[type]);
+		}
+		typeTopicCounts = new int[typeOffsets[numTypes]];
+		for (int type = 0; type < numTypes; type++) {
+			System.arraycopy(counts[type], 0, typeTopicCounts, typeOffsets[type],
+							 typeOffsets[type + 1] - typeOffsets[type]);
+		}
+
+		double mass = 0.0;
+		for (int topic = 0; topic < numTopics; topic++) {
+			mass += alpha[topic] * beta / (tokensPerTopic[topic] + betaSum);
+		}
+		smoothingOnlyMass = mass;
+
+		this.numThreads = numThreads;
+	}
+
+	private synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+					public Thread newThread(Runnable r) {
+						// Do not keep the JVM alive for an inferencer that is not shut down
+						Thread thread = Executors.defaultThreadFactory().newThread(r);
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		}
+		return executor;
+	}
+
+	private static int packedLength(int[] currentTypeTopicCounts) {
+		int length = 0;
+		while (length < currentTypeTopicCounts.length &&
+			   currentTypeTopicCounts[length] > 0) {
+			length++;
+		}
+		if (length == 0 && currentTypeTopicCounts.length != 0) {
+			length = 1;
+		}
+		return length;
+	}
+
+	public int getNumTopics() { return numTopics; }
+	public int getNumThreads() { return numThreads; }
+	public Alphabet getAlphabet() { return alphabet; }
+
+	/**
+	 *  Makes {@link #getSampledDistributions} reproducible: the random numbers
+	 *   of the document at index <code>i</code> of a batch are seeded with
+	 *   <code>seed + i</code>, whichever thread samples it. Threads that have
+	 *   not sampled yet also seed their random numbers for single documents
+	 *   with <code>seed</code>.
+	 */
+	public void setRandomSeed(int seed) {
+		randomSeed = seed;
+		seeded = true;
+	}
+
+	/**
+	 *  Use Gibbs sampling to infer a topic distribution, as in
+	 *   {@link TopicInferencer#getSampledDistribution}.
+	 *   May be called by any number of threads at once.
+	 */
+	public double[] getSampledDistribution(Instance instance, int numIterations,
+										   int thinning, int burnIn) {
+		return samplers.get().sample(instance, numIterations, thinning, burnIn);
+	}
+
+	/**
+	 *  Infers the topic distributions of many documents with the worker threads.
+	 *
+	 *  @return The distribution of each instance, in the order of <code>instances</code>
+	 */
+	public double[][] getSampledDistributions(final List<Instance> instances,
+											  final int numIterations,
+											  final int thinning, final int burnIn) {
+		final double[][] distributions = new double[instances.size()][];
+		final boolean seeded = this.seeded;
+		final int randomSeed = this.randomSeed;
+
+		int numTasks = Math.min(instances.size(), numThreads * TASKS_PER_THREAD);
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(numTasks);
+		for (int task = 0; task < numTasks; task++) {
+			final int start = (int) ((long) instances.size() * task / numTasks);
+			final int end = (int) ((long) instances.size() * (task + 1) / numTasks);
+			tasks.add(new Callable<Void>() {
+				public Void call() {
+					Sampler sampler = samplers.get();
+					for (int doc = start; doc < end; doc++) {
+						if (seeded) {
+							sampler.random.setSeed(randomSeed + doc);
+						}
+						distributions[doc] =
+							sampler.sample(instances.get(doc), numIterations, thinning, burnIn);
+					}
+					return null;
+				}
+			});
+		}
+
+		try {
+			for (Future<Void> future : getExecutor().invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while inferring topics", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+
+		return distributions;
+	}
+
+	/**
+	 *  Stops the worker threads. Single documents can still be sampled afterwards,
+	 *   and a later batch starts new worker threads.
+	 */
+	public void shutdown() {
+		ExecutorService executor;
+		synchronized (this) {
+			executor = this.executor;
+			this.executor = null;
+		}
+		if (executor == null) {
+			return;
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(30, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			logger.warning("Interrupted while waiting for the worker threads to finish");
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 *  The sampling state of one thread.
+	 */
+	private class Sampler {
+
+		final Randoms random;
+
+		int[] topics = new int[0];
+		final int[] localTopicCounts = new int[numTopics];
+		final int[] localTopicIndex = new int[numTopics];
+		final double[] topicTermScores = new double[numTopics];
+		final double[] cachedCoefficients = new double[numTopics];
+
+		Sampler() {
+			random = seeded ? new Randoms(randomSeed) : new Randoms();
+
+			for (int topic = 0; topic < numTopics; topic++) {
+				cachedCoefficients[topic] = alpha[topic] / (tokensPerTopic[topic] + betaSum);
+			}
+		}
+
+		double[] sample(Instance instance, int numIterations,
+						int thinning, int burnIn) {
+
+			FeatureSequence tokens = (FeatureSequence) instance.getData();
+			int docLength = tokens.size();
+			if (topics.length < docLength) {
+				topics = new int[Math.max(docLength, 2 * topics.length)];
+			}
+
+			int type;
+			int start, end;
+
+			// Initialize all positions to the most common topic
+			//  for that type.
+
+			for (int position = 0; position < docLength; position++) {
+				type = tokens.getIndexAtPosition(position);
+
+				// Ignore out of vocabulary terms
+				if (type < numTypes && typeOffsets[type] != typeOffsets[type + 1]) {
+					topics[position] =
+						typeTopicCounts[typeOffsets[type]] & topicMask;
+
+					localTopicCounts[topics[position]]++;
+				}
+			}
+
+			// Build an array that densely lists the topics that
+			//  have non-zero counts.
+			int denseIndex = 0;
+			for (int topic = 0; topic < numTopics; topic++) {
+				if (localTopicCounts[topic] != 0) {
+					localTopicIndex[denseIndex] = topic;
+					denseIndex++;
+				}
+			}
+
+			// Record the total number of non-zero topics
+			int nonZeroTopics = denseIndex;
+
+			//	  Initialize the topic count/beta sampling bucket
+			double topicBetaMass = 0.0;
+
+			for (denseIndex = 0; denseIndex < nonZeroTopics; denseIndex++) {
+				int topic = localTopicIndex[denseIndex];
+				int n = localTopicCounts[topic];
+
+				//  initialize the normalization constant for the (B * n_{t|d}) term
+				topicBetaMass += beta * n / (tokensPerTopic[topic] + betaSum);
+
+				//  update the coefficients for the non-zero topics
+				cachedCoefficients[topic] = (alpha[topic] + n) / (tokensPerTopic[topic] + betaSum);
+			}
+
+			double topicTermMass = 0.0;
+			int i;
+			double score;
+
+			int oldTopic, newTopic;
+
+			double[] result = new double[numTopics];
+			double sum = 0.0;
+
+			for (int iteration = 1; iteration <= numIterations; iteration++) {
+
+				//  Iterate over the positions (words) in the document
+				for (int position = 0; position < docLength; position++) {
+					type = tokens.getIndexAtPosition(position);
+
+					// ignore out-of-vocabulary terms
+					if (type >= numTypes || typeOffsets[type] == typeOffsets[type + 1]) { continue; }
+
+					oldTopic = topics[position];
+					start = typeOffsets[type];
+					end = typeOffsets[type + 1];
+
+					// Prepare to sample by adjusting existing counts.
+					// Note that we do not need to change the smoothing-only
+					//  mass since the denominator is clamped.
+
+					topicBetaMass -= beta * localTopicCounts[oldTopic] /
+						(tokensPerTopic[oldTopic] + betaSum);
+
+					// Decrement the local doc/topic counts
+
+					localTopicCounts[oldTopic]--;
+
+					// Maintain the dense index, if we are deleting
+					//  the old topic
+					if (localTopicCounts[oldTopic] == 0) {
+
+						// First get to the dense location associated with
+						//  the old topic.
+
+						denseIndex = 0;
+
+						// We know it's in there somewhere, so we don't
+						//  need bounds checking.
+						while (localTopicIndex[denseIndex] != oldTopic) {
+							denseIndex++;
+						}
+
+						// shift all remaining dense indices to the left.
+						while (denseIndex < nonZeroTopics) {
+							if (denseIndex < localTopicIndex.length - 1) {
+								localTopicIndex[denseIndex] =
+									localTopicIndex[denseIndex + 1];
+							}
+							denseIndex++;
+						}
+
+						nonZeroTopics --;
+					} // finished maintaining local topic index
+
+					topicBetaMass += beta * localTopicCounts[oldTopic] /
+						(tokensPerTopic[oldTopic] + betaSum);
+
+					// Reset the cached coefficient for this topic
+					cachedCoefficients[oldTopic] =
+						(alpha[oldTopic] + localTopicCounts[oldTopic]) /
+						(tokensPerTopic[oldTopic] + betaSum);
+
+					int index = start;
+					int currentTopic, currentValue;
+
+					topicTermMass = 0.0;
+
+					while (index < end &&
+						   typeTopicCounts[index] > 0) {
+						currentTopic = typeTopicCounts[index] & topicMask;
+						currentValue = typeTopicCounts[index] >> topicBits;
+
+						score =
+							cachedCoefficients[currentTopic] * currentValue;
+						topicTermMass += score;
+						topicTermScores[index - start] = score;
+
+						index++;
+					}
+
+					double sample = random.nextUniform() * (smoothingOnlyMass + topicBetaMass + topicTermMass);
+
+					//  Make sure it actually gets set
+					newTopic = -1;
+
+					if (sample < topicTermMass) {
+
+						i = -1;
+						while (sample > 0) {
+							i++;
+							sample -= topicTermScores[i];
+						}
+
+						newTopic = typeTopicCounts[start + i] & topicMask;
+					}
+					else {
+						sample -= topicTermMass;
+
+						if (sample < topicBetaMass) {
+
+							sample /= beta;
+
+							for (denseIndex = 0; denseIndex < nonZeroTopics; denseIndex++) {
+								int topic = localTopicIndex[denseIndex];
+
+								sample -= localTopicCounts[topic] /
+									(tokensPerTopic[topic] + betaSum);
+
+								if (sample <= 0.0) {
+									newTopic = topic;
+									break;
+								}
+							}
+
+						}
+						else {
+							sample -= topicBetaMass;
+
+							sample /= beta;
+
+							newTopic = 0;
+							sample -= alpha[newTopic] /
+								(tokensPerTopic[newTopic] + betaSum);
+
+							while (sample > 0.0) {
+								newTopic++;
+								sample -= alpha[newTopic] /
+									(tokensPerTopic[newTopic] + betaSum);
+							}
+
+						}
+
+					}
+
+					topics[position] = newTopic;
+
+					topicBetaMass -= beta * localTopicCounts[newTopic] /
+						(tokensPerTopic[newTopic] + betaSum);
+
+					localTopicCounts[newTopic]++;
+
+					// If this is a new topic for this document,
+					//  add the topic to the dense index.
+					if (localTopicCounts[newTopic] == 1) {
+
+						// First find the point where we
+						//  should insert the new topic by going to
+						//  the end and working backwards
+
+						denseIndex = nonZeroTopics;
+
+						while (denseIndex > 0 &&
+							   localTopicIndex[denseIndex - 1] > newTopic) {
+
+							localTopicIndex[denseIndex] =
+								localTopicIndex[denseIndex - 1];
+							denseIndex--;
+						}
+
+						localTopicIndex[denseIndex] = newTopic;
+						nonZeroTopics++;
+					}
+
+					//  update the coefficients for the non-zero topics
+					cachedCoefficients[newTopic] =
+						(alpha[newTopic] + localTopicCounts[newTopic]) /
+						(tokensPerTopic[newTopic] + betaSum);
+
+					topicBetaMass += beta * localTopicCounts[newTopic] /
+						(tokensPerTopic[newTopic] + betaSum);
+
+				}
+
+				if (iteration > burnIn &&
+					(iteration - burnIn) % thinning == 0) {
+
+					// Save a sample
+					for (int topic=0; topic < numTopics; topic++) {
+						result[topic] += alpha[topic] + localTopicCounts[topic];
+						sum += alpha[topic] + localTopicCounts[topic];
+					}
+				}
+			}
+
+			if (sum == 0.0) {
+				// Save at least one sample
+				for (int topic=0; topic < numTopics; topic++) {
+					result[topic] = alpha[topic] + localTopicCounts[topic];
+					sum += result[topic];
+				}
+			}
+
+			//  Clean up: reset the coefficients to values with only
+			//  smoothing and clear the counts for the next document.
+			for (denseIndex = 0; denseIndex < nonZeroTopics; denseIndex++) {
+				int topic = localTopicIndex[denseIndex];
+
+				cachedCoefficients[topic] =
+					alpha[topic] / (tokensPerTopic[topic] + betaSum);
+				localTopicCounts[topic] = 0;
+			}
+
+			// Normalize
+			for (int topic=0; topic < numTopics; topic++) {
+				result[topic] /= sum;
+			}
+
+			return result;
+		}
+	}
+}
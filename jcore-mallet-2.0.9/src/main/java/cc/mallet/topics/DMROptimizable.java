@@ -153,6 +153,7 @@ public class DMROptimizable implements Optimizable.ByGradientValue {
 		cachedValueStale = true;
 		cachedGradientStale = true;
 		parameters[index] = v;
+		classifier.parametersChanged ();
 	}
                 
 	public int getNumParameters() {
@@ -173,6 +174,7 @@ public class DMROptimizable implements Optimizable.ByGradientValue {
 		if (buff.length != parameters.length)
 			parameters = new double[buff.length];
 		System.arraycopy (buff, 0, parameters, 0, buff.length);
+		classifier.parametersChanged ();
 	}
 
 	/** The log probability of the observed count vectors given the features. */
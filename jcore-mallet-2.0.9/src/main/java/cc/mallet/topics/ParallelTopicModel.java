@@ -9,6 +9,7 @@ package cc.mallet.topics;
 
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.TreeSet;
 import java.util.Iterator;
 import java.util.Formatter;
@@ -96,6 +97,9 @@ public class ParallelTopicModel implements Serializable {
 	int maxTypeCount; 
 	
 	int numThreads = 1;
+
+	// Whether threads exchange only the changes to the type/topic counts
+	boolean deltaMerging = false;
 	
 	public ParallelTopicModel (int numberOfTopics) {
 		this (numberOfTopics, numberOfTopics, DEFAULT_BETA);
@@ -199,6 +203,23 @@ public class ParallelTopicModel implements Serializable {
 		this.numThreads = threads;
 	}
 
+	/** Define how the threads of {@link #estimate()} share their type/topic counts.
+	 *
+	 *  By default, every thread sends its full counts to the global counts after
+	 *   each iteration, and the global counts are copied back into every thread.
+	 *   With delta merging, each thread records only the (type, topic) counts it
+	 *   changed, and the global counts and the counts of the other threads are
+	 *   updated from these changes. As most tokens keep their topic after the
+	 *   first iterations, this is much less work per iteration on large vocabularies
+	 *   and many threads. The counts are the same in both modes, but topics with
+	 *   equal counts may end up in a different order, so the samples differ.
+	 *
+	 *  Has no effect with a single thread.
+	 */
+	public void setDeltaMerging(boolean deltaMerging) {
+		this.deltaMerging = deltaMerging;
+	}
+
 	/** Define how often and where to save a text representation of the current state.
 	 *  Files are GZipped.
 	 *
@@ -414,6 +435,46 @@ public class ParallelTopicModel implements Serializable {
 	}
 	
 
+	/**
+	 *  Waits until all the tasks are done, even if the waiting thread is interrupted.
+	 *   If a task failed, stops the executor and rethrows the first exception thrown by a task.
+	 */
+	private static void awaitAll (List<Future<?>> futures, ExecutorService executor) {
+		boolean interrupted = false;
+		Throwable failure = null;
+		for (Future<?> future : futures) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					// wait for the other workers before giving up on the iteration
+					if (failure == null) {
+						failure = e.getCause();
+					}
+					break;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (failure != null) {
+			executor.shutdownNow();
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		if (failure != null) {
+			throw new IllegalStateException(failure);
+		}
+	}
+
 	public void sumTypeTopicCounts (WorkerRunnable[] runnables) {
 
 		// Clear the topic totals
@@ -748,6 +809,10 @@ public class ParallelTopicModel implements Serializable {
 													   offset, docsPerThread);
 				
 				runnables[thread].initializeAlphaStatistics(docLengthCounts.length);
+
+				if (deltaMerging) {
+					runnables[thread].recordDeltas(runnables);
+				}
 				
 				offset += docsPerThread;
 			
@@ -803,6 +868,7 @@ public class ParallelTopicModel implements Serializable {
 			
 				// Submit runnables to thread pool
 				
+				List<Future<?>> futures = new ArrayList<Future<?>>(numThreads);
 				for (int thread = 0; thread < numThreads; thread++) {
 					if (iteration > burninPeriod && optimizeInterval != 0 &&
 						iteration % saveSampleInterval == 0) {
@@ -810,70 +876,60 @@ public class ParallelTopicModel implements Serializable {
 					}
 					
 					logger.fine("submitting thread " + thread);
-					executor.submit(runnables[thread]);
+					futures.add(executor.submit(runnables[thread]));
 					//runnables[thread].run();
 				}
 				
-				// I'm getting some problems that look like 
-				//  a thread hasn't started yet when it is first
-				//  polled, so it appears to be finished. 
-				// This only occurs in very short corpora.
-				try {
-					Thread.sleep(20);
-				} catch (InterruptedException e) {
-					
-				}
+				// Wait until all the threads are done
+				awaitAll(futures, executor);
 				
-				boolean finished = false;
-				while (! finished) {
-					
-					try {
-						Thread.sleep(10);
-					} catch (InterruptedException e) {
-						
+				if (deltaMerging) {
+					// Apply the changes sampled by each thread to the
+					//  global counts. The threads apply them to their
+					//  own counts at the start of the next iteration.
+					for (int thread = 0; thread < numThreads; thread++) {
+						WorkerRunnable.applyDeltas(runnables[thread].getDeltas(),
+												   runnables[thread].getNumDeltas(),
+												   typeTopicCounts, tokensPerTopic,
+												   topicMask, topicBits);
 					}
-					
-					finished = true;
-					
-					// Are all the threads done?
 					for (int thread = 0; thread < numThreads; thread++) {
-						//logger.info("thread " + thread + " done? " + runnables[thread].isFinished);
-						finished = finished && runnables[thread].isFinished;
+						runnables[thread].swapDeltas();
 					}
-					
 				}
+				else {
+					//System.out.print("[" + (System.currentTimeMillis() - iterationStart) + "] ");
 				
-				//System.out.print("[" + (System.currentTimeMillis() - iterationStart) + "] ");
-				
-				sumTypeTopicCounts(runnables);
+					sumTypeTopicCounts(runnables);
 				
-				//System.out.print("[" + (System.currentTimeMillis() - iterationStart) + "] ");
+					//System.out.print("[" + (System.currentTimeMillis() - iterationStart) + "] ");
 				
-				for (int thread = 0; thread < numThreads; thread++) {
-					int[] runnableTotals = runnables[thread].getTokensPerTopic();
-					System.arraycopy(tokensPerTopic, 0, runnableTotals, 0, numTopics);
+					for (int thread = 0; thread < numThreads; thread++) {
+						int[] runnableTotals = runnables[thread].getTokensPerTopic();
+						System.arraycopy(tokensPerTopic, 0, runnableTotals, 0, numTopics);
 					
-					int[][] runnableCounts = runnables[thread].getTypeTopicCounts();
-					for (int type = 0; type < numTypes; type++) {
-						int[] targetCounts = runnableCounts[type];
-						int[] sourceCounts = typeTopicCounts[type];
+						int[][] runnableCounts = runnables[thread].getTypeTopicCounts();
+						for (int type = 0; type < numTypes; type++) {
+							int[] targetCounts = runnableCounts[type];
+							int[] sourceCounts = typeTopicCounts[type];
 						
-						int index = 0;
-						while (index < sourceCounts.length) {
+							int index = 0;
+							while (index < sourceCounts.length) {
 							
-							if (sourceCounts[index] != 0) {
-								targetCounts[index] = sourceCounts[index];
-							}
-							else if (targetCounts[index] != 0) {
-								targetCounts[index] = 0;
-							}
-							else {
-								break;
-							}
+								if (sourceCounts[index] != 0) {
+									targetCounts[index] = sourceCounts[index];
+								}
+								else if (targetCounts[index] != 0) {
+									targetCounts[index] = 0;
+								}
+								else {
+									break;
+								}
 							
-							index++;
+								index++;
+							}
+							//System.arraycopy(typeTopicCounts[type], 0, counts, 0, counts.length);
 						}
-						//System.arraycopy(typeTopicCounts[type], 0, counts, 0, counts.length);
 					}
 				}
 			}
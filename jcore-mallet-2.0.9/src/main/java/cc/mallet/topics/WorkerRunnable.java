@@ -53,6 +53,17 @@ public class WorkerRunnable implements Runnable {
 
 	boolean shouldSaveState = false;
 	boolean shouldBuildLocalCounts = true;
+
+	// For sparse delta merging: the type/topic count changes sampled in
+	//  this iteration as (type, topic) pairs, with the topic bitwise
+	//  negated for decrements, and those of the previous iteration,
+	//  which the other workers apply to their own counts.
+	boolean shouldRecordDeltas = false;
+	int[] deltas = new int[0];
+	int numDeltas = 0;
+	int[] previousDeltas = new int[0];
+	int numPreviousDeltas = 0;
+	WorkerRunnable[] workers;
 	
 	protected Randoms random;
 	
@@ -109,6 +120,126 @@ public class WorkerRunnable implements Runnable {
 		shouldBuildLocalCounts = false;
 	}
 
+	/**
+	 *  Asks this worker to record the changes it makes to the
+	 *   type/topic counts instead of preparing local type-topic counts.
+	 *   At the start of each iteration, the worker applies the changes
+	 *   the other workers made in the previous one, so that its counts
+	 *   stay equal to the global counts without copying them.
+	 *   See {@link ParallelTopicModel#setDeltaMerging(boolean)}.
+	 */
+	public void recordDeltas(WorkerRunnable[] workers) {
+		shouldRecordDeltas = true;
+		shouldBuildLocalCounts = false;
+		this.workers = workers;
+	}
+
+	/**
+	 *  Makes the changes of this iteration those of the previous one.
+	 *   Must not be called while any worker is running.
+	 */
+	public void swapDeltas() {
+		int[] temp = previousDeltas;
+		previousDeltas = deltas;
+		numPreviousDeltas = numDeltas;
+		deltas = temp;
+		numDeltas = 0;
+	}
+
+	public int[] getDeltas() { return deltas; }
+	public int getNumDeltas() { return numDeltas; }
+
+	private void recordDelta(int type, int topic) {
+		if (numDeltas + 2 > deltas.length) {
+			deltas = Arrays.copyOf(deltas, Math.max(1024, 2 * deltas.length));
+		}
+		deltas[numDeltas++] = type;
+		deltas[numDeltas++] = topic;
+	}
+
+	/**
+	 *  Applies recorded changes to type/topic counts and topic totals.
+	 */
+	static void applyDeltas(int[] deltas, int numDeltas,
+							int[][] typeTopicCounts, int[] tokensPerTopic,
+							int topicMask, int topicBits) {
+		for (int i = 0; i < numDeltas; i += 2) {
+			int type = deltas[i];
+			int topic = deltas[i + 1];
+			if (topic >= 0) {
+				incrementTypeTopicCount(typeTopicCounts[type], topic, topicMask, topicBits);
+				tokensPerTopic[topic]++;
+			}
+			else {
+				topic = ~topic;
+				decrementTypeTopicCount(typeTopicCounts[type], topic, topicMask, topicBits);
+				tokensPerTopic[topic]--;
+			}
+		}
+	}
+
+	/**
+	 *  Adds one to the count of a topic in the sorted type/topic counts of a type.
+	 */
+	static void incrementTypeTopicCount(int[] currentTypeTopicCounts, int topic,
+										int topicMask, int topicBits) {
+		int index = 0;
+		while (currentTypeTopicCounts[index] > 0 &&
+			   (currentTypeTopicCounts[index] & topicMask) != topic) {
+			index++;
+		}
+
+		if (currentTypeTopicCounts[index] == 0) {
+			// inserting a new topic, guaranteed to be in
+			//  order w.r.t. count, if not topic.
+			currentTypeTopicCounts[index] = (1 << topicBits) + topic;
+		}
+		else {
+			int currentValue = currentTypeTopicCounts[index] >> topicBits;
+			currentTypeTopicCounts[index] = ((currentValue + 1) << topicBits) + topic;
+
+			// Bubble the increased value left, if necessary
+			while (index > 0 &&
+				   currentTypeTopicCounts[index] > currentTypeTopicCounts[index - 1]) {
+				int temp = currentTypeTopicCounts[index];
+				currentTypeTopicCounts[index] = currentTypeTopicCounts[index - 1];
+				currentTypeTopicCounts[index - 1] = temp;
+
+				index--;
+			}
+		}
+	}
+
+	/**
+	 *  Subtracts one from the count of a topic in the sorted type/topic counts of a type.
+	 */
+	static void decrementTypeTopicCount(int[] currentTypeTopicCounts, int topic,
+										int topicMask, int topicBits) {
+		int index = 0;
+		while ((currentTypeTopicCounts[index] & topicMask) != topic ||
+			   currentTypeTopicCounts[index] == 0) {
+			index++;
+		}
+
+		int currentValue = (currentTypeTopicCounts[index] >> topicBits) - 1;
+		if (currentValue == 0) {
+			currentTypeTopicCounts[index] = 0;
+		}
+		else {
+			currentTypeTopicCounts[index] = (currentValue << topicBits) + topic;
+		}
+
+		// Shift the reduced value to the right, if necessary.
+		while (index < currentTypeTopicCounts.length - 1 && 
+			   currentTypeTopicCounts[index] < currentTypeTopicCounts[index + 1]) {
+			int temp = currentTypeTopicCounts[index];
+			currentTypeTopicCounts[index] = currentTypeTopicCounts[index + 1];
+			currentTypeTopicCounts[index + 1] = temp;
+
+			index++;
+		}
+	}
+
 	public int[] getTokensPerTopic() { return tokensPerTopic; }
 	public int[][] getTypeTopicCounts() { return typeTopicCounts; }
 
@@ -239,6 +370,16 @@ public class WorkerRunnable implements Runnable {
 			if (! isFinished) { System.out.println("already running!"); return; }
 			
 			isFinished = false;
+
+			if (shouldRecordDeltas) {
+				// Catch up with the changes of the other workers
+				for (WorkerRunnable worker : workers) {
+					if (worker != this) {
+						applyDeltas(worker.previousDeltas, worker.numPreviousDeltas,
+									typeTopicCounts, tokensPerTopic, topicMask, topicBits);
+					}
+				}
+			}
 			
 			// Initialize the smoothing-only sampling bucket
 			smoothingOnlyMass = 0;
@@ -595,6 +736,13 @@ public class WorkerRunnable implements Runnable {
 			//			Put that new topic into the counts
 			oneDocTopics[position] = newTopic;
 
+			if (shouldRecordDeltas && newTopic != oldTopic) {
+				if (oldTopic != ParallelTopicModel.UNASSIGNED_TOPIC) {
+					recordDelta(type, ~oldTopic);
+				}
+				recordDelta(type, newTopic);
+			}
+
 			smoothingOnlyMass -= alpha[newTopic] * beta / 
 				(tokensPerTopic[newTopic] + betaSum);
 			topicBetaMass -= beta * localTopicCounts[newTopic] /
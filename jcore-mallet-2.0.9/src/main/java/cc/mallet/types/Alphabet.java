@@ -24,11 +24,10 @@ import java.io.PrintWriter;
 import java.io.Serializable;
 import java.rmi.dgc.VMID;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  *  A mapping between integers and objects where the mapping in each
@@ -50,18 +49,21 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  */
 public class Alphabet implements Serializable
 {
-	gnu.trove.TObjectIntHashMap map;
-	ArrayList entries;
+	/** Maps the entries to their indices; replaced as a whole by {@link #stopGrowth} and {@link #startGrowth}. */
+	private transient volatile Index index;
+	/** The entries by index.  Only the first {@link #size} slots are in use; replaced by a larger copy when full. */
+	private transient volatile Object[] entries;
+	private transient volatile int size;
+	/** Serializes the additions of entries; lookups don't lock. */
+	private transient Object growthLock = new Object();
 	volatile boolean growthStopped = false;
 	Class entryClass = null;
 	VMID instanceId = new VMID();  //used in readResolve to identify persitent instances
 
-    private transient ReadWriteLock lock = new ReentrantReadWriteLock();
-
 	public Alphabet (int capacity, Class entryClass)
 	{
-		this.map = new gnu.trove.TObjectIntHashMap (capacity);
-		this.entries = new ArrayList (capacity);
+		this.index = new GrowingIndex (capacity);
+		this.entries = new Object[Math.max (capacity, 1)];
 		this.entryClass = entryClass;
 		// someone could try to deserialize us into this image (e.g., by RMI).  Handle this.
 		deserializedEntries.putIfAbsent(instanceId, this);
@@ -90,56 +92,65 @@ public class Alphabet implements Serializable
 
 	public Object clone ()
 	{
-        lock.readLock().lock();
-        try {
-            Alphabet ret = new Alphabet();
-            ret.map = (gnu.trove.TObjectIntHashMap) map.clone();
-            ret.entries = (ArrayList) entries.clone();
-            ret.growthStopped = growthStopped;
-            ret.entryClass = entryClass;
-            return ret;
-        } finally {
-            lock.readLock().unlock();
-        }
+		synchronized (growthLock) {
+			Alphabet ret = new Alphabet (size, entryClass);
+			ret.setEntries (Arrays.copyOf (entries, Math.max (size, 1)), size, growthStopped);
+			return ret;
+		}
+	}
+
+	/**
+	 * Takes over <code>entries</code>, of which the first <code>size</code> are in use,
+	 * and builds the index of the growing or of the stopped Alphabet.
+	 */
+	private void setEntries (Object[] entries, int size, boolean growthStopped)
+	{
+		this.entries = entries;
+		this.size = size;
+		this.growthStopped = growthStopped;
+		this.index = growthStopped ? new FrozenIndex (entries, size) : new GrowingIndex (entries, size);
 	}
 
-	/** Return -1 if entry isn't present. */
+	/**
+	 * Return -1 if entry isn't present.
+	 * <p>
+	 * Lookups never lock.  Adding an entry locks the Alphabet, so threads can share it while
+	 * it grows.  After {@link #stopGrowth} the entries are looked up in an immutable table.
+	 */
 	public int lookupIndex (Object entry, boolean addIfNotPresent)
 	{
 		if (entry == null)
 			throw new IllegalArgumentException ("Can't lookup \"null\" in an Alphabet.");
 		if (entryClass == null) {
-            entryClass = entry.getClass();
-        } else {
-            // Insist that all entries in the Alphabet are of the same
-            // class.  This may not be strictly necessary, but will catch a
-            // bunch of easily-made errors.
-            if (entry.getClass() != entryClass)
-                throw new IllegalArgumentException("Non-matching entry class, " + entry.getClass() + ", was " + entryClass);
-        }
-
-        lock.readLock().lock();
-        try {
-            if (map.containsKey(entry)) {
-                return map.get(entry);
-            }
-        } finally {
-            lock.readLock().unlock();
-        }
-
-		if (!growthStopped && addIfNotPresent) {
-            lock.writeLock().lock();
-            try {
-                int retIndex = entries.size();
-                map.put(entry, retIndex);
-                entries.add(entry);
-                return retIndex;
+			entryClass = entry.getClass();
+		} else {
+			// Insist that all entries in the Alphabet are of the same
+			// class.  This may not be strictly necessary, but will catch a
+			// bunch of easily-made errors.
+			if (entry.getClass() != entryClass)
+				throw new IllegalArgumentException("Non-matching entry class, " + entry.getClass() + ", was " + entryClass);
+		}
 
-            } finally {
-                lock.writeLock().unlock();
-            }
+		int ret = index.get (entry);
+		if (ret >= 0 || growthStopped || !addIfNotPresent)
+			return ret;
+		synchronized (growthLock) {
+			// another thread may have added the entry or stopped the growth in the meantime
+			ret = index.get (entry);
+			if (ret >= 0 || growthStopped)
+				return ret;
+			ret = size;
+			Object[] entries = this.entries;
+			if (ret == entries.length) {
+				entries = Arrays.copyOf (entries, Math.max (2 * ret, 8));
+				this.entries = entries;
+			}
+			// the entry must be stored before its index is visible in the map
+			entries[ret] = entry;
+			size = ret + 1;
+			((GrowingIndex) index).put (entry, ret);
+			return ret;
 		}
-		return -1;
 	}
 
 	public int lookupIndex (Object entry)
@@ -149,22 +160,15 @@ public class Alphabet implements Serializable
 
 	public Object lookupObject (int index)
 	{
-        lock.readLock().lock();
-        try {
-            return entries.get(index);
-        } finally {
-            lock.readLock().unlock();
-        }
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException ("Index: " + index + ", Size: " + size);
+		return entries[index];
 	}
 
 	public Object[] toArray () {
-        lock.readLock().lock();
-        try {
-            return entries.toArray();
-        } finally {
-            lock.readLock().unlock();
-        }
-    }
+		int size = this.size;
+		return Arrays.copyOf (entries, size);
+	}
 
 	/**
 	 * Returns an array containing all the entries in the Alphabet.
@@ -174,38 +178,26 @@ public class Alphabet implements Serializable
 	 *  <tt>ret[lookupIndex(obj)] = obj</tt> .
 	 */
 	public Object[] toArray (Object[] in) {
-        lock.readLock().lock();
-        try {
-            return entries.toArray(in);
-        } finally {
-            lock.readLock().unlock();
-        }
+		int size = this.size;
+		Object[] entries = this.entries;
+		if (in.length < size)
+			return Arrays.copyOf (entries, size, in.getClass());
+		System.arraycopy (entries, 0, in, 0, size);
+		if (in.length > size)
+			in[size] = null;
+		return in;
 	}
 
 	// xxx This should disable the iterator's remove method...
     // for thread safety returns a _copy_ of the array; should probably use size() and lookupObject() instead
 	public Iterator iterator () {
-        lock.readLock().lock();
-        try {
-            ArrayList copy = new ArrayList();
-            copy.addAll(entries);
-            return copy.iterator();
-        } finally {
-            lock.readLock().unlock();
-        }
+		return new ArrayList (Arrays.asList (toArray ())).iterator();
 	}
 
 	public Object[] lookupObjects (int[] indices)
 	{
-        lock.readLock().lock();
-        try {
-            Object[] ret = new Object[indices.length];
-            for (int i = 0; i < indices.length; i++)
-                ret[i] = entries.get(indices[i]);
-            return ret;
-        } finally {
-            lock.readLock().unlock();
-        }
+		Object[] ret = new Object[indices.length];
+		return lookupObjects (indices, ret);
 	}
 
 	/**
@@ -216,15 +208,15 @@ public class Alphabet implements Serializable
 	 */
 	public Object[] lookupObjects (int[] indices, Object[] buf)
 	{
-        lock.readLock().lock();
-        try {
-            for (int i = 0; i < indices.length; i++)
-                buf[i] = entries.get(indices[i]);
-            return buf;
-        } finally {
-            lock.readLock().unlock();
-        }
-    }
+		int size = this.size;
+		Object[] entries = this.entries;
+		for (int i = 0; i < indices.length; i++) {
+			if (indices[i] < 0 || indices[i] >= size)
+				throw new IndexOutOfBoundsException ("Index: " + indices[i] + ", Size: " + size);
+			buf[i] = entries[indices[i]];
+		}
+		return buf;
+	}
 
 	public int[] lookupIndices (Object[] objects, boolean addIfNotPresent)
 	{
@@ -236,32 +228,32 @@ public class Alphabet implements Serializable
 
 	public boolean contains (Object entry)
 	{
-        lock.readLock().lock();
-        try {
-            return map.contains(entry);
-        } finally {
-            lock.readLock().unlock();
-        }
+		return index.get (entry) >= 0;
 	}
 
 	public int size ()
 	{
-        lock.readLock().lock();
-        try {
-            return entries.size();
-        } finally {
-            lock.readLock().unlock();
-        }
-    }
+		return size;
+	}
 
+	/**
+	 * Stops the addition of entries.  From now on, entries are looked up in an immutable
+	 * table that is shared by all threads without any synchronization.
+	 */
 	public void stopGrowth ()
 	{
-		growthStopped = true;
+		synchronized (growthLock) {
+			if (!growthStopped)
+				setEntries (entries, size, true);
+		}
 	}
 
 	public void startGrowth ()
 	{
-		growthStopped = false;
+		synchronized (growthLock) {
+			if (growthStopped)
+				setEntries (entries, size, false);
+		}
 	}
 
 	public boolean growthStopped ()
@@ -278,17 +270,13 @@ public class Alphabet implements Serializable
 	separated by a newline. */
 	public String toString()
 	{
-        lock.readLock().lock();
-        try {
-            StringBuffer sb = new StringBuffer();
-            for (int i = 0; i < entries.size(); i++) {
-                sb.append(entries.get(i).toString());
-                sb.append('\n');
-            }
-            return sb.toString();
-        } finally {
-            lock.readLock().unlock();
-        }
+		Object[] entries = toArray ();
+		StringBuffer sb = new StringBuffer();
+		for (int i = 0; i < entries.length; i++) {
+			sb.append(entries[i].toString());
+			sb.append('\n');
+		}
+		return sb.toString();
 	}
 
 	public void dump () { dump (System.out); }
@@ -300,15 +288,11 @@ public class Alphabet implements Serializable
 
 	public void dump (PrintWriter out)
 	{
-        lock.readLock().lock();
-        try {
-            for (int i = 0; i < entries.size(); i++) {
-                out.println(i + " => " + entries.get(i));
-            }
-        } finally {
-            lock.readLock().unlock();
-        }
-    }
+		Object[] entries = toArray ();
+		for (int i = 0; i < entries.length; i++) {
+			out.println(i + " => " + entries[i]);
+		}
+	}
 
 	/** Convenience method that can often implement alphabetsMatch in classes that implement the AlphabetsCarrying interface. */
 	public static boolean alphabetsMatch (AlphabetCarrying object1, AlphabetCarrying object2) {
@@ -331,42 +315,120 @@ public class Alphabet implements Serializable
 	private static final int CURRENT_SERIAL_VERSION = 1;
 
 	private void writeObject (ObjectOutputStream out) throws IOException {
-        lock.readLock().lock();
-        try {
-            out.writeInt(CURRENT_SERIAL_VERSION);
-            out.writeInt(entries.size());
-            for (int i = 0; i < entries.size(); i++)
-                out.writeObject(entries.get(i));
-            out.writeBoolean(growthStopped);
-            out.writeObject(entryClass);
-            out.writeObject(instanceId);
-        } finally {
-            lock.readLock().unlock();
-        }
+		synchronized (growthLock) {
+			out.writeInt(CURRENT_SERIAL_VERSION);
+			out.writeInt(size);
+			for (int i = 0; i < size; i++)
+				out.writeObject(entries[i]);
+			out.writeBoolean(growthStopped);
+			out.writeObject(entryClass);
+			out.writeObject(instanceId);
+		}
 	}
 
 	private void readObject (ObjectInputStream in) throws IOException, ClassNotFoundException {
-        lock = new ReentrantReadWriteLock();
-        lock.writeLock().lock();
-        try {
-            int version = in.readInt();
-            int size = in.readInt();
-            entries = new ArrayList(size);
-            map = new gnu.trove.TObjectIntHashMap(size);
-            for (int i = 0; i < size; i++) {
-                Object o = in.readObject();
-                map.put(o, i);
-                entries.add(o);
-            }
-            growthStopped = in.readBoolean();
-            entryClass = (Class) in.readObject();
-            if (version > 0) { // instanced id added in version 1S
-                instanceId = (VMID) in.readObject();
-            }
-        } finally {
-            lock.writeLock().unlock();
-        }
-    }
+		growthLock = new Object();
+		int version = in.readInt();
+		int size = in.readInt();
+		Object[] entries = new Object[Math.max (size, 1)];
+		for (int i = 0; i < size; i++)
+			entries[i] = in.readObject();
+		boolean growthStopped = in.readBoolean();
+		entryClass = (Class) in.readObject();
+		if (version > 0) { // instanced id added in version 1S
+			instanceId = (VMID) in.readObject();
+		}
+		setEntries (entries, size, growthStopped);
+	}
+
+	/** Maps entries to their indices. */
+	private static abstract class Index
+	{
+		/** Returns the index of <code>entry</code> or -1. */
+		abstract int get (Object entry);
+	}
+
+	/**
+	 * The index of a growing Alphabet.  Its lookups don't lock, additions are made while
+	 * holding the growth lock of the Alphabet.
+	 */
+	private static final class GrowingIndex extends Index
+	{
+		// stores index + 1, as the map returns 0 for absent entries
+		final de.julielab.gnu.trove.TConcurrentObjectIntHashMap map;
+
+		GrowingIndex (int capacity)
+		{
+			map = new de.julielab.gnu.trove.TConcurrentObjectIntHashMap (capacity);
+		}
+
+		GrowingIndex (Object[] entries, int size)
+		{
+			this (size);
+			for (int i = 0; i < size; i++)
+				map.put (entries[i], i + 1);
+		}
+
+		int get (Object entry)
+		{
+			return map.get (entry) - 1;
+		}
+
+		void put (Object entry, int index)
+		{
+			map.put (entry, index + 1);
+		}
+	}
+
+	/**
+	 * The index of an Alphabet whose growth is stopped: an immutable open addressed table
+	 * with linear probing, which needs no synchronization at all.
+	 */
+	private static final class FrozenIndex extends Index
+	{
+		final Object[] keys;
+		final int[] hashes;
+		final int[] indices;
+		final int mask;
+
+		FrozenIndex (Object[] entries, int size)
+		{
+			int capacity = Integer.highestOneBit (Math.max (2 * size, 2) - 1) << 1;
+			keys = new Object[capacity];
+			hashes = new int[capacity];
+			indices = new int[capacity];
+			mask = capacity - 1;
+			for (int i = 0; i < size; i++) {
+				int hash = hash (entries[i]);
+				int slot = hash & mask;
+				while (keys[slot] != null)
+					slot = (slot + 1) & mask;
+				keys[slot] = entries[i];
+				hashes[slot] = hash;
+				indices[slot] = i;
+			}
+		}
+
+		int get (Object entry)
+		{
+			int hash = hash (entry);
+			int slot = hash & mask;
+			Object key;
+			while ((key = keys[slot]) != null) {
+				if (key == entry || (hashes[slot] == hash && key.equals (entry)))
+					return indices[slot];
+				slot = (slot + 1) & mask;
+			}
+			return -1;
+		}
+
+		/** Spreads the hash code over the bits used by the mask. */
+		private static int hash (Object entry)
+		{
+			int h = entry.hashCode() * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+	}
 
 	private transient static ConcurrentMap<VMID,Object> deserializedEntries = new ConcurrentHashMap<VMID,Object>();
 
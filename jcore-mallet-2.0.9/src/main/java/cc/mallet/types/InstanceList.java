@@ -33,6 +33,7 @@ import cc.mallet.pipe.Pipe;
 import cc.mallet.pipe.SerialPipes;
 import cc.mallet.pipe.Target2Label;
 import cc.mallet.pipe.TokenSequence2FeatureSequence;
+import cc.mallet.pipe.iterator.ParallelPipeIterator;
 import cc.mallet.pipe.iterator.RandomTokenSequenceIterator;
 
 import cc.mallet.util.MalletLogger;
@@ -268,6 +269,17 @@ public class InstanceList extends ArrayList<Instance> implements Serializable, I
 		    //System.out.println("Add instance " + pipedInstanceIterator.next().getName());
 		}
 	}
+
+	/** Adds to this list every instance generated by the iterator,
+	 * passing each one through this InstanceList's pipe in <code>numThreads</code>
+	 * threads.  The instances are added in the order of the iterator.
+	 * @see ParallelPipeIterator */
+	public void addThruPipe (Iterator<Instance> ii, int numThreads)
+	{
+		Iterator<Instance> pipedInstanceIterator = new ParallelPipeIterator (pipe, ii, numThreads);
+		while (pipedInstanceIterator.hasNext())
+			add (pipedInstanceIterator.next());
+	}
 	
 	// gsc: method to add one instance at a time 
 	/** Adds the input instance to this list, after passing it through the
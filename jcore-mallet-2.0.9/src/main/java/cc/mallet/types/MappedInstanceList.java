@@ -0,0 +1,891 @@
+package cc.mallet.types;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+import cc.mallet.pipe.Pipe;
+
+/**
+ * A read-only InstanceList backed by a file in a binary columnar format, which is
+ * memory-mapped rather than read onto the heap.  Instances are created from the
+ * columns each time they are requested by {@link #get}, so the size of the list is
+ * limited by the disk rather than by the heap, and loading it takes no time.
+ * <p>
+ * A list is stored with {@link #write} and opened with {@link #load}.  The file
+ * holds the pipe and the alphabets in Java serialization, and the instances in
+ * columns of indices, values, offsets, targets, weights and names.  The data of
+ * the instances must be {@link FeatureVector}s, {@link FeatureSequence}s or
+ * {@link FeatureVectorSequence}s, and their targets {@link Label}s,
+ * {@link LabelSequence}s or null.  Sources are not stored, and names are stored as
+ * strings.  If any feature vector has values, all vectors are read with values.
+ * <p>
+ * Since every call of <code>get</code> creates a new Instance, changes to the
+ * instances are not kept, and the list itself cannot be changed.  All methods that
+ * read the list, including <code>toArray</code> and the iterators, create
+ * the instances from the file, and <code>indexOf</code> and <code>contains</code> find
+ * an instance by where it is stored.  It can be read by several threads at once.
+ * {@link #subList(int, int)} returns a view on the same file;
+ * <code>shallowClone</code>, and therefore <code>split</code>, reads all the
+ * instances onto the heap.
+ * <p>
+ * The mapping is released by {@link #close}, or else when the list is garbage
+ * collected.
+ * @see PagedInstanceList
+ */
+public class MappedInstanceList extends InstanceList implements Closeable
+{
+	private static final int MAGIC = 0x4d494c43; // "MILC"
+	private static final int CURRENT_FORMAT_VERSION = 0;
+
+	static final byte DATA_FEATURE_VECTOR = 1;
+	static final byte DATA_FEATURE_SEQUENCE = 2;
+	static final byte DATA_FEATURE_VECTOR_SEQUENCE = 3;
+
+	static final byte TARGET_NONE = 0;
+	static final byte TARGET_LABEL = 1;
+	static final byte TARGET_LABEL_SEQUENCE = 2;
+
+	// The file is mapped in chunks of 1GB, a multiple of the
+	//  8-byte alignment of the columns, so no value spans two chunks.
+	private static final int CHUNK_BITS = 30;
+	private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	final Columns columns;
+	final int first;
+	final int size;
+
+	private MappedInstanceList (Columns columns, int first, int size)
+	{
+		super (columns.pipe, 0);
+		this.columns = columns;
+		this.first = first;
+		this.size = size;
+		this.dataAlphabet = columns.dataAlphabet;
+		this.targetAlphabet = columns.targetAlphabet;
+		this.dataClass = columns.dataClass;
+		this.targetClass = columns.targetClass;
+	}
+
+	/** Returns the file this list is mapped from. */
+	public File getFile () {
+		return columns.file;
+	}
+
+	public int size () {
+		return size;
+	}
+
+	public boolean isEmpty () {
+		return size == 0;
+	}
+
+	/** Creates the <code>Instance</code> at the specified index from the file. */
+	public Instance get (int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException ("Index: "+index+", Size: "+size);
+		return columns.instance (first + index);
+	}
+
+	public Iterator<Instance> iterator () {
+		return listIterator (0);
+	}
+
+	public ListIterator<Instance> listIterator () {
+		return listIterator (0);
+	}
+
+	public ListIterator<Instance> listIterator (final int start) {
+		if (start < 0 || start > size)
+			throw new IndexOutOfBoundsException ("Index: "+start+", Size: "+size);
+		return new ListIterator<Instance>() {
+			int index = start;
+			public boolean hasNext () { return index < size; }
+			public Instance next () {
+				if (index >= size)
+					throw new NoSuchElementException ();
+				return get (index++);
+			}
+			public boolean hasPrevious () { return index > 0; }
+			public Instance previous () {
+				if (index <= 0)
+					throw new NoSuchElementException ();
+				return get (--index);
+			}
+			public int nextIndex () { return index; }
+			public int previousIndex () { return index - 1; }
+			public void remove () { throw new UnsupportedOperationException (); }
+			public void set (Instance instance) { throw new UnsupportedOperationException (); }
+			public void add (Instance instance) { throw new UnsupportedOperationException (); }
+		};
+	}
+
+	public Object[] toArray () {
+		Object[] ret = new Object[size];
+		for (int i = 0; i < size; i++)
+			ret[i] = get (i);
+		return ret;
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray (T[] a) {
+		if (a.length < size)
+			a = (T[]) Array.newInstance (a.getClass ().getComponentType (), size);
+		for (int i = 0; i < size; i++)
+			a[i] = (T) get (i);
+		if (a.length > size)
+			a[size] = null;
+		return a;
+	}
+
+	/** Returns the index of <code>o</code> if it was created by this list or by another
+	 * list mapped from the same file, and -1 otherwise.  Instances are only equal to
+	 * themselves, so an instance of the list is found by its position in the file. */
+	public int indexOf (Object o) {
+		if (o instanceof MappedInstance && ((MappedInstance) o).columns == columns) {
+			int index = ((MappedInstance) o).index - first;
+			if (index >= 0 && index < size)
+				return index;
+		}
+		return -1;
+	}
+
+	public int lastIndexOf (Object o) {
+		return indexOf (o);
+	}
+
+	public boolean contains (Object o) {
+		return indexOf (o) >= 0;
+	}
+
+	/** Returns a list of the instances from <code>start</code> to <code>end</code>
+	 * that is mapped from the same file. */
+	public InstanceList subList (int start, int end) {
+		if (start < 0 || end > size || start > end)
+			throw new IndexOutOfBoundsException ("start="+start+" end="+end+" size="+size);
+		return new MappedInstanceList (columns, first + start, end - start);
+	}
+
+	/** Reads all instances and their weights into a new <code>InstanceList</code>. */
+	public InstanceList shallowClone () {
+		InstanceList ret = cloneEmpty ();
+		for (int i = 0; i < size; i++)
+			ret.add (get (i), getInstanceWeight (i));
+		return ret;
+	}
+
+	public double getInstanceWeight (Instance instance) {
+		if (instance instanceof MappedInstance && ((MappedInstance) instance).columns == columns)
+			return columns.weight (((MappedInstance) instance).index);
+		return super.getInstanceWeight (instance);
+	}
+
+	public double getInstanceWeight (int index) {
+		if (index < 0 || index >= size)
+			throw new IllegalArgumentException("Index out of bounds: index="+index+" size="+size);
+		return columns.weight (first + index);
+	}
+
+	public boolean add (Instance instance) {
+		throw new UnsupportedOperationException ("MappedInstanceList is read-only");
+	}
+
+	public Instance set (int index, Instance instance) {
+		throw new UnsupportedOperationException ("MappedInstanceList is read-only");
+	}
+
+	public Instance remove (int index) {
+		throw new UnsupportedOperationException ("MappedInstanceList is read-only");
+	}
+
+	public boolean remove (Instance instance) {
+		throw new UnsupportedOperationException ("MappedInstanceList is read-only");
+	}
+
+	public void clear () {
+		throw new UnsupportedOperationException ("MappedInstanceList is read-only");
+	}
+
+	public boolean removeAll (Collection<?> c) {
+		throw new UnsupportedOperationException ("MappedInstanceList is read-only");
+	}
+
+	public boolean retainAll (Collection<?> c) {
+		throw new UnsupportedOperationException ("MappedInstanceList is read-only");
+	}
+
+	public void setInstanceWeight (Instance instance, double weight) {
+		throw new UnsupportedOperationException ("MappedInstanceList is read-only");
+	}
+
+	// READING AND WRITING
+
+	/**
+	 * Maps the instances stored in <code>file</code> by {@link #write}.
+	 * @throws IllegalArgumentException if the file cannot be read, with the
+	 *  <code>IOException</code> as its cause
+	 */
+	public static MappedInstanceList load (File file) {
+		try {
+			return map (file);
+		} catch (IOException e) {
+			throw new IllegalArgumentException ("Couldn't read MappedInstanceList from file "+file, e);
+		}
+	}
+
+	private static MappedInstanceList map (File file) throws IOException {
+		Columns columns = new Columns (file);
+		return new MappedInstanceList (columns, 0, columns.numInstances);
+	}
+
+	/**
+	 * Releases the mapping of the file, which this list shares with its sublists.
+	 * The list and its sublists cannot be read afterwards, and since reading an
+	 * unmapped page crashes the JVM, no other thread may read them during the call.
+	 */
+	public void close () {
+		columns.close ();
+	}
+
+	/**
+	 * Stores the instances of <code>instances</code> in <code>file</code>, which can
+	 * then be mapped with {@link #load}.  The instances are read twice, first to
+	 * size the columns and then to write them.
+	 */
+	public static void write (InstanceList instances, File file) throws IOException {
+		int numInstances = instances.size();
+
+		// First pass: the kinds of data and targets and the sizes of the columns
+		byte dataKind = 0;
+		byte targetKind = TARGET_NONE;
+		boolean hasValues = false, hasWeights = false, hasNames = false;
+		long numVectors = 0, numEntries = 0, numTargetEntries = 0, numNameBytes = 0;
+
+		for (int i = 0; i < numInstances; i++) {
+			Instance instance = instances.get(i);
+			Object data = instance.getData();
+			byte kind = dataKind (data);
+			if (dataKind == 0)
+				dataKind = kind;
+			else if (kind != dataKind)
+				throw new IllegalArgumentException ("Instance "+i+" has data of "+data.getClass()+
+						", unlike the instances before it");
+			if (data instanceof FeatureVector) {
+				FeatureVector vector = (FeatureVector) data;
+				numEntries += vector.numLocations();
+				hasValues |= !vector.isBinary();
+			}
+			else if (data instanceof FeatureVectorSequence) {
+				FeatureVectorSequence sequence = (FeatureVectorSequence) data;
+				numVectors += sequence.size();
+				for (int position = 0; position < sequence.size(); position++) {
+					FeatureVector vector = sequence.get(position);
+					numEntries += vector.numLocations();
+					hasValues |= !vector.isBinary();
+				}
+			}
+			else {
+				numEntries += ((FeatureSequence) data).size();
+			}
+
+			Object target = instance.getTarget();
+			if (target != null) {
+				kind = targetKind (target);
+				if (targetKind == TARGET_NONE)
+					targetKind = kind;
+				else if (kind != targetKind)
+					throw new IllegalArgumentException ("Instance "+i+" has a target of "+target.getClass()+
+							", unlike the instances before it");
+				if (target instanceof LabelSequence)
+					numTargetEntries += ((LabelSequence) target).size();
+			}
+
+			hasWeights |= instances.getInstanceWeight(i) != 1.0;
+			if (instance.getName() != null) {
+				hasNames = true;
+				numNameBytes += instance.getName().toString().getBytes(UTF8).length;
+			}
+		}
+		if (dataKind == 0)
+			dataKind = DATA_FEATURE_VECTOR;
+
+		ByteArrayOutputStream objectBytes = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream (objectBytes);
+		oos.writeObject (new Object[] {instances.getPipe(), instances.getDataAlphabet(), instances.getTargetAlphabet()});
+		oos.close();
+
+		Layout layout = new Layout (numInstances, dataKind, targetKind, hasValues, hasWeights, hasNames,
+				numVectors, numEntries, numTargetEntries, numNameBytes, objectBytes.size());
+
+		RandomAccessFile raf = new RandomAccessFile (file, "rw");
+		try {
+			raf.setLength (0);
+			FileChannel channel = raf.getChannel();
+
+			ColumnWriter header = new ColumnWriter (channel, 0);
+			header.putInt (MAGIC);
+			header.putInt (CURRENT_FORMAT_VERSION);
+			header.putInt (numInstances);
+			header.putByte (dataKind);
+			header.putByte (targetKind);
+			header.putByte ((byte) (hasValues ? 1 : 0));
+			header.putByte ((byte) (hasWeights ? 1 : 0));
+			header.putByte ((byte) (hasNames ? 1 : 0));
+			header.putLong (numVectors);
+			header.putLong (numEntries);
+			header.putLong (numTargetEntries);
+			header.putLong (numNameBytes);
+			header.putInt (objectBytes.size());
+			header.putBytes (objectBytes.toByteArray());
+			header.flush();
+
+			// Second pass: the columns
+			ColumnWriter instanceOffsets = new ColumnWriter (channel, layout.instanceOffsets);
+			ColumnWriter vectorOffsets = new ColumnWriter (channel, layout.vectorOffsets);
+			ColumnWriter indices = new ColumnWriter (channel, layout.indices);
+			ColumnWriter values = new ColumnWriter (channel, layout.values);
+			ColumnWriter targets = new ColumnWriter (channel, layout.targets);
+			ColumnWriter targetOffsets = new ColumnWriter (channel, layout.targetOffsets);
+			ColumnWriter targetIndices = new ColumnWriter (channel, layout.targetIndices);
+			ColumnWriter weights = new ColumnWriter (channel, layout.weights);
+			ColumnWriter nameEnds = new ColumnWriter (channel, layout.nameEnds);
+			ColumnWriter nameBytes = new ColumnWriter (channel, layout.nameBytes);
+
+			long instanceOffset = 0, vectorOffset = 0, targetOffset = 0, nameEnd = 0;
+			instanceOffsets.putLong (0);
+			vectorOffsets.putLong (0);
+			targetOffsets.putLong (0);
+			for (int i = 0; i < numInstances; i++) {
+				Instance instance = instances.get(i);
+				Object data = instance.getData();
+				if (data instanceof FeatureVector) {
+					instanceOffset += putVector ((FeatureVector) data, indices, values, hasValues);
+				}
+				else if (data instanceof FeatureVectorSequence) {
+					FeatureVectorSequence sequence = (FeatureVectorSequence) data;
+					for (int position = 0; position < sequence.size(); position++) {
+						vectorOffset += putVector (sequence.get(position), indices, values, hasValues);
+						vectorOffsets.putLong (vectorOffset);
+					}
+					instanceOffset += sequence.size();
+				}
+				else {
+					FeatureSequence sequence = (FeatureSequence) data;
+					for (int position = 0; position < sequence.size(); position++)
+						indices.putInt (sequence.getIndexAtPosition(position));
+					instanceOffset += sequence.size();
+				}
+				instanceOffsets.putLong (instanceOffset);
+
+				Object target = instance.getTarget();
+				if (targetKind == TARGET_LABEL) {
+					targets.putInt (target == null ? -1 : ((Label) target).getIndex());
+				}
+				else if (targetKind == TARGET_LABEL_SEQUENCE) {
+					if (target == null)
+						throw new IllegalArgumentException ("Instance "+i+" has no target sequence");
+					LabelSequence sequence = (LabelSequence) target;
+					for (int position = 0; position < sequence.size(); position++)
+						targetIndices.putInt (sequence.getIndexAtPosition(position));
+					targetOffset += sequence.size();
+					targetOffsets.putLong (targetOffset);
+				}
+
+				if (hasWeights)
+					weights.putDouble (instances.getInstanceWeight(i));
+
+				if (hasNames) {
+					// The end of a null name is stored bitwise negated
+					if (instance.getName() == null) {
+						nameEnds.putLong (~nameEnd);
+					}
+					else {
+						byte[] name = instance.getName().toString().getBytes(UTF8);
+						nameBytes.putBytes (name);
+						nameEnd += name.length;
+						nameEnds.putLong (nameEnd);
+					}
+				}
+			}
+
+			instanceOffsets.flush();
+			if (dataKind == DATA_FEATURE_VECTOR_SEQUENCE)
+				vectorOffsets.flush();
+			indices.flush();
+			if (hasValues)
+				values.flush();
+			if (targetKind == TARGET_LABEL)
+				targets.flush();
+			if (targetKind == TARGET_LABEL_SEQUENCE) {
+				targetOffsets.flush();
+				targetIndices.flush();
+			}
+			if (hasWeights)
+				weights.flush();
+			if (hasNames) {
+				nameEnds.flush();
+				nameBytes.flush();
+			}
+			raf.setLength (layout.end);
+		} finally {
+			raf.close();
+		}
+	}
+
+	private static int putVector (FeatureVector vector, ColumnWriter indices, ColumnWriter values,
+			boolean hasValues) throws IOException {
+		int numLocations = vector.numLocations();
+		for (int location = 0; location < numLocations; location++) {
+			indices.putInt (vector.indexAtLocation(location));
+			if (hasValues)
+				values.putDouble (vector.valueAtLocation(location));
+		}
+		return numLocations;
+	}
+
+	private static byte dataKind (Object data) {
+		if (data instanceof FeatureVector)
+			return DATA_FEATURE_VECTOR;
+		if (data instanceof FeatureVectorSequence)
+			return DATA_FEATURE_VECTOR_SEQUENCE;
+		if (data instanceof FeatureSequence && !(data instanceof LabelSequence))
+			return DATA_FEATURE_SEQUENCE;
+		throw new IllegalArgumentException ("Cannot store data of "+data.getClass());
+	}
+
+	private static byte targetKind (Object target) {
+		if (target instanceof Label)
+			return TARGET_LABEL;
+		if (target instanceof LabelSequence)
+			return TARGET_LABEL_SEQUENCE;
+		throw new IllegalArgumentException ("Cannot store targets of "+target.getClass());
+	}
+
+	/**
+	 * The positions of the columns in the file, each aligned to 8 bytes.
+	 * A column that is not stored has the position of the next one.
+	 */
+	private static class Layout
+	{
+		final long instanceOffsets, vectorOffsets, indices, values;
+		final long targets, targetOffsets, targetIndices, weights, nameEnds, nameBytes;
+		final long end;
+
+		Layout (int numInstances, byte dataKind, byte targetKind,
+				boolean hasValues, boolean hasWeights, boolean hasNames,
+				long numVectors, long numEntries, long numTargetEntries, long numNameBytes,
+				int numObjectBytes) {
+			// magic, version, size, 5 kinds and flags, 4 counts, objects length
+			long position = align (4 + 4 + 4 + 5 + 4 * 8 + 4 + (long) numObjectBytes);
+			instanceOffsets = position;
+			position = align (position + 8L * (numInstances + 1));
+			vectorOffsets = position;
+			if (dataKind == DATA_FEATURE_VECTOR_SEQUENCE)
+				position = align (position + 8L * (numVectors + 1));
+			indices = position;
+			position = align (position + 4L * numEntries);
+			values = position;
+			if (hasValues)
+				position = align (position + 8L * numEntries);
+			targets = position;
+			if (targetKind == TARGET_LABEL)
+				position = align (position + 4L * numInstances);
+			targetOffsets = position;
+			if (targetKind == TARGET_LABEL_SEQUENCE)
+				position = align (position + 8L * (numInstances + 1));
+			targetIndices = position;
+			if (targetKind == TARGET_LABEL_SEQUENCE)
+				position = align (position + 4L * numTargetEntries);
+			weights = position;
+			if (hasWeights)
+				position = align (position + 8L * numInstances);
+			nameEnds = position;
+			if (hasNames)
+				position = align (position + 8L * numInstances);
+			nameBytes = position;
+			if (hasNames)
+				position = align (position + numNameBytes);
+			end = position;
+		}
+
+		private static long align (long position) {
+			return (position + 7) & ~7L;
+		}
+	}
+
+	/** Buffers the values of one column and writes them at the position of the column. */
+	private static class ColumnWriter
+	{
+		final FileChannel channel;
+		final ByteBuffer buffer = ByteBuffer.allocate (1 << 16);
+		long position;
+
+		ColumnWriter (FileChannel channel, long position) {
+			this.channel = channel;
+			this.position = position;
+		}
+
+		void putByte (byte value) throws IOException {
+			if (buffer.remaining() < 1) flush();
+			buffer.put (value);
+		}
+
+		void putInt (int value) throws IOException {
+			if (buffer.remaining() < 4) flush();
+			buffer.putInt (value);
+		}
+
+		void putLong (long value) throws IOException {
+			if (buffer.remaining() < 8) flush();
+			buffer.putLong (value);
+		}
+
+		void putDouble (double value) throws IOException {
+			if (buffer.remaining() < 8) flush();
+			buffer.putDouble (value);
+		}
+
+		void putBytes (byte[] bytes) throws IOException {
+			int offset = 0;
+			while (offset < bytes.length) {
+				if (!buffer.hasRemaining()) flush();
+				int length = Math.min (buffer.remaining(), bytes.length - offset);
+				buffer.put (bytes, offset, length);
+				offset += length;
+			}
+		}
+
+		void flush () throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining())
+				position += channel.write (buffer, position);
+			buffer.clear();
+		}
+	}
+
+	/** The mapped file, shared by a list and its sublists. */
+	static class Columns
+	{
+		final File file;
+		final MappedByteBuffer[] chunks;
+
+		final int numInstances;
+		final byte dataKind, targetKind;
+		final boolean hasValues, hasWeights, hasNames;
+		final Layout layout;
+
+		final Pipe pipe;
+		final Alphabet dataAlphabet, targetAlphabet;
+		final Class dataClass, targetClass;
+
+		volatile boolean closed;
+
+		Columns (File file) throws IOException {
+			this.file = file;
+			RandomAccessFile raf = new RandomAccessFile (file, "r");
+			try {
+				FileChannel channel = raf.getChannel();
+				long length = channel.size();
+				chunks = new MappedByteBuffer[(int) ((length + CHUNK_MASK) >>> CHUNK_BITS)];
+				for (int chunk = 0; chunk < chunks.length; chunk++) {
+					long start = (long) chunk << CHUNK_BITS;
+					chunks[chunk] = channel.map (FileChannel.MapMode.READ_ONLY, start,
+							Math.min (1L << CHUNK_BITS, length - start));
+				}
+			} finally {
+				// The mapping stays valid after the file is closed
+				raf.close();
+			}
+
+			if (chunks.length == 0 || getInt (0) != MAGIC)
+				throw new IOException ("Not a MappedInstanceList file: "+file);
+			int version = getInt (4);
+			if (version > CURRENT_FORMAT_VERSION)
+				throw new IOException ("Unsupported MappedInstanceList format version "+version);
+			numInstances = getInt (8);
+			dataKind = getByte (12);
+			targetKind = getByte (13);
+			hasValues = getByte (14) != 0;
+			hasWeights = getByte (15) != 0;
+			hasNames = getByte (16) != 0;
+			long numVectors = getLong (17);
+			long numEntries = getLong (25);
+			long numTargetEntries = getLong (33);
+			long numNameBytes = getLong (41);
+			int numObjectBytes = getInt (49);
+			layout = new Layout (numInstances, dataKind, targetKind, hasValues, hasWeights, hasNames,
+					numVectors, numEntries, numTargetEntries, numNameBytes, numObjectBytes);
+
+			byte[] objectBytes = new byte[numObjectBytes];
+			getBytes (53, objectBytes, 0, numObjectBytes);
+			ObjectInputStream ois = new ObjectInputStream (new ByteArrayInputStream (objectBytes));
+			Object[] objects;
+			try {
+				objects = (Object[]) ois.readObject();
+			} catch (ClassNotFoundException e) {
+				throw new IOException ("Couldn't read the pipe and alphabets of "+file, e);
+			} finally {
+				ois.close();
+			}
+			pipe = (Pipe) objects[0];
+			dataAlphabet = (Alphabet) objects[1];
+			targetAlphabet = (Alphabet) objects[2];
+
+			dataClass = dataKind == DATA_FEATURE_VECTOR ? FeatureVector.class
+					: dataKind == DATA_FEATURE_SEQUENCE ? FeatureSequence.class
+					: FeatureVectorSequence.class;
+			targetClass = targetKind == TARGET_LABEL ? Label.class
+					: targetKind == TARGET_LABEL_SEQUENCE ? LabelSequence.class
+					: null;
+		}
+
+		Instance instance (int index) {
+			checkOpen ();
+			Object data;
+			if (dataKind == DATA_FEATURE_VECTOR) {
+				data = vector (getLong (layout.instanceOffsets + 8L * index),
+						getLong (layout.instanceOffsets + 8L * (index + 1)));
+			}
+			else if (dataKind == DATA_FEATURE_VECTOR_SEQUENCE) {
+				long start = getLong (layout.instanceOffsets + 8L * index);
+				long end = getLong (layout.instanceOffsets + 8L * (index + 1));
+				FeatureVector[] vectors = new FeatureVector[(int) (end - start)];
+				for (int position = 0; position < vectors.length; position++) {
+					long vector = start + position;
+					vectors[position] = vector (getLong (layout.vectorOffsets + 8L * vector),
+							getLong (layout.vectorOffsets + 8L * (vector + 1)));
+				}
+				if (vectors.length == 0)
+					data = new FeatureVectorSequence (dataAlphabet, new TokenSequence());
+				else
+					data = new FeatureVectorSequence (vectors);
+			}
+			else {
+				long start = getLong (layout.instanceOffsets + 8L * index);
+				FeatureSequence sequence = new FeatureSequence (dataAlphabet, 0);
+				sequence.features = getInts (layout.indices + 4L * start,
+						(int) (getLong (layout.instanceOffsets + 8L * (index + 1)) - start));
+				sequence.length = sequence.features.length;
+				data = sequence;
+			}
+
+			Object target = null;
+			if (targetKind == TARGET_LABEL) {
+				int label = getInt (layout.targets + 4L * index);
+				if (label >= 0)
+					target = ((LabelAlphabet) targetAlphabet).lookupLabel (label);
+			}
+			else if (targetKind == TARGET_LABEL_SEQUENCE) {
+				long start = getLong (layout.targetOffsets + 8L * index);
+				LabelSequence sequence = new LabelSequence ((LabelAlphabet) targetAlphabet, 0);
+				sequence.features = getInts (layout.targetIndices + 4L * start,
+						(int) (getLong (layout.targetOffsets + 8L * (index + 1)) - start));
+				sequence.length = sequence.features.length;
+				target = sequence;
+			}
+
+			String name = null;
+			if (hasNames) {
+				long end = getLong (layout.nameEnds + 8L * index);
+				if (end >= 0) {
+					long start = index == 0 ? 0 : getLong (layout.nameEnds + 8L * (index - 1));
+					if (start < 0)
+						start = ~start;
+					byte[] bytes = new byte[(int) (end - start)];
+					getBytes (layout.nameBytes + start, bytes, 0, bytes.length);
+					name = new String (bytes, UTF8);
+				}
+			}
+
+			Instance instance = new MappedInstance (data, target, name, this, index);
+			instance.lock();
+			return instance;
+		}
+
+		private FeatureVector vector (long start, long end) {
+			int numLocations = (int) (end - start);
+			int[] indices = getInts (layout.indices + 4L * start, numLocations);
+			double[] values = null;
+			if (hasValues)
+				values = getDoubles (layout.values + 8L * start, numLocations);
+			// The indices were written from a vector, so they are sorted and unique
+			return new FeatureVector (dataAlphabet, indices, values,
+					numLocations, numLocations, false, false, false);
+		}
+
+		double weight (int index) {
+			checkOpen ();
+			return hasWeights ? getDouble (layout.weights + 8L * index) : 1.0;
+		}
+
+		private void checkOpen () {
+			if (closed)
+				throw new IllegalStateException ("MappedInstanceList "+file+" has been closed");
+		}
+
+		synchronized void close () {
+			if (closed)
+				return;
+			closed = true;
+			for (int chunk = 0; chunk < chunks.length; chunk++) {
+				unmap (chunks[chunk]);
+				chunks[chunk] = null;
+			}
+		}
+
+		/**
+		 * Java offers no API to release a mapping before the buffer is garbage
+		 * collected, so use the cleaner of the JDK if it is accessible.
+		 */
+		private static void unmap (MappedByteBuffer buffer) {
+			try {
+				// Java 9 and newer
+				Class<?> unsafeClass = Class.forName ("sun.misc.Unsafe");
+				Method invokeCleaner = unsafeClass.getMethod ("invokeCleaner", ByteBuffer.class);
+				Field theUnsafe = unsafeClass.getDeclaredField ("theUnsafe");
+				theUnsafe.setAccessible (true);
+				invokeCleaner.invoke (theUnsafe.get (null), buffer);
+				return;
+			} catch (Exception e) {
+				// fall through to the cleaner of Java 7 and 8
+			}
+			try {
+				Method cleanerMethod = buffer.getClass().getMethod ("cleaner");
+				cleanerMethod.setAccessible (true);
+				Object cleaner = cleanerMethod.invoke (buffer);
+				if (cleaner != null)
+					cleaner.getClass().getMethod ("clean").invoke (cleaner);
+			} catch (Exception e) {
+				// leave the mapping to the garbage collector
+			}
+		}
+
+		private byte getByte (long position) {
+			return chunks[(int) (position >>> CHUNK_BITS)].get ((int) (position & CHUNK_MASK));
+		}
+
+		private int getInt (long position) {
+			return chunks[(int) (position >>> CHUNK_BITS)].getInt ((int) (position & CHUNK_MASK));
+		}
+
+		private long getLong (long position) {
+			return chunks[(int) (position >>> CHUNK_BITS)].getLong ((int) (position & CHUNK_MASK));
+		}
+
+		private double getDouble (long position) {
+			return chunks[(int) (position >>> CHUNK_BITS)].getDouble ((int) (position & CHUNK_MASK));
+		}
+
+		private int[] getInts (long position, int length) {
+			int[] ints = new int[length];
+			int offset = 0;
+			while (offset < length) {
+				// Duplicates have their own position, so threads do not interfere
+				ByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)].duplicate();
+				chunk.position ((int) (position & CHUNK_MASK));
+				int count = Math.min (length - offset, chunk.remaining() / 4);
+				chunk.asIntBuffer().get (ints, offset, count);
+				offset += count;
+				position += 4L * count;
+			}
+			return ints;
+		}
+
+		private double[] getDoubles (long position, int length) {
+			double[] doubles = new double[length];
+			int offset = 0;
+			while (offset < length) {
+				ByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)].duplicate();
+				chunk.position ((int) (position & CHUNK_MASK));
+				int count = Math.min (length - offset, chunk.remaining() / 8);
+				chunk.asDoubleBuffer().get (doubles, offset, count);
+				offset += count;
+				position += 8L * count;
+			}
+			return doubles;
+		}
+
+		private void getBytes (long position, byte[] bytes, int offset, int length) {
+			while (length > 0) {
+				ByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)].duplicate();
+				chunk.position ((int) (position & CHUNK_MASK));
+				int count = Math.min (length, chunk.remaining());
+				chunk.get (bytes, offset, count);
+				offset += count;
+				length -= count;
+				position += count;
+			}
+		}
+	}
+
+	/** An instance that remembers where it is stored, for its weight. */
+	static class MappedInstance extends Instance
+	{
+		transient Columns columns;
+		transient int index;
+
+		MappedInstance (Object data, Object target, Object name, Columns columns, int index) {
+			super (data, target, name, null);
+			this.columns = columns;
+			this.index = index;
+		}
+
+		private static final long serialVersionUID = 1;
+	}
+
+	// Serialization of MappedInstanceList
+
+	private static final long serialVersionUID = 1;
+
+	/** Serializes the file name and the range of the list, rather than the instances. */
+	private Object writeReplace () throws ObjectStreamException {
+		return new SerializedForm (columns.file, first, size);
+	}
+
+	private static class SerializedForm implements Serializable
+	{
+		final File file;
+		final int first, size;
+
+		SerializedForm (File file, int first, int size) {
+			this.file = file;
+			this.first = first;
+			this.size = size;
+		}
+
+		private Object readResolve () throws ObjectStreamException {
+			MappedInstanceList list;
+			try {
+				list = map (file);
+			} catch (IOException e) {
+				InvalidObjectException ioe = new InvalidObjectException ("Couldn't map "+file);
+				ioe.initCause (e);
+				throw ioe;
+			}
+			return first == 0 && size == list.size ? list : list.subList (first, first + size);
+		}
+
+		private static final long serialVersionUID = 1;
+	}
+}
@@ -72,6 +72,187 @@ public class TestMaxEntTrainer extends TestCase
 		TestOptimizable.testValueAndGradientCurrentParameters (maxable);
 	}
 
+	public void testFeatureMajorScoring ()
+	{
+		MaxEntTrainer trainer = new MaxEntTrainer();
+		Alphabet fd = dictOfSize (20);
+		String[] classNames = new String[] {"class0", "class1", "class2", "class3", "class4"};
+		InstanceList ilist = new InstanceList (new Randoms(1), fd, classNames, 50);
+		MaxEnt me = (MaxEnt)trainer.train(ilist);
+		java.util.ArrayList<Classification> expected = me.classify (ilist);
+
+		me.setFeatureMajorScoring (true);
+		assertTrue (me.isFeatureMajorScoring ());
+		double[] scores = new double[classNames.length];
+		double[] featureMajorScores = new double[classNames.length];
+		for (int i = 0; i < ilist.size(); i++) {
+			me.setFeatureMajorScoring (false);
+			me.getUnnormalizedClassificationScores (ilist.get(i), scores);
+			me.setFeatureMajorScoring (true);
+			me.getUnnormalizedClassificationScores (ilist.get(i), featureMajorScores);
+			for (int li = 0; li < scores.length; li++)
+				assertEquals (scores[li], featureMajorScores[li], 0);
+		}
+
+		java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool (3);
+		try {
+			// the executor is reused by repeated calls
+			for (int call = 0; call < 2; call++) {
+				java.util.ArrayList<Classification> actual = me.classify (ilist, executor, 3);
+				assertEquals (expected.size(), actual.size());
+				for (int i = 0; i < expected.size(); i++) {
+					assertSame (ilist.get(i), actual.get(i).getInstance());
+					LabelVector e = expected.get(i).getLabelVector();
+					LabelVector a = actual.get(i).getLabelVector();
+					for (int li = 0; li < classNames.length; li++)
+						assertEquals (e.value (li), a.value (li), 0);
+				}
+			}
+			assertFalse (executor.isShutdown ());
+		} finally {
+			executor.shutdown ();
+		}
+	}
+
+	public void testRetrainFeatureMajorScoring ()
+	{
+		Alphabet fd = dictOfSize (20);
+		String[] classNames = new String[] {"class0", "class1", "class2", "class3"};
+		InstanceList ilist = new InstanceList (new Randoms(1), fd, classNames, 50);
+		MaxEnt me = (MaxEnt) new MaxEntTrainer().setNumIterations (3).train (ilist);
+		me.setFeatureMajorScoring (true);
+		me.classify (ilist);
+
+		// the trainer changes the parameters in place while scoring with the classifier
+		MaxEnt retrained = new MaxEntTrainer (me).train (ilist);
+		assertSame (me, retrained);
+		assertTrue (me.isFeatureMajorScoring ());
+		assertScoresEqualLabelMajor (me, ilist);
+
+		MaxEntOptimizableByBatchLabelLikelihood batched =
+			new MaxEntOptimizableByBatchLabelLikelihood (ilist, me, 2);
+		double[] params = new double[batched.getNumParameters ()];
+		batched.getParameters (params);
+		for (int i = 0; i < params.length; i++)
+			params[i] *= 0.5;
+		batched.setParameters (params);
+		batched.setParameter (3, 1.5);
+		assertScoresEqualLabelMajor (me, ilist);
+
+		// setParameter changes a single weight of the transposed copy
+		me.setParameter (2, 5, 4.0);
+		assertEquals (4.0, me.getParameters ()[2*(fd.size()+1) + 5], 0);
+		assertScoresEqualLabelMajor (me, ilist);
+	}
+
+	private static void assertScoresEqualLabelMajor (MaxEnt me, InstanceList ilist)
+	{
+		int numLabels = me.getLabelAlphabet ().size ();
+		double[] scores = new double[numLabels];
+		double[] featureMajorScores = new double[numLabels];
+		MaxEnt labelMajor = new MaxEnt (me.getInstancePipe (), me.getParameters ().clone ());
+		for (int i = 0; i < ilist.size(); i++) {
+			labelMajor.getUnnormalizedClassificationScores (ilist.get(i), scores);
+			me.getUnnormalizedClassificationScores (ilist.get(i), featureMajorScores);
+			for (int li = 0; li < numLabels; li++)
+				assertEquals (scores[li], featureMajorScores[li], 0);
+		}
+	}
+
+	public void testThreadedLabelLikelihood ()
+	{
+		Alphabet fd = dictOfSize (20);
+		String[] classNames = new String[] {"class0", "class1", "class2"};
+		InstanceList ilist = new InstanceList (new Randoms(1), fd, classNames, 100);
+		MaxEntOptimizableByLabelLikelihood sequential = new MaxEntTrainer().getOptimizable (ilist);
+		MaxEntOptimizableByBatchLabelLikelihood batched =
+			new MaxEntOptimizableByBatchLabelLikelihood (ilist, null, 3);
+
+		double[] parameters = new double[sequential.getNumParameters()];
+		java.util.Random r = new java.util.Random (1);
+		for (int i = 0; i < parameters.length; i++)
+			parameters[i] = r.nextGaussian ();
+		sequential.setParameters (parameters);
+		batched.setParameters (parameters);
+
+		int[][] batches = new int[][] {{0, 30}, {30, 60}, {60, ilist.size()}};
+		double value = 0;
+		java.util.List<double[]> gradients = new java.util.ArrayList<double[]>();
+		for (int b = 0; b < batches.length; b++)
+			value += batched.getBatchValue (b, batches[b]);
+		for (int b = 0; b < batches.length; b++) {
+			double[] gradient = new double[parameters.length];
+			batched.getBatchValueGradient (gradient, b, batches[b]);
+			gradients.add (gradient);
+		}
+		double[] gradient = new double[parameters.length];
+		batched.combineGradients (gradients, gradient);
+		double[] expectedGradient = new double[parameters.length];
+		sequential.getValueGradient (expectedGradient);
+		assertEquals (sequential.getValue (), value, 1e-8);
+		for (int i = 0; i < gradient.length; i++)
+			assertEquals (expectedGradient[i], gradient[i], 1e-8);
+
+		MaxEnt expected = new MaxEntTrainer().train (ilist);
+		MaxEntTrainerByThreadedLabelLikelihood trainer = new MaxEntTrainerByThreadedLabelLikelihood (3);
+		MaxEnt actual = trainer.train (ilist);
+		trainer.shutdown ();
+		assertSame (actual, trainer.getClassifier ());
+		for (int i = 0; i < ilist.size(); i++) {
+			LabelVector e = expected.classify (ilist.get(i)).getLabelVector();
+			LabelVector a = actual.classify (ilist.get(i)).getLabelVector();
+			for (int li = 0; li < classNames.length; li++)
+				assertEquals (e.value (li), a.value (li), 1e-3);
+		}
+	}
+
+	public void testBatchHyperbolicPriorGradient ()
+	{
+		Alphabet fd = dictOfSize (10);
+		String[] classNames = new String[] {"class0", "class1", "class2"};
+		InstanceList ilist = new InstanceList (new Randoms(1), fd, classNames, 40);
+		MaxEntOptimizableByBatchLabelLikelihood batched =
+			new MaxEntOptimizableByBatchLabelLikelihood (ilist, null, 2);
+		batched.setHyperbolicPriorSlope (0.5).setHyperbolicPriorSharpness (3.0);
+		int[][] batches = new int[][] {{0, 20}, {20, ilist.size()}};
+
+		double[] parameters = new double[batched.getNumParameters()];
+		java.util.Random r = new java.util.Random (1);
+		for (int i = 0; i < parameters.length; i++)
+			parameters[i] = r.nextGaussian ();
+		batched.setParameters (parameters);
+		java.util.List<double[]> gradients = new java.util.ArrayList<double[]>();
+		for (int b = 0; b < batches.length; b++) {
+			batched.getBatchValue (b, batches[b]);
+			double[] gradient = new double[parameters.length];
+			batched.getBatchValueGradient (gradient, b, batches[b]);
+			gradients.add (gradient);
+		}
+		double[] gradient = new double[parameters.length];
+		batched.combineGradients (gradients, gradient);
+
+		// compare with the central difference of the value
+		double epsilon = 1e-5;
+		for (int i = 0; i < parameters.length; i++) {
+			double[] shifted = parameters.clone ();
+			shifted[i] = parameters[i] + epsilon;
+			double upper = batchValue (batched, shifted, batches);
+			shifted[i] = parameters[i] - epsilon;
+			double lower = batchValue (batched, shifted, batches);
+			assertEquals ((upper - lower) / (2 * epsilon), gradient[i], 1e-5);
+		}
+	}
+
+	private static double batchValue (MaxEntOptimizableByBatchLabelLikelihood batched, double[] parameters,
+			int[][] batches)
+	{
+		batched.setParameters (parameters);
+		double value = 0;
+		for (int b = 0; b < batches.length; b++)
+			value += batched.getBatchValue (b, batches[b]);
+		return value;
+	}
+
 	public static Test suite ()
 	{
 		return new TestSuite (TestMaxEntTrainer.class);
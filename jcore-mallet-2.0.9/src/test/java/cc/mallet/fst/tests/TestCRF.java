@@ -58,6 +58,7 @@ import cc.mallet.pipe.tsf.OffsetConjunctions;
 import cc.mallet.pipe.tsf.TokenText;
 
 import cc.mallet.fst.CRF;
+import cc.mallet.fst.CRFMaxLattice;
 import cc.mallet.fst.CRFTrainerByLabelLikelihood;
 import cc.mallet.fst.CRFTrainerByStochasticGradient;
 import cc.mallet.fst.MaxLattice;
@@ -249,6 +250,65 @@ public class TestCRF extends TestCase {
 		assertTrue(viterbiPath.get(2) == crf.getState(1));
 	}
 
+	public void testCRFMaxLattice() {
+		Pipe p = makeSpacePredictionPipe();
+		InstanceList training = new InstanceList(p);
+		training.addThruPipe(new ArrayIterator(data));
+
+		CRF crf = new CRF(p, null);
+		crf.addFullyConnectedStatesForLabels();
+		CRFTrainerByLabelLikelihood crft = new CRFTrainerByLabelLikelihood(crf);
+		crft.train(training, 5);
+		assertSameBestPaths(crf, training, true);
+
+		// Initial and final weights are part of the deltas, but not of the best weight
+		for (int si = 0; si < crf.numStates(); si++) {
+			crf.getState(si).setInitialWeight(0.25 * si);
+			crf.getState(si).setFinalWeight(-0.5 * si);
+		}
+		assertSameBestPaths(crf, training, true);
+
+		// Transitions with several weights, some of them -infinite
+		int widx = crf.getWeightsIndex("BadBad");
+		SparseVector w = new SparseVector(new double[crf.getInputAlphabet().size()]);
+		w.setAll(Double.NEGATIVE_INFINITY);
+		crf.setWeights(widx, w);
+		crf.getState("notstart").addWeight(0, "BadBad");
+		// the labels may now be impossible, so only decode unconstrained
+		assertSameBestPaths(crf, training, false);
+
+		// The factory decodes in a reused workspace
+		crf.setMaxLatticeFactory(new CRFMaxLattice.Factory());
+		for (int i = 0; i < training.size(); i++) {
+			Sequence input = (Sequence) training.get(i).getData();
+			assertEquals(new MaxLatticeDefault(crf, input).bestOutputSequence().toString(),
+					crf.transduce(input).toString());
+		}
+	}
+
+	private void assertSameBestPaths(CRF crf, InstanceList instances, boolean constrained) {
+		CRFMaxLattice.Workspace workspace = new CRFMaxLattice.Workspace();
+		for (int i = 0; i < instances.size(); i++) {
+			Sequence input = (Sequence) instances.get(i).getData();
+			Sequence output = (Sequence) instances.get(i).getTarget();
+			for (Sequence constraint : constrained ? new Sequence[] { null, output } : new Sequence[] { null }) {
+				MaxLatticeDefault expected = new MaxLatticeDefault(crf, input, constraint);
+				CRFMaxLattice actual = new CRFMaxLattice(crf, input, constraint, workspace);
+				Sequence<Transducer.State> expectedStates = expected.bestStateSequence();
+				Sequence<Transducer.State> actualStates = actual.bestStateSequence();
+				assertEquals(expectedStates.size(), actualStates.size());
+				for (int ip = 0; ip < expectedStates.size(); ip++) {
+					assertSame(expectedStates.get(ip), actualStates.get(ip));
+					for (int si = 0; si < crf.numStates(); si++)
+						assertEquals(expected.getDelta(ip, si), actual.getDelta(ip, si), 0);
+				}
+				assertEquals(expected.bestOutputSequence().toString(),
+						actual.bestOutputSequence().toString());
+				assertEquals(expected.bestWeight(), actual.bestWeight(), 1e-9 * Math.abs(expected.bestWeight()));
+			}
+		}
+	}
+
 	// Should print at end:
 	// parameters 4 4 3: unconstrainedWeight=2912.0 constrainedWeight=428.0
 	// maxWeight=35770.0 minGrad=520.0
@@ -8,11 +8,15 @@
 package cc.mallet.pipe.tests;
 
 import java.io.*;
+import java.util.Iterator;
 
-import cc.mallet.pipe.Noop;
-import cc.mallet.pipe.Pipe;
+import cc.mallet.pipe.*;
 import cc.mallet.pipe.iterator.*;
+import cc.mallet.types.Alphabet;
+import cc.mallet.types.Dirichlet;
+import cc.mallet.types.FeatureVector;
 import cc.mallet.types.InstanceList;
+import cc.mallet.util.Randoms;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -52,6 +56,47 @@ public class TestIterators extends TestCase {
 		assertEquals ("(  6)", lst.get(2).getData());
 	}
 
+	private static Pipe newPipe ()
+	{
+		return new SerialPipes (new Pipe[] {
+			new TokenSequenceLowercase (),
+			new TokenSequence2FeatureSequence (),
+			new FeatureSequence2FeatureVector (),
+			new Target2Label ()});
+	}
+
+	private static Iterator<cc.mallet.types.Instance> newSource ()
+	{
+		Alphabet dict = new Alphabet ();
+		for (int i = 0; i < 50; i++)
+			dict.lookupIndex ("Feature"+i);
+		return new RandomTokenSequenceIterator (new Randoms (1), new Dirichlet (dict, 2.0),
+				30, 0, 10, 200, new String[] {"class0", "class1", "class2"});
+	}
+
+	public void testParallelPipeIterator ()
+	{
+		InstanceList sequential = new InstanceList (newPipe ());
+		sequential.addThruPipe (newSource ());
+		InstanceList parallel = new InstanceList (newPipe ());
+		parallel.addThruPipe (newSource (), 4);
+
+		assertEquals (sequential.size(), parallel.size());
+		// The Alphabets grow in the same order
+		assertEquals (sequential.getDataAlphabet().size(), parallel.getDataAlphabet().size());
+		for (int i = 0; i < sequential.getDataAlphabet().size(); i++)
+			assertEquals (sequential.getDataAlphabet().lookupObject (i), parallel.getDataAlphabet().lookupObject (i));
+		for (int i = 0; i < sequential.getTargetAlphabet().size(); i++)
+			assertEquals (sequential.getTargetAlphabet().lookupObject (i), parallel.getTargetAlphabet().lookupObject (i));
+
+		for (int i = 0; i < sequential.size(); i++) {
+			assertEquals (sequential.get(i).getName(), parallel.get(i).getName());
+			FeatureVector expected = (FeatureVector) sequential.get(i).getData();
+			FeatureVector actual = (FeatureVector) parallel.get(i).getData();
+			assertEquals (expected.toString(), actual.toString());
+			assertEquals (sequential.get(i).getLabeling().getBestIndex(), parallel.get(i).getLabeling().getBestIndex());
+		}
+	}
 
 /**
  * @return a <code>TestSuite</code>
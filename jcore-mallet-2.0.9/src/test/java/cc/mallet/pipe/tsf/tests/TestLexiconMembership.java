@@ -0,0 +1,89 @@
+package cc.mallet.pipe.tsf.tests;
+
+import junit.framework.*;
+
+import java.io.StringReader;
+
+import cc.mallet.pipe.*;
+import cc.mallet.pipe.tsf.*;
+import cc.mallet.types.*;
+import cc.mallet.types.tests.TestSerializable;
+
+public class TestLexiconMembership extends TestCase
+{
+	public TestLexiconMembership (String name) {
+		super (name);
+	}
+
+	private static final String LEXICON =
+		"tumor necrosis factor\n" +
+		"tumor necrosis\n" +
+		"p53\n" +
+		"NF kappa B\n" +
+		"\u00c4rger\n";
+
+	private static TokenSequence tokens (String text)
+	{
+		TokenSequence ts = new TokenSequence ();
+		for (String token : text.split (" "))
+			ts.add (new Token (token));
+		return ts;
+	}
+
+	private static String marks (TokenSequence ts, String name)
+	{
+		StringBuilder ret = new StringBuilder ();
+		for (int i = 0; i < ts.size(); i++)
+			ret.append (ts.get(i).getFeatureValue (name) == 1.0 ? '1' : '0');
+		return ret.toString ();
+	}
+
+	public void testTrieLexiconMembership () throws Exception
+	{
+		Pipe p = new TrieLexiconMembership ("LEX", new StringReader (LEXICON), true);
+		TokenSequence ts = tokens ("the Tumor necrosis factor and TUMOR necrosis of nf Kappa b in p53 (p53) \u00e4rger tumor");
+		p.instanceFrom (new Instance (ts, null, null, null));
+		assertEquals ("0111011011101010", marks (ts, "LEX"));
+
+		Pipe caseSensitive = new TrieLexiconMembership ("LEX", new StringReader (LEXICON), false);
+		ts = tokens ("Tumor necrosis factor tumor necrosis NF kappa B");
+		caseSensitive.instanceFrom (new Instance (ts, null, null, null));
+		assertEquals ("00011111", marks (ts, "LEX"));
+	}
+
+	public void testLexiconMembership () throws Exception
+	{
+		Pipe p = new LexiconMembership ("LEX", new StringReader (LEXICON), true);
+		TokenSequence ts = tokens ("P53 (p53) p53. tumor \u00c4RGER");
+		p.instanceFrom (new Instance (ts, null, null, null));
+		assertEquals ("11101", marks (ts, "LEX"));
+	}
+
+	public void testSharedLexiconSerialization () throws Exception
+	{
+		TokenLexicon lexicon = new TokenLexicon (new StringReader (LEXICON), true, false, " ");
+		assertEquals (5, lexicon.size());
+		Pipe p = new SerialPipes (new Pipe[] {
+			new TrieLexiconMembership ("PHRASE", lexicon),
+			new LexiconMembership ("WORD", lexicon)});
+		SerialPipes clone = (SerialPipes) TestSerializable.cloneViaSerialization (p);
+		assertSame (((TrieLexiconMembership) clone.getPipe (0)).getLexicon (),
+		            ((LexiconMembership) clone.getPipe (1)).getLexicon ());
+
+		TokenSequence ts = tokens ("tumor necrosis factor p53 tumor");
+		clone.instanceFrom (new Instance (ts, null, null, null));
+		assertEquals ("11110", marks (ts, "PHRASE"));
+		assertEquals ("00010", marks (ts, "WORD"));
+	}
+
+	public static Test suite ()
+	{
+		return new TestSuite (TestLexiconMembership.class);
+	}
+
+	public static void main (String[] args)
+	{
+		junit.textui.TestRunner.run (suite());
+	}
+
+}
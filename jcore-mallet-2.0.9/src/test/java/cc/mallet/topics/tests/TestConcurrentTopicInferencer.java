@@ -0,0 +1,97 @@
+/* Copyright (C) 2005 Univ. of Massachusetts Amherst, Computer Science Dept.
+   This file is part of "MALLET" (MAchine Learning for LanguagE Toolkit).
+   http://www.cs.umass.edu/~mccallum/mallet
+   This software is provided under the terms of the Common Public License,
+   version 1.0, as published by http://www.opensource.org.  For further
+   information, see the file `LICENSE' included with this distribution. */
+
+package cc.mallet.topics.tests;
+
+import junit.framework.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import cc.mallet.pipe.Noop;
+import cc.mallet.topics.*;
+import cc.mallet.types.*;
+
+public class TestConcurrentTopicInferencer extends TestCase
+{
+	public TestConcurrentTopicInferencer (String name)
+	{
+		super (name);
+	}
+
+	private static InstanceList corpus (int numDocs)
+	{
+		Alphabet dict = new Alphabet ();
+		for (int i = 0; i < 30; i++)
+			dict.lookupIndex ("word"+i);
+		InstanceList ilist = new InstanceList (new Noop (dict, null));
+		java.util.Random r = new java.util.Random (1);
+		for (int d = 0; d < numDocs; d++) {
+			// each document draws most of its words from one third of the vocabulary
+			int[] features = new int[10 + r.nextInt (20)];
+			for (int i = 0; i < features.length; i++)
+				features[i] = r.nextInt (4) == 0 ? r.nextInt (30) : (d % 3) * 10 + r.nextInt (10);
+			ilist.add (new Instance (new FeatureSequence (dict, features), null, "doc"+d, null));
+		}
+		return ilist;
+	}
+
+	public void testSeededBatchMatchesSequentialInference () throws java.io.IOException
+	{
+		InstanceList ilist = corpus (40);
+		ParallelTopicModel model = new ParallelTopicModel (3);
+		model.addInstances (ilist);
+		model.setNumIterations (50);
+		model.setNumThreads (1);
+		model.setRandomSeed (1);
+		model.estimate ();
+		TopicInferencer inferencer = model.getInferencer ();
+
+		List<Instance> docs = new ArrayList<Instance> (ilist);
+		int seed = 7;
+		ConcurrentTopicInferencer concurrent = new ConcurrentTopicInferencer (inferencer, 3);
+		try {
+			concurrent.setRandomSeed (seed);
+			assertSameAsSequential (inferencer, seed, docs, concurrent.getSampledDistributions (docs, 20, 1, 5));
+
+			// a new batch starts new worker threads after a shutdown
+			concurrent.shutdown ();
+			concurrent.shutdown ();
+			assertSameAsSequential (inferencer, seed, docs, concurrent.getSampledDistributions (docs, 20, 1, 5));
+		} finally {
+			concurrent.shutdown ();
+		}
+	}
+
+	/** Document i of a batch seeded with s must be sampled as with TopicInferencer.setRandomSeed(s+i). */
+	private static void assertSameAsSequential (TopicInferencer inferencer, int seed, List<Instance> docs,
+			double[][] actual)
+	{
+		assertEquals (docs.size (), actual.length);
+		for (int i = 0; i < docs.size (); i++) {
+			inferencer.setRandomSeed (seed + i);
+			double[] expected = inferencer.getSampledDistribution (docs.get (i), 20, 1, 5);
+			assertEquals (expected.length, actual[i].length);
+			for (int t = 0; t < expected.length; t++)
+				assertEquals ("document "+i+", topic "+t, expected[t], actual[i][t], 0);
+		}
+	}
+
+	public static Test suite ()
+	{
+		return new TestSuite (TestConcurrentTopicInferencer.class);
+	}
+
+	protected void setUp ()
+	{
+	}
+
+	public static void main (String[] args)
+	{
+		junit.textui.TestRunner.run (suite());
+	}
+
+}
@@ -9,6 +9,8 @@ package cc.mallet.types.tests;
 import junit.framework.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import cc.mallet.types.Alphabet;
 
@@ -47,6 +49,84 @@ public class TestAlphabet extends TestCase {
     assertTrue (dict == dict2);
   }
 
+  public void testStopGrowth ()
+  {
+    Alphabet dict = new Alphabet ();
+    for (int i = 0; i < 1000; i++)
+      assertEquals (i, dict.lookupIndex ("TEST" + i));
+    dict.stopGrowth ();
+    for (int i = 0; i < 1000; i++) {
+      assertEquals (i, dict.lookupIndex ("TEST" + i));
+      assertEquals ("TEST" + i, dict.lookupObject (i));
+    }
+    assertEquals (-1, dict.lookupIndex ("TEST1000", true));
+    assertFalse (dict.contains ("TEST1000"));
+    assertEquals (1000, dict.size());
+
+    dict.startGrowth ();
+    assertEquals (1000, dict.lookupIndex ("TEST1000", true));
+    assertEquals (999, dict.lookupIndex ("TEST999", false));
+    assertEquals (1001, dict.size());
+  }
+
+  public void testSerializeStopped () throws IOException, ClassNotFoundException
+  {
+    Alphabet dict = new Alphabet ();
+    dict.lookupIndex ("TEST1");
+    dict.lookupIndex ("TEST2");
+    dict.stopGrowth ();
+    // a new instance id, so that readResolve doesn't return dict itself
+    dict.setInstanceId (new java.rmi.dgc.VMID ());
+    Alphabet dict2 = (Alphabet) TestSerializable.cloneViaSerialization (dict);
+    assertTrue (dict != dict2);
+    assertTrue (dict2.growthStopped ());
+    assertEquals (1, dict2.lookupIndex ("TEST2"));
+    assertEquals (-1, dict2.lookupIndex ("TEST3"));
+    assertEquals ("TEST1", dict2.lookupObject (0));
+  }
+
+  public void testConcurrentGrowth () throws InterruptedException
+  {
+    final Alphabet dict = new Alphabet ();
+    final int numEntries = 10000;
+    final int[][] indices = new int[4][numEntries];
+    // lookups of entries just added by another thread, which fail in the threads
+    final int[] mismatches = new int[indices.length];
+    List<Thread> threads = new ArrayList<Thread> ();
+    for (int t = 0; t < indices.length; t++) {
+      final int[] threadIndices = indices[t];
+      final int offset = t * 997;
+      final int thread = t;
+      threads.add (new Thread () {
+        public void run () {
+          for (int i = 0; i < numEntries; i++) {
+            int entry = (i + offset) % numEntries;
+            threadIndices[entry] = dict.lookupIndex ("TEST" + entry);
+            if (!("TEST" + entry).equals (dict.lookupObject (threadIndices[entry])))
+              mismatches[thread]++;
+          }
+        }
+      });
+    }
+    for (Thread thread : threads)
+      thread.start ();
+    for (Thread thread : threads)
+      thread.join ();
+
+    for (int t = 0; t < indices.length; t++)
+      assertEquals (0, mismatches[t]);
+    assertEquals (numEntries, dict.size ());
+    boolean[] seen = new boolean[numEntries];
+    for (int i = 0; i < numEntries; i++) {
+      int index = indices[0][i];
+      for (int t = 1; t < indices.length; t++)
+        assertEquals (index, indices[t][i]);
+      assertFalse (seen[index]);
+      seen[index] = true;
+      assertEquals ("TEST" + i, dict.lookupObject (index));
+    }
+  }
+
   public static Test suite ()
   {
     return new TestSuite (TestAlphabet.class);
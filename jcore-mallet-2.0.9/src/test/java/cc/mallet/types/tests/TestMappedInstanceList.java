@@ -0,0 +1,283 @@
+package cc.mallet.types.tests;
+
+import junit.framework.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import cc.mallet.classify.*;
+import cc.mallet.pipe.*;
+import cc.mallet.pipe.iterator.RandomTokenSequenceIterator;
+import cc.mallet.types.Alphabet;
+import cc.mallet.types.Dirichlet;
+import cc.mallet.types.FeatureSequence;
+import cc.mallet.types.FeatureVector;
+import cc.mallet.types.FeatureVectorSequence;
+import cc.mallet.types.Instance;
+import cc.mallet.types.InstanceList;
+import cc.mallet.types.LabelAlphabet;
+import cc.mallet.types.LabelSequence;
+import cc.mallet.types.MappedInstanceList;
+import cc.mallet.util.Randoms;
+
+public class TestMappedInstanceList extends TestCase {
+
+  public TestMappedInstanceList (String name)
+  {
+    super (name);
+  }
+
+  public static Test suite ()
+  {
+    return new TestSuite (TestMappedInstanceList.class);
+  }
+
+  private static Alphabet dictOfSize (int size)
+  {
+    Alphabet ret = new Alphabet ();
+    for (int i = 0; i < size; i++)
+      ret.lookupIndex ("feature"+i);
+    return ret;
+  }
+
+  private static MappedInstanceList writeAndLoad (InstanceList instances) throws Exception
+  {
+    File file = File.createTempFile ("mapped", ".instances");
+    file.deleteOnExit ();
+    MappedInstanceList.write (instances, file);
+    return MappedInstanceList.load (file);
+  }
+
+  private static void assertSameVector (FeatureVector expected, FeatureVector actual)
+  {
+    assertEquals (expected.numLocations (), actual.numLocations ());
+    for (int loc = 0; loc < expected.numLocations (); loc++) {
+      assertEquals (expected.indexAtLocation (loc), actual.indexAtLocation (loc));
+      assertEquals (expected.valueAtLocation (loc), actual.valueAtLocation (loc), 0.0);
+    }
+  }
+
+  public void testFeatureVectors () throws Exception
+  {
+    Pipe p = new SerialPipes (new Pipe[] {
+      new TokenSequence2FeatureSequence (),
+      new FeatureSequence2FeatureVector (),
+      new Target2Label ()});
+    InstanceList training = new InstanceList (p);
+    Randoms r = new Randoms (1);
+    String[] classNames = new String[] {"class0", "class1", "class2"};
+    training.addThruPipe (new RandomTokenSequenceIterator (r, new Dirichlet (dictOfSize (20), 2.0),
+        30, 0, 10, 200, classNames));
+    training.setInstanceWeight (3, 2.5);
+
+    MappedInstanceList mapped = writeAndLoad (training);
+    assertEquals (training.size (), mapped.size ());
+    assertSame (mapped.getDataAlphabet (), mapped.getPipe ().getDataAlphabet ());
+    for (int i = 0; i < training.size (); i++) {
+      Instance expected = training.get (i);
+      Instance actual = mapped.get (i);
+      assertSameVector ((FeatureVector) expected.getData (), (FeatureVector) actual.getData ());
+      assertSame (mapped.getDataAlphabet (), ((FeatureVector) actual.getData ()).getAlphabet ());
+      assertEquals (expected.getLabeling ().getBestIndex (), actual.getLabeling ().getBestIndex ());
+      assertEquals (String.valueOf (expected.getName ()), actual.getName ());
+      assertEquals (training.getInstanceWeight (i), mapped.getInstanceWeight (i), 0.0);
+      assertEquals (training.getInstanceWeight (i), mapped.getInstanceWeight (actual), 0.0);
+    }
+
+    // The trained classifiers are the same
+    Classifier c1 = new MaxEntTrainer ().train (training);
+    Classifier c2 = new MaxEntTrainer ().train (mapped);
+    for (Instance instance : mapped)
+      assertEquals (c1.classify (instance).getLabeling ().value (0),
+                    c2.classify (instance).getLabeling ().value (0), 1e-6);
+  }
+
+  public void testSequences () throws Exception
+  {
+    Alphabet dict = dictOfSize (50);
+    LabelAlphabet labels = new LabelAlphabet ();
+    labels.lookupIndex ("O");
+    labels.lookupIndex ("B");
+    labels.lookupIndex ("I");
+    InstanceList instances = new InstanceList (dict, labels);
+    java.util.Random r = new java.util.Random (1);
+    for (int i = 0; i < 30; i++) {
+      FeatureVector[] vectors = new FeatureVector[1 + r.nextInt (10)];
+      int[] tags = new int[vectors.length];
+      for (int t = 0; t < vectors.length; t++) {
+        int[] indices = new int[r.nextInt (5)];
+        for (int j = 0; j < indices.length; j++)
+          indices[j] = r.nextInt (dict.size ());
+        vectors[t] = new FeatureVector (dict, indices);
+        tags[t] = r.nextInt (labels.size ());
+      }
+      instances.add (new Instance (new FeatureVectorSequence (vectors),
+          new LabelSequence (labels, tags), i % 3 == 0 ? null : "seq"+i, null));
+    }
+
+    MappedInstanceList mapped = writeAndLoad (instances);
+    assertEquals (instances.size (), mapped.size ());
+    for (int i = 0; i < instances.size (); i++) {
+      FeatureVectorSequence expected = (FeatureVectorSequence) instances.get (i).getData ();
+      FeatureVectorSequence actual = (FeatureVectorSequence) mapped.get (i).getData ();
+      assertEquals (expected.size (), actual.size ());
+      for (int t = 0; t < expected.size (); t++) {
+        assertTrue (actual.get (t).isBinary ());
+        assertSameVector (expected.get (t), actual.get (t));
+      }
+      LabelSequence tags = (LabelSequence) mapped.get (i).getTarget ();
+      assertTrue (Arrays.equals (((LabelSequence) instances.get (i).getTarget ()).toFeatureIndexSequence (),
+                                 tags.getFeatures ()));
+      assertSame (labels, tags.getAlphabet ());
+      assertEquals (instances.get (i).getName (), mapped.get (i).getName ());
+    }
+  }
+
+  public void testFeatureSequencesSubListAndSerialization () throws Exception
+  {
+    Alphabet dict = dictOfSize (100);
+    InstanceList instances = new InstanceList (dict, null);
+    java.util.Random r = new java.util.Random (2);
+    for (int i = 0; i < 40; i++) {
+      int[] tokens = new int[r.nextInt (20)];
+      for (int j = 0; j < tokens.length; j++)
+        tokens[j] = r.nextInt (dict.size ());
+      instances.add (new Instance (new FeatureSequence (dict, tokens), null, "doc"+i, null));
+    }
+
+    MappedInstanceList mapped = writeAndLoad (instances);
+    InstanceList tail = mapped.subList (10, 40);
+    assertTrue (tail instanceof MappedInstanceList);
+    assertEquals (30, tail.size ());
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+    ObjectOutputStream oos = new ObjectOutputStream (bytes);
+    oos.writeObject (tail);
+    oos.close ();
+    InstanceList read = (InstanceList) new ObjectInputStream (
+        new ByteArrayInputStream (bytes.toByteArray ())).readObject ();
+    assertEquals (30, read.size ());
+
+    int i = 10;
+    for (Instance instance : read) {
+      FeatureSequence expected = (FeatureSequence) instances.get (i).getData ();
+      assertTrue (Arrays.equals (expected.toFeatureIndexSequence (),
+                                 ((FeatureSequence) instance.getData ()).toFeatureIndexSequence ()));
+      assertEquals ("doc"+i, instance.getName ());
+      i++;
+    }
+    assertEquals (40, i);
+
+    try {
+      mapped.add (instances.get (0));
+      fail ("A MappedInstanceList is read-only");
+    } catch (UnsupportedOperationException e) {
+    }
+  }
+
+  public void testCollectionViews () throws Exception
+  {
+    Alphabet dict = dictOfSize (20);
+    InstanceList instances = new InstanceList (dict, null);
+    for (int i = 0; i < 12; i++)
+      instances.add (new Instance (new FeatureSequence (dict, new int[] {i, i + 1}), null, "doc"+i, null));
+    MappedInstanceList mapped = writeAndLoad (instances);
+    InstanceList tail = mapped.subList (4, 12);
+
+    Object[] array = mapped.toArray ();
+    assertEquals (12, array.length);
+    assertEquals ("doc3", ((Instance) array[3]).getName ());
+    Instance[] typed = tail.toArray (new Instance[0]);
+    assertEquals (8, typed.length);
+    assertEquals ("doc4", typed[0].getName ());
+    Instance[] large = mapped.toArray (new Instance[14]);
+    assertEquals ("doc11", large[11].getName ());
+    assertNull (large[12]);
+
+    java.util.List<Object> names = new java.util.ArrayList<Object> ();
+    for (Instance instance : tail)
+      names.add (instance.getName ());
+    assertEquals (java.util.Arrays.asList ("doc4", "doc5", "doc6", "doc7", "doc8", "doc9", "doc10", "doc11"), names);
+    assertEquals (8, new java.util.ArrayList<Instance> (tail).size ());
+
+    java.util.ListIterator<Instance> it = mapped.listIterator (10);
+    assertEquals ("doc10", it.next ().getName ());
+    assertEquals ("doc11", it.next ().getName ());
+    assertFalse (it.hasNext ());
+    assertEquals ("doc11", it.previous ().getName ());
+    assertEquals (10, it.previousIndex ());
+    try {
+      it.set (instances.get (0));
+      fail ("A MappedInstanceList is read-only");
+    } catch (UnsupportedOperationException e) {
+    }
+
+    assertTrue (mapped.contains (mapped.get (0)));
+    assertEquals (5, mapped.indexOf (mapped.get (5)));
+    assertEquals (1, tail.indexOf (mapped.get (5)));
+    assertFalse (tail.contains (mapped.get (0)));
+    assertFalse (mapped.contains (instances.get (0)));
+    assertFalse (mapped.contains (writeAndLoad (instances).get (0)));
+    assertTrue (mapped.containsAll (tail));
+  }
+
+  public void testClose () throws Exception
+  {
+    Alphabet dict = dictOfSize (10);
+    InstanceList instances = new InstanceList (dict, null);
+    for (int i = 0; i < 5; i++)
+      instances.add (new Instance (new FeatureSequence (dict, new int[] {i}), null, "doc"+i, null));
+    MappedInstanceList mapped = writeAndLoad (instances);
+    InstanceList tail = mapped.subList (2, 5);
+    assertEquals ("doc2", tail.get (0).getName ());
+
+    mapped.close ();
+    mapped.close ();
+    assertEquals (3, tail.size ());
+    try {
+      tail.get (0);
+      fail ("A closed MappedInstanceList cannot be read");
+    } catch (IllegalStateException e) {
+    }
+    try {
+      mapped.getInstanceWeight (1);
+      fail ("A closed MappedInstanceList cannot be read");
+    } catch (IllegalStateException e) {
+    }
+  }
+
+  public void testLoadRejectsOtherFiles () throws Exception
+  {
+    File file = File.createTempFile ("mapped", ".instances");
+    file.deleteOnExit ();
+    java.io.FileOutputStream out = new java.io.FileOutputStream (file);
+    out.write (new byte[64]);
+    out.close ();
+    try {
+      MappedInstanceList.load (file);
+      fail ("A file without the magic number must be rejected");
+    } catch (IllegalArgumentException e) {
+      assertTrue (e.getCause () instanceof java.io.IOException);
+    }
+  }
+
+  public static void main (String[] args) throws Throwable
+  {
+    TestSuite theSuite;
+    if (args.length > 0) {
+      theSuite = new TestSuite ();
+      for (int i = 0; i < args.length; i++) {
+        theSuite.addTest (new TestMappedInstanceList (args[i]));
+      }
+    } else {
+      theSuite = (TestSuite) suite ();
+    }
+
+    junit.textui.TestRunner.run (theSuite);
+  }
+
+}
@@ -0,0 +1,112 @@
+package cc.mallet.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cc.mallet.topics.ParallelTopicModel;
+import cc.mallet.types.Alphabet;
+import cc.mallet.types.FeatureSequence;
+import cc.mallet.types.Instance;
+import cc.mallet.types.InstanceList;
+
+/**
+ * Runs Gibbs sampling iterations of {@link ParallelTopicModel} on a
+ * synthetic corpus whose words are drawn from a Zipf distribution, with
+ * the given number of sampling threads and with or without delta merging
+ * of the type/topic counts.  The model keeps sampling from one benchmark
+ * invocation to the next, so the measurements cover the converging
+ * iterations where few tokens change their topic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelTopicModelBenchmark {
+
+    /** the number of documents */
+    @Param({"20000"})
+    public int documents;
+
+    /** the mean number of tokens per document */
+    @Param({"200"})
+    public int documentLength;
+
+    /** the number of distinct words */
+    @Param({"50000"})
+    public int vocabulary;
+
+    @Param({"100"})
+    public int topics;
+
+    /** the number of sampling iterations per invocation */
+    @Param({"5"})
+    public int iterations;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int numThreads;
+
+    @Param({"false", "true"})
+    public boolean deltaMerging;
+
+    private ParallelTopicModel model;
+
+    @Setup
+    public void setUp() {
+        Logger.getLogger(ParallelTopicModel.class.getName()).setLevel(Level.WARNING);
+
+        // the cumulative Zipf distribution with exponent 1
+        double[] cumulative = new double[vocabulary];
+        double sum = 0;
+        for (int i = 0; i < vocabulary; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+
+        Alphabet alphabet = new Alphabet();
+        for (int i = 0; i < vocabulary; i++) {
+            alphabet.lookupIndex("w" + i);
+        }
+        InstanceList instances = new InstanceList(alphabet, null);
+        Random random = new Random(42);
+        for (int doc = 0; doc < documents; doc++) {
+            int[] features = new int[documentLength / 2 + random.nextInt(documentLength)];
+            for (int i = 0; i < features.length; i++) {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                features[i] = rank < 0 ? -rank - 1 : rank;
+            }
+            instances.add(new Instance(new FeatureSequence(alphabet, features), null, "doc" + doc, null));
+        }
+
+        model = new ParallelTopicModel(topics, topics / 10.0, ParallelTopicModel.DEFAULT_BETA);
+        model.printLogLikelihood = false;
+        model.setRandomSeed(42);
+        model.addInstances(instances);
+        model.setNumThreads(numThreads);
+        model.setDeltaMerging(deltaMerging);
+        model.setNumIterations(iterations);
+        model.setTopicDisplay(0, 0);
+    }
+
+    @Benchmark
+    public ParallelTopicModel estimate() throws Exception {
+        model.estimate();
+        return model;
+    }
+}
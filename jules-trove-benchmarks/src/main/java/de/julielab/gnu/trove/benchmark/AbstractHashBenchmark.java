@@ -0,0 +1,79 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Common parameters of the hash collection benchmarks. Each
+ * benchmark method processes all {@link #keys} (or
+ * {@link #missingKeys}) once, so the reported time is the time for
+ * <tt>size</tt> operations.
+ */
+@State(Scope.Thread)
+public abstract class AbstractHashBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"0.5", "0.75"})
+    public float loadFactor;
+
+    @Param({"SEQUENTIAL", "RANDOM", "CLUSTERED"})
+    public KeyDistribution distribution;
+
+    /** keys contained in the prepared collections */
+    protected int[] keys;
+    /** keys of the same distribution that are not contained */
+    protected int[] missingKeys;
+    protected Integer[] boxedKeys;
+    protected Integer[] boxedMissingKeys;
+    /** the boxed values 0 to size-1, so that the JDK maps do not measure autoboxing */
+    protected Integer[] boxedIndices;
+
+    @Setup
+    public void createKeys() {
+        keys = distribution.keys(size, null, 42);
+        missingKeys = distribution.keys(size, keys, 4711);
+        boxedKeys = box(keys);
+        boxedMissingKeys = box(missingKeys);
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        boxedIndices = box(indices);
+        prepare();
+    }
+
+    /**
+     * Fills the collections used by the read-only benchmarks.
+     */
+    protected abstract void prepare();
+
+    private static Integer[] box(int[] values) {
+        Integer[] boxed = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = Integer.valueOf(values[i]);
+        }
+        return boxed;
+    }
+}
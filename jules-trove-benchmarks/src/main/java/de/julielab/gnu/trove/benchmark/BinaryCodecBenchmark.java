@@ -0,0 +1,113 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.julielab.gnu.trove.TBinaryCodec;
+import de.julielab.gnu.trove.TIntDoubleHashMap;
+
+/**
+ * Compares writing and reading a {@link TIntDoubleHashMap} with Java
+ * serialization and with the {@link TBinaryCodec#RAW} and
+ * {@link TBinaryCodec#SORTED_KEYS} encodings of {@link TBinaryCodec}.
+ * The streams are in memory, so only the encoding is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BinaryCodecBenchmark extends AbstractHashBenchmark {
+
+    private TIntDoubleHashMap map;
+    private byte[] serialized;
+    private byte[] raw;
+    private byte[] sorted;
+
+    protected void prepare() {
+        map = new TIntDoubleHashMap(10, loadFactor);
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        try {
+            serialized = writeSerialized().toByteArray();
+            raw = writeRaw().toByteArray();
+            sorted = writeSortedKeys().toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writeSerialized() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(map);
+        out.close();
+        return bytes;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writeRaw() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        map.writeBinary(new DataOutputStream(bytes), TBinaryCodec.RAW);
+        return bytes;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writeSortedKeys() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        map.writeBinary(new DataOutputStream(bytes), TBinaryCodec.SORTED_KEYS);
+        return bytes;
+    }
+
+    @Benchmark
+    public Object readSerialized() throws IOException, ClassNotFoundException {
+        return new ObjectInputStream(new ByteArrayInputStream(serialized)).readObject();
+    }
+
+    @Benchmark
+    public TIntDoubleHashMap readRaw() throws IOException {
+        return TIntDoubleHashMap.readBinary(new DataInputStream(new ByteArrayInputStream(raw)));
+    }
+
+    @Benchmark
+    public TIntDoubleHashMap readSortedKeys() throws IOException {
+        return TIntDoubleHashMap.readBinary(new DataInputStream(new ByteArrayInputStream(sorted)));
+    }
+}
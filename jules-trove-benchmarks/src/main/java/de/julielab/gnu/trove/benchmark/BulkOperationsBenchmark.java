@@ -0,0 +1,144 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.julielab.gnu.trove.TIntArrayList;
+import de.julielab.gnu.trove.TIntDoubleHashMap;
+import de.julielab.gnu.trove.TIntDoubleProcedure;
+import de.julielab.gnu.trove.TIntProcedure;
+
+/**
+ * Compares the bulk operations of {@link TIntDoubleHashMap} and
+ * {@link TIntArrayList} with the per-element path.  The
+ * <tt>merge*</tt> benchmarks add the counts of a second map, half of
+ * whose keys are in the first map, as when summing up per-thread
+ * counts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BulkOperationsBenchmark extends AbstractHashBenchmark {
+
+    private double[] values;
+    private TIntDoubleHashMap map;
+    private TIntDoubleHashMap otherMap;
+    private TIntArrayList list;
+
+    protected void prepare() {
+        values = new double[keys.length];
+        map = new TIntDoubleHashMap(10, loadFactor);
+        otherMap = new TIntDoubleHashMap(10, loadFactor);
+        list = new TIntArrayList();
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = i;
+            map.put(keys[i], i);
+            otherMap.put(i % 2 == 0 ? keys[i] : missingKeys[i], i);
+            list.add(keys[i]);
+        }
+    }
+
+    @Benchmark
+    public TIntDoubleHashMap putAll() {
+        TIntDoubleHashMap m = new TIntDoubleHashMap(10, loadFactor);
+        m.putAll(keys, values);
+        return m;
+    }
+
+    @Benchmark
+    public TIntDoubleHashMap putLoop() {
+        TIntDoubleHashMap m = new TIntDoubleHashMap(10, loadFactor);
+        for (int i = 0; i < keys.length; i++) {
+            m.put(keys[i], values[i]);
+        }
+        return m;
+    }
+
+    @Benchmark
+    public TIntDoubleHashMap adjustOrPutValues() {
+        TIntDoubleHashMap m = new TIntDoubleHashMap(10, loadFactor);
+        m.adjustOrPutValues(keys, values);
+        return m;
+    }
+
+    @Benchmark
+    public TIntDoubleHashMap adjustOrPutLoop() {
+        TIntDoubleHashMap m = new TIntDoubleHashMap(10, loadFactor);
+        for (int i = 0; i < keys.length; i++) {
+            if (! m.adjustValue(keys[i], values[i])) {
+                m.put(keys[i], values[i]);
+            }
+        }
+        return m;
+    }
+
+    @Benchmark
+    public TIntDoubleHashMap mergeBulk() {
+        TIntDoubleHashMap m = (TIntDoubleHashMap) map.clone();
+        m.adjustOrPutValues(otherMap);
+        return m;
+    }
+
+    @Benchmark
+    public TIntDoubleHashMap mergeProcedure() {
+        final TIntDoubleHashMap m = (TIntDoubleHashMap) map.clone();
+        otherMap.forEachEntry(new TIntDoubleProcedure() {
+            public boolean execute(int key, double value) {
+                if (! m.adjustValue(key, value)) {
+                    m.put(key, value);
+                }
+                return true;
+            }
+        });
+        return m;
+    }
+
+    @Benchmark
+    public TIntArrayList listAddAll() {
+        TIntArrayList l = new TIntArrayList();
+        l.addAll(list);
+        return l;
+    }
+
+    @Benchmark
+    public TIntArrayList listAddProcedure() {
+        final TIntArrayList l = new TIntArrayList();
+        list.forEach(new TIntProcedure() {
+            public boolean execute(int value) {
+                l.add(value);
+                return true;
+            }
+        });
+        return l;
+    }
+}
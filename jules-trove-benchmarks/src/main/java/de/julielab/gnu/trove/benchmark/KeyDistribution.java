@@ -0,0 +1,89 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove.benchmark;
+
+import java.util.Random;
+
+import de.julielab.gnu.trove.TIntHashSet;
+
+/**
+ * The distributions of the keys inserted into the benchmarked
+ * collections.
+ */
+public enum KeyDistribution {
+
+    /**
+     * The keys <tt>0, 1, 2, ...</tt>
+     */
+    SEQUENTIAL {
+        int key(int i, Random random) {
+            return i;
+        }
+    },
+
+    /**
+     * Distinct, uniformly distributed random keys.
+     */
+    RANDOM {
+        int key(int i, Random random) {
+            return random.nextInt();
+        }
+    },
+
+    /**
+     * The sequential keys with their upper and lower halves
+     * swapped. The keys share their lower 16 bits in blocks of 65536
+     * keys, so they collide in tables indexing by the low bits of
+     * the key and form long probe chains for linear probing.
+     */
+    CLUSTERED {
+        int key(int i, Random random) {
+            return Integer.rotateLeft(i, 16);
+        }
+    };
+
+    abstract int key(int i, Random random);
+
+    /**
+     * Creates <tt>size</tt> distinct keys of this distribution.
+     *
+     * @param size the number of keys
+     * @param exclude keys that must not be contained in the result,
+     * may be <tt>null</tt>
+     * @param seed the random seed
+     * @return the keys
+     */
+    public int[] keys(int size, int[] exclude, long seed) {
+        Random random = new Random(seed);
+        TIntHashSet seen = new TIntHashSet(2 * size);
+        int offset = 0;
+        if (exclude != null) {
+            seen.addAll(exclude);
+            offset = exclude.length;
+        }
+        int[] keys = new int[size];
+        for (int i = 0, n = 0; n < size; i++) {
+            int key = key(offset + i, random);
+            if (seen.add(key)) {
+                keys[n++] = key;
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,152 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.julielab.gnu.trove.TIntHashSet;
+import de.julielab.gnu.trove.TIntSortedSet;
+
+/**
+ * Compares {@link TIntSortedSet} with a {@link TIntHashSet} and with a
+ * sorted <tt>int[]</tt> searched by <tt>Arrays.binarySearch</tt>, as
+ * used for feature index sets and posting lists.  The intersection
+ * benchmarks intersect the set with a second one of a tenth of its
+ * size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SortedSetBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"RANDOM", "CLUSTERED"})
+    public KeyDistribution distribution;
+
+    private int[] keys;
+    private int[] sortedKeys;
+    private int[] otherKeys;
+    private TIntSortedSet sortedSet;
+    private TIntSortedSet otherSortedSet;
+    private TIntHashSet hashSet;
+    private TIntHashSet otherHashSet;
+
+    @Setup
+    public void prepare() {
+        keys = distribution.keys(size, null, 42);
+        sortedKeys = keys.clone();
+        Arrays.sort(sortedKeys);
+        otherKeys = distribution.keys(size / 10, null, 4711);
+        Arrays.sort(otherKeys);
+        sortedSet = new TIntSortedSet(sortedKeys);
+        otherSortedSet = new TIntSortedSet(otherKeys);
+        hashSet = new TIntHashSet(keys);
+        otherHashSet = new TIntHashSet(otherKeys);
+    }
+
+    @Benchmark
+    public int sortedSetContains() {
+        int found = 0;
+        for (int key : keys) {
+            if (sortedSet.contains(key)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int hashSetContains() {
+        int found = 0;
+        for (int key : keys) {
+            if (hashSet.contains(key)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int arrayBinarySearch() {
+        int found = 0;
+        for (int key : keys) {
+            if (Arrays.binarySearch(sortedKeys, key) >= 0) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public TIntSortedSet sortedSetAdd() {
+        TIntSortedSet set = new TIntSortedSet();
+        for (int key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public TIntHashSet hashSetAdd() {
+        TIntHashSet set = new TIntHashSet();
+        for (int key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public TIntSortedSet sortedSetBuild() {
+        return new TIntSortedSet(sortedKeys);
+    }
+
+    @Benchmark
+    public TIntSortedSet sortedSetIntersection() {
+        return sortedSet.intersection(otherSortedSet);
+    }
+
+    @Benchmark
+    public TIntHashSet hashSetIntersection() {
+        TIntHashSet result = new TIntHashSet();
+        for (int key : otherKeys) {
+            if (hashSet.contains(key)) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,169 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.julielab.gnu.trove.TConcurrentObjectIntHashMap;
+import de.julielab.gnu.trove.TObjectIntHashMap;
+
+/**
+ * Interning of words into a dictionary shared by all benchmark
+ * threads: {@link TConcurrentObjectIntHashMap#getOrAssignIndex}
+ * compared with a {@link TObjectIntHashMap} guarded by a read/write
+ * lock, as in MALLET's <tt>Alphabet</tt>, and with a
+ * <tt>ConcurrentHashMap</tt> with boxed values. Run with
+ * <tt>-t</tt> to vary the number of threads. The dictionaries are
+ * emptied before each iteration, so the first passes over the
+ * vocabulary insert while the later ones only look up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TConcurrentObjectIntHashMapBenchmark {
+
+    /** the number of words interned by one benchmark operation */
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"10000", "1000000"})
+    public int vocabularySize;
+
+    private String[] vocabulary;
+
+    private TConcurrentObjectIntHashMap concurrentMap;
+    private TObjectIntHashMap lockedMap;
+    private ReadWriteLock lock;
+    private ConcurrentHashMap<Object, Integer> jdkMap;
+    private AtomicInteger jdkNextIndex;
+
+    /**
+     * The position of a benchmark thread in its random sequence of
+     * words.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private Random random;
+
+        @Setup
+        public void setUp() {
+            random = new Random(Thread.currentThread().getId());
+        }
+
+        int nextWord(int vocabularySize) {
+            return random.nextInt(vocabularySize);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createVocabulary() {
+        vocabulary = new String[vocabularySize];
+        for (int i = 0; i < vocabularySize; i++) {
+            vocabulary[i] = "word" + i;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createDictionaries() {
+        concurrentMap = new TConcurrentObjectIntHashMap();
+        lockedMap = new TObjectIntHashMap();
+        lock = new ReentrantReadWriteLock();
+        jdkMap = new ConcurrentHashMap<Object, Integer>();
+        jdkNextIndex = new AtomicInteger();
+    }
+
+    @Benchmark
+    public int getOrAssignIndex(Cursor cursor) {
+        int sum = 0;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            sum += concurrentMap.getOrAssignIndex(vocabulary[cursor.nextWord(vocabularySize)]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int lockedLookupIndex(Cursor cursor) {
+        int sum = 0;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            String word = vocabulary[cursor.nextWord(vocabularySize)];
+            lock.readLock().lock();
+            try {
+                if (lockedMap.containsKey(word)) {
+                    sum += lockedMap.get(word);
+                    continue;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            lock.writeLock().lock();
+            try {
+                if (lockedMap.containsKey(word)) {
+                    sum += lockedMap.get(word);
+                } else {
+                    int index = lockedMap.size();
+                    lockedMap.put(word, index);
+                    sum += index;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int jdkGetOrAssign(Cursor cursor) {
+        int sum = 0;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            String word = vocabulary[cursor.nextWord(vocabularySize)];
+            Integer index = jdkMap.get(word);
+            if (index == null) {
+                synchronized (jdkMap) {
+                    index = jdkMap.get(word);
+                    if (index == null) {
+                        index = jdkNextIndex.getAndIncrement();
+                        jdkMap.put(word, index);
+                    }
+                }
+            }
+            sum += index;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,122 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.julielab.gnu.trove.TFrozenIntDoubleHashMap;
+import de.julielab.gnu.trove.TIntDoubleHashMap;
+
+/**
+ * Compares lookups in a {@link TIntDoubleHashMap} with lookups in
+ * its frozen copies in direct buffers and in a memory mapped file, and
+ * measures loading the file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TFrozenHashMapBenchmark extends AbstractHashBenchmark {
+
+    private TIntDoubleHashMap map;
+    private TFrozenIntDoubleHashMap frozen;
+    private TFrozenIntDoubleHashMap mapped;
+    private File file;
+
+    protected void prepare() {
+        map = new TIntDoubleHashMap(10, loadFactor);
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        frozen = TFrozenIntDoubleHashMap.freeze(map);
+        try {
+            file = File.createTempFile("frozen", ".map");
+            TFrozenIntDoubleHashMap.write(map, file);
+            mapped = TFrozenIntDoubleHashMap.load(file);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @TearDown
+    public void release() {
+        frozen.close();
+        mapped.close();
+        file.delete();
+    }
+
+    @Benchmark
+    public double get() {
+        double sum = 0;
+        for (int key : keys) {
+            sum += map.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double frozenGet() {
+        double sum = 0;
+        for (int key : keys) {
+            sum += frozen.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double frozenGetMissing() {
+        double sum = 0;
+        for (int key : missingKeys) {
+            sum += frozen.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double mappedGet() {
+        double sum = 0;
+        for (int key : keys) {
+            sum += mapped.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int mappedLoad() throws IOException {
+        TFrozenIntDoubleHashMap m = TFrozenIntDoubleHashMap.load(file);
+        int size = m.size();
+        m.close();
+        return size;
+    }
+}
@@ -0,0 +1,178 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove.benchmark;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.julielab.gnu.trove.THashSet;
+import de.julielab.gnu.trove.TObjectProcedure;
+
+/**
+ * Compares {@link THashSet} with <tt>HashSet</tt>. The elements are
+ * <tt>Integer</tt> objects so that their hash codes follow the key
+ * distribution.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class THashSetBenchmark extends AbstractHashBenchmark {
+
+    private THashSet set;
+    private HashSet<Object> jdkSet;
+
+    protected void prepare() {
+        set = new THashSet(10, loadFactor);
+        jdkSet = new HashSet<Object>(10, loadFactor);
+        for (Integer key : boxedKeys) {
+            set.add(key);
+            jdkSet.add(key);
+        }
+    }
+
+    @Benchmark
+    public THashSet add() {
+        THashSet s = new THashSet(10, loadFactor);
+        for (Integer key : boxedKeys) {
+            s.add(key);
+        }
+        return s;
+    }
+
+    @Benchmark
+    public int contains() {
+        int found = 0;
+        for (Integer key : boxedKeys) {
+            if (set.contains(key)) {
+                ++found;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int containsMissing() {
+        int found = 0;
+        for (Integer key : boxedMissingKeys) {
+            if (set.contains(key)) {
+                ++found;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public THashSet addRemove() {
+        THashSet s = new THashSet(10, loadFactor);
+        for (Integer key : boxedKeys) {
+            s.add(key);
+        }
+        for (Integer key : boxedKeys) {
+            s.remove(key);
+        }
+        return s;
+    }
+
+    @Benchmark
+    public int iterate() {
+        int sum = 0;
+        for (Iterator it = set.iterator(); it.hasNext();) {
+            sum += it.next().hashCode();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int forEach() {
+        final int[] sum = new int[1];
+        set.forEach(new TObjectProcedure() {
+            public boolean execute(Object element) {
+                sum[0] += element.hashCode();
+                return true;
+            }
+        });
+        return sum[0];
+    }
+
+    @Benchmark
+    public HashSet<Object> jdkAdd() {
+        HashSet<Object> s = new HashSet<Object>(10, loadFactor);
+        for (Integer key : boxedKeys) {
+            s.add(key);
+        }
+        return s;
+    }
+
+    @Benchmark
+    public int jdkContains() {
+        int found = 0;
+        for (Integer key : boxedKeys) {
+            if (jdkSet.contains(key)) {
+                ++found;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int jdkContainsMissing() {
+        int found = 0;
+        for (Integer key : boxedMissingKeys) {
+            if (jdkSet.contains(key)) {
+                ++found;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public HashSet<Object> jdkAddRemove() {
+        HashSet<Object> s = new HashSet<Object>(10, loadFactor);
+        for (Integer key : boxedKeys) {
+            s.add(key);
+        }
+        for (Integer key : boxedKeys) {
+            s.remove(key);
+        }
+        return s;
+    }
+
+    @Benchmark
+    public int jdkIterate() {
+        int sum = 0;
+        for (Object element : jdkSet) {
+            sum += element.hashCode();
+        }
+        return sum;
+    }
+}
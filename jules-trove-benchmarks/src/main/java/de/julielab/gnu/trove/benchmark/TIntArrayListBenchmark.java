@@ -0,0 +1,143 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import de.julielab.gnu.trove.TIntArrayList;
+import de.julielab.gnu.trove.TIntProcedure;
+
+/**
+ * Compares {@link TIntArrayList} with an <tt>ArrayList</tt> of boxed
+ * integers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TIntArrayListBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private int[] values;
+    private TIntArrayList list;
+    private ArrayList<Integer> jdkList;
+
+    @Setup
+    public void prepare() {
+        Random random = new Random(42);
+        values = new int[size];
+        list = new TIntArrayList(size);
+        jdkList = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt();
+            list.add(values[i]);
+            jdkList.add(values[i]);
+        }
+    }
+
+    @Benchmark
+    public TIntArrayList add() {
+        TIntArrayList l = new TIntArrayList();
+        for (int value : values) {
+            l.add(value);
+        }
+        return l;
+    }
+
+    @Benchmark
+    public int get() {
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += list.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int forEach() {
+        final int[] sum = new int[1];
+        list.forEach(new TIntProcedure() {
+            public boolean execute(int value) {
+                sum[0] += value;
+                return true;
+            }
+        });
+        return sum[0];
+    }
+
+    @Benchmark
+    public TIntArrayList sort() {
+        TIntArrayList l = new TIntArrayList(values);
+        l.sort();
+        return l;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> jdkAdd() {
+        ArrayList<Integer> l = new ArrayList<Integer>();
+        for (int value : values) {
+            l.add(value);
+        }
+        return l;
+    }
+
+    @Benchmark
+    public int jdkGet() {
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += jdkList.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int jdkIterate() {
+        int sum = 0;
+        for (Integer value : jdkList) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> jdkSort() {
+        ArrayList<Integer> l = new ArrayList<Integer>(jdkList);
+        Collections.sort(l);
+        return l;
+    }
+}
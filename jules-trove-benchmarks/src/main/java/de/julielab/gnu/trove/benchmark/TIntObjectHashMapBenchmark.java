@@ -0,0 +1,179 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.julielab.gnu.trove.TIntObjectHashMap;
+import de.julielab.gnu.trove.TIntObjectIterator;
+import de.julielab.gnu.trove.TIntObjectProcedure;
+
+/**
+ * Compares {@link TIntObjectHashMap} with a <tt>HashMap</tt> with
+ * boxed integer keys.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TIntObjectHashMapBenchmark extends AbstractHashBenchmark {
+
+    private TIntObjectHashMap map;
+    private HashMap<Integer, Object> jdkMap;
+
+    protected void prepare() {
+        map = new TIntObjectHashMap(10, loadFactor);
+        jdkMap = new HashMap<Integer, Object>(10, loadFactor);
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], boxedKeys[i]);
+            jdkMap.put(boxedKeys[i], boxedKeys[i]);
+        }
+    }
+
+    @Benchmark
+    public TIntObjectHashMap put() {
+        TIntObjectHashMap m = new TIntObjectHashMap(10, loadFactor);
+        for (int i = 0; i < keys.length; i++) {
+            m.put(keys[i], boxedKeys[i]);
+        }
+        return m;
+    }
+
+    @Benchmark
+    public int get() {
+        int found = 0;
+        for (int key : keys) {
+            if (map.get(key) != null) {
+                ++found;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int getMissing() {
+        int found = 0;
+        for (int key : missingKeys) {
+            if (map.get(key) != null) {
+                ++found;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public TIntObjectHashMap putRemove() {
+        TIntObjectHashMap m = new TIntObjectHashMap(10, loadFactor);
+        for (int i = 0; i < keys.length; i++) {
+            m.put(keys[i], boxedKeys[i]);
+        }
+        for (int key : keys) {
+            m.remove(key);
+        }
+        return m;
+    }
+
+    @Benchmark
+    public int iterate() {
+        int sum = 0;
+        for (TIntObjectIterator it = map.iterator(); it.hasNext();) {
+            it.advance();
+            sum += it.key() + it.value().hashCode();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int forEachEntry() {
+        final int[] sum = new int[1];
+        map.forEachEntry(new TIntObjectProcedure() {
+            public boolean execute(int key, Object value) {
+                sum[0] += key + value.hashCode();
+                return true;
+            }
+        });
+        return sum[0];
+    }
+
+    @Benchmark
+    public HashMap<Integer, Object> jdkPut() {
+        HashMap<Integer, Object> m = new HashMap<Integer, Object>(10, loadFactor);
+        for (int i = 0; i < keys.length; i++) {
+            m.put(boxedKeys[i], boxedKeys[i]);
+        }
+        return m;
+    }
+
+    @Benchmark
+    public int jdkGet() {
+        int found = 0;
+        for (Integer key : boxedKeys) {
+            if (jdkMap.get(key) != null) {
+                ++found;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int jdkGetMissing() {
+        int found = 0;
+        for (Integer key : boxedMissingKeys) {
+            if (jdkMap.get(key) != null) {
+                ++found;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public HashMap<Integer, Object> jdkPutRemove() {
+        HashMap<Integer, Object> m = new HashMap<Integer, Object>(10, loadFactor);
+        for (int i = 0; i < keys.length; i++) {
+            m.put(boxedKeys[i], boxedKeys[i]);
+        }
+        for (Integer key : boxedKeys) {
+            m.remove(key);
+        }
+        return m;
+    }
+
+    @Benchmark
+    public int jdkIterate() {
+        int sum = 0;
+        for (Map.Entry<Integer, Object> entry : jdkMap.entrySet()) {
+            sum += entry.getKey() + entry.getValue().hashCode();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,174 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.julielab.gnu.trove.TObjectIntHashMap;
+import de.julielab.gnu.trove.TObjectIntIterator;
+import de.julielab.gnu.trove.TObjectIntProcedure;
+
+/**
+ * Compares {@link TObjectIntHashMap} with a <tt>HashMap</tt> with
+ * boxed integer values. The keys are <tt>Integer</tt> objects so that
+ * their hash codes follow the key distribution.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TObjectIntHashMapBenchmark extends AbstractHashBenchmark {
+
+    private TObjectIntHashMap map;
+    private HashMap<Object, Integer> jdkMap;
+
+    protected void prepare() {
+        map = new TObjectIntHashMap(10, loadFactor);
+        jdkMap = new HashMap<Object, Integer>(10, loadFactor);
+        for (int i = 0; i < boxedKeys.length; i++) {
+            map.put(boxedKeys[i], i);
+            jdkMap.put(boxedKeys[i], boxedIndices[i]);
+        }
+    }
+
+    @Benchmark
+    public TObjectIntHashMap put() {
+        TObjectIntHashMap m = new TObjectIntHashMap(10, loadFactor);
+        for (int i = 0; i < boxedKeys.length; i++) {
+            m.put(boxedKeys[i], i);
+        }
+        return m;
+    }
+
+    @Benchmark
+    public int get() {
+        int sum = 0;
+        for (Integer key : boxedKeys) {
+            sum += map.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int getMissing() {
+        int sum = 0;
+        for (Integer key : boxedMissingKeys) {
+            sum += map.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public TObjectIntHashMap putRemove() {
+        TObjectIntHashMap m = new TObjectIntHashMap(10, loadFactor);
+        for (int i = 0; i < boxedKeys.length; i++) {
+            m.put(boxedKeys[i], i);
+        }
+        for (Integer key : boxedKeys) {
+            m.remove(key);
+        }
+        return m;
+    }
+
+    @Benchmark
+    public int iterate() {
+        int sum = 0;
+        for (TObjectIntIterator it = map.iterator(); it.hasNext();) {
+            it.advance();
+            sum += it.key().hashCode() + it.value();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int forEachEntry() {
+        final int[] sum = new int[1];
+        map.forEachEntry(new TObjectIntProcedure() {
+            public boolean execute(Object key, int value) {
+                sum[0] += key.hashCode() + value;
+                return true;
+            }
+        });
+        return sum[0];
+    }
+
+    @Benchmark
+    public HashMap<Object, Integer> jdkPut() {
+        HashMap<Object, Integer> m = new HashMap<Object, Integer>(10, loadFactor);
+        for (int i = 0; i < boxedKeys.length; i++) {
+            m.put(boxedKeys[i], boxedIndices[i]);
+        }
+        return m;
+    }
+
+    @Benchmark
+    public int jdkGet() {
+        int sum = 0;
+        for (Integer key : boxedKeys) {
+            sum += jdkMap.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int jdkGetMissing() {
+        int sum = 0;
+        for (Integer key : boxedMissingKeys) {
+            if (jdkMap.get(key) != null) {
+                ++sum;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public HashMap<Object, Integer> jdkPutRemove() {
+        HashMap<Object, Integer> m = new HashMap<Object, Integer>(10, loadFactor);
+        for (int i = 0; i < boxedKeys.length; i++) {
+            m.put(boxedKeys[i], boxedIndices[i]);
+        }
+        for (Integer key : boxedKeys) {
+            m.remove(key);
+        }
+        return m;
+    }
+
+    @Benchmark
+    public int jdkIterate() {
+        int sum = 0;
+        for (Map.Entry<Object, Integer> entry : jdkMap.entrySet()) {
+            sum += entry.getKey().hashCode() + entry.getValue();
+        }
+        return sum;
+    }
+}
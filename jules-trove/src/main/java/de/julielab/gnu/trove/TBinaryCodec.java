@@ -0,0 +1,461 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * A compact binary format for the primitive maps and lists, written
+ * and read by their <tt>writeBinary</tt> and <tt>readBinary</tt>
+ * methods.  In contrast to Java serialization, arrays are transferred
+ * in bulk instead of element by element.
+ *
+ * <p>
+ * A record starts with a header holding a magic number, the format
+ * version, the key and value types, the encoding, whether the map
+ * uses its default hashing strategy, the load factor, the capacity
+ * and the size.  Two encodings follow the header:
+ * </p>
+ * <ul>
+ * <li>{@link #RAW} dumps the state, key and value arrays of the
+ * table.  If the map and the reader use the default hashing strategy,
+ * the arrays are restored as they are, without rehashing a single
+ * key.  This is the fastest encoding to read.</li>
+ * <li>{@link #SORTED_KEYS}, only available for <tt>int</tt> and
+ * <tt>long</tt> keys, writes the keys in ascending order as variable
+ * length deltas, followed by the values in key order.  The result is
+ * usually much smaller, but the entries are inserted on reading.</li>
+ * </ul>
+ * <p>
+ * All numbers are written in big endian byte order, like
+ * <tt>DataOutput</tt> does.
+ * </p>
+ */
+public final class TBinaryCodec {
+
+    /** dumps the table arrays */
+    public static final int RAW = 0;
+
+    /** writes the sorted keys as variable length deltas */
+    public static final int SORTED_KEYS = 1;
+
+    /** identifies the binary format, "JTBC" */
+    static final int MAGIC = 0x4A544243;
+
+    /** the version of the binary format */
+    static final int VERSION = 1;
+
+    static final int KIND_MAP = 1;
+    static final int KIND_LIST = 2;
+
+    static final int NONE = 0;
+    static final int BYTE = 1;
+    static final int SHORT = 2;
+    static final int INT = 3;
+    static final int LONG = 4;
+    static final int FLOAT = 5;
+    static final int DOUBLE = 6;
+
+    /** the number of elements converted at once */
+    private static final int CHUNK = 4096;
+
+    private TBinaryCodec() {
+    }
+
+    /**
+     * The header of a record.
+     */
+    static final class Header {
+        int encoding;
+        boolean defaultStrategy;
+        float loadFactor;
+        int capacity;
+        int size;
+    }
+
+    static void writeHeader(DataOutput out, int kind, int keyType, int valueType, int encoding,
+                            boolean defaultStrategy, float loadFactor, int capacity, int size)
+        throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(kind);
+        out.writeByte(keyType);
+        out.writeByte(valueType);
+        out.writeByte(encoding);
+        out.writeBoolean(defaultStrategy);
+        out.writeFloat(loadFactor);
+        out.writeInt(capacity);
+        out.writeInt(size);
+    }
+
+    /**
+     * Reads the header of a record and checks that it matches the
+     * expected collection type.
+     */
+    static Header readHeader(DataInput in, int kind, int keyType, int valueType) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("The input does not start with a binary Trove collection.");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + " of the binary Trove format.");
+        }
+        int actualKind = in.readUnsignedByte();
+        int actualKeyType = in.readUnsignedByte();
+        int actualValueType = in.readUnsignedByte();
+        if (actualKind != kind || actualKeyType != keyType || actualValueType != valueType) {
+            throw new IOException("The input contains a collection of kind " + actualKind + " with types "
+                                  + actualKeyType + "/" + actualValueType + " instead of kind " + kind
+                                  + " with types " + keyType + "/" + valueType + ".");
+        }
+        Header header = new Header();
+        header.encoding = in.readUnsignedByte();
+        header.defaultStrategy = in.readBoolean();
+        header.loadFactor = in.readFloat();
+        header.capacity = in.readInt();
+        header.size = in.readInt();
+        if (header.encoding != RAW && header.encoding != SORTED_KEYS) {
+            throw new IOException("Unknown encoding " + header.encoding + ".");
+        }
+        if (header.size < 0 || header.capacity < header.size
+            || (kind == KIND_MAP && ! (header.loadFactor > 0 && header.loadFactor <= 1))) {
+            throw new IOException("Corrupt header: capacity " + header.capacity + ", size " + header.size
+                                  + ", load factor " + header.loadFactor + ".");
+        }
+        return header;
+    }
+
+    /**
+     * Checks the restored states of a table.
+     *
+     * @return the number of free slots
+     */
+    static int checkStates(byte[] states, int size) throws IOException {
+        int free = 0;
+        int full = 0;
+        for (byte state : states) {
+            if (state == TPrimitiveHash.FREE) {
+                free++;
+            } else if (state == TPrimitiveHash.FULL) {
+                full++;
+            } else if (state != TPrimitiveHash.REMOVED) {
+                throw new IOException("Corrupt table: unknown slot state " + state + ".");
+            }
+        }
+        if (full != size || free == 0) {
+            throw new IOException("Corrupt table: " + full + " entries and " + free
+                                  + " free slots for a map of size " + size + ".");
+        }
+        return free;
+    }
+
+    /**
+     * Writes the first <tt>length</tt> elements of <tt>values</tt>.
+     */
+    static void write(DataOutput out, byte[] values, int length) throws IOException {
+        out.write(values, 0, length);
+    }
+
+    /**
+     * Reads <tt>length</tt> elements into <tt>values</tt>.
+     */
+    static void read(DataInput in, byte[] values, int length) throws IOException {
+        in.readFully(values, 0, length);
+    }
+
+    /**
+     * Writes the first <tt>length</tt> elements of <tt>values</tt>.
+     */
+    static void write(DataOutput out, short[] values, int length) throws IOException {
+        byte[] buffer = new byte[Math.min(length, CHUNK) << 1];
+        ShortBuffer view = ByteBuffer.wrap(buffer).asShortBuffer();
+        for (int offset = 0; offset < length; offset += CHUNK) {
+            int n = Math.min(CHUNK, length - offset);
+            view.clear();
+            view.put(values, offset, n);
+            out.write(buffer, 0, n << 1);
+        }
+    }
+
+    /**
+     * Reads <tt>length</tt> elements into <tt>values</tt>.
+     */
+    static void read(DataInput in, short[] values, int length) throws IOException {
+        byte[] buffer = new byte[Math.min(length, CHUNK) << 1];
+        ShortBuffer view = ByteBuffer.wrap(buffer).asShortBuffer();
+        for (int offset = 0; offset < length; offset += CHUNK) {
+            int n = Math.min(CHUNK, length - offset);
+            in.readFully(buffer, 0, n << 1);
+            view.clear();
+            view.get(values, offset, n);
+        }
+    }
+
+    /**
+     * Writes the first <tt>length</tt> elements of <tt>values</tt>.
+     */
+    static void write(DataOutput out, int[] values, int length) throws IOException {
+        byte[] buffer = new byte[Math.min(length, CHUNK) << 2];
+        IntBuffer view = ByteBuffer.wrap(buffer).asIntBuffer();
+        for (int offset = 0; offset < length; offset += CHUNK) {
+            int n = Math.min(CHUNK, length - offset);
+            view.clear();
+            view.put(values, offset, n);
+            out.write(buffer, 0, n << 2);
+        }
+    }
+
+    /**
+     * Reads <tt>length</tt> elements into <tt>values</tt>.
+     */
+    static void read(DataInput in, int[] values, int length) throws IOException {
+        byte[] buffer = new byte[Math.min(length, CHUNK) << 2];
+        IntBuffer view = ByteBuffer.wrap(buffer).asIntBuffer();
+        for (int offset = 0; offset < length; offset += CHUNK) {
+            int n = Math.min(CHUNK, length - offset);
+            in.readFully(buffer, 0, n << 2);
+            view.clear();
+            view.get(values, offset, n);
+        }
+    }
+
+    /**
+     * Writes the first <tt>length</tt> elements of <tt>values</tt>.
+     */
+    static void write(DataOutput out, long[] values, int length) throws IOException {
+        byte[] buffer = new byte[Math.min(length, CHUNK) << 3];
+        LongBuffer view = ByteBuffer.wrap(buffer).asLongBuffer();
+        for (int offset = 0; offset < length; offset += CHUNK) {
+            int n = Math.min(CHUNK, length - offset);
+            view.clear();
+            view.put(values, offset, n);
+            out.write(buffer, 0, n << 3);
+        }
+    }
+
+    /**
+     * Reads <tt>length</tt> elements into <tt>values</tt>.
+     */
+    static void read(DataInput in, long[] values, int length) throws IOException {
+        byte[] buffer = new byte[Math.min(length, CHUNK) << 3];
+        LongBuffer view = ByteBuffer.wrap(buffer).asLongBuffer();
+        for (int offset = 0; offset < length; offset += CHUNK) {
+            int n = Math.min(CHUNK, length - offset);
+            in.readFully(buffer, 0, n << 3);
+            view.clear();
+            view.get(values, offset, n);
+        }
+    }
+
+    /**
+     * Writes the first <tt>length</tt> elements of <tt>values</tt>.
+     */
+    static void write(DataOutput out, float[] values, int length) throws IOException {
+        byte[] buffer = new byte[Math.min(length, CHUNK) << 2];
+        FloatBuffer view = ByteBuffer.wrap(buffer).asFloatBuffer();
+        for (int offset = 0; offset < length; offset += CHUNK) {
+            int n = Math.min(CHUNK, length - offset);
+            view.clear();
+            view.put(values, offset, n);
+            out.write(buffer, 0, n << 2);
+        }
+    }
+
+    /**
+     * Reads <tt>length</tt> elements into <tt>values</tt>.
+     */
+    static void read(DataInput in, float[] values, int length) throws IOException {
+        byte[] buffer = new byte[Math.min(length, CHUNK) << 2];
+        FloatBuffer view = ByteBuffer.wrap(buffer).asFloatBuffer();
+        for (int offset = 0; offset < length; offset += CHUNK) {
+            int n = Math.min(CHUNK, length - offset);
+            in.readFully(buffer, 0, n << 2);
+            view.clear();
+            view.get(values, offset, n);
+        }
+    }
+
+    /**
+     * Writes the first <tt>length</tt> elements of <tt>values</tt>.
+     */
+    static void write(DataOutput out, double[] values, int length) throws IOException {
+        byte[] buffer = new byte[Math.min(length, CHUNK) << 3];
+        DoubleBuffer view = ByteBuffer.wrap(buffer).asDoubleBuffer();
+        for (int offset = 0; offset < length; offset += CHUNK) {
+            int n = Math.min(CHUNK, length - offset);
+            view.clear();
+            view.put(values, offset, n);
+            out.write(buffer, 0, n << 3);
+        }
+    }
+
+    /**
+     * Reads <tt>length</tt> elements into <tt>values</tt>.
+     */
+    static void read(DataInput in, double[] values, int length) throws IOException {
+        byte[] buffer = new byte[Math.min(length, CHUNK) << 3];
+        DoubleBuffer view = ByteBuffer.wrap(buffer).asDoubleBuffer();
+        for (int offset = 0; offset < length; offset += CHUNK) {
+            int n = Math.min(CHUNK, length - offset);
+            in.readFully(buffer, 0, n << 3);
+            view.clear();
+            view.get(values, offset, n);
+        }
+    }
+
+    /**
+     * Writes ascending keys as the zig-zag encoded first key followed by
+     * the unsigned differences of consecutive keys, each as a variable
+     * length number of seven bit groups.
+     */
+    static void writeSortedKeys(DataOutput out, int[] keys) throws IOException {
+        VarIntBuffer buffer = new VarIntBuffer(keys.length);
+        long previous = 0;
+        for (int i = 0; i < keys.length; i++) {
+            buffer.add(i == 0 ? zigZag(keys[i]) : keys[i] - previous);
+            previous = keys[i];
+        }
+        buffer.writeTo(out);
+    }
+
+    /**
+     * Writes ascending keys like {@link #writeSortedKeys(DataOutput, int[])};
+     * the differences are taken modulo 2^64 and are unsigned.
+     */
+    static void writeSortedKeys(DataOutput out, long[] keys) throws IOException {
+        VarIntBuffer buffer = new VarIntBuffer(keys.length);
+        long previous = 0;
+        for (int i = 0; i < keys.length; i++) {
+            buffer.add(i == 0 ? zigZag(keys[i]) : keys[i] - previous);
+            previous = keys[i];
+        }
+        buffer.writeTo(out);
+    }
+
+    static int[] readSortedIntKeys(DataInput in, int size) throws IOException {
+        VarIntReader reader = new VarIntReader(in);
+        int[] keys = new int[size];
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            long value = reader.next();
+            previous = i == 0 ? unZigZag(value) : previous + value;
+            keys[i] = (int) previous;
+        }
+        reader.finish();
+        return keys;
+    }
+
+    static long[] readSortedLongKeys(DataInput in, int size) throws IOException {
+        VarIntReader reader = new VarIntReader(in);
+        long[] keys = new long[size];
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            long value = reader.next();
+            previous = i == 0 ? unZigZag(value) : previous + value;
+            keys[i] = previous;
+        }
+        reader.finish();
+        return keys;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Collects variable length numbers, written with their total
+     * length in bytes in front.
+     */
+    private static final class VarIntBuffer {
+        private byte[] bytes;
+        private int length;
+
+        VarIntBuffer(int expectedNumbers) {
+            bytes = new byte[Math.max(16, expectedNumbers * 2)];
+        }
+
+        void add(long value) {
+            if (length + 10 > bytes.length) {
+                byte[] tmp = new byte[bytes.length << 1];
+                System.arraycopy(bytes, 0, tmp, 0, length);
+                bytes = tmp;
+            }
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void writeTo(DataOutput out) throws IOException {
+            out.writeInt(length);
+            out.write(bytes, 0, length);
+        }
+    }
+
+    /**
+     * Reads the numbers written by a {@link VarIntBuffer}.
+     */
+    private static final class VarIntReader {
+        private final byte[] bytes;
+        private int position;
+
+        VarIntReader(DataInput in) throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                throw new IOException("Corrupt key block of length " + length + ".");
+            }
+            bytes = new byte[length];
+            in.readFully(bytes);
+        }
+
+        long next() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position == bytes.length) {
+                    throw new IOException("Truncated key block.");
+                }
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Corrupt key block: number too long.");
+        }
+
+        void finish() throws IOException {
+            if (position != bytes.length) {
+                throw new IOException("Corrupt key block: " + (bytes.length - position) + " trailing bytes.");
+            }
+        }
+    }
+}// TBinaryCodec
@@ -18,6 +18,8 @@
 
 package de.julielab.gnu.trove;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -483,6 +485,209 @@ public class TByteDoubleHashMap extends TByteHash implements Serializable {
     }
 
 
+    /**
+     * Adjusts the primitive value mapped to <tt>key</tt> or maps
+     * <tt>key</tt> to <tt>putAmount</tt> if it isn't in the map yet.
+     *
+     * @param key the key of the value to adjust
+     * @param adjustAmount the amount to adjust the value by
+     * @param putAmount the value to put if <tt>key</tt> isn't mapped
+     * @return the new value associated with <tt>key</tt>
+     */
+    public double adjustOrPutValue(byte key, double adjustAmount, double putAmount) {
+        int index = insertionIndex(key);
+        if (index < 0) {
+            index = -index - 1;
+            return _values[index] += adjustAmount;
+        }
+        byte previousState = _states[index];
+        _set[index] = key;
+        _states[index] = FULL;
+        _values[index] = putAmount;
+        postInsertHook(previousState == FREE);
+        return putAmount;
+    }
+
+    /**
+     * Inserts <tt>values[i]</tt> for each <tt>keys[i]</tt> into the
+     * map, growing the table at most once beforehand.
+     *
+     * @param keys a <code>byte[]</code> value
+     * @param values a <code>double[]</code> value of the same length
+     */
+    public void putAll(byte[] keys, double[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("There are " + keys.length + " keys but "
+                                               + values.length + " values.");
+        }
+        ensureCapacity(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            put(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Inserts all entries of <tt>map</tt> into this map, growing the
+     * table at most once beforehand.
+     *
+     * @param map a <code>TByteDoubleHashMap</code> value
+     */
+    public void putAll(TByteDoubleHashMap map) {
+        ensureCapacity(map.size());
+        byte[] states = map._states;
+        byte[] keys = map._set;
+        double[] values = map._values;
+        for (int i = keys.length; i-- > 0;) {
+            if (states[i] == FULL) {
+                put(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Adds <tt>deltas[i]</tt> to the value of each <tt>keys[i]</tt>;
+     * keys that aren't in the map yet are mapped to their delta.  The
+     * table is grown at most once beforehand.
+     *
+     * @param keys a <code>byte[]</code> value
+     * @param deltas a <code>double[]</code> value of the same length
+     */
+    public void adjustOrPutValues(byte[] keys, double[] deltas) {
+        if (keys.length != deltas.length) {
+            throw new IllegalArgumentException("There are " + keys.length + " keys but "
+                                               + deltas.length + " deltas.");
+        }
+        ensureCapacity(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            adjustOrPutValue(keys[i], deltas[i], deltas[i]);
+        }
+    }
+
+    /**
+     * Adds the values of <tt>map</tt> to the values of this map; keys
+     * that aren't in this map yet are mapped to their value in
+     * <tt>map</tt>.  Useful to sum up counts collected by several
+     * threads.  The table is grown at most once beforehand.
+     *
+     * @param map a <code>TByteDoubleHashMap</code> value
+     */
+    public void adjustOrPutValues(TByteDoubleHashMap map) {
+        ensureCapacity(map.size());
+        byte[] states = map._states;
+        byte[] keys = map._set;
+        double[] values = map._values;
+        for (int i = keys.length; i-- > 0;) {
+            if (states[i] == FULL) {
+                adjustOrPutValue(keys[i], values[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Merges the entries of <tt>map</tt> into this map.  Keys that are
+     * in both maps are mapped to <tt>function.execute(thisValue,
+     * otherValue)</tt>, the other keys of <tt>map</tt> are inserted
+     * with their value.  The table is grown at most once beforehand.
+     *
+     * @param map a <code>TByteDoubleHashMap</code> value
+     * @param function combines the values of keys that are in both maps
+     */
+    public void merge(TByteDoubleHashMap map, TDoubleBinaryFunction function) {
+        ensureCapacity(map.size());
+        byte[] states = map._states;
+        byte[] keys = map._set;
+        double[] values = map._values;
+        for (int i = keys.length; i-- > 0;) {
+            if (states[i] == FULL) {
+                int index = insertionIndex(keys[i]);
+                if (index < 0) {
+                    index = -index - 1;
+                    _values[index] = function.execute(_values[index], values[i]);
+                } else {
+                    byte previousState = _states[index];
+                    _set[index] = keys[i];
+                    _states[index] = FULL;
+                    _values[index] = values[i];
+                    postInsertHook(previousState == FREE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the map in the {@link TBinaryCodec#RAW} binary format;
+     * {@link #readBinary(DataInput)} restores the table arrays as they
+     * are, without rehashing.
+     *
+     * @param out the output to write to
+     * @exception IOException if an error occurs
+     */
+    public void writeBinary(DataOutput out) throws IOException {
+        TBinaryCodec.writeHeader(out, TBinaryCodec.KIND_MAP, TBinaryCodec.BYTE, TBinaryCodec.DOUBLE,
+                                 TBinaryCodec.RAW, _hashingStrategy == this, _loadFactor, capacity(), _size);
+        TBinaryCodec.write(out, _states, _states.length);
+        TBinaryCodec.write(out, _set, _set.length);
+        TBinaryCodec.write(out, _values, _values.length);
+    }
+
+    /**
+     * Reads a map written by {@link #writeBinary(DataOutput)}.
+     *
+     * @param in the input to read from
+     * @return the map
+     * @exception IOException if the input can't be read or doesn't
+     * contain a <code>TByteDoubleHashMap</code>
+     */
+    public static TByteDoubleHashMap readBinary(DataInput in) throws IOException {
+        return readBinary(in, null);
+    }
+
+    /**
+     * Reads a map written by {@link #writeBinary(DataOutput)}.  The
+     * table arrays are adopted without rehashing if both the written
+     * map and the new map use the default hashing strategy, otherwise
+     * the entries are inserted.
+     *
+     * @param in the input to read from
+     * @param strategy the hashing strategy of the new map,
+     * <tt>null</tt> for the default strategy
+     * @return the map
+     * @exception IOException if the input can't be read or doesn't
+     * contain a <code>TByteDoubleHashMap</code>
+     */
+    public static TByteDoubleHashMap readBinary(DataInput in, TByteHashingStrategy strategy) throws IOException {
+        TBinaryCodec.Header header = TBinaryCodec.readHeader(in, TBinaryCodec.KIND_MAP,
+                                                             TBinaryCodec.BYTE, TBinaryCodec.DOUBLE);
+        if (header.encoding != TBinaryCodec.RAW) {
+            throw new IOException("Unsupported encoding " + header.encoding + " for byte keys.");
+        }
+        int capacity = header.capacity;
+        byte[] states = new byte[capacity];
+        byte[] keys = new byte[capacity];
+        double[] values = new double[capacity];
+        TBinaryCodec.read(in, states, capacity);
+        TBinaryCodec.read(in, keys, capacity);
+        TBinaryCodec.read(in, values, capacity);
+        int free = TBinaryCodec.checkStates(states, header.size);
+        if (strategy == null && header.defaultStrategy) {
+            TByteDoubleHashMap map = new TByteDoubleHashMap(0, header.loadFactor);
+            map._states = states;
+            map._set = keys;
+            map._values = values;
+            map.restored(header.size, free);
+            return map;
+        }
+        TByteDoubleHashMap map = strategy == null
+            ? new TByteDoubleHashMap(header.size, header.loadFactor)
+            : new TByteDoubleHashMap(header.size, header.loadFactor, strategy);
+        for (int i = capacity; i-- > 0;) {
+            if (states[i] == FULL) {
+                map.put(keys[i], values[i]);
+            }
+        }
+        return map;
+    }
+
     private void writeObject(ObjectOutputStream stream)
         throws IOException {
         stream.defaultWriteObject();
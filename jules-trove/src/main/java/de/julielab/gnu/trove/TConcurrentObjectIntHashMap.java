@@ -0,0 +1,576 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A thread safe Map implementation for Object keys and int values.
+ *
+ * <p>
+ * The keys are distributed over a fixed number of segments, each of
+ * which is an open addressed table with linear probing.  Reads never
+ * lock; modifications lock only the segment of the key, so threads
+ * inserting different keys rarely contend.  A slot of a table is only
+ * ever taken by one key: removed keys leave a marker behind that is
+ * dropped when the segment is rehashed.  This way, a reader that
+ * matched a key can never observe the value of another key.
+ * </p>
+ *
+ * <p>
+ * {@link #getOrAssignIndex} atomically looks up a key or maps it to
+ * the next free index of a counter shared by all segments, which is
+ * what dictionaries like feature alphabets need to intern their
+ * entries from several threads.
+ * </p>
+ *
+ * <p>
+ * <tt>null</tt> keys are not supported.  Like the other Trove maps,
+ * lookups of absent keys return <tt>0</tt>; use {@link #containsKey}
+ * to tell absent keys from keys mapped to <tt>0</tt>.  Bulk
+ * operations like {@link #forEachEntry} and {@link #keys} are weakly
+ * consistent: they reflect each segment at some point during the
+ * traversal.
+ * </p>
+ */
+public class TConcurrentObjectIntHashMap implements Serializable {
+
+    static final long serialVersionUID = 1L;
+
+    /** the default number of segments */
+    protected static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    /** the maximum number of segments */
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    /** marks the slot of a removed key */
+    private static final Object REMOVED = new Object();
+
+    /** the segments, selected by the upper bits of the hash */
+    private transient Segment[] _segments;
+
+    /** the number of bits to shift a hash to get its segment */
+    private transient int _segmentShift;
+
+    /** the next index handed out by {@link #getOrAssignIndex} */
+    private transient AtomicInteger _nextIndex;
+
+    /** the load above which a segment is rehashed */
+    private final float _loadFactor;
+
+    /**
+     * Creates a new <code>TConcurrentObjectIntHashMap</code> instance
+     * with the default capacity, load factor and concurrency level.
+     */
+    public TConcurrentObjectIntHashMap() {
+        this(TLinearHash.DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a new <code>TConcurrentObjectIntHashMap</code> instance
+     * that can hold <tt>initialCapacity</tt> entries without rehashing.
+     *
+     * @param initialCapacity an <code>int</code> value
+     */
+    public TConcurrentObjectIntHashMap(int initialCapacity) {
+        this(initialCapacity, TLinearHash.DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates a new <code>TConcurrentObjectIntHashMap</code> instance.
+     *
+     * @param initialCapacity the number of entries the map can hold
+     * without rehashing
+     * @param loadFactor the load above which a segment is rehashed
+     * @param concurrencyLevel the estimated number of concurrently
+     * writing threads; the number of segments is the next power of two
+     */
+    public TConcurrentObjectIntHashMap(int initialCapacity, float loadFactor, int concurrencyLevel) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        if (! (loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Illegal concurrency level: " + concurrencyLevel);
+        }
+        _loadFactor = loadFactor;
+        setUp(initialCapacity, Math.min(concurrencyLevel, MAX_SEGMENTS));
+        _nextIndex = new AtomicInteger();
+    }
+
+    private void setUp(int initialCapacity, int concurrencyLevel) {
+        int numSegments = Integer.highestOneBit(concurrencyLevel);
+        if (numSegments < concurrencyLevel) {
+            numSegments <<= 1;
+        }
+        _segmentShift = 32 - Integer.numberOfTrailingZeros(numSegments);
+        _segments = new Segment[numSegments];
+        int perSegment = (initialCapacity + numSegments - 1) / numSegments;
+        for (int i = 0; i < numSegments; i++) {
+            _segments[i] = new Segment(perSegment);
+        }
+    }
+
+    private Segment segmentFor(int hash) {
+        // a shift by 32 is a shift by 0 in Java
+        return _segmentShift == 32 ? _segments[0] : _segments[hash >>> _segmentShift];
+    }
+
+    private static int hash(Object key) {
+        if (key == null) {
+            throw new NullPointerException("null keys are not supported");
+        }
+        return TLinearHash.mix(key);
+    }
+
+    /**
+     * retrieves the value for <tt>key</tt>
+     *
+     * @param key an <code>Object</code> value
+     * @return the value of <tt>key</tt> or 0 if no such mapping exists.
+     */
+    public int get(Object key) {
+        int hash = hash(key);
+        Table table = segmentFor(hash).table;
+        int index = table.index(key, hash);
+        return index < 0 ? 0 : table.values.get(index);
+    }
+
+    /**
+     * checks for the present of <tt>key</tt> in the keys of the map.
+     *
+     * @param key an <code>Object</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean containsKey(Object key) {
+        int hash = hash(key);
+        return segmentFor(hash).table.index(key, hash) >= 0;
+    }
+
+    /**
+     * Inserts a key/value pair into the map.
+     *
+     * @param key an <code>Object</code> value
+     * @param value an <code>int</code> value
+     * @return the previous value associated with <tt>key</tt>,
+     * or 0 if none was found.
+     */
+    public int put(Object key, int value) {
+        int hash = hash(key);
+        return segmentFor(hash).put(key, hash, value, false);
+    }
+
+    /**
+     * Inserts a key/value pair into the map unless <tt>key</tt> is
+     * already mapped.
+     *
+     * @param key an <code>Object</code> value
+     * @param value an <code>int</code> value
+     * @return the value associated with <tt>key</tt> before the call,
+     * or 0 if none was found.
+     */
+    public int putIfAbsent(Object key, int value) {
+        int hash = hash(key);
+        Segment segment = segmentFor(hash);
+        Table table = segment.table;
+        int index = table.index(key, hash);
+        if (index >= 0) {
+            return table.values.get(index);
+        }
+        return segment.put(key, hash, value, true);
+    }
+
+    /**
+     * Returns the value of <tt>key</tt>.  If <tt>key</tt> isn't in the
+     * map yet, it is atomically mapped to the next index, starting at
+     * 0.  Each index is handed out at most once, even if keys are
+     * inserted by several threads concurrently; indices of keys that
+     * have been added by {@link #put} are not taken into account.
+     *
+     * @param key an <code>Object</code> value
+     * @return the index of <tt>key</tt>
+     */
+    public int getOrAssignIndex(Object key) {
+        int hash = hash(key);
+        Segment segment = segmentFor(hash);
+        Table table = segment.table;
+        int index = table.index(key, hash);
+        if (index >= 0) {
+            return table.values.get(index);
+        }
+        return segment.assignIndex(key, hash);
+    }
+
+    /**
+     * Returns the index that the next key added by
+     * {@link #getOrAssignIndex} will get.
+     *
+     * @return an <code>int</code> value
+     */
+    public int nextIndex() {
+        return _nextIndex.get();
+    }
+
+    /**
+     * Deletes a key/value pair from the map.
+     *
+     * @param key an <code>Object</code> value
+     * @return the removed value, or 0 if no mapping for key exists
+     */
+    public int remove(Object key) {
+        int hash = hash(key);
+        return segmentFor(hash).remove(key, hash);
+    }
+
+    /**
+     * Increments the primitive value mapped to key by 1
+     *
+     * @param key the key of the value to increment
+     * @return true if a mapping was found and modified.
+     */
+    public boolean increment(Object key) {
+        return adjustValue(key, 1);
+    }
+
+    /**
+     * Atomically adjusts the primitive value mapped to key.
+     *
+     * @param key the key of the value to increment
+     * @param amount the amount to adjust the value by.
+     * @return true if a mapping was found and modified.
+     */
+    public boolean adjustValue(Object key, int amount) {
+        int hash = hash(key);
+        return segmentFor(hash).adjustValue(key, hash, amount);
+    }
+
+    /**
+     * Returns the number of entries in the map.  The result is only
+     * exact if the map isn't modified concurrently.
+     *
+     * @return an <code>int</code> value
+     */
+    public int size() {
+        long size = 0;
+        for (Segment segment : _segments) {
+            size += segment.size;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Tells whether this map is currently holding any entries.
+     *
+     * @return a <code>boolean</code> value
+     */
+    public boolean isEmpty() {
+        for (Segment segment : _segments) {
+            if (segment.size != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Empties the map and resets the index counter of
+     * {@link #getOrAssignIndex}.  Concurrent insertions may survive
+     * the call.
+     */
+    public void clear() {
+        for (Segment segment : _segments) {
+            segment.clear();
+        }
+        _nextIndex.set(0);
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each key/value entry in the
+     * map.
+     *
+     * @param procedure a <code>TObjectIntProcedure</code> value
+     * @return false if the loop over the entries terminated because
+     * the procedure returned false for some entry.
+     */
+    public boolean forEachEntry(TObjectIntProcedure procedure) {
+        for (Segment segment : _segments) {
+            Table table = segment.table;
+            AtomicReferenceArray<Object> keys = table.keys;
+            for (int i = table.mask + 1; i-- > 0;) {
+                Object key = keys.get(i);
+                if (key != null && key != REMOVED && ! procedure.execute(key, table.values.get(i))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each key in the map.
+     *
+     * @param procedure a <code>TObjectProcedure</code> value
+     * @return false if the loop over the keys terminated because
+     * the procedure returned false for some key.
+     */
+    public boolean forEachKey(final TObjectProcedure procedure) {
+        return forEachEntry(new TObjectIntProcedure() {
+            public boolean execute(Object key, int value) {
+                return procedure.execute(key);
+            }
+        });
+    }
+
+    /**
+     * returns the keys of the map.
+     *
+     * @return an <code>Object[]</code> value
+     */
+    public Object[] keys() {
+        final List<Object> keys = new ArrayList<Object>(size());
+        forEachKey(new TObjectProcedure() {
+            public boolean execute(Object key) {
+                keys.add(key);
+                return true;
+            }
+        });
+        return keys.toArray();
+    }
+
+    /**
+     * Copies the entries of this map into a single threaded
+     * {@link TObjectIntHashMap}.
+     *
+     * @return a <code>TObjectIntHashMap</code> value
+     */
+    public TObjectIntHashMap toHashMap() {
+        final TObjectIntHashMap map = new TObjectIntHashMap(size());
+        forEachEntry(new TObjectIntProcedure() {
+            public boolean execute(Object key, int value) {
+                map.put(key, value);
+                return true;
+            }
+        });
+        return map;
+    }
+
+    private void writeObject(ObjectOutputStream stream)
+        throws IOException {
+        stream.defaultWriteObject();
+
+        stream.writeInt(_segments.length);
+        stream.writeInt(_nextIndex.get());
+
+        // the entries are written as a snapshot, which is why their number is
+        // only known afterwards
+        TObjectIntHashMap snapshot = toHashMap();
+        stream.writeInt(snapshot.size());
+        SerializationProcedure writeProcedure = new SerializationProcedure(stream);
+        if (! snapshot.forEachEntry(writeProcedure)) {
+            throw writeProcedure.exception;
+        }
+    }
+
+    private void readObject(ObjectInputStream stream)
+        throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+
+        int numSegments = stream.readInt();
+        _nextIndex = new AtomicInteger(stream.readInt());
+        int size = stream.readInt();
+        setUp(size, numSegments);
+        while (size-- > 0) {
+            Object key = stream.readObject();
+            int val = stream.readInt();
+            put(key, val);
+        }
+    }
+
+    /**
+     * An open addressed table of a segment.  The arrays of a table
+     * never shrink or grow; the segment replaces the whole table
+     * instead.
+     */
+    private static final class Table {
+        final AtomicReferenceArray<Object> keys;
+        final AtomicIntegerArray values;
+        final int mask;
+
+        Table(int capacity) {
+            keys = new AtomicReferenceArray<Object>(capacity);
+            values = new AtomicIntegerArray(capacity);
+            mask = capacity - 1;
+        }
+
+        /**
+         * @return the slot of <tt>key</tt> or -1 if it isn't in the table
+         */
+        int index(Object key, int hash) {
+            int index = hash & mask;
+            Object cur;
+            while ((cur = keys.get(index)) != null) {
+                if (cur == key || (cur != REMOVED && cur.equals(key))) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * @return the first free slot of the probe sequence of <tt>hash</tt>
+         */
+        int freeIndex(int hash) {
+            int index = hash & mask;
+            while (keys.get(index) != null) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+    }
+
+    /**
+     * A segment of the map.  All modifications happen while holding
+     * the monitor of the segment.
+     */
+    private final class Segment {
+        volatile Table table;
+        /** the number of entries */
+        volatile int size;
+        /** the number of entries plus the number of removed markers */
+        int used;
+        int maxUsed;
+
+        Segment(int initialCapacity) {
+            setTable(new Table(TLinearHash.tableSizeFor(initialCapacity, _loadFactor)));
+        }
+
+        private void setTable(Table table) {
+            int capacity = table.mask + 1;
+            maxUsed = Math.min(capacity - 1, (int) Math.ceil(capacity * _loadFactor));
+            this.table = table;
+        }
+
+        synchronized int put(Object key, int hash, int value, boolean onlyIfAbsent) {
+            Table table = this.table;
+            int index = table.index(key, hash);
+            if (index >= 0) {
+                int previous = table.values.get(index);
+                if (! onlyIfAbsent) {
+                    table.values.set(index, value);
+                }
+                return previous;
+            }
+            insert(key, hash, value);
+            return 0;
+        }
+
+        synchronized int assignIndex(Object key, int hash) {
+            Table table = this.table;
+            // another thread may have added the key since the unlocked lookup
+            int index = table.index(key, hash);
+            if (index >= 0) {
+                return table.values.get(index);
+            }
+            int value = _nextIndex.getAndIncrement();
+            insert(key, hash, value);
+            return value;
+        }
+
+        private void insert(Object key, int hash, int value) {
+            // rehash beforehand, readers of the current table rely on its free slots
+            if (used >= maxUsed) {
+                rehash();
+            }
+            Table table = this.table;
+            int index = table.freeIndex(hash);
+            // the value must be visible before the key is
+            table.values.set(index, value);
+            table.keys.set(index, key);
+            size = size + 1;
+            used++;
+        }
+
+        synchronized int remove(Object key, int hash) {
+            Table table = this.table;
+            int index = table.index(key, hash);
+            if (index < 0) {
+                return 0;
+            }
+            // the value stays in place for readers that already matched the key
+            table.keys.set(index, REMOVED);
+            size = size - 1;
+            return table.values.get(index);
+        }
+
+        synchronized boolean adjustValue(Object key, int hash, int amount) {
+            Table table = this.table;
+            int index = table.index(key, hash);
+            if (index < 0) {
+                return false;
+            }
+            table.values.addAndGet(index, amount);
+            return true;
+        }
+
+        synchronized void clear() {
+            setTable(new Table(table.mask + 1));
+            size = 0;
+            used = 0;
+        }
+
+        /**
+         * Copies the entries into a new table, dropping the removed
+         * markers.  The table only grows if it is actually filled by
+         * entries and not by markers.
+         */
+        private void rehash() {
+            Table oldTable = table;
+            int capacity = oldTable.mask + 1;
+            if (size >= maxUsed / 2) {
+                if (capacity == TLinearHash.MAXIMUM_CAPACITY) {
+                    throw new IllegalStateException("The hash table cannot grow beyond "
+                        + TLinearHash.MAXIMUM_CAPACITY + " slots.");
+                }
+                capacity <<= 1;
+            }
+            Table newTable = new Table(capacity);
+            for (int i = oldTable.mask + 1; i-- > 0;) {
+                Object key = oldTable.keys.get(i);
+                if (key != null && key != REMOVED) {
+                    int index = newTable.freeIndex(TLinearHash.mix(key));
+                    newTable.values.set(index, oldTable.values.get(i));
+                    newTable.keys.set(index, key);
+                }
+            }
+            used = size;
+            setTable(newTable);
+        }
+    }
+} // TConcurrentObjectIntHashMap
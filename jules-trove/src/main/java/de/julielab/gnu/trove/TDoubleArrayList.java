@@ -18,6 +18,9 @@
 
 package de.julielab.gnu.trove;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Random;
@@ -162,6 +165,28 @@ public class TDoubleArrayList implements Serializable, Cloneable {
         _pos += length;
     }
 
+    /**
+     * Adds the values of <tt>list</tt> to the end of this list, in
+     * order.
+     *
+     * @param list a <code>TDoubleArrayList</code> value
+     */
+    public void addAll(TDoubleArrayList list) {
+        add(list._data, 0, list._pos);
+    }
+
+    /**
+     * Adds a subset of the values in the array <tt>vals</tt> to the
+     * end of the list, in order; the same as {@link #add(double[], int, int)}.
+     *
+     * @param vals a <code>double[]</code> value
+     * @param offset the offset at which to start copying
+     * @param length the number of values to copy.
+     */
+    public void addAll(double[] vals, int offset, int length) {
+        add(vals, offset, length);
+    }
+
     /**
      * Inserts <tt>value</tt> into the list at <tt>offset</tt>.  All
      * values including and to the right of <tt>offset</tt> are shifted
@@ -843,6 +868,35 @@ public class TDoubleArrayList implements Serializable, Cloneable {
         return min;
     }
 
+    /**
+     * Writes the list in the binary format of {@link TBinaryCodec}.
+     *
+     * @param out the output to write to
+     * @exception IOException if an error occurs
+     */
+    public void writeBinary(DataOutput out) throws IOException {
+        TBinaryCodec.writeHeader(out, TBinaryCodec.KIND_LIST, TBinaryCodec.DOUBLE, TBinaryCodec.NONE,
+                                 TBinaryCodec.RAW, true, 0, _pos, _pos);
+        TBinaryCodec.write(out, _data, _pos);
+    }
+
+    /**
+     * Reads a list written by {@link #writeBinary(DataOutput)}.
+     *
+     * @param in the input to read from
+     * @return the list
+     * @exception IOException if the input can't be read or doesn't
+     * contain a <code>TDoubleArrayList</code>
+     */
+    public static TDoubleArrayList readBinary(DataInput in) throws IOException {
+        TBinaryCodec.Header header = TBinaryCodec.readHeader(in, TBinaryCodec.KIND_LIST,
+                                                             TBinaryCodec.DOUBLE, TBinaryCodec.NONE);
+        TDoubleArrayList list = new TDoubleArrayList(header.size);
+        TBinaryCodec.read(in, list._data, header.size);
+        list._pos = header.size;
+        return list;
+    }
+
     // stringification
 
     /**
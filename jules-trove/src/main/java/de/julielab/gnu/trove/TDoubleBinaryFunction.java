@@ -0,0 +1,34 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+/**
+ * Interface for functions that combine two double primitives into one,
+ * e.g. to merge the values of two maps.
+ */
+public interface TDoubleBinaryFunction {
+    /**
+     * Execute this function with <tt>a</tt> and <tt>b</tt>
+     *
+     * @param a a <code>double</code> input
+     * @param b a <code>double</code> input
+     * @return a <code>double</code> result
+     */
+    public double execute(double a, double b);
+}// TDoubleBinaryFunction
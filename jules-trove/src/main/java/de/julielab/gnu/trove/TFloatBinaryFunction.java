@@ -0,0 +1,34 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+/**
+ * Interface for functions that combine two float primitives into one,
+ * e.g. to merge the values of two maps.
+ */
+public interface TFloatBinaryFunction {
+    /**
+     * Execute this function with <tt>a</tt> and <tt>b</tt>
+     *
+     * @param a a <code>float</code> input
+     * @param b a <code>float</code> input
+     * @return a <code>float</code> result
+     */
+    public float execute(float a, float b);
+}// TFloatBinaryFunction
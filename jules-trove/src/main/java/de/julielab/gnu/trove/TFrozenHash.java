@@ -0,0 +1,308 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Base class for read-only hashtables whose slots live outside of the
+ * Java heap, either in direct buffers or in a memory mapped file.
+ *
+ * <p>
+ * A frozen map is built once from an existing map.  Its file layout is
+ * the in-memory layout: a header of {@link #HEADER_SIZE} bytes,
+ * followed by the key slots and the value slots of an open addressed
+ * table with linear probing over a power of two capacity, all in
+ * little endian byte order.  The key <tt>0</tt> marks free slots; its
+ * value, if any, is kept in the header.  Loading a file thus only maps
+ * it into memory; the entries are paged in on first access and are
+ * shared by all processes mapping the same file.  Since the slots are
+ * not Java objects, they neither count towards the heap size nor
+ * cause work for the garbage collector.
+ * </p>
+ *
+ * <p>
+ * Frozen maps are safe for concurrent reads.  After {@link #close()},
+ * all accessors throw an <code>IllegalStateException</code>; they must
+ * not be used concurrently with {@link #close()}, though.
+ * </p>
+ */
+abstract public class TFrozenHash implements Closeable {
+
+    /** identifies files of frozen maps, "JTFM" */
+    protected static final int MAGIC = 0x4A54464D;
+
+    /** the version of the file layout */
+    protected static final int VERSION = 1;
+
+    /** the number of bytes in front of the key slots */
+    protected static final int HEADER_SIZE = 64;
+
+    /** the maximum load of a frozen table */
+    protected static final float LOAD_FACTOR = 0.5f;
+
+    /**
+     * the binary logarithm of the number of slots per buffer; buffers
+     * can't exceed 2GB, so larger regions are split into pages of at
+     * most 1GB.
+     */
+    protected static final int PAGE_SHIFT = 27;
+
+    /** used to compute the slot within a page */
+    protected static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+
+    /** <tt>capacity - 1</tt>, used to map hash codes to slots */
+    protected final int _mask;
+
+    /** the number of entries in the table */
+    protected final int _size;
+
+    /** whether the key <tt>0</tt>, which isn't stored in a slot, is mapped */
+    protected final boolean _containsZeroKey;
+
+    /** the key and value regions, released by {@link #close()} */
+    private ByteBuffer[][] _regions;
+
+    /** set by {@link #close()} */
+    private volatile boolean _closed;
+
+    /**
+     * @param capacity the number of slots, a power of two
+     * @param size the number of entries
+     * @param containsZeroKey whether the key <tt>0</tt> is mapped
+     * @param regions the buffers holding the slots
+     */
+    protected TFrozenHash(int capacity, int size, boolean containsZeroKey, ByteBuffer[]... regions) {
+        _mask = capacity - 1;
+        _size = size;
+        _containsZeroKey = containsZeroKey;
+        _regions = regions;
+    }
+
+    /**
+     * Tells whether this map is holding any entries.
+     *
+     * @return a <code>boolean</code> value
+     */
+    public boolean isEmpty() {
+        checkOpen();
+        return 0 == _size;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return an <code>int</code> value
+     */
+    public int size() {
+        checkOpen();
+        return _size;
+    }
+
+    /**
+     * @return the number of slots of the table
+     */
+    protected int capacity() {
+        return _mask + 1;
+    }
+
+    /**
+     * Releases the memory of the map.  Memory mapped buffers are
+     * unmapped and direct buffers are freed without waiting for the
+     * garbage collector, where the JDK allows to do so.
+     */
+    public void close() {
+        _closed = true;
+        ByteBuffer[][] regions = _regions;
+        _regions = null;
+        if (regions != null) {
+            for (ByteBuffer[] region : regions) {
+                for (ByteBuffer page : region) {
+                    release(page);
+                }
+            }
+        }
+    }
+
+    /**
+     * Throws an <code>IllegalStateException</code> if the map has been
+     * closed, as its buffers must not be accessed anymore.
+     */
+    protected final void checkOpen() {
+        if (_closed) {
+            throw new IllegalStateException("The frozen map has been closed.");
+        }
+    }
+
+    /**
+     * Returns the capacity of a frozen table holding <tt>size</tt>
+     * entries.  There is always at least one free slot.
+     */
+    protected static int capacityFor(int size) {
+        return TLinearHash.tableSizeFor(size, LOAD_FACTOR);
+    }
+
+    /**
+     * Allocates the direct buffers of a region of <tt>capacity</tt>
+     * slots of <tt>width</tt> bytes each.
+     */
+    protected static ByteBuffer[] region(int capacity, int width) {
+        int pageSlots = Math.min(capacity, 1 << PAGE_SHIFT);
+        ByteBuffer[] pages = new ByteBuffer[capacity / pageSlots];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = ByteBuffer.allocateDirect(pageSlots * width).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return pages;
+    }
+
+    /**
+     * Allocates the pages of a region of <tt>capacity</tt> slots of
+     * <tt>width</tt> bytes each.  If <tt>channel</tt> is
+     * <tt>null</tt>, direct buffers are allocated, otherwise the region
+     * starting at <tt>offset</tt> in the file is mapped.
+     */
+    protected static ByteBuffer[] region(FileChannel channel, FileChannel.MapMode mode, long offset,
+                                         int capacity, int width) throws IOException {
+        int pageSlots = Math.min(capacity, 1 << PAGE_SHIFT);
+        ByteBuffer[] pages = new ByteBuffer[capacity / pageSlots];
+        for (int i = 0; i < pages.length; i++) {
+            int pageSize = pageSlots * width;
+            ByteBuffer page = channel == null
+                ? ByteBuffer.allocateDirect(pageSize)
+                : channel.map(mode, offset + (long) i * pageSize, pageSize);
+            pages[i] = page.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return pages;
+    }
+
+    /**
+     * Creates a file for a frozen table and returns its opened channel.
+     */
+    protected static FileChannel create(File file, int capacity, int keyWidth, int valueWidth)
+        throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        // a new file is sparse and all slots are initially free
+        raf.setLength(0);
+        raf.setLength(HEADER_SIZE + (long) capacity * (keyWidth + valueWidth));
+        return raf.getChannel();
+    }
+
+    /**
+     * Writes the header of a frozen table.
+     *
+     * @param zeroValue the bits of the value of the key <tt>0</tt>
+     */
+    protected static void writeHeader(FileChannel channel, int type, int capacity, int size,
+                                      boolean containsZeroKey, long zeroValue) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(type);
+        header.putInt(capacity);
+        header.putInt(size);
+        header.putInt(containsZeroKey ? 1 : 0);
+        header.putLong(zeroValue);
+        header.clear();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    /**
+     * Reads and validates the header of a frozen table.  The returned
+     * buffer is positioned behind the type.
+     */
+    protected static ByteBuffer readHeader(FileChannel channel, File file, int type, int keyWidth, int valueWidth)
+        throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header) < 0) {
+                throw new IOException(file + " is too short for a frozen hash map.");
+            }
+        }
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException(file + " does not contain a frozen hash map.");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException(file + " has the unsupported version " + version + ".");
+        }
+        int actualType = header.getInt();
+        if (actualType != type) {
+            throw new IOException(file + " contains a frozen map of type " + actualType + " instead of " + type + ".");
+        }
+        int capacity = header.getInt(header.position());
+        if (capacity < 2 || Integer.bitCount(capacity) != 1
+            || channel.size() != HEADER_SIZE + (long) capacity * (keyWidth + valueWidth)) {
+            throw new IOException(file + " is corrupt, its size doesn't match the capacity " + capacity + ".");
+        }
+        return header;
+    }
+
+    /**
+     * Java offers no API to release a buffer before it is garbage
+     * collected.  Use the internal cleaner mechanism of the JDK if
+     * available, else leave the buffer to the garbage collector.
+     */
+    private static void release(ByteBuffer buffer) {
+        if (! buffer.isDirect()) {
+            return;
+        }
+        try {
+            // Java 9 and newer
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            return;
+        } catch (Exception e) {
+            // fall through to the Java 8 way
+        }
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (Exception e) {
+            // the garbage collector will release the buffer
+        }
+    }
+
+    /**
+     * Flushes the changes of a writable mapped region to the file.
+     */
+    protected static void force(ByteBuffer[] region) {
+        for (ByteBuffer page : region) {
+            ((MappedByteBuffer) page).force();
+        }
+    }
+}// TFrozenHash
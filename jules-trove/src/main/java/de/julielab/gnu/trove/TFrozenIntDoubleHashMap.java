@@ -0,0 +1,390 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read-only Map for int keys and double values whose entries are
+ * stored off the Java heap, see {@link TFrozenHash}.
+ *
+ * <p>
+ * {@link #write(TIntDoubleHashMap, File)} stores a map in a file that
+ * {@link #load(File)} maps into memory without reading the entries.
+ * {@link #freeze(TIntDoubleHashMap)} copies a map into direct buffers
+ * instead.  The query methods are those of {@link TIntDoubleHashMap}.
+ * </p>
+ */
+public class TFrozenIntDoubleHashMap extends TFrozenHash {
+
+    /** identifies the key and value types in the file header */
+    private static final int TYPE = 1;
+
+    private final ByteBuffer[] _keys;
+    private final ByteBuffer[] _values;
+
+    /** the value of the key <tt>0</tt> */
+    private final double _zeroValue;
+
+    private TFrozenIntDoubleHashMap(int capacity, int size, boolean containsZeroKey, double zeroValue,
+                    ByteBuffer[] keys, ByteBuffer[] values) {
+        super(capacity, size, containsZeroKey, keys, values);
+        _keys = keys;
+        _values = values;
+        _zeroValue = zeroValue;
+    }
+
+    /**
+     * Copies the entries of <tt>map</tt> into direct buffers.
+     *
+     * @param map the map to freeze
+     * @return a frozen copy of <tt>map</tt>
+     */
+    public static TFrozenIntDoubleHashMap freeze(TIntDoubleHashMap map) {
+        Builder builder = new Builder(map.size());
+        map.forEachEntry(builder);
+        return builder.build();
+    }
+
+    /**
+     * Copies the entries of <tt>map</tt> into direct buffers.
+     *
+     * @param map the map to freeze
+     * @return a frozen copy of <tt>map</tt>
+     */
+    public static TFrozenIntDoubleHashMap freeze(TIntDoubleLinearHashMap map) {
+        Builder builder = new Builder(map.size());
+        map.forEachEntry(builder);
+        return builder.build();
+    }
+
+    /**
+     * Writes the entries of <tt>map</tt> to <tt>file</tt>, replacing
+     * its contents, in the layout expected by {@link #load(File)}.
+     *
+     * @param map the map to write
+     * @param file the file to write to
+     * @exception IOException if an error occurs
+     */
+    public static void write(TIntDoubleHashMap map, File file) throws IOException {
+        FileChannel channel = create(file, capacityFor(map.size()), 4, 8);
+        try {
+            Builder builder = new Builder(map.size(), channel);
+            map.forEachEntry(builder);
+            builder.finish(channel);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the entries of <tt>map</tt> to <tt>file</tt>, replacing
+     * its contents, in the layout expected by {@link #load(File)}.
+     *
+     * @param map the map to write
+     * @param file the file to write to
+     * @exception IOException if an error occurs
+     */
+    public static void write(TIntDoubleLinearHashMap map, File file) throws IOException {
+        FileChannel channel = create(file, capacityFor(map.size()), 4, 8);
+        try {
+            Builder builder = new Builder(map.size(), channel);
+            map.forEachEntry(builder);
+            builder.finish(channel);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Maps a file written by {@link #write} into memory.
+     *
+     * @param file the file to map
+     * @return a frozen map backed by <tt>file</tt>
+     * @exception IOException if the file can't be read or doesn't
+     * contain a frozen <code>TFrozenIntDoubleHashMap</code>
+     */
+    public static TFrozenIntDoubleHashMap load(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            ByteBuffer header = readHeader(channel, file, TYPE, 4, 8);
+            int capacity = header.getInt();
+            int size = header.getInt();
+            boolean containsZeroKey = header.getInt() != 0;
+            double zeroValue = Double.longBitsToDouble(header.getLong());
+            ByteBuffer[] keys = region(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE, capacity, 4);
+            ByteBuffer[] values = region(channel, FileChannel.MapMode.READ_ONLY,
+                                         HEADER_SIZE + (long) capacity * 4, capacity, 8);
+            // the mappings stay valid when the file is closed
+            return new TFrozenIntDoubleHashMap(capacity, size, containsZeroKey, zeroValue, keys, values);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private int key(int index) {
+        return _keys[index >>> PAGE_SHIFT].getInt((index & PAGE_MASK) << 2);
+    }
+
+    private double value(int index) {
+        return _values[index >>> PAGE_SHIFT].getDouble((index & PAGE_MASK) << 3);
+    }
+
+    /**
+     * @return the slot of <tt>key</tt>, -1 if it isn't in the map
+     */
+    private int index(int key) {
+        int mask = _mask;
+        int index = TLinearHash.mix(key) & mask;
+        int cur;
+        while ((cur = key(index)) != 0) {
+            if (cur == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * retrieves the value for <tt>key</tt>
+     *
+     * @param key an <code>int</code> value
+     * @return the value of <tt>key</tt> or 0 if no such mapping exists.
+     */
+    public double get(int key) {
+        checkOpen();
+        if (key == 0) {
+            return _containsZeroKey ? _zeroValue : 0;
+        }
+        int index = index(key);
+        return index < 0 ? 0 : value(index);
+    }
+
+    /**
+     * checks for the present of <tt>key</tt> in the keys of the map.
+     *
+     * @param key an <code>int</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean containsKey(int key) {
+        checkOpen();
+        return key == 0 ? _containsZeroKey : index(key) >= 0;
+    }
+
+    /**
+     * checks for the presence of <tt>val</tt> in the values of the map.
+     *
+     * @param val a <code>double</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean containsValue(final double val) {
+        return ! forEachValue(new TDoubleProcedure() {
+            public boolean execute(double value) {
+                return value != val;
+            }
+        });
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each key/value entry in the
+     * map.
+     *
+     * @param procedure a <code>TIntDoubleProcedure</code> value
+     * @return false if the loop over the entries terminated because
+     * the procedure returned false for some entry.
+     */
+    public boolean forEachEntry(TIntDoubleProcedure procedure) {
+        checkOpen();
+        if (_containsZeroKey && ! procedure.execute(0, _zeroValue)) {
+            return false;
+        }
+        for (int i = _mask + 1; i-- > 0;) {
+            int key = key(i);
+            if (key != 0 && ! procedure.execute(key, value(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each key in the map.
+     *
+     * @param procedure a <code>TIntProcedure</code> value
+     * @return false if the loop over the keys terminated because
+     * the procedure returned false for some key.
+     */
+    public boolean forEachKey(TIntProcedure procedure) {
+        checkOpen();
+        if (_containsZeroKey && ! procedure.execute(0)) {
+            return false;
+        }
+        for (int i = _mask + 1; i-- > 0;) {
+            int key = key(i);
+            if (key != 0 && ! procedure.execute(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each value in the map.
+     *
+     * @param procedure a <code>TDoubleProcedure</code> value
+     * @return false if the loop over the values terminated because
+     * the procedure returned false for some value.
+     */
+    public boolean forEachValue(TDoubleProcedure procedure) {
+        checkOpen();
+        if (_containsZeroKey && ! procedure.execute(_zeroValue)) {
+            return false;
+        }
+        for (int i = _mask + 1; i-- > 0;) {
+            if (key(i) != 0 && ! procedure.execute(value(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * returns the keys of the map.
+     *
+     * @return a <code>int[]</code> value
+     */
+    public int[] keys() {
+        final int[] keys = new int[_size];
+        forEachKey(new TIntProcedure() {
+            private int j;
+
+            public boolean execute(int key) {
+                keys[j++] = key;
+                return true;
+            }
+        });
+        return keys;
+    }
+
+    /**
+     * Returns the values of the map.
+     *
+     * @return a <code>double[]</code> value
+     */
+    public double[] getValues() {
+        final double[] values = new double[_size];
+        forEachValue(new TDoubleProcedure() {
+            private int j;
+
+            public boolean execute(double value) {
+                values[j++] = value;
+                return true;
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Copies the entries back into a modifiable map on the heap.
+     *
+     * @return a <code>TIntDoubleHashMap</code> value
+     */
+    public TIntDoubleHashMap toHashMap() {
+        final TIntDoubleHashMap map = new TIntDoubleHashMap(_size);
+        forEachEntry(new TIntDoubleProcedure() {
+            public boolean execute(int key, double value) {
+                map.put(key, value);
+                return true;
+            }
+        });
+        return map;
+    }
+
+    /**
+     * Inserts the entries of a map into the regions of a new frozen
+     * table.
+     */
+    private static final class Builder implements TIntDoubleProcedure {
+        private final int capacity;
+        private final int size;
+        private final ByteBuffer[] keys;
+        private final ByteBuffer[] values;
+        private boolean containsZeroKey;
+        private double zeroValue;
+
+        /**
+         * Builds the table in direct buffers.
+         */
+        Builder(int size) {
+            this.size = size;
+            this.capacity = capacityFor(size);
+            keys = region(capacity, 4);
+            values = region(capacity, 8);
+        }
+
+        /**
+         * Builds the table in the mapped regions of a file.
+         *
+         * @param channel the file to write to
+         */
+        Builder(int size, FileChannel channel) throws IOException {
+            this.size = size;
+            this.capacity = capacityFor(size);
+            FileChannel.MapMode mode = FileChannel.MapMode.READ_WRITE;
+            keys = region(channel, mode, HEADER_SIZE, capacity, 4);
+            values = region(channel, mode, HEADER_SIZE + (long) capacity * 4, capacity, 8);
+        }
+
+        public boolean execute(int key, double value) {
+            if (key == 0) {
+                containsZeroKey = true;
+                zeroValue = value;
+                return true;
+            }
+            int mask = capacity - 1;
+            int index = TLinearHash.mix(key) & mask;
+            while (keys[index >>> PAGE_SHIFT].getInt((index & PAGE_MASK) << 2) != 0) {
+                index = (index + 1) & mask;
+            }
+            keys[index >>> PAGE_SHIFT].putInt((index & PAGE_MASK) << 2, key);
+            values[index >>> PAGE_SHIFT].putDouble((index & PAGE_MASK) << 3, value);
+            return true;
+        }
+
+        TFrozenIntDoubleHashMap build() {
+            return new TFrozenIntDoubleHashMap(capacity, size, containsZeroKey, zeroValue, keys, values);
+        }
+
+        /**
+         * Writes the header and releases the mapped regions.
+         */
+        void finish(FileChannel channel) throws IOException {
+            force(keys);
+            force(values);
+            writeHeader(channel, TYPE, capacity, size, containsZeroKey, Double.doubleToRawLongBits(zeroValue));
+            build().close();
+        }
+    }
+} // TFrozenIntDoubleHashMap
@@ -0,0 +1,390 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read-only Map for long keys and int values whose entries are
+ * stored off the Java heap, see {@link TFrozenHash}.
+ *
+ * <p>
+ * {@link #write(TLongIntHashMap, File)} stores a map in a file that
+ * {@link #load(File)} maps into memory without reading the entries.
+ * {@link #freeze(TLongIntHashMap)} copies a map into direct buffers
+ * instead.  The query methods are those of {@link TLongIntHashMap}.
+ * </p>
+ */
+public class TFrozenLongIntHashMap extends TFrozenHash {
+
+    /** identifies the key and value types in the file header */
+    private static final int TYPE = 2;
+
+    private final ByteBuffer[] _keys;
+    private final ByteBuffer[] _values;
+
+    /** the value of the key <tt>0</tt> */
+    private final int _zeroValue;
+
+    private TFrozenLongIntHashMap(int capacity, int size, boolean containsZeroKey, int zeroValue,
+                    ByteBuffer[] keys, ByteBuffer[] values) {
+        super(capacity, size, containsZeroKey, keys, values);
+        _keys = keys;
+        _values = values;
+        _zeroValue = zeroValue;
+    }
+
+    /**
+     * Copies the entries of <tt>map</tt> into direct buffers.
+     *
+     * @param map the map to freeze
+     * @return a frozen copy of <tt>map</tt>
+     */
+    public static TFrozenLongIntHashMap freeze(TLongIntHashMap map) {
+        Builder builder = new Builder(map.size());
+        map.forEachEntry(builder);
+        return builder.build();
+    }
+
+    /**
+     * Copies the entries of <tt>map</tt> into direct buffers.
+     *
+     * @param map the map to freeze
+     * @return a frozen copy of <tt>map</tt>
+     */
+    public static TFrozenLongIntHashMap freeze(TLongIntLinearHashMap map) {
+        Builder builder = new Builder(map.size());
+        map.forEachEntry(builder);
+        return builder.build();
+    }
+
+    /**
+     * Writes the entries of <tt>map</tt> to <tt>file</tt>, replacing
+     * its contents, in the layout expected by {@link #load(File)}.
+     *
+     * @param map the map to write
+     * @param file the file to write to
+     * @exception IOException if an error occurs
+     */
+    public static void write(TLongIntHashMap map, File file) throws IOException {
+        FileChannel channel = create(file, capacityFor(map.size()), 8, 4);
+        try {
+            Builder builder = new Builder(map.size(), channel);
+            map.forEachEntry(builder);
+            builder.finish(channel);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the entries of <tt>map</tt> to <tt>file</tt>, replacing
+     * its contents, in the layout expected by {@link #load(File)}.
+     *
+     * @param map the map to write
+     * @param file the file to write to
+     * @exception IOException if an error occurs
+     */
+    public static void write(TLongIntLinearHashMap map, File file) throws IOException {
+        FileChannel channel = create(file, capacityFor(map.size()), 8, 4);
+        try {
+            Builder builder = new Builder(map.size(), channel);
+            map.forEachEntry(builder);
+            builder.finish(channel);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Maps a file written by {@link #write} into memory.
+     *
+     * @param file the file to map
+     * @return a frozen map backed by <tt>file</tt>
+     * @exception IOException if the file can't be read or doesn't
+     * contain a frozen <code>TFrozenLongIntHashMap</code>
+     */
+    public static TFrozenLongIntHashMap load(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            ByteBuffer header = readHeader(channel, file, TYPE, 8, 4);
+            int capacity = header.getInt();
+            int size = header.getInt();
+            boolean containsZeroKey = header.getInt() != 0;
+            int zeroValue = (int) header.getLong();
+            ByteBuffer[] keys = region(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE, capacity, 8);
+            ByteBuffer[] values = region(channel, FileChannel.MapMode.READ_ONLY,
+                                         HEADER_SIZE + (long) capacity * 8, capacity, 4);
+            // the mappings stay valid when the file is closed
+            return new TFrozenLongIntHashMap(capacity, size, containsZeroKey, zeroValue, keys, values);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private long key(int index) {
+        return _keys[index >>> PAGE_SHIFT].getLong((index & PAGE_MASK) << 3);
+    }
+
+    private int value(int index) {
+        return _values[index >>> PAGE_SHIFT].getInt((index & PAGE_MASK) << 2);
+    }
+
+    /**
+     * @return the slot of <tt>key</tt>, -1 if it isn't in the map
+     */
+    private int index(long key) {
+        int mask = _mask;
+        int index = TLinearHash.mix(key) & mask;
+        long cur;
+        while ((cur = key(index)) != 0) {
+            if (cur == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * retrieves the value for <tt>key</tt>
+     *
+     * @param key a <code>long</code> value
+     * @return the value of <tt>key</tt> or 0 if no such mapping exists.
+     */
+    public int get(long key) {
+        checkOpen();
+        if (key == 0) {
+            return _containsZeroKey ? _zeroValue : 0;
+        }
+        int index = index(key);
+        return index < 0 ? 0 : value(index);
+    }
+
+    /**
+     * checks for the present of <tt>key</tt> in the keys of the map.
+     *
+     * @param key a <code>long</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean containsKey(long key) {
+        checkOpen();
+        return key == 0 ? _containsZeroKey : index(key) >= 0;
+    }
+
+    /**
+     * checks for the presence of <tt>val</tt> in the values of the map.
+     *
+     * @param val an <code>int</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean containsValue(final int val) {
+        return ! forEachValue(new TIntProcedure() {
+            public boolean execute(int value) {
+                return value != val;
+            }
+        });
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each key/value entry in the
+     * map.
+     *
+     * @param procedure a <code>TLongIntProcedure</code> value
+     * @return false if the loop over the entries terminated because
+     * the procedure returned false for some entry.
+     */
+    public boolean forEachEntry(TLongIntProcedure procedure) {
+        checkOpen();
+        if (_containsZeroKey && ! procedure.execute(0, _zeroValue)) {
+            return false;
+        }
+        for (int i = _mask + 1; i-- > 0;) {
+            long key = key(i);
+            if (key != 0 && ! procedure.execute(key, value(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each key in the map.
+     *
+     * @param procedure a <code>TLongProcedure</code> value
+     * @return false if the loop over the keys terminated because
+     * the procedure returned false for some key.
+     */
+    public boolean forEachKey(TLongProcedure procedure) {
+        checkOpen();
+        if (_containsZeroKey && ! procedure.execute(0)) {
+            return false;
+        }
+        for (int i = _mask + 1; i-- > 0;) {
+            long key = key(i);
+            if (key != 0 && ! procedure.execute(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each value in the map.
+     *
+     * @param procedure a <code>TIntProcedure</code> value
+     * @return false if the loop over the values terminated because
+     * the procedure returned false for some value.
+     */
+    public boolean forEachValue(TIntProcedure procedure) {
+        checkOpen();
+        if (_containsZeroKey && ! procedure.execute(_zeroValue)) {
+            return false;
+        }
+        for (int i = _mask + 1; i-- > 0;) {
+            if (key(i) != 0 && ! procedure.execute(value(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * returns the keys of the map.
+     *
+     * @return a <code>long[]</code> value
+     */
+    public long[] keys() {
+        final long[] keys = new long[_size];
+        forEachKey(new TLongProcedure() {
+            private int j;
+
+            public boolean execute(long key) {
+                keys[j++] = key;
+                return true;
+            }
+        });
+        return keys;
+    }
+
+    /**
+     * Returns the values of the map.
+     *
+     * @return a <code>int[]</code> value
+     */
+    public int[] getValues() {
+        final int[] values = new int[_size];
+        forEachValue(new TIntProcedure() {
+            private int j;
+
+            public boolean execute(int value) {
+                values[j++] = value;
+                return true;
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Copies the entries back into a modifiable map on the heap.
+     *
+     * @return a <code>TLongIntHashMap</code> value
+     */
+    public TLongIntHashMap toHashMap() {
+        final TLongIntHashMap map = new TLongIntHashMap(_size);
+        forEachEntry(new TLongIntProcedure() {
+            public boolean execute(long key, int value) {
+                map.put(key, value);
+                return true;
+            }
+        });
+        return map;
+    }
+
+    /**
+     * Inserts the entries of a map into the regions of a new frozen
+     * table.
+     */
+    private static final class Builder implements TLongIntProcedure {
+        private final int capacity;
+        private final int size;
+        private final ByteBuffer[] keys;
+        private final ByteBuffer[] values;
+        private boolean containsZeroKey;
+        private int zeroValue;
+
+        /**
+         * Builds the table in direct buffers.
+         */
+        Builder(int size) {
+            this.size = size;
+            this.capacity = capacityFor(size);
+            keys = region(capacity, 8);
+            values = region(capacity, 4);
+        }
+
+        /**
+         * Builds the table in the mapped regions of a file.
+         *
+         * @param channel the file to write to
+         */
+        Builder(int size, FileChannel channel) throws IOException {
+            this.size = size;
+            this.capacity = capacityFor(size);
+            FileChannel.MapMode mode = FileChannel.MapMode.READ_WRITE;
+            keys = region(channel, mode, HEADER_SIZE, capacity, 8);
+            values = region(channel, mode, HEADER_SIZE + (long) capacity * 8, capacity, 4);
+        }
+
+        public boolean execute(long key, int value) {
+            if (key == 0) {
+                containsZeroKey = true;
+                zeroValue = value;
+                return true;
+            }
+            int mask = capacity - 1;
+            int index = TLinearHash.mix(key) & mask;
+            while (keys[index >>> PAGE_SHIFT].getLong((index & PAGE_MASK) << 3) != 0) {
+                index = (index + 1) & mask;
+            }
+            keys[index >>> PAGE_SHIFT].putLong((index & PAGE_MASK) << 3, key);
+            values[index >>> PAGE_SHIFT].putInt((index & PAGE_MASK) << 2, value);
+            return true;
+        }
+
+        TFrozenLongIntHashMap build() {
+            return new TFrozenLongIntHashMap(capacity, size, containsZeroKey, zeroValue, keys, values);
+        }
+
+        /**
+         * Writes the header and releases the mapped regions.
+         */
+        void finish(FileChannel channel) throws IOException {
+            force(keys);
+            force(values);
+            writeHeader(channel, TYPE, capacity, size, containsZeroKey, zeroValue);
+            build().close();
+        }
+    }
+} // TFrozenLongIntHashMap
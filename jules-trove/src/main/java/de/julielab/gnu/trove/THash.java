@@ -134,7 +134,7 @@ abstract public class THash implements Cloneable {
      */
     public void ensureCapacity(int desiredCapacity) {
         if (desiredCapacity > (_maxSize - size())) {
-            rehash(PrimeFinder.nextPrime((int)Math.ceil(desiredCapacity + size() /
+            rehash(PrimeFinder.nextPrime((int)Math.ceil((desiredCapacity + size()) /
                                                         _loadFactor) + 1));
             computeMaxSize(capacity());
         }
@@ -229,6 +229,20 @@ abstract public class THash implements Cloneable {
         _free = capacity - _size; // reset the free element count
     }
 
+    /**
+     * Adopts the bookkeeping of a table whose arrays have been restored
+     * as a whole, e.g. by {@link TBinaryCodec}, instead of by inserting
+     * its entries.
+     *
+     * @param size the number of entries in the table
+     * @param free the number of free slots in the table
+     */
+    protected void restored(int size, int free) {
+        _size = size;
+        computeMaxSize(capacity());
+        _free = free;
+    }
+
     /**
      * After an insert, this hook is called to adjust the size/free
      * values of the set and to perform rehashing if necessary.
@@ -1,5 +1,5 @@
 ///////////////////////////////////////////////////////////////////////////////
-// Copyright (c) 2001, Eric D. Friedman All Rights Reserved.
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
 //
 // This library is free software; you can redistribute it and/or
 // modify it under the terms of the GNU Lesser General Public
@@ -16,17 +16,19 @@
 // Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
 ///////////////////////////////////////////////////////////////////////////////
 
-package gnu.trove.benchmark;
+package de.julielab.gnu.trove;
 
-interface Reporter {
-    void report(Result result);
-    void start();
-    void finish();
-    public static final String[] ENV_PROPS = {
-        "java.vm.name",
-        "java.runtime.version",
-        "os.name",
-        "os.arch",
-        "os.version"
-    };
-}
+/**
+ * Interface for functions that combine two int primitives into one,
+ * e.g. to merge the values of two maps.
+ */
+public interface TIntBinaryFunction {
+    /**
+     * Execute this function with <tt>a</tt> and <tt>b</tt>
+     *
+     * @param a an <code>int</code> input
+     * @param b an <code>int</code> input
+     * @return an <code>int</code> result
+     */
+    public int execute(int a, int b);
+}// TIntBinaryFunction
@@ -0,0 +1,569 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * An open addressed Map implementation for int keys and double values
+ * using linear probing over a power of two table, see
+ * {@link TLinearHash}.  This is a specialized map, not a replacement
+ * for {@link TIntDoubleHashMap}: its methods share their names and
+ * semantics, but there is no iterator (use {@link #forEachEntry}
+ * instead), and {@link #equals} only compares with other instances of
+ * this class.
+ */
+public class TIntDoubleLinearHashMap extends TLinearHash implements Serializable {
+
+    static final long serialVersionUID = 1L;
+
+    /**
+     * the keys of the map; the slot at index {@link #capacity()} is
+     * reserved for the key <tt>0</tt>.
+     */
+    protected transient int[] _set;
+
+    /** the values of the map */
+    protected transient double[] _values;
+
+    /**
+     * Creates a new <code>TIntDoubleLinearHashMap</code> instance with the default
+     * capacity and load factor.
+     */
+    public TIntDoubleLinearHashMap() {
+        super();
+    }
+
+    /**
+     * Creates a new <code>TIntDoubleLinearHashMap</code> instance that can hold
+     * <tt>initialCapacity</tt> entries without rehashing, using the
+     * default load factor.
+     *
+     * @param initialCapacity an <code>int</code> value
+     */
+    public TIntDoubleLinearHashMap(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    /**
+     * Creates a new <code>TIntDoubleLinearHashMap</code> instance that can hold
+     * <tt>initialCapacity</tt> entries without rehashing at the
+     * specified load factor.
+     *
+     * @param initialCapacity an <code>int</code> value
+     * @param loadFactor a <code>float</code> value
+     */
+    public TIntDoubleLinearHashMap(int initialCapacity, float loadFactor) {
+        super(initialCapacity, loadFactor);
+    }
+
+    /**
+     * @return a deep clone of this collection
+     */
+    public Object clone() {
+        TIntDoubleLinearHashMap m = (TIntDoubleLinearHashMap) super.clone();
+        m._set = (int[]) this._set.clone();
+        m._values = (double[]) this._values.clone();
+        return m;
+    }
+
+    /**
+     * initializes the hashtable to a power of two capacity that holds
+     * at least <tt>initialCapacity</tt> entries.
+     *
+     * @param initialCapacity an <code>int</code> value
+     * @return the actual capacity chosen
+     */
+    protected int setUp(int initialCapacity) {
+        int capacity = super.setUp(initialCapacity);
+        _set = new int[capacity + 1];
+        _values = new double[capacity + 1];
+        return capacity;
+    }
+
+    /**
+     * Locates the slot of <tt>key</tt>.
+     *
+     * @param key an <code>int</code> value
+     * @return the slot of <tt>key</tt> or -1 if it isn't in the map
+     */
+    protected int index(int key) {
+        if (key == 0) {
+            return _containsReservedKey ? _mask + 1 : -1;
+        }
+        int[] set = _set;
+        int mask = _mask;
+        int index = mix(key) & mask;
+        int cur;
+        while ((cur = set[index]) != 0) {
+            if (cur == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Locates the slot at which <tt>key</tt> can be inserted.  If
+     * <tt>key</tt> is already in the map, returns <tt>-index-1</tt>.
+     *
+     * @param key an <code>int</code> value
+     * @return an <code>int</code> value
+     */
+    protected int insertionIndex(int key) {
+        if (key == 0) {
+            int index = _mask + 1;
+            return _containsReservedKey ? -index - 1 : index;
+        }
+        int[] set = _set;
+        int mask = _mask;
+        int index = mix(key) & mask;
+        int cur;
+        while ((cur = set[index]) != 0) {
+            if (cur == key) {
+                return -index - 1;
+            }
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * Inserts a key/value pair into the map.
+     *
+     * @param key an <code>int</code> value
+     * @param value a <code>double</code> value
+     * @return the previous value associated with <tt>key</tt>,
+     * or 0 if none was found.
+     */
+    public double put(int key, double value) {
+        int index = insertionIndex(key);
+        if (index < 0) {
+            index = -index - 1;
+            double previous = _values[index];
+            _values[index] = value;
+            return previous;
+        }
+        _set[index] = key;
+        _values[index] = value;
+        if (index > _mask) {
+            _containsReservedKey = true;
+        }
+        postInsertHook();
+        return 0;
+    }
+
+    /**
+     * rehashes the map to the new capacity.
+     *
+     * @param newCapacity a power of two
+     */
+    protected void rehash(int newCapacity) {
+        int oldCapacity = _mask + 1;
+        int[] oldKeys = _set;
+        double[] oldVals = _values;
+        int[] set = new int[newCapacity + 1];
+        double[] values = new double[newCapacity + 1];
+        int mask = newCapacity - 1;
+
+        for (int i = oldCapacity; i-- > 0;) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int index = mix(key) & mask;
+                while (set[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                set[index] = key;
+                values[index] = oldVals[i];
+            }
+        }
+        values[newCapacity] = oldVals[oldCapacity];
+        _set = set;
+        _values = values;
+    }
+
+    /**
+     * retrieves the value for <tt>key</tt>
+     *
+     * @param key an <code>int</code> value
+     * @return the value of <tt>key</tt> or 0 if no such mapping exists.
+     */
+    public double get(int key) {
+        int index = index(key);
+        return index < 0 ? 0 : _values[index];
+    }
+
+    /**
+     * Empties the map.
+     *
+     */
+    public void clear() {
+        super.clear();
+        Arrays.fill(_set, 0);
+        Arrays.fill(_values, 0);
+    }
+
+    /**
+     * Deletes a key/value pair from the map.
+     *
+     * @param key an <code>int</code> value
+     * @return the removed value, or 0 if no mapping for key exists
+     */
+    public double remove(int key) {
+        double prev = 0;
+        int index = index(key);
+        if (index >= 0) {
+            prev = _values[index];
+            removeAt(index);
+        }
+        return prev;
+    }
+
+    /**
+     * removes the mapping at <tt>index</tt> from the map and moves
+     * back the following entries of the probe sequence that may take
+     * its place.
+     *
+     * @param index an <code>int</code> value
+     */
+    protected void removeAt(int index) {
+        _size--;
+        double[] values = _values;
+        if (index > _mask) {
+            _containsReservedKey = false;
+            values[index] = 0;
+            return;
+        }
+        int[] set = _set;
+        int mask = _mask;
+        int gap = index;
+        for (;;) {
+            int next = (gap + 1) & mask;
+            int key;
+            for (;;) {
+                key = set[next];
+                if (key == 0) {
+                    set[gap] = 0;
+                    values[gap] = 0;
+                    return;
+                }
+                int home = mix(key) & mask;
+                // the entry may fill the gap unless its home slot lies cyclically within (gap, next]
+                if (gap <= next ? (home <= gap || home > next) : (home <= gap && home > next)) {
+                    break;
+                }
+                next = (next + 1) & mask;
+            }
+            set[gap] = key;
+            values[gap] = values[next];
+            gap = next;
+        }
+    }
+
+    /**
+     * Compares this map with another map for equality of their stored
+     * entries.
+     *
+     * @param other an <code>Object</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean equals(Object other) {
+        if (! (other instanceof TIntDoubleLinearHashMap)) {
+            return false;
+        }
+        final TIntDoubleLinearHashMap that = (TIntDoubleLinearHashMap) other;
+        if (that.size() != this.size()) {
+            return false;
+        }
+        return forEachEntry(new TIntDoubleProcedure() {
+            public boolean execute(int key, double value) {
+                int index = that.index(key);
+                double v = index < 0 ? 0 : that._values[index];
+                return index >= 0 && value == v;
+            }
+        });
+    }
+
+    public int hashCode() {
+        final int[] h = new int[1];
+        forEachEntry(new TIntDoubleProcedure() {
+            public boolean execute(int key, double value) {
+                h[0] += HashFunctions.hash(key) ^ HashFunctions.hash(value);
+                return true;
+            }
+        });
+        return h[0];
+    }
+
+    /**
+     * Returns the values of the map.
+     *
+     * @return a <code>Collection</code> value
+     */
+    public double[] getValues() {
+        double[] vals = new double[size()];
+        int[] k = _set;
+        double[] v = _values;
+        int j = 0;
+        for (int i = _mask + 1; i-- > 0;) {
+            if (k[i] != 0) {
+                vals[j++] = v[i];
+            }
+        }
+        if (_containsReservedKey) {
+            vals[j] = v[_mask + 1];
+        }
+        return vals;
+    }
+
+    /**
+     * returns the keys of the map.
+     *
+     * @return a <code>Set</code> value
+     */
+    public int[] keys() {
+        int[] keys = new int[size()];
+        int[] k = _set;
+        int j = 0;
+        for (int i = _mask + 1; i-- > 0;) {
+            if (k[i] != 0) {
+                keys[j++] = k[i];
+            }
+        }
+        if (_containsReservedKey) {
+            keys[j] = 0;
+        }
+        return keys;
+    }
+
+    /**
+     * checks for the presence of <tt>val</tt> in the values of the map.
+     *
+     * @param val a <code>double</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean containsValue(double val) {
+        int[] keys = _set;
+        double[] vals = _values;
+        for (int i = _mask + 1; i-- > 0;) {
+            if (keys[i] != 0 && val == vals[i]) {
+                return true;
+            }
+        }
+        return _containsReservedKey && val == vals[_mask + 1];
+    }
+
+    /**
+     * checks for the present of <tt>key</tt> in the keys of the map.
+     *
+     * @param key an <code>int</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean containsKey(int key) {
+        return index(key) >= 0;
+    }
+
+    /**
+     * Searches the set for <tt>key</tt>, the same as
+     * {@link #containsKey}.
+     *
+     * @param key an <code>int</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean contains(int key) {
+        return index(key) >= 0;
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each key in the map.
+     *
+     * @param procedure a <code>TIntProcedure</code> value
+     * @return false if the loop over the keys terminated because
+     * the procedure returned false for some key.
+     */
+    public boolean forEach(TIntProcedure procedure) {
+        return forEachKey(procedure);
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each key in the map.
+     *
+     * @param procedure a <code>TIntProcedure</code> value
+     * @return false if the loop over the keys terminated because
+     * the procedure returned false for some key.
+     */
+    public boolean forEachKey(TIntProcedure procedure) {
+        int[] keys = _set;
+        for (int i = _mask + 1; i-- > 0;) {
+            if (keys[i] != 0 && ! procedure.execute(keys[i])) {
+                return false;
+            }
+        }
+        return ! _containsReservedKey || procedure.execute(0);
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each value in the map.
+     *
+     * @param procedure a <code>TDoubleProcedure</code> value
+     * @return false if the loop over the values terminated because
+     * the procedure returned false for some value.
+     */
+    public boolean forEachValue(TDoubleProcedure procedure) {
+        int[] keys = _set;
+        double[] values = _values;
+        for (int i = _mask + 1; i-- > 0;) {
+            if (keys[i] != 0 && ! procedure.execute(values[i])) {
+                return false;
+            }
+        }
+        return ! _containsReservedKey || procedure.execute(values[_mask + 1]);
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each key/value entry in the
+     * map.
+     *
+     * @param procedure a <code>TIntDoubleProcedure</code> value
+     * @return false if the loop over the entries terminated because
+     * the procedure returned false for some entry.
+     */
+    public boolean forEachEntry(TIntDoubleProcedure procedure) {
+        int[] keys = _set;
+        double[] values = _values;
+        for (int i = _mask + 1; i-- > 0;) {
+            if (keys[i] != 0 && ! procedure.execute(keys[i], values[i])) {
+                return false;
+            }
+        }
+        return ! _containsReservedKey || procedure.execute(0, values[_mask + 1]);
+    }
+
+    /**
+     * Retains only those entries in the map for which the procedure
+     * returns a true value.
+     *
+     * @param procedure determines which entries to keep
+     * @return true if the map was modified.
+     */
+    public boolean retainEntries(TIntDoubleProcedure procedure) {
+        boolean modified = false;
+        int[] keys = _set;
+        double[] values = _values;
+        int mask = _mask;
+        // Start behind a free slot.  Removals only move entries from
+        // later to earlier slots of the same probe sequence, which
+        // never spans a free slot, so the entry moved into a freed slot
+        // hasn't been visited yet.
+        int start = 0;
+        while (keys[start] != 0) {
+            start++;
+        }
+        for (int i = (start + 1) & mask; i != start;) {
+            if (keys[i] != 0 && ! procedure.execute(keys[i], values[i])) {
+                removeAt(i);
+                modified = true;
+            } else {
+                i = (i + 1) & mask;
+            }
+        }
+        if (_containsReservedKey && ! procedure.execute(0, values[mask + 1])) {
+            removeAt(mask + 1);
+            modified = true;
+        }
+        return modified;
+    }
+
+    /**
+     * Transform the values in this map using <tt>function</tt>.
+     *
+     * @param function a <code>TDoubleFunction</code> value
+     */
+    public void transformValues(TDoubleFunction function) {
+        int[] keys = _set;
+        double[] values = _values;
+        for (int i = _mask + 1; i-- > 0;) {
+            if (keys[i] != 0) {
+                values[i] = function.execute(values[i]);
+            }
+        }
+        if (_containsReservedKey) {
+            values[_mask + 1] = function.execute(values[_mask + 1]);
+        }
+    }
+
+    /**
+     * Increments the primitive value mapped to key by 1
+     *
+     * @param key the key of the value to increment
+     * @return true if a mapping was found and modified.
+     */
+    public boolean increment(int key) {
+        return adjustValue(key, (double)1);
+    }
+
+    /**
+     * Adjusts the primitive value mapped to key.
+     *
+     * @param key the key of the value to increment
+     * @param amount the amount to adjust the value by.
+     * @return true if a mapping was found and modified.
+     */
+    public boolean adjustValue(int key, double amount) {
+        int index = index(key);
+        if (index < 0) {
+            return false;
+        } else {
+            _values[index] += amount;
+            return true;
+        }
+    }
+
+
+    private void writeObject(ObjectOutputStream stream)
+        throws IOException {
+        stream.defaultWriteObject();
+
+        // number of entries
+        stream.writeInt(_size);
+
+        SerializationProcedure writeProcedure = new SerializationProcedure(stream);
+        if (! forEachEntry(writeProcedure)) {
+            throw writeProcedure.exception;
+        }
+    }
+
+    private void readObject(ObjectInputStream stream)
+        throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+
+        int size = stream.readInt();
+        setUp(size);
+        while (size-- > 0) {
+            int key = stream.readInt();
+            double val = stream.readDouble();
+            put(key, val);
+        }
+    }
+} // TIntDoubleLinearHashMap
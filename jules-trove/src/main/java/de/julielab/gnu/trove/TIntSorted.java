@@ -0,0 +1,414 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import java.util.Arrays;
+
+/**
+ * Sorted blocks of int keys, see {@link TSorted}.
+ */
+abstract public class TIntSorted extends TSorted {
+
+    /** the key blocks, each sorted in ascending order */
+    protected transient int[][] _keys;
+
+    /** the first key of each block, searched to find the block of a key */
+    protected transient int[] _firsts;
+
+    /**
+     * Creates an empty collection.
+     */
+    public TIntSorted() {
+        setUp(new int[0], null, 0);
+    }
+
+    public Object clone() {
+        TIntSorted clone = (TIntSorted) super.clone();
+        clone._keys = (int[][]) _keys.clone();
+        for (int i = 0; i < _blockCount; i++) {
+            clone._keys[i] = Arrays.copyOf(_keys[i], _counts[i]);
+        }
+        clone._firsts = (int[]) _firsts.clone();
+        return clone;
+    }
+
+    /**
+     * Empties the collection.
+     */
+    public void clear() {
+        setUp(new int[0], null, 0);
+    }
+
+    /**
+     * Fills the blocks with the first <tt>length</tt> keys and values.
+     * All blocks but the last one are full.
+     *
+     * @param keys the keys in strictly ascending order
+     * @param values the values of the keys, <tt>null</tt> for sets
+     * @param length the number of keys
+     * @exception IllegalArgumentException if the keys are not in
+     * strictly ascending order
+     */
+    protected void setUp(int[] keys, Object values, int length) {
+        for (int i = 1; i < length; i++) {
+            if (keys[i - 1] >= keys[i]) {
+                throw new IllegalArgumentException("The keys are not in strictly ascending order at position "
+                                                   + i + ".");
+            }
+        }
+        int blocks = Math.max(1, (length + BLOCK_MASK) >>> BLOCK_SHIFT);
+        _keys = new int[blocks][];
+        _firsts = new int[blocks];
+        _counts = new int[blocks];
+        _values = newValueBlock(0) == null ? null : new Object[blocks];
+        for (int block = 0; block < blocks; block++) {
+            int from = block << BLOCK_SHIFT;
+            int count = Math.min(BLOCK_SIZE, length - from);
+            if (count == 0) {
+                _keys[block] = new int[INITIAL_BLOCK_CAPACITY];
+            } else {
+                _keys[block] = Arrays.copyOfRange(keys, from, from + count);
+                _firsts[block] = keys[from];
+            }
+            _counts[block] = count;
+            if (_values != null) {
+                _values[block] = newValueBlock(_keys[block].length);
+                if (count > 0) {
+                    System.arraycopy(values, from, _values[block], 0, count);
+                }
+            }
+        }
+        _blockCount = blocks;
+        _size = length;
+    }
+
+    /**
+     * Returns the block that contains <tt>key</tt> if it is present,
+     * i.e. the last block whose first key is not larger than
+     * <tt>key</tt>, or the first block.
+     *
+     * @param key an <code>int</code> value
+     * @return the number of the block
+     */
+    protected final int blockOf(int key) {
+        int low = 1;
+        int high = _blockCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (_firsts[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Searches <tt>key</tt> within a block.
+     *
+     * @return the slot of the key, or <tt>-(insertion slot) - 1</tt>
+     */
+    protected final int slot(int block, int key) {
+        return Arrays.binarySearch(_keys[block], 0, _counts[block], key);
+    }
+
+    /**
+     * Locates the index of <tt>key</tt>.
+     *
+     * @param key an <code>int</code> value
+     * @return the index of <tt>key</tt> or -1 if it isn't in the collection
+     */
+    protected final int index(int key) {
+        int block = blockOf(key);
+        int slot = slot(block, key);
+        return slot < 0 ? -1 : index(block, slot);
+    }
+
+    /**
+     * Returns the key at <tt>index</tt>.
+     */
+    protected final int keyAt(int index) {
+        return _keys[index >>> BLOCK_SHIFT][index & BLOCK_MASK];
+    }
+
+    /**
+     * @return the index of the smallest key, or -1 if the collection is empty
+     */
+    protected final int firstIndex() {
+        return _size == 0 ? -1 : 0;
+    }
+
+    /**
+     * @return the index of the largest key, or -1 if the collection is empty
+     */
+    protected final int lastIndex() {
+        return _size == 0 ? -1 : index(_blockCount - 1, _counts[_blockCount - 1] - 1);
+    }
+
+    /**
+     * @return the index of the smallest key larger than or equal to
+     * <tt>key</tt>, or -1 if there is none
+     */
+    protected final int ceilingIndex(int key) {
+        int block = blockOf(key);
+        int slot = slot(block, key);
+        if (slot >= 0) {
+            return index(block, slot);
+        }
+        return successor(block, -slot - 1);
+    }
+
+    /**
+     * @return the index of the smallest key larger than <tt>key</tt>,
+     * or -1 if there is none
+     */
+    protected final int higherIndex(int key) {
+        int block = blockOf(key);
+        int slot = slot(block, key);
+        return successor(block, slot >= 0 ? slot + 1 : -slot - 1);
+    }
+
+    /**
+     * @return the index of the largest key smaller than or equal to
+     * <tt>key</tt>, or -1 if there is none
+     */
+    protected final int floorIndex(int key) {
+        int block = blockOf(key);
+        int slot = slot(block, key);
+        if (slot >= 0) {
+            return index(block, slot);
+        }
+        return predecessor(block, -slot - 1);
+    }
+
+    /**
+     * @return the index of the largest key smaller than <tt>key</tt>,
+     * or -1 if there is none
+     */
+    protected final int lowerIndex(int key) {
+        int block = blockOf(key);
+        int slot = slot(block, key);
+        return predecessor(block, slot >= 0 ? slot : -slot - 1);
+    }
+
+    /**
+     * @return the index of the key at <tt>slot</tt>, continuing with
+     * the next block if the slot is behind the last key of its block
+     */
+    private int successor(int block, int slot) {
+        if (slot < _counts[block]) {
+            return index(block, slot);
+        }
+        return block + 1 < _blockCount ? index(block + 1, 0) : -1;
+    }
+
+    /**
+     * @return the index of the key in front of <tt>slot</tt>,
+     * continuing with the previous block if the slot is the first one
+     */
+    private int predecessor(int block, int slot) {
+        if (slot > 0) {
+            return index(block, slot - 1);
+        }
+        return block > 0 ? index(block - 1, _counts[block - 1] - 1) : -1;
+    }
+
+    /**
+     * Counts the keys from index <tt>from</tt> up to, but excluding,
+     * index <tt>to</tt>.
+     *
+     * @param from the index of the first key
+     * @param to the index behind the last key, or -1 for the end
+     */
+    protected final int count(int from, int to) {
+        if (from < 0) {
+            return 0;
+        }
+        int fromBlock = from >>> BLOCK_SHIFT;
+        int toBlock = to < 0 ? _blockCount : to >>> BLOCK_SHIFT;
+        int toSlot = to < 0 ? 0 : to & BLOCK_MASK;
+        int count = toSlot - (from & BLOCK_MASK);
+        for (int block = fromBlock; block < toBlock; block++) {
+            count += _counts[block];
+        }
+        return count;
+    }
+
+    /**
+     * Copies the keys from index <tt>from</tt> up to, but excluding,
+     * index <tt>to</tt>.
+     *
+     * @param from the index of the first key, or -1 for none
+     * @param to the index behind the last key, or -1 for the end
+     */
+    protected final int[] copyKeys(int from, int to) {
+        int[] result = new int[count(from, to)];
+        for (int n = 0, block = from >>> BLOCK_SHIFT, slot = from & BLOCK_MASK; n < result.length; block++) {
+            int length = Math.min(_counts[block] - slot, result.length - n);
+            System.arraycopy(_keys[block], slot, result, n, length);
+            n += length;
+            slot = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Inserts <tt>key</tt> in front of <tt>slot</tt> of a block.  A full
+     * block is split first.  Maps have to store the value at the
+     * returned index.
+     *
+     * @param block the block
+     * @param slot the insertion slot as returned by {@link #slot}
+     * @param key the new key
+     * @return the index of the key
+     */
+    protected final int insertAt(int block, int slot, int key) {
+        if (_counts[block] == BLOCK_SIZE) {
+            splitBlock(block);
+            int half = _counts[block];
+            if (slot > half) {
+                block++;
+                slot -= half;
+            }
+        }
+        int count = _counts[block];
+        int[] keys = _keys[block];
+        if (count == keys.length) {
+            int capacity = Math.min(BLOCK_SIZE, Math.max(INITIAL_BLOCK_CAPACITY, count << 1));
+            keys = _keys[block] = Arrays.copyOf(keys, capacity);
+            resizeValues(block, capacity);
+        }
+        System.arraycopy(keys, slot, keys, slot + 1, count - slot);
+        copyValues(block, slot, block, slot + 1, count - slot);
+        keys[slot] = key;
+        if (slot == 0) {
+            _firsts[block] = key;
+        }
+        _counts[block] = count + 1;
+        _size++;
+        return index(block, slot);
+    }
+
+    /**
+     * Deletes the key at <tt>index</tt>, merging its block with a
+     * neighbour if both have become sparse.
+     *
+     * @param index an <code>int</code> value
+     */
+    protected void removeAt(int index) {
+        int block = index >>> BLOCK_SHIFT;
+        int slot = index & BLOCK_MASK;
+        int count = _counts[block] - 1;
+        int[] keys = _keys[block];
+        System.arraycopy(keys, slot + 1, keys, slot, count - slot);
+        copyValues(block, slot + 1, block, slot, count - slot);
+        _counts[block] = count;
+        _size--;
+        if (count == 0) {
+            if (_blockCount > 1) {
+                removeBlock(block);
+            }
+            return;
+        }
+        if (slot == 0) {
+            _firsts[block] = keys[0];
+        }
+        if (count <= BLOCK_SIZE / 4) {
+            if (block + 1 < _blockCount && count + _counts[block + 1] <= BLOCK_SIZE / 2) {
+                mergeBlocks(block);
+            } else if (block > 0 && count + _counts[block - 1] <= BLOCK_SIZE / 2) {
+                mergeBlocks(block - 1);
+            }
+        }
+    }
+
+    /**
+     * Moves the upper half of a full block into a new block behind it.
+     */
+    private void splitBlock(int block) {
+        insertBlock(block + 1);
+        int half = BLOCK_SIZE / 2;
+        int upper = _counts[block] - half;
+        _keys[block + 1] = Arrays.copyOfRange(_keys[block], half, half + BLOCK_SIZE);
+        if (_values != null) {
+            _values[block + 1] = newValueBlock(BLOCK_SIZE);
+        }
+        copyValues(block, half, block + 1, 0, upper);
+        _firsts[block + 1] = _keys[block + 1][0];
+        _counts[block + 1] = upper;
+        _counts[block] = half;
+    }
+
+    /**
+     * Appends the keys of the block behind <tt>block</tt> to it and
+     * removes the emptied block.
+     */
+    private void mergeBlocks(int block) {
+        int count = _counts[block];
+        int next = _counts[block + 1];
+        if (count + next > _keys[block].length) {
+            int capacity = Math.min(BLOCK_SIZE, Integer.highestOneBit(count + next - 1) << 1);
+            _keys[block] = Arrays.copyOf(_keys[block], capacity);
+            resizeValues(block, capacity);
+        }
+        System.arraycopy(_keys[block + 1], 0, _keys[block], count, next);
+        copyValues(block + 1, 0, block, count, next);
+        _counts[block] = count + next;
+        removeBlock(block + 1);
+    }
+
+    /**
+     * Makes room for a new block at position <tt>block</tt>.
+     */
+    private void insertBlock(int block) {
+        if (_blockCount == _keys.length) {
+            int capacity = _blockCount << 1;
+            _keys = Arrays.copyOf(_keys, capacity);
+            _firsts = Arrays.copyOf(_firsts, capacity);
+            _counts = Arrays.copyOf(_counts, capacity);
+            if (_values != null) {
+                _values = Arrays.copyOf(_values, capacity);
+            }
+        }
+        int tail = _blockCount - block;
+        System.arraycopy(_keys, block, _keys, block + 1, tail);
+        System.arraycopy(_firsts, block, _firsts, block + 1, tail);
+        System.arraycopy(_counts, block, _counts, block + 1, tail);
+        if (_values != null) {
+            System.arraycopy(_values, block, _values, block + 1, tail);
+        }
+        _blockCount++;
+    }
+
+    /**
+     * Removes the block at position <tt>block</tt>.
+     */
+    private void removeBlock(int block) {
+        int tail = _blockCount - block - 1;
+        System.arraycopy(_keys, block + 1, _keys, block, tail);
+        System.arraycopy(_firsts, block + 1, _firsts, block, tail);
+        System.arraycopy(_counts, block + 1, _counts, block, tail);
+        _keys[--_blockCount] = null;
+        if (_values != null) {
+            System.arraycopy(_values, block + 1, _values, block, tail);
+            _values[_blockCount] = null;
+        }
+    }
+}// TIntSorted
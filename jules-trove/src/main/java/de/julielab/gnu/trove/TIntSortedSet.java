@@ -0,0 +1,427 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A sorted set of int primitives.  In contrast to
+ * {@link TIntHashSet}, the keys are kept in ascending order, which
+ * allows for navigation (<tt>floor</tt>, <tt>ceiling</tt>, ...),
+ * iteration over key ranges and linear time set operations.  A set
+ * of <tt>n</tt> keys takes about 1.3 <tt>n</tt> ints when built by
+ * insertions and <tt>n</tt> ints when built from a sorted array.
+ * Lookups and updates take logarithmic time, see {@link TSorted}.
+ */
+public class TIntSortedSet extends TIntSorted implements Serializable {
+
+    static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new, empty <code>TIntSortedSet</code>.
+     */
+    public TIntSortedSet() {
+        super();
+    }
+
+    /**
+     * Creates a new <code>TIntSortedSet</code> from sorted keys.  This
+     * is much faster than adding the keys one by one.
+     *
+     * @param sortedKeys keys in strictly ascending order
+     * @exception IllegalArgumentException if the keys are not in
+     * strictly ascending order
+     */
+    public TIntSortedSet(int[] sortedKeys) {
+        this(sortedKeys, sortedKeys.length);
+    }
+
+    /**
+     * Creates a new <code>TIntSortedSet</code> from the first
+     * <tt>length</tt> sorted keys of an array.
+     *
+     * @param sortedKeys keys in strictly ascending order
+     * @param length the number of keys
+     * @exception IllegalArgumentException if the keys are not in
+     * strictly ascending order
+     */
+    public TIntSortedSet(int[] sortedKeys, int length) {
+        setUp(sortedKeys, null, length);
+    }
+
+    /**
+     * Inserts a value into the set.
+     *
+     * @param val an <code>int</code> value
+     * @return true if the set was modified by the add operation
+     */
+    public boolean add(int val) {
+        int block = blockOf(val);
+        int slot = slot(block, val);
+        if (slot >= 0) {
+            return false;
+        }
+        insertAt(block, -slot - 1, val);
+        return true;
+    }
+
+    /**
+     * Removes <tt>val</tt> from the set.
+     *
+     * @param val an <code>int</code> value
+     * @return true if the set was modified by the remove operation.
+     */
+    public boolean remove(int val) {
+        int index = index(val);
+        if (index >= 0) {
+            removeAt(index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Searches the set for <tt>val</tt>
+     *
+     * @param val an <code>int</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean contains(int val) {
+        return index(val) >= 0;
+    }
+
+    /**
+     * Tests the set to determine if all of the elements in
+     * <tt>array</tt> are present.
+     *
+     * @param array an <code>array</code> of int primitives.
+     * @return true if all elements were present in the set.
+     */
+    public boolean containsAll(int[] array) {
+        for (int i = array.length; i-- > 0;) {
+            if (! contains(array[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds all of the elements in <tt>array</tt> to the set.
+     *
+     * @param array an <code>array</code> of int primitives.
+     * @return true if the set was modified by the add all operation.
+     */
+    public boolean addAll(int[] array) {
+        boolean changed = false;
+        for (int i = array.length; i-- > 0;) {
+            if (add(array[i])) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the smallest value in the set.
+     *
+     * @return an <code>int</code> value
+     * @exception NoSuchElementException if the set is empty
+     */
+    public int first() {
+        return keyAt(checked(firstIndex()));
+    }
+
+    /**
+     * Returns the largest value in the set.
+     *
+     * @return an <code>int</code> value
+     * @exception NoSuchElementException if the set is empty
+     */
+    public int last() {
+        return keyAt(checked(lastIndex()));
+    }
+
+    /**
+     * Returns the largest value in the set that is smaller than or
+     * equal to <tt>val</tt>.
+     *
+     * @param val an <code>int</code> value
+     * @return an <code>int</code> value
+     * @exception NoSuchElementException if there is no such value
+     */
+    public int floor(int val) {
+        return keyAt(checked(floorIndex(val)));
+    }
+
+    /**
+     * Returns the smallest value in the set that is larger than or
+     * equal to <tt>val</tt>.
+     *
+     * @param val an <code>int</code> value
+     * @return an <code>int</code> value
+     * @exception NoSuchElementException if there is no such value
+     */
+    public int ceiling(int val) {
+        return keyAt(checked(ceilingIndex(val)));
+    }
+
+    /**
+     * Returns the largest value in the set that is smaller than
+     * <tt>val</tt>.
+     *
+     * @param val an <code>int</code> value
+     * @return an <code>int</code> value
+     * @exception NoSuchElementException if there is no such value
+     */
+    public int lower(int val) {
+        return keyAt(checked(lowerIndex(val)));
+    }
+
+    /**
+     * Returns the smallest value in the set that is larger than
+     * <tt>val</tt>.
+     *
+     * @param val an <code>int</code> value
+     * @return an <code>int</code> value
+     * @exception NoSuchElementException if there is no such value
+     */
+    public int higher(int val) {
+        return keyAt(checked(higherIndex(val)));
+    }
+
+    private static int checked(int index) {
+        if (index < 0) {
+            throw new NoSuchElementException();
+        }
+        return index;
+    }
+
+    /**
+     * Returns the values of the set in ascending order.
+     *
+     * @return an <code>int[]</code> value
+     */
+    public int[] toArray() {
+        return copyKeys(firstIndex(), -1);
+    }
+
+    /**
+     * Returns the values of the set from <tt>fromVal</tt>, inclusive,
+     * to <tt>toVal</tt>, exclusive, in ascending order.
+     *
+     * @param fromVal the lower bound of the range
+     * @param toVal the upper bound of the range
+     * @return an <code>int[]</code> value
+     */
+    public int[] toArray(int fromVal, int toVal) {
+        if (fromVal >= toVal) {
+            return new int[0];
+        }
+        return copyKeys(ceilingIndex(fromVal), ceilingIndex(toVal));
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each element in the set, in
+     * ascending order.
+     *
+     * @param procedure a <code>TIntProcedure</code> value
+     * @return false if the loop over the set terminated because
+     * the procedure returned false for some value.
+     */
+    public boolean forEach(TIntProcedure procedure) {
+        for (int block = 0; block < _blockCount; block++) {
+            int[] keys = _keys[block];
+            for (int i = 0, count = _counts[block]; i < count; i++) {
+                if (! procedure.execute(keys[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each element from
+     * <tt>fromVal</tt>, inclusive, to <tt>toVal</tt>, exclusive, in
+     * ascending order.
+     *
+     * @param fromVal the lower bound of the range
+     * @param toVal the upper bound of the range
+     * @param procedure a <code>TIntProcedure</code> value
+     * @return false if the loop over the range terminated because
+     * the procedure returned false for some value.
+     */
+    public boolean forEachInRange(int fromVal, int toVal, TIntProcedure procedure) {
+        int index = ceilingIndex(fromVal);
+        if (index < 0) {
+            return true;
+        }
+        for (int block = index >>> BLOCK_SHIFT, i = index & BLOCK_MASK; block < _blockCount; block++, i = 0) {
+            int[] keys = _keys[block];
+            for (int count = _counts[block]; i < count; i++) {
+                if (keys[i] >= toVal) {
+                    return true;
+                }
+                if (! procedure.execute(keys[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a new set holding the values of this set and of
+     * <tt>other</tt>.  Both sets are merged in linear time.
+     *
+     * @param other a <code>TIntSortedSet</code> value
+     * @return the union of both sets
+     */
+    public TIntSortedSet union(TIntSortedSet other) {
+        int[] a = toArray();
+        int[] b = other.toArray();
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                result[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                result[n++] = b[j++];
+            } else {
+                result[n++] = a[i++];
+                j++;
+            }
+        }
+        System.arraycopy(a, i, result, n, a.length - i);
+        n += a.length - i;
+        System.arraycopy(b, j, result, n, b.length - j);
+        n += b.length - j;
+        return new TIntSortedSet(result, n);
+    }
+
+    /**
+     * Returns a new set holding the values contained in both this set
+     * and <tt>other</tt>.  The sets are merged in linear time, unless
+     * one is much smaller than the other, in which case its values are
+     * looked up in the larger set.
+     *
+     * @param other a <code>TIntSortedSet</code> value
+     * @return the intersection of both sets
+     */
+    public TIntSortedSet intersection(TIntSortedSet other) {
+        TIntSortedSet small = _size <= other._size ? this : other;
+        TIntSortedSet large = small == this ? other : this;
+        int[] result = new int[small._size];
+        int n = 0;
+        if ((long) small._size * (32 - Integer.numberOfLeadingZeros(large._size)) < large._size) {
+            for (int block = 0; block < small._blockCount; block++) {
+                int[] keys = small._keys[block];
+                for (int i = 0, count = small._counts[block]; i < count; i++) {
+                    if (large.index(keys[i]) >= 0) {
+                        result[n++] = keys[i];
+                    }
+                }
+            }
+        } else {
+            int[] a = small.toArray();
+            int[] b = large.toArray();
+            for (int i = 0, j = 0; i < a.length && j < b.length;) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    result[n++] = a[i++];
+                    j++;
+                }
+            }
+        }
+        return new TIntSortedSet(result, n);
+    }
+
+    /**
+     * Compares this set with another set for equality of their stored
+     * entries.
+     *
+     * @param other an <code>Object</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean equals(Object other) {
+        if (! (other instanceof TIntSortedSet)) {
+            return false;
+        }
+        TIntSortedSet that = (TIntSortedSet) other;
+        return that.size() == this.size() && Arrays.equals(toArray(), that.toArray());
+    }
+
+    public int hashCode() {
+        int h = 0;
+        for (int block = 0; block < _blockCount; block++) {
+            int[] keys = _keys[block];
+            for (int i = 0, count = _counts[block]; i < count; i++) {
+                h += HashFunctions.hash(keys[i]);
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Returns a String representation of the set, in ascending order.
+     *
+     * @return a <code>String</code> value
+     */
+    public String toString() {
+        return Arrays.toString(toArray()).replace('[', '{').replace(']', '}');
+    }
+
+    private void writeObject(ObjectOutputStream stream)
+        throws IOException {
+        stream.defaultWriteObject();
+
+        // number of entries
+        stream.writeInt(_size);
+
+        for (int block = 0; block < _blockCount; block++) {
+            int[] keys = _keys[block];
+            for (int i = 0, count = _counts[block]; i < count; i++) {
+                stream.writeInt(keys[i]);
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream stream)
+        throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+
+        int size = stream.readInt();
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = stream.readInt();
+        }
+        setUp(keys, null, size);
+    }
+} // TIntSortedSet
@@ -0,0 +1,284 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+/**
+ * Base class for hashtables using linear probing over tables whose
+ * capacity is a power of two.  In contrast to {@link THash}, there
+ * are no <tt>REMOVED</tt> markers and no separate state array:
+ * empty slots are recognized by the reserved key <tt>0</tt> and
+ * deletions shift the following entries of the probe sequence back
+ * into the freed slot.  The reserved key itself is stored in an extra
+ * slot at index {@link #capacity()} of the key and value arrays.
+ *
+ * <p>
+ * The subclasses are specialized maps for the hot paths that need
+ * them, {@link TLongIntLinearHashMap} and {@link TIntDoubleLinearHashMap},
+ * which are also the sources of the frozen maps.  They are not
+ * replacements for the {@link THash} maps, see the class comments.
+ * </p>
+ *
+ * <p>
+ * Keys are spread over the table by a multiplicative hash followed
+ * by mixing the upper into the lower bits, so that keys differing
+ * only in their upper bits don't collide.
+ * </p>
+ */
+abstract public class TLinearHash implements Cloneable {
+
+    /** the load above which rehashing occurs. */
+    protected static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    /** the default number of entries the table can hold without rehashing */
+    protected static final int DEFAULT_INITIAL_CAPACITY = 10;
+
+    /** the largest possible capacity, leaving room for the extra slot */
+    protected static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /** the 32 bit golden ratio, used for multiplicative hashing */
+    private static final int INT_PHI = 0x9E3779B9;
+
+    /** the 64 bit golden ratio, used for multiplicative hashing */
+    private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+
+    /** the current number of entries in the table */
+    protected transient int _size;
+
+    /** <tt>capacity() - 1</tt>, used to map hash codes to slots */
+    protected transient int _mask;
+
+    /**
+     * The maximum number of entries allowed before the table is
+     * grown.  Always less than the capacity, so there is at least one
+     * free slot terminating each probe sequence.
+     */
+    protected transient int _maxSize;
+
+    /** whether the extra slot holds the reserved key */
+    protected transient boolean _containsReservedKey;
+
+    /**
+     * Determines how full the internal table can become before
+     * rehashing is required. This must be a value in the range:
+     * 0.0 &lt; loadFactor &lt; 1.0.
+     */
+    protected float _loadFactor;
+
+    /**
+     * Creates a new <code>TLinearHash</code> instance with the default
+     * capacity and load factor.
+     */
+    public TLinearHash() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates a new <code>TLinearHash</code> instance that can hold
+     * <tt>initialCapacity</tt> entries without rehashing, using the
+     * default load factor.
+     *
+     * @param initialCapacity an <code>int</code> value
+     */
+    public TLinearHash(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates a new <code>TLinearHash</code> instance that can hold
+     * <tt>initialCapacity</tt> entries without rehashing at the
+     * specified load factor.
+     *
+     * @param initialCapacity an <code>int</code> value
+     * @param loadFactor a <code>float</code> value
+     */
+    public TLinearHash(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        if (! (loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+        }
+        _loadFactor = loadFactor;
+        setUp(initialCapacity);
+    }
+
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException cnse) {
+            return null; // it's supported
+        }
+    }
+
+    /**
+     * Tells whether this set is currently holding any elements.
+     *
+     * @return a <code>boolean</code> value
+     */
+    public boolean isEmpty() {
+        return 0 == _size;
+    }
+
+    /**
+     * Returns the number of distinct elements in this collection.
+     *
+     * @return an <code>int</code> value
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * @return the current physical capacity of the hash table, always
+     * a power of two.
+     */
+    protected int capacity() {
+        return _mask + 1;
+    }
+
+    /**
+     * Ensure that this hashtable has sufficient capacity to hold
+     * <tt>desiredCapacity<tt> <b>additional</b> elements without
+     * requiring a rehash.  This is a tuning method you can call
+     * before doing a large insert.
+     *
+     * @param desiredCapacity an <code>int</code> value
+     */
+    public void ensureCapacity(int desiredCapacity) {
+        if (desiredCapacity > (_maxSize - size())) {
+            int capacity = tableSizeFor(desiredCapacity + size(), _loadFactor);
+            rehash(capacity);
+            computeMaxSize(capacity);
+        }
+    }
+
+    /**
+     * Shrinks the table to the smallest capacity that holds all the
+     * current entries at the load factor of this collection.
+     */
+    public void compact() {
+        int capacity = tableSizeFor(size(), _loadFactor);
+        if (capacity < capacity()) {
+            rehash(capacity);
+            computeMaxSize(capacity);
+        }
+    }
+
+    /**
+     * This simply calls {@link #compact compact}.  It is included for
+     * symmetry with other collection classes.
+     *
+     * @see #compact
+     */
+    public final void trimToSize() {
+        compact();
+    }
+
+    /**
+     * Empties the collection.
+     */
+    public void clear() {
+        _size = 0;
+        _containsReservedKey = false;
+    }
+
+    /**
+     * initializes the hashtable to the smallest power of two capacity
+     * that holds <tt>initialCapacity</tt> entries at the load factor of
+     * this collection.
+     *
+     * @param initialCapacity an <code>int</code> value
+     * @return the actual capacity chosen
+     */
+    protected int setUp(int initialCapacity) {
+        int capacity = tableSizeFor(initialCapacity, _loadFactor);
+        computeMaxSize(capacity);
+        return capacity;
+    }
+
+    /**
+     * Rehashes the set into a table of <tt>newCapacity</tt> slots.
+     *
+     * @param newCapacity a power of two
+     */
+    protected abstract void rehash(int newCapacity);
+
+    /**
+     * After a new entry has been inserted, this hook is called to
+     * adjust the size of the set and to grow the table if necessary.
+     */
+    protected final void postInsertHook() {
+        if (++_size > _maxSize) {
+            int capacity = capacity();
+            if (capacity == MAXIMUM_CAPACITY) {
+                throw new IllegalStateException("The hash table cannot grow beyond " + MAXIMUM_CAPACITY + " slots.");
+            }
+            rehash(capacity << 1);
+            computeMaxSize(capacity << 1);
+        }
+    }
+
+    /**
+     * Computes the values of maxSize and mask.  There will always be at
+     * least one free slot.
+     *
+     * @param capacity a power of two
+     */
+    private void computeMaxSize(int capacity) {
+        _mask = capacity - 1;
+        _maxSize = Math.min(capacity - 1, (int) Math.ceil(capacity * _loadFactor));
+    }
+
+    /**
+     * Returns the smallest power of two table size that can hold
+     * <tt>entries</tt> at <tt>loadFactor</tt>.
+     */
+    protected static int tableSizeFor(int entries, float loadFactor) {
+        long required = Math.max(2, (long) Math.ceil(entries / loadFactor));
+        if (required > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("Too many entries for a hash table: " + entries);
+        }
+        int capacity = Integer.highestOneBit((int) required);
+        return capacity < required ? capacity << 1 : capacity;
+    }
+
+    /**
+     * Spreads an int key over all bits.
+     */
+    protected static int mix(int key) {
+        int h = key * INT_PHI;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Spreads a long key over the bits of an int.
+     */
+    protected static int mix(long key) {
+        long h = key * LONG_PHI;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    /**
+     * Spreads the hash code of a non-null object key over all bits.
+     */
+    protected static int mix(Object key) {
+        return mix(key.hashCode());
+    }
+}// TLinearHash
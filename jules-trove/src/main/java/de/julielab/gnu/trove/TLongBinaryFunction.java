@@ -1,5 +1,5 @@
 ///////////////////////////////////////////////////////////////////////////////
-// Copyright (c) 2001, Eric D. Friedman All Rights Reserved.
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
 //
 // This library is free software; you can redistribute it and/or
 // modify it under the terms of the GNU Lesser General Public
@@ -16,11 +16,19 @@
 // Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
 ///////////////////////////////////////////////////////////////////////////////
 
-package gnu.trove.benchmark;
+package de.julielab.gnu.trove;
 
-public interface Timer {
-    public Operation getOperation();
-    public long theirs();
-    public long ours();
-    public Result run();
-}
+/**
+ * Interface for functions that combine two long primitives into one,
+ * e.g. to merge the values of two maps.
+ */
+public interface TLongBinaryFunction {
+    /**
+     * Execute this function with <tt>a</tt> and <tt>b</tt>
+     *
+     * @param a a <code>long</code> input
+     * @param b a <code>long</code> input
+     * @return a <code>long</code> result
+     */
+    public long execute(long a, long b);
+}// TLongBinaryFunction
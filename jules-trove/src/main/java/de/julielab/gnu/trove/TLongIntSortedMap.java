@@ -0,0 +1,486 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A sorted map of long keys to int values.  In contrast to
+ * {@link TLongIntHashMap}, the keys are kept in ascending order, which
+ * allows for navigation (<tt>floorKey</tt>, <tt>ceilingKey</tt>, ...)
+ * and iteration over key ranges.  Lookups and updates take
+ * logarithmic time, see {@link TSorted}.
+ */
+public class TLongIntSortedMap extends TLongSorted implements Serializable {
+
+    static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new, empty <code>TLongIntSortedMap</code>.
+     */
+    public TLongIntSortedMap() {
+        super();
+    }
+
+    /**
+     * Creates a new <code>TLongIntSortedMap</code> from sorted keys
+     * and their values.  This is much faster than putting the entries
+     * one by one.
+     *
+     * @param sortedKeys keys in strictly ascending order
+     * @param values the values of the keys
+     * @exception IllegalArgumentException if the keys are not in
+     * strictly ascending order or the arrays differ in length
+     */
+    public TLongIntSortedMap(long[] sortedKeys, int[] values) {
+        if (sortedKeys.length != values.length) {
+            throw new IllegalArgumentException("There are " + sortedKeys.length + " keys but "
+                                               + values.length + " values.");
+        }
+        setUp(sortedKeys, values, sortedKeys.length);
+    }
+
+    protected Object newValueBlock(int capacity) {
+        return new int[capacity];
+    }
+
+    /**
+     * @return the value at <tt>index</tt>
+     */
+    private int valueAt(int index) {
+        return ((int[]) _values[index >>> BLOCK_SHIFT])[index & BLOCK_MASK];
+    }
+
+    /**
+     * Inserts a key/value pair into the map.
+     *
+     * @param key an <code>long</code> value
+     * @param value an <code>int</code> value
+     * @return the previous value associated with <tt>key</tt>,
+     * or (int)0 if none was found.
+     */
+    public int put(long key, int value) {
+        int block = blockOf(key);
+        int slot = slot(block, key);
+        if (slot >= 0) {
+            int[] values = (int[]) _values[block];
+            int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        int index = insertAt(block, -slot - 1, key);
+        ((int[]) _values[index >>> BLOCK_SHIFT])[index & BLOCK_MASK] = value;
+        return (int) 0;
+    }
+
+    /**
+     * retrieves the value for <tt>key</tt>
+     *
+     * @param key an <code>long</code> value
+     * @return the value of <tt>key</tt> or (int)0 if no such mapping exists.
+     */
+    public int get(long key) {
+        int block = blockOf(key);
+        int slot = slot(block, key);
+        return slot < 0 ? (int) 0 : ((int[]) _values[block])[slot];
+    }
+
+    /**
+     * Deletes a key/value pair from the map.
+     *
+     * @param key an <code>long</code> value
+     * @return an <code>int</code> value, or (int)0 if no mapping for key exists
+     */
+    public int remove(long key) {
+        int index = index(key);
+        if (index < 0) {
+            return (int) 0;
+        }
+        int previous = valueAt(index);
+        removeAt(index);
+        return previous;
+    }
+
+    /**
+     * checks for the present of <tt>key</tt> in the keys of the map.
+     *
+     * @param key an <code>long</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean containsKey(long key) {
+        return index(key) >= 0;
+    }
+
+    /**
+     * checks for the presence of <tt>val</tt> in the values of the map.
+     *
+     * @param val an <code>int</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean containsValue(int val) {
+        for (int block = 0; block < _blockCount; block++) {
+            int[] values = (int[]) _values[block];
+            for (int i = 0, count = _counts[block]; i < count; i++) {
+                if (values[i] == val) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Increments the primitive value mapped to key by 1
+     *
+     * @param key the key of the value to increment
+     * @return true if a mapping was found and modified.
+     */
+    public boolean increment(long key) {
+        return adjustValue(key, (int) 1);
+    }
+
+    /**
+     * Adjusts the primitive value mapped to key.
+     *
+     * @param key the key of the value to increment
+     * @param amount the amount to adjust the value by.
+     * @return true if a mapping was found and modified.
+     */
+    public boolean adjustValue(long key, int amount) {
+        int block = blockOf(key);
+        int slot = slot(block, key);
+        if (slot < 0) {
+            return false;
+        }
+        ((int[]) _values[block])[slot] += amount;
+        return true;
+    }
+
+    /**
+     * Adjusts the primitive value mapped to the key if the key is
+     * present in the map.  Otherwise, the <tt>putAmount</tt> is put in
+     * the map.
+     *
+     * @param key the key of the value to increment
+     * @param adjustAmount the amount to adjust the value by
+     * @param putAmount the value put into the map if the key is not
+     * initially present
+     * @return the value present in the map after the adjustment or put
+     * operation
+     */
+    public int adjustOrPutValue(long key, int adjustAmount, int putAmount) {
+        int block = blockOf(key);
+        int slot = slot(block, key);
+        if (slot >= 0) {
+            return ((int[]) _values[block])[slot] += adjustAmount;
+        }
+        int index = insertAt(block, -slot - 1, key);
+        ((int[]) _values[index >>> BLOCK_SHIFT])[index & BLOCK_MASK] = putAmount;
+        return putAmount;
+    }
+
+    /**
+     * Returns the smallest key in the map.
+     *
+     * @return an <code>long</code> value
+     * @exception NoSuchElementException if the map is empty
+     */
+    public long firstKey() {
+        return keyAt(checked(firstIndex()));
+    }
+
+    /**
+     * Returns the largest key in the map.
+     *
+     * @return an <code>long</code> value
+     * @exception NoSuchElementException if the map is empty
+     */
+    public long lastKey() {
+        return keyAt(checked(lastIndex()));
+    }
+
+    /**
+     * Returns the largest key in the map that is smaller than or equal
+     * to <tt>key</tt>.
+     *
+     * @param key an <code>long</code> value
+     * @return an <code>long</code> value
+     * @exception NoSuchElementException if there is no such key
+     */
+    public long floorKey(long key) {
+        return keyAt(checked(floorIndex(key)));
+    }
+
+    /**
+     * Returns the smallest key in the map that is larger than or equal
+     * to <tt>key</tt>.
+     *
+     * @param key an <code>long</code> value
+     * @return an <code>long</code> value
+     * @exception NoSuchElementException if there is no such key
+     */
+    public long ceilingKey(long key) {
+        return keyAt(checked(ceilingIndex(key)));
+    }
+
+    /**
+     * Returns the largest key in the map that is smaller than
+     * <tt>key</tt>.
+     *
+     * @param key an <code>long</code> value
+     * @return an <code>long</code> value
+     * @exception NoSuchElementException if there is no such key
+     */
+    public long lowerKey(long key) {
+        return keyAt(checked(lowerIndex(key)));
+    }
+
+    /**
+     * Returns the smallest key in the map that is larger than
+     * <tt>key</tt>.
+     *
+     * @param key an <code>long</code> value
+     * @return an <code>long</code> value
+     * @exception NoSuchElementException if there is no such key
+     */
+    public long higherKey(long key) {
+        return keyAt(checked(higherIndex(key)));
+    }
+
+    private static int checked(int index) {
+        if (index < 0) {
+            throw new NoSuchElementException();
+        }
+        return index;
+    }
+
+    /**
+     * returns the keys of the map in ascending order.
+     *
+     * @return an <code>long[]</code> value
+     */
+    public long[] keys() {
+        return copyKeys(firstIndex(), -1);
+    }
+
+    /**
+     * returns the keys of the map from <tt>fromKey</tt>, inclusive,
+     * to <tt>toKey</tt>, exclusive, in ascending order.
+     *
+     * @param fromKey the lower bound of the range
+     * @param toKey the upper bound of the range
+     * @return an <code>long[]</code> value
+     */
+    public long[] keys(long fromKey, long toKey) {
+        if (fromKey >= toKey) {
+            return new long[0];
+        }
+        return copyKeys(ceilingIndex(fromKey), ceilingIndex(toKey));
+    }
+
+    /**
+     * Returns the values of the map in the order of their keys.
+     *
+     * @return an <code>int[]</code> value
+     */
+    public int[] getValues() {
+        int[] result = new int[_size];
+        for (int block = 0, n = 0; block < _blockCount; block++) {
+            System.arraycopy(_values[block], 0, result, n, _counts[block]);
+            n += _counts[block];
+        }
+        return result;
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each key in the map, in
+     * ascending order.
+     *
+     * @param procedure a <code>TLongProcedure</code> value
+     * @return false if the loop over the keys terminated because
+     * the procedure returned false for some key.
+     */
+    public boolean forEachKey(TLongProcedure procedure) {
+        for (int block = 0; block < _blockCount; block++) {
+            long[] keys = _keys[block];
+            for (int i = 0, count = _counts[block]; i < count; i++) {
+                if (! procedure.execute(keys[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each value in the map, in the
+     * order of their keys.
+     *
+     * @param procedure a <code>TIntProcedure</code> value
+     * @return false if the loop over the values terminated because
+     * the procedure returned false for some value.
+     */
+    public boolean forEachValue(TIntProcedure procedure) {
+        for (int block = 0; block < _blockCount; block++) {
+            int[] values = (int[]) _values[block];
+            for (int i = 0, count = _counts[block]; i < count; i++) {
+                if (! procedure.execute(values[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each key/value entry in the
+     * map, in ascending order of the keys.
+     *
+     * @param procedure a <code>TLongIntProcedure</code> value
+     * @return false if the loop over the entries terminated because
+     * the procedure returned false for some entry.
+     */
+    public boolean forEachEntry(TLongIntProcedure procedure) {
+        for (int block = 0; block < _blockCount; block++) {
+            long[] keys = _keys[block];
+            int[] values = (int[]) _values[block];
+            for (int i = 0, count = _counts[block]; i < count; i++) {
+                if (! procedure.execute(keys[i], values[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes <tt>procedure</tt> for each entry whose key is in the
+     * range from <tt>fromKey</tt>, inclusive, to <tt>toKey</tt>,
+     * exclusive, in ascending order of the keys.
+     *
+     * @param fromKey the lower bound of the range
+     * @param toKey the upper bound of the range
+     * @param procedure a <code>TLongIntProcedure</code> value
+     * @return false if the loop over the range terminated because
+     * the procedure returned false for some entry.
+     */
+    public boolean forEachEntryInRange(long fromKey, long toKey, TLongIntProcedure procedure) {
+        int index = ceilingIndex(fromKey);
+        if (index < 0) {
+            return true;
+        }
+        for (int block = index >>> BLOCK_SHIFT, i = index & BLOCK_MASK; block < _blockCount; block++, i = 0) {
+            long[] keys = _keys[block];
+            int[] values = (int[]) _values[block];
+            for (int count = _counts[block]; i < count; i++) {
+                if (keys[i] >= toKey) {
+                    return true;
+                }
+                if (! procedure.execute(keys[i], values[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares this map with another map for equality of their stored
+     * entries.
+     *
+     * @param other an <code>Object</code> value
+     * @return a <code>boolean</code> value
+     */
+    public boolean equals(Object other) {
+        if (! (other instanceof TLongIntSortedMap)) {
+            return false;
+        }
+        TLongIntSortedMap that = (TLongIntSortedMap) other;
+        return that.size() == this.size()
+            && Arrays.equals(keys(), that.keys()) && Arrays.equals(getValues(), that.getValues());
+    }
+
+    public int hashCode() {
+        int h = 0;
+        for (int block = 0; block < _blockCount; block++) {
+            long[] keys = _keys[block];
+            int[] values = (int[]) _values[block];
+            for (int i = 0, count = _counts[block]; i < count; i++) {
+                h += HashFunctions.hash(keys[i]) ^ HashFunctions.hash(values[i]);
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Returns a String representation of the map, in ascending order
+     * of the keys.
+     *
+     * @return a <code>String</code> value
+     */
+    public String toString() {
+        final StringBuilder buf = new StringBuilder("{");
+        forEachEntry(new TLongIntProcedure() {
+            public boolean execute(long key, int value) {
+                if (buf.length() > 1) {
+                    buf.append(", ");
+                }
+                buf.append(key).append('=').append(value);
+                return true;
+            }
+        });
+        return buf.append('}').toString();
+    }
+
+    private void writeObject(ObjectOutputStream stream)
+        throws IOException {
+        stream.defaultWriteObject();
+
+        // number of entries
+        stream.writeInt(_size);
+
+        for (int block = 0; block < _blockCount; block++) {
+            long[] keys = _keys[block];
+            int[] values = (int[]) _values[block];
+            for (int i = 0, count = _counts[block]; i < count; i++) {
+                stream.writeLong(keys[i]);
+                stream.writeInt(values[i]);
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream stream)
+        throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+
+        int size = stream.readInt();
+        long[] keys = new long[size];
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = stream.readLong();
+            values[i] = stream.readInt();
+        }
+        setUp(keys, values, size);
+    }
+} // TLongIntSortedMap
@@ -0,0 +1,164 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+/**
+ * Base class for sorted collections of primitive keys.
+ *
+ * <p>
+ * The keys are kept in ascending order in a sequence of blocks, each
+ * a sorted array of at most {@link #BLOCK_SIZE} keys, as in the leaf
+ * level of a B+ tree.  A key is found by a binary search over the
+ * first keys of the blocks followed by a binary search within its
+ * block.  Inserting or removing a key moves at most one block worth
+ * of keys; full blocks are split in half and sparse neighbours are
+ * merged.  Maps keep their values in a parallel block per key block.
+ * </p>
+ *
+ * <p>
+ * The position of a key is addressed by an index that combines the
+ * block and the slot within the block, see {@link #index(int, int)}.
+ * An index is only valid until the next structural change.
+ * </p>
+ */
+abstract public class TSorted implements Cloneable {
+
+    /** the binary logarithm of the maximum number of keys per block */
+    protected static final int BLOCK_SHIFT = 8;
+
+    /** the maximum number of keys per block */
+    protected static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    /** extracts the slot within a block from an index */
+    protected static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    /** the initial length of the arrays of a new block */
+    protected static final int INITIAL_BLOCK_CAPACITY = 8;
+
+    /** the number of keys in the collection */
+    protected transient int _size;
+
+    /** the number of blocks in use; there is always at least one */
+    protected transient int _blockCount;
+
+    /** the number of keys in each block */
+    protected transient int[] _counts;
+
+    /** the value blocks of a map, <tt>null</tt> for sets */
+    protected transient Object[] _values;
+
+    /**
+     * Tells whether this collection is currently holding any elements.
+     *
+     * @return a <code>boolean</code> value
+     */
+    public boolean isEmpty() {
+        return 0 == _size;
+    }
+
+    /**
+     * Returns the number of distinct keys in this collection.
+     *
+     * @return an <code>int</code> value
+     */
+    public int size() {
+        return _size;
+    }
+
+    public Object clone() {
+        TSorted clone;
+        try {
+            clone = (TSorted) super.clone();
+        } catch (CloneNotSupportedException cnse) {
+            return null; // it's supported
+        }
+        clone._counts = (int[]) _counts.clone();
+        if (_values != null) {
+            clone._values = (Object[]) _values.clone();
+            for (int i = 0; i < _blockCount; i++) {
+                clone._values[i] = copyOf(_values[i], _counts[i], _counts[i]);
+            }
+        }
+        return clone;
+    }
+
+    /**
+     * Combines a block and a slot within the block to an index.
+     *
+     * @param block the number of the block
+     * @param slot the slot within the block
+     * @return the index
+     */
+    protected static int index(int block, int slot) {
+        return block << BLOCK_SHIFT | slot;
+    }
+
+    /**
+     * Returns the index of the slot following <tt>index</tt>.
+     *
+     * @param index the index of a key
+     * @return the index of the next larger key or <tt>-1</tt>
+     */
+    protected final int nextIndex(int index) {
+        int block = index >>> BLOCK_SHIFT;
+        if ((index & BLOCK_MASK) + 1 < _counts[block]) {
+            return index + 1;
+        }
+        return block + 1 < _blockCount ? index(block + 1, 0) : -1;
+    }
+
+    /**
+     * Creates a value block of a map.  Sets don't have values and
+     * return <tt>null</tt>.
+     *
+     * @param capacity the length of the block
+     * @return the value block
+     */
+    protected Object newValueBlock(int capacity) {
+        return null;
+    }
+
+    /**
+     * Copies values between value blocks, if there are any.
+     */
+    protected final void copyValues(int srcBlock, int srcSlot, int destBlock, int destSlot, int length) {
+        if (_values != null) {
+            System.arraycopy(_values[srcBlock], srcSlot, _values[destBlock], destSlot, length);
+        }
+    }
+
+    /**
+     * Resizes a value block, if there are any.
+     */
+    protected final void resizeValues(int block, int capacity) {
+        if (_values != null) {
+            _values[block] = copyOf(_values[block], _counts[block], capacity);
+        }
+    }
+
+    /**
+     * Copies the first <tt>length</tt> values of a value block into a
+     * new value block of length <tt>capacity</tt>.
+     */
+    private Object copyOf(Object values, int length, int capacity) {
+        Object copy = newValueBlock(capacity);
+        System.arraycopy(values, 0, copy, 0, length);
+        return copy;
+    }
+}// TSorted
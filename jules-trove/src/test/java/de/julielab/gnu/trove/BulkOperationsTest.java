@@ -0,0 +1,188 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests the bulk operations of the maps and lists and the sizing of
+ * {@link THash#ensureCapacity(int)}.
+ */
+public class BulkOperationsTest {
+
+    @Test
+    public void testPutAll() {
+        TIntIntHashMap map = new TIntIntHashMap();
+        map.put(1, 100);
+        map.putAll(new int[] { 1, 2, 3 }, new int[] { 10, 20, 30 });
+        assertEquals(3, map.size());
+        assertEquals(10, map.get(1));
+        assertEquals(30, map.get(3));
+
+        TIntIntHashMap other = new TIntIntHashMap();
+        other.put(3, 31);
+        other.put(5, 50);
+        other.remove(5);
+        other.put(6, 60);
+        map.putAll(other);
+        assertEquals(4, map.size());
+        assertEquals(31, map.get(3));
+        assertEquals(60, map.get(6));
+        assertFalse(map.containsKey(5));
+
+        try {
+            map.putAll(new int[] { 1 }, new int[0]);
+            fail("Keys and values of different lengths must be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testAdjustOrPutValuesAndMerge() {
+        TIntIntHashMap counts = new TIntIntHashMap();
+        assertEquals(5, counts.adjustOrPutValue(1, 2, 5));
+        assertEquals(7, counts.adjustOrPutValue(1, 2, 5));
+        counts.adjustOrPutValues(new int[] { 1, 2, 2 }, new int[] { 1, 1, 1 });
+        assertEquals(8, counts.get(1));
+        assertEquals(2, counts.get(2));
+
+        TIntIntHashMap perThread = new TIntIntHashMap();
+        perThread.put(2, 3);
+        perThread.put(9, 4);
+        counts.adjustOrPutValues(perThread);
+        assertEquals(5, counts.get(2));
+        assertEquals(4, counts.get(9));
+
+        TIntIntHashMap other = new TIntIntHashMap();
+        other.put(1, 100);
+        other.put(10, 1);
+        counts.merge(other, new TIntBinaryFunction() {
+            public int execute(int a, int b) {
+                return Math.max(a, b);
+            }
+        });
+        assertEquals(100, counts.get(1));
+        assertEquals(5, counts.get(2));
+        assertEquals(1, counts.get(10));
+        assertEquals(4, counts.size());
+    }
+
+    @Test
+    public void testBulkMergesGrowTheTableOnce() {
+        TIntIntHashMap other = new TIntIntHashMap();
+        int[] keys = new int[5000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 7;
+            other.put(keys[i], i);
+        }
+        TIntIntHashMap presized = new TIntIntHashMap();
+        presized.ensureCapacity(other.size());
+
+        TIntIntHashMap summed = new TIntIntHashMap();
+        summed.adjustOrPutValues(other);
+        assertEquals(presized.capacity(), summed.capacity());
+        assertEquals(other, summed);
+
+        TIntIntHashMap merged = new TIntIntHashMap();
+        merged.merge(other, new TIntBinaryFunction() {
+            public int execute(int a, int b) {
+                return a + b;
+            }
+        });
+        assertEquals(presized.capacity(), merged.capacity());
+
+        TIntIntHashMap fromArrays = new TIntIntHashMap();
+        fromArrays.adjustOrPutValues(keys, new int[keys.length]);
+        assertEquals(presized.capacity(), fromArrays.capacity());
+    }
+
+    @Test
+    public void testListAddAll() {
+        TIntArrayList list = new TIntArrayList();
+        list.add(1);
+        TIntArrayList other = new TIntArrayList();
+        other.add(new int[] { 2, 3, 4 });
+        list.addAll(other);
+        list.addAll(new int[] { 5, 6, 7, 8 }, 1, 2);
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 6, 7 }, list.toNativeArray());
+    }
+
+    @Test
+    public void testEnsureCapacityOfPrimitiveMap() {
+        TIntIntHashMap map = new TIntIntHashMap();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        // the table must hold the entries already in the map plus the additional ones
+        map.ensureCapacity(1000);
+        int capacity = map.capacity();
+        for (int i = 100; i < 1100; i++) {
+            map.put(i, i);
+        }
+        assertEquals(capacity, map.capacity());
+
+        int[] keys = new int[2000];
+        int[] values = new int[2000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 1100 + i;
+            values[i] = i;
+        }
+        map.ensureCapacity(keys.length);
+        capacity = map.capacity();
+        map.putAll(keys, values);
+        assertEquals(capacity, map.capacity());
+        assertEquals(3100, map.size());
+    }
+
+    @Test
+    public void testEnsureCapacityOfObjectMaps() {
+        TObjectIntHashMap map = new TObjectIntHashMap();
+        for (int i = 0; i < 100; i++) {
+            map.put("k" + i, i);
+        }
+        map.ensureCapacity(1000);
+        int capacity = map.capacity();
+        for (int i = 100; i < 1100; i++) {
+            map.put("k" + i, i);
+        }
+        assertEquals(capacity, map.capacity());
+        assertEquals(1100, map.size());
+
+        THashMap objects = new THashMap();
+        for (int i = 0; i < 100; i++) {
+            objects.put("k" + i, "v" + i);
+        }
+        Map<String, String> more = new HashMap<String, String>();
+        for (int i = 0; i < 1000; i++) {
+            more.put("m" + i, "v" + i);
+        }
+        objects.ensureCapacity(more.size());
+        capacity = objects.capacity();
+        objects.putAll(more);
+        assertEquals(capacity, objects.capacity());
+        assertEquals(1100, objects.size());
+        assertEquals("v999", objects.get("m999"));
+    }
+}
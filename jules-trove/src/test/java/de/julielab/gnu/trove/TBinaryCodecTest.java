@@ -0,0 +1,199 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Writes and reads each primitive map and list type in the binary
+ * format of {@link TBinaryCodec}.  The 36 map and 6 list types are
+ * generated from the same template, so they are handled by reflection.
+ */
+public class TBinaryCodecTest {
+
+    private static final String[] TYPES = { "Byte", "Short", "Int", "Long", "Float", "Double" };
+
+    private static final Class<?>[] PRIMITIVES = { byte.class, short.class, int.class, long.class, float.class,
+                                                   double.class };
+
+    @Test
+    public void testMapRoundTrips() throws Exception {
+        for (int k = 0; k < TYPES.length; k++) {
+            for (int v = 0; v < TYPES.length; v++) {
+                Class<?> mapClass = Class.forName("de.julielab.gnu.trove.T" + TYPES[k] + TYPES[v] + "HashMap");
+                boolean sortable = PRIMITIVES[k] == int.class || PRIMITIVES[k] == long.class;
+                for (int size : new int[] { 0, 1, 100 }) {
+                    Object map = newMap(mapClass, PRIMITIVES[k], PRIMITIVES[v], size);
+                    assertMapRoundTrip(mapClass, map, -1);
+                    // only maps with int and long keys offer a choice of encoding
+                    if (sortable) {
+                        assertMapRoundTrip(mapClass, map, TBinaryCodec.RAW);
+                        assertMapRoundTrip(mapClass, map, TBinaryCodec.SORTED_KEYS);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testListRoundTrips() throws Exception {
+        for (int t = 0; t < TYPES.length; t++) {
+            Class<?> listClass = Class.forName("de.julielab.gnu.trove.T" + TYPES[t] + "ArrayList");
+            for (int size : new int[] { 0, 1, 10000 }) {
+                Object list = listClass.newInstance();
+                Method add = listClass.getMethod("add", PRIMITIVES[t]);
+                for (int i = 0; i < size; i++) {
+                    add.invoke(list, value(PRIMITIVES[t], i * 7 - size));
+                }
+                Object copy = roundTrip(listClass, list, -1);
+                assertEquals(listClass.getSimpleName() + " of size " + size, list, copy);
+            }
+        }
+    }
+
+    @Test
+    public void testReadWithStrategyRehashes() throws Exception {
+        TIntIntHashMap map = new TIntIntHashMap();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i * 31, i);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        map.writeBinary(new DataOutputStream(bytes));
+        TIntHashingStrategy strategy = new TIntHashingStrategy() {
+            public int computeHashCode(int value) {
+                return value >>> 3;
+            }
+        };
+        TIntIntHashMap copy = TIntIntHashMap.readBinary(new DataInputStream(new ByteArrayInputStream(
+            bytes.toByteArray())), strategy);
+        assertEquals(map, copy);
+        assertEquals(999, copy.get(999 * 31));
+    }
+
+    @Test
+    public void testSortedKeysAreSmaller() throws Exception {
+        TLongIntHashMap map = new TLongIntHashMap();
+        for (int i = 0; i < 10000; i++) {
+            map.put(1000000000000L + i * 3, i);
+        }
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        map.writeBinary(new DataOutputStream(raw), TBinaryCodec.RAW);
+        ByteArrayOutputStream sorted = new ByteArrayOutputStream();
+        map.writeBinary(new DataOutputStream(sorted), TBinaryCodec.SORTED_KEYS);
+        assertTrue(sorted.size() < raw.size() / 2);
+    }
+
+    @Test
+    public void testRejectsOtherTypesAndCorruptInput() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new TIntIntHashMap().writeBinary(new DataOutputStream(bytes));
+        byte[] data = bytes.toByteArray();
+        try {
+            TIntLongHashMap.readBinary(new DataInputStream(new ByteArrayInputStream(data)));
+            fail("A map of another type must be rejected");
+        } catch (IOException e) {
+            // expected
+        }
+        try {
+            TIntArrayList.readBinary(new DataInputStream(new ByteArrayInputStream(data)));
+            fail("A map must not be read as a list");
+        } catch (IOException e) {
+            // expected
+        }
+        data[0] = 0;
+        try {
+            TIntIntHashMap.readBinary(new DataInputStream(new ByteArrayInputStream(data)));
+            fail("Input without the magic number must be rejected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Creates a map with <tt>size</tt> entries, some of whose slots
+     * are marked as removed.
+     */
+    private static Object newMap(Class<?> mapClass, Class<?> keyType, Class<?> valueType, int size)
+        throws Exception {
+        Object map = mapClass.newInstance();
+        Method put = mapClass.getMethod("put", keyType, valueType);
+        Method remove = mapClass.getMethod("remove", keyType);
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++) {
+            put.invoke(map, value(keyType, i - size / 2), value(valueType, random.nextInt(100)));
+            put.invoke(map, value(keyType, 1000 + i), value(valueType, i));
+            remove.invoke(map, value(keyType, 1000 + i));
+        }
+        return map;
+    }
+
+    private static Object value(Class<?> type, int value) {
+        if (type == byte.class) {
+            return Byte.valueOf((byte) value);
+        } else if (type == short.class) {
+            return Short.valueOf((short) value);
+        } else if (type == int.class) {
+            return Integer.valueOf(value);
+        } else if (type == long.class) {
+            return Long.valueOf(value * 1000003L);
+        } else if (type == float.class) {
+            return Float.valueOf(value / 4f);
+        }
+        return Double.valueOf(value / 8d);
+    }
+
+    private static void assertMapRoundTrip(Class<?> mapClass, Object map, int encoding) throws Exception {
+        Object copy = roundTrip(mapClass, map, encoding);
+        String message = mapClass.getSimpleName() + " of size " + ((THash) map).size() + ", encoding " + encoding;
+        assertEquals(message, map, copy);
+        assertEquals(message, ((THash) map).size(), ((THash) copy).size());
+    }
+
+    /**
+     * Writes <tt>collection</tt> with the given encoding, or with the
+     * default encoding if <tt>encoding</tt> is negative, and reads it
+     * back.
+     */
+    private static Object roundTrip(Class<?> type, Object collection, int encoding) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        if (encoding < 0) {
+            type.getMethod("writeBinary", DataOutput.class).invoke(collection, out);
+        } else {
+            type.getMethod("writeBinary", DataOutput.class, int.class).invoke(collection, out, encoding);
+        }
+        out.close();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Object copy = type.getMethod("readBinary", DataInput.class).invoke(null, in);
+        assertEquals("trailing bytes", -1, in.read());
+        return copy;
+    }
+}
@@ -0,0 +1,153 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Tests TConcurrentObjectIntHashMap on a single thread and under concurrent insertion.
+ */
+public class TConcurrentObjectIntHashMapTest {
+
+    @Test
+    public void testPutGetSize() {
+        TConcurrentObjectIntHashMap map = new TConcurrentObjectIntHashMap(2);
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.put("a", 1));
+        assertEquals(0, map.put("b", 0));
+        assertEquals(1, map.put("a", 2));
+        assertEquals(2, map.size());
+        assertEquals(2, map.get("a"));
+        assertEquals(0, map.get("b"));
+        assertTrue(map.containsKey("b"));
+        assertFalse(map.containsKey("c"));
+        assertEquals(0, map.get("c"));
+
+        assertEquals(2, map.putIfAbsent("a", 5));
+        assertEquals(0, map.putIfAbsent("c", 5));
+        assertEquals(5, map.get("c"));
+        assertTrue(map.adjustValue("c", 3));
+        assertTrue(map.increment("c"));
+        assertFalse(map.increment("d"));
+        assertEquals(9, map.get("c"));
+
+        assertEquals(9, map.remove("c"));
+        assertEquals(0, map.remove("c"));
+        assertFalse(map.containsKey("c"));
+        assertEquals(2, map.size());
+        // a removed key can be inserted again
+        map.put("c", 7);
+        assertEquals(7, map.get("c"));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.nextIndex());
+    }
+
+    @Test
+    public void testGrowthAgainstHashMap() {
+        Random random = new Random(42);
+        TConcurrentObjectIntHashMap map = new TConcurrentObjectIntHashMap(4);
+        Map<String, Integer> expected = new HashMap<String, Integer>();
+        for (int i = 0; i < 100000; i++) {
+            String key = "k" + random.nextInt(5000);
+            if (random.nextInt(4) == 0) {
+                Integer previous = expected.remove(key);
+                assertEquals(previous == null ? 0 : previous.intValue(), map.remove(key));
+            } else {
+                Integer previous = expected.put(key, i);
+                assertEquals(previous == null ? 0 : previous.intValue(), map.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().intValue(), map.get(entry.getKey()));
+        }
+        assertEquals(expected.size(), map.keys().length);
+        assertEquals(expected.size(), map.toHashMap().size());
+    }
+
+    @Test
+    public void testGetOrAssignIndex() {
+        TConcurrentObjectIntHashMap map = new TConcurrentObjectIntHashMap();
+        assertEquals(0, map.getOrAssignIndex("a"));
+        assertEquals(1, map.getOrAssignIndex("b"));
+        assertEquals(0, map.getOrAssignIndex("a"));
+        assertEquals(2, map.nextIndex());
+    }
+
+    @Test
+    public void testConcurrentIndicesAreUniqueAndDense() throws Exception {
+        final int numThreads = 8;
+        final int numKeys = 20000;
+        final TConcurrentObjectIntHashMap map = new TConcurrentObjectIntHashMap(16);
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<int[]>> futures = new ArrayList<Future<int[]>>();
+            for (int t = 0; t < numThreads; t++) {
+                final int thread = t;
+                futures.add(executor.submit(new Callable<int[]>() {
+                    public int[] call() throws Exception {
+                        start.await();
+                        // all threads insert all keys, each beginning at a different key
+                        int[] indices = new int[numKeys];
+                        for (int i = 0; i < numKeys; i++) {
+                            int key = (i + thread * numKeys / numThreads) % numKeys;
+                            indices[key] = map.getOrAssignIndex("key" + key);
+                        }
+                        return indices;
+                    }
+                }));
+            }
+            start.countDown();
+            int[] first = futures.get(0).get();
+            for (Future<int[]> future : futures) {
+                // every thread saw the same index for each key
+                assertArrayEquals(first, future.get());
+            }
+            assertEquals(numKeys, map.size());
+            assertEquals(numKeys, map.nextIndex());
+            boolean[] taken = new boolean[numKeys];
+            for (int index : first) {
+                assertTrue(index >= 0 && index < numKeys);
+                assertFalse("index " + index + " was assigned twice", taken[index]);
+                taken[index] = true;
+            }
+            for (int key = 0; key < numKeys; key++) {
+                assertEquals(first[key], map.get("key" + key));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
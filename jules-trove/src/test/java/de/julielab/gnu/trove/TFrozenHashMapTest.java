@@ -0,0 +1,158 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Builds, saves, maps, queries and closes frozen maps.
+ */
+public class TFrozenHashMapTest {
+
+    @Test
+    public void testLongIntWriteLoadLookupClose() throws Exception {
+        TLongIntHashMap map = new TLongIntHashMap();
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            map.put(random.nextLong(), i);
+        }
+        map.put(0, 4711);
+        File file = File.createTempFile("frozen", ".map");
+        file.deleteOnExit();
+        TFrozenLongIntHashMap.write(map, file);
+
+        TFrozenLongIntHashMap frozen = TFrozenLongIntHashMap.load(file);
+        try {
+            assertEquals(map.size(), frozen.size());
+            for (long key : map.keys()) {
+                assertTrue(frozen.containsKey(key));
+                assertEquals(map.get(key), frozen.get(key));
+            }
+            assertEquals(4711, frozen.get(0));
+            assertFalse(frozen.containsKey(1));
+            assertEquals(0, frozen.get(1));
+            assertTrue(frozen.containsValue(4711));
+            assertEquals(map, frozen.toHashMap());
+        } finally {
+            frozen.close();
+        }
+        assertClosed(frozen);
+    }
+
+    @Test
+    public void testIntDoubleFreezeLookupClose() {
+        TIntDoubleLinearHashMap map = new TIntDoubleLinearHashMap();
+        for (int i = -500; i < 500; i++) {
+            map.put(i * 7, i / 3.0);
+        }
+        TFrozenIntDoubleHashMap frozen = TFrozenIntDoubleHashMap.freeze(map);
+        assertEquals(map.size(), frozen.size());
+        for (int i = -500; i < 500; i++) {
+            assertEquals(i / 3.0, frozen.get(i * 7), 0);
+        }
+        assertFalse(frozen.containsKey(1));
+        assertEquals(map.size(), frozen.keys().length);
+        frozen.close();
+        try {
+            frozen.get(7);
+            fail("A closed map must not be read");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        // closing twice is harmless
+        frozen.close();
+    }
+
+    @Test
+    public void testEmptyMap() throws Exception {
+        File file = File.createTempFile("frozen", ".map");
+        file.deleteOnExit();
+        TFrozenIntDoubleHashMap.write(new TIntDoubleHashMap(), file);
+        TFrozenIntDoubleHashMap frozen = TFrozenIntDoubleHashMap.load(file);
+        assertTrue(frozen.isEmpty());
+        assertEquals(0, frozen.get(0), 0);
+        assertEquals(0, frozen.keys().length);
+        frozen.close();
+    }
+
+    @Test
+    public void testLoadRejectsOtherFiles() throws Exception {
+        File file = File.createTempFile("frozen", ".map");
+        file.deleteOnExit();
+        TFrozenLongIntHashMap.write(new TLongIntHashMap(), file);
+        try {
+            TFrozenIntDoubleHashMap.load(file);
+            fail("A map of another type must not be loaded");
+        } catch (IOException e) {
+            // expected
+        }
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(10);
+        raf.close();
+        try {
+            TFrozenLongIntHashMap.load(file);
+            fail("A truncated file must not be loaded");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testWritePassesIOExceptionThrough() throws Exception {
+        File dir = File.createTempFile("frozen", "");
+        dir.delete();
+        dir.mkdir();
+        dir.deleteOnExit();
+        TFrozenLongIntHashMap.write(new TLongIntHashMap(), new File(dir, "missing/frozen.map"));
+    }
+
+    private static void assertClosed(TFrozenLongIntHashMap frozen) {
+        try {
+            frozen.get(1);
+            fail("A closed map must not be read");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            frozen.containsKey(1);
+            fail("A closed map must not be read");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            frozen.keys();
+            fail("A closed map must not be read");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            frozen.size();
+            fail("A closed map must not be read");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,210 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the linear probing maps against <tt>java.util.HashMap</tt>.
+ */
+public class TLinearHashMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        TLongIntLinearHashMap map = new TLongIntLinearHashMap();
+        assertEquals(0, map.put(1, 10));
+        assertEquals(0, map.put(0, 20));
+        assertEquals(0, map.put(-7, 30));
+        assertEquals(3, map.size());
+        assertEquals(10, map.put(1, 11));
+        assertEquals(3, map.size());
+        assertEquals(11, map.get(1));
+        assertEquals(20, map.get(0));
+        assertEquals(30, map.get(-7));
+        assertEquals(0, map.get(2));
+        assertTrue(map.containsKey(0));
+        assertFalse(map.containsKey(2));
+
+        assertEquals(20, map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(0, map.remove(0));
+        assertEquals(11, map.remove(1));
+        assertEquals(0, map.remove(1));
+        assertEquals(1, map.size());
+        assertArrayEquals(new long[] { -7 }, map.keys());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.get(-7));
+    }
+
+    @Test
+    public void testRemoveShiftsCollidingEntriesBack() {
+        TLongIntLinearHashMap map = new TLongIntLinearHashMap(100);
+        int mask = map.capacity() - 1;
+        // four keys with the same home slot form one probe sequence, a fifth key starts right behind it
+        int home = -1;
+        long[] cluster = new long[4];
+        int found = 0;
+        for (long key = 1; found < cluster.length; key++) {
+            int slot = TLinearHash.mix(key) & mask;
+            if (home == -1) {
+                home = slot;
+            }
+            if (slot == home) {
+                cluster[found++] = key;
+            }
+        }
+        long neighbour = 0;
+        for (long key = 1; neighbour == 0; key++) {
+            if ((TLinearHash.mix(key) & mask) == ((home + 1) & mask)) {
+                neighbour = key;
+            }
+        }
+        for (int i = 0; i < cluster.length; i++) {
+            map.put(cluster[i], i + 1);
+        }
+        map.put(neighbour, 5);
+
+        // removing the head of the cluster moves the following entries back, without leaving a marker
+        map.remove(cluster[0]);
+        assertEquals(cluster[1], map._set[home]);
+        for (int i = 1; i < cluster.length; i++) {
+            assertEquals(i + 1, map.get(cluster[i]));
+            assertEquals((home + i - 1) & mask, map.index(cluster[i]));
+        }
+        assertEquals(5, map.get(neighbour));
+        assertTrue(map.index(neighbour) >= 0);
+
+        // removing from the middle of the cluster
+        map.remove(cluster[2]);
+        assertEquals(2, map.get(cluster[1]));
+        assertEquals(4, map.get(cluster[3]));
+        assertEquals(5, map.get(neighbour));
+        assertFalse(map.containsKey(cluster[2]));
+
+        map.remove(cluster[1]);
+        map.remove(cluster[3]);
+        map.remove(neighbour);
+        assertTrue(map.isEmpty());
+        for (int i = 0; i < map.capacity(); i++) {
+            assertEquals(0, map._set[i]);
+        }
+    }
+
+    @Test
+    public void testRehash() {
+        TLongIntLinearHashMap map = new TLongIntLinearHashMap(2);
+        int capacity = map.capacity();
+        for (int i = 0; i < 10000; i++) {
+            map.put(i * 0x100000000L, i);
+        }
+        assertTrue(map.capacity() > capacity);
+        assertEquals(0, map.capacity() & (map.capacity() - 1));
+        assertEquals(10000, map.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, map.get(i * 0x100000000L));
+        }
+
+        for (int i = 100; i < 10000; i++) {
+            map.remove(i * 0x100000000L);
+        }
+        map.compact();
+        assertTrue(map.capacity() < 1024);
+        assertEquals(100, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, map.get(i * 0x100000000L));
+        }
+
+        map.ensureCapacity(5000);
+        int grown = map.capacity();
+        for (int i = 100; i < 5100; i++) {
+            map.put(i * 0x100000000L, i);
+        }
+        assertEquals(grown, map.capacity());
+    }
+
+    @Test
+    public void testRandomOperationsAgainstHashMap() {
+        Random random = new Random(42);
+        TLongIntLinearHashMap map = new TLongIntLinearHashMap();
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 200000; i++) {
+            // a small key range produces many collisions and removals
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) == 0) {
+                Integer previous = expected.remove(key);
+                assertEquals(previous == null ? 0 : previous.intValue(), map.remove(key));
+            } else {
+                Integer previous = expected.put(key, i);
+                assertEquals(previous == null ? 0 : previous.intValue(), map.put(key, i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (int key = -1000; key < 1000; key++) {
+            Integer value = expected.get(key);
+            assertEquals(value != null, map.containsKey(key));
+            assertEquals(value == null ? 0 : value.intValue(), map.get(key));
+        }
+    }
+
+    @Test
+    public void testDoubleValues() {
+        TIntDoubleLinearHashMap map = new TIntDoubleLinearHashMap();
+        assertEquals(0.0, map.put(0, 1.5), 0);
+        assertEquals(0.0, map.put(3, 2.5), 0);
+        assertTrue(map.adjustValue(3, 1.0));
+        assertFalse(map.adjustValue(4, 1.0));
+        assertEquals(3.5, map.get(3), 0);
+        assertEquals(1.5, map.get(0), 0);
+        assertEquals(0.0, map.get(4), 0);
+        assertEquals(1.5, map.remove(0), 0);
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testSerializationAndClone() throws Exception {
+        TIntDoubleLinearHashMap map = new TIntDoubleLinearHashMap();
+        for (int i = -50; i < 50; i++) {
+            map.put(i * 31, i + 0.5);
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(map);
+        oos.close();
+        Object copy = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray())).readObject();
+        assertEquals(map, copy);
+        assertEquals(0.5, ((TIntDoubleLinearHashMap) copy).get(0), 0);
+
+        TIntDoubleLinearHashMap clone = (TIntDoubleLinearHashMap) map.clone();
+        assertEquals(map, clone);
+        clone.remove(0);
+        assertEquals(0.5, map.get(0), 0);
+    }
+}
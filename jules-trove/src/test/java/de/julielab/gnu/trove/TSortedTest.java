@@ -0,0 +1,348 @@
+///////////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2026, JULIE Lab. All Rights Reserved.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package de.julielab.gnu.trove;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+/**
+ * Compares the sorted sets and maps with {@link TreeSet} and
+ * {@link TreeMap} under random insertions and removals that split and
+ * merge blocks.
+ */
+public class TSortedTest {
+
+    private static final int RANGE = 20000;
+
+    @Test
+    public void testSetAgainstTreeSet() throws Exception {
+        Random random = new Random(42);
+        TIntSortedSet set = new TIntSortedSet();
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        for (int round = 0; round < 4; round++) {
+            // grow to several blocks, then shrink so that blocks are merged again
+            for (int i = 0; i < 5000; i++) {
+                int val = random.nextInt(RANGE) - RANGE / 2;
+                assertEquals(expected.add(val), set.add(val));
+            }
+            assertSet(expected, set, random);
+            for (int i = 0; i < 4000; i++) {
+                int val = random.nextInt(RANGE) - RANGE / 2;
+                assertEquals(expected.remove(val), set.remove(val));
+            }
+            assertSet(expected, set, random);
+        }
+        set.clear();
+        expected.clear();
+        assertSet(expected, set, random);
+    }
+
+    @Test
+    public void testUnionAndIntersection() {
+        Random random = new Random(7);
+        for (int round = 0; round < 10; round++) {
+            TreeSet<Integer> a = new TreeSet<Integer>();
+            TreeSet<Integer> b = new TreeSet<Integer>();
+            // the first round compares empty sets
+            for (int i = 0; i < round * 400; i++) {
+                a.add(random.nextInt(RANGE));
+                b.add(random.nextInt(RANGE / (round % 3 + 1)));
+            }
+            TIntSortedSet setA = toSet(a);
+            TIntSortedSet setB = toSet(b);
+
+            TreeSet<Integer> union = new TreeSet<Integer>(a);
+            union.addAll(b);
+            assertArrayEquals(toArray(union), setA.union(setB).toArray());
+            assertArrayEquals(toArray(union), setB.union(setA).toArray());
+
+            TreeSet<Integer> intersection = new TreeSet<Integer>(a);
+            intersection.retainAll(b);
+            assertArrayEquals(toArray(intersection), setA.intersection(setB).toArray());
+            assertArrayEquals(toArray(intersection), setB.intersection(setA).toArray());
+
+            // the operands are unchanged
+            assertArrayEquals(toArray(a), setA.toArray());
+            assertArrayEquals(toArray(b), setB.toArray());
+        }
+    }
+
+    @Test
+    public void testIntIntMapAgainstTreeMap() throws Exception {
+        Random random = new Random(11);
+        TIntIntSortedMap map = new TIntIntSortedMap();
+        TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(RANGE) - RANGE / 2;
+            if (random.nextInt(3) == 0) {
+                Integer previous = expected.remove(key);
+                assertEquals(previous == null ? 0 : previous.intValue(), map.remove(key));
+            } else {
+                int value = random.nextInt(1000);
+                Integer previous = expected.put(key, value);
+                assertEquals(previous == null ? 0 : previous.intValue(), map.put(key, value));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+
+        int[] keys = map.keys();
+        int[] values = map.getValues();
+        int i = 0;
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getKey().intValue(), keys[i]);
+            assertEquals(entry.getValue().intValue(), values[i]);
+            assertEquals(entry.getValue().intValue(), map.get(keys[i]));
+            i++;
+        }
+        assertEquals(expected.firstKey().intValue(), map.firstKey());
+        assertEquals(expected.lastKey().intValue(), map.lastKey());
+
+        for (int probe = 0; probe < 2000; probe++) {
+            int key = random.nextInt(RANGE + 200) - RANGE / 2 - 100;
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+            assertNavigation(expected.floorKey(key), map, 0, key);
+            assertNavigation(expected.ceilingKey(key), map, 1, key);
+            assertNavigation(expected.lowerKey(key), map, 2, key);
+            assertNavigation(expected.higherKey(key), map, 3, key);
+
+            int to = key + random.nextInt(RANGE / 4);
+            final List<Integer> rangeKeys = new ArrayList<Integer>();
+            final List<Integer> rangeValues = new ArrayList<Integer>();
+            map.forEachEntryInRange(key, to, new TIntIntProcedure() {
+                public boolean execute(int k, int v) {
+                    rangeKeys.add(k);
+                    rangeValues.add(v);
+                    return true;
+                }
+            });
+            Map<Integer, Integer> sub = expected.subMap(key, to);
+            assertEquals(new ArrayList<Integer>(sub.keySet()), rangeKeys);
+            assertEquals(new ArrayList<Integer>(sub.values()), rangeValues);
+            assertArrayEquals(toArray(sub.keySet()), map.keys(key, to));
+        }
+
+        TIntIntSortedMap copy = (TIntIntSortedMap) serialize(map);
+        assertEquals(map, copy);
+        assertArrayEquals(map.keys(), copy.keys());
+        assertArrayEquals(map.getValues(), copy.getValues());
+        // the copy stays usable
+        copy.put(RANGE, 1);
+        assertEquals(RANGE, copy.lastKey());
+        assertEquals(expected.lastKey().intValue(), map.lastKey());
+
+        assertEquals(new TIntIntSortedMap(), serialize(new TIntIntSortedMap()));
+    }
+
+    @Test
+    public void testLongIntMapAgainstTreeMap() throws Exception {
+        Random random = new Random(13);
+        TLongIntSortedMap map = new TLongIntSortedMap();
+        TreeMap<Long, Integer> expected = new TreeMap<Long, Integer>();
+        for (int i = 0; i < 30000; i++) {
+            // spread the keys over the whole long range
+            long key = (random.nextInt(RANGE) - RANGE / 2) * 1000000007L * 1000L;
+            if (random.nextInt(3) == 0) {
+                Integer previous = expected.remove(key);
+                assertEquals(previous == null ? 0 : previous.intValue(), map.remove(key));
+            } else {
+                assertEquals(expected.containsKey(key) ? expected.get(key) + 1 : 1,
+                             map.adjustOrPutValue(key, 1, 1));
+                expected.put(key, expected.containsKey(key) ? expected.get(key) + 1 : 1);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        long[] keys = map.keys();
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getKey().longValue(), keys[i++]);
+            assertEquals(entry.getValue().intValue(), map.get(entry.getKey()));
+        }
+
+        for (int probe = 0; probe < 2000; probe++) {
+            long key = random.nextLong();
+            Long floor = expected.floorKey(key);
+            Long ceiling = expected.ceilingKey(key);
+            if (floor == null) {
+                assertNoSuchElement(map, key, true);
+            } else {
+                assertEquals(floor.longValue(), map.floorKey(key));
+            }
+            if (ceiling == null) {
+                assertNoSuchElement(map, key, false);
+            } else {
+                assertEquals(ceiling.longValue(), map.ceilingKey(key));
+            }
+            long to = key + Math.abs(random.nextLong() >>> 4);
+            if (to > key) {
+                long[] range = map.keys(key, to);
+                Map<Long, Integer> sub = expected.subMap(key, to);
+                assertEquals(sub.size(), range.length);
+                int j = 0;
+                for (Long k : sub.keySet()) {
+                    assertEquals(k.longValue(), range[j++]);
+                }
+            }
+        }
+
+        TLongIntSortedMap copy = (TLongIntSortedMap) serialize(map);
+        assertEquals(map, copy);
+        assertArrayEquals(map.keys(), copy.keys());
+    }
+
+    @Test
+    public void testBulkConstructors() {
+        int[] keys = new int[3000];
+        int[] values = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 3 - 1000;
+            values[i] = i;
+        }
+        TIntIntSortedMap map = new TIntIntSortedMap(keys, values);
+        assertEquals(keys.length, map.size());
+        assertArrayEquals(keys, map.keys());
+        assertArrayEquals(values, map.getValues());
+        assertEquals(2, map.floorKey(3));
+        assertEquals(5, map.ceilingKey(3));
+
+        TIntSortedSet set = new TIntSortedSet(keys, 10);
+        assertEquals(10, set.size());
+        assertEquals(keys[9], set.last());
+        assertTrue(set.add(keys[10]));
+        assertEquals(keys[10], set.last());
+    }
+
+    private static void assertSet(TreeSet<Integer> expected, TIntSortedSet set, Random random) throws Exception {
+        assertEquals(expected.size(), set.size());
+        assertEquals(expected.isEmpty(), set.isEmpty());
+        assertArrayEquals(toArray(expected), set.toArray());
+        if (expected.isEmpty()) {
+            try {
+                set.first();
+                fail("An empty set has no first value");
+            } catch (NoSuchElementException e) {
+                // expected
+            }
+        } else {
+            assertEquals(expected.first().intValue(), set.first());
+            assertEquals(expected.last().intValue(), set.last());
+        }
+
+        for (int probe = 0; probe < 1000; probe++) {
+            int val = random.nextInt(RANGE + 200) - RANGE / 2 - 100;
+            assertEquals(expected.contains(val), set.contains(val));
+            assertNavigation(expected.floor(val), set, 0, val);
+            assertNavigation(expected.ceiling(val), set, 1, val);
+            assertNavigation(expected.lower(val), set, 2, val);
+            assertNavigation(expected.higher(val), set, 3, val);
+
+            int to = val + random.nextInt(RANGE / 4);
+            int[] range = toArray(expected.subSet(val, to));
+            assertArrayEquals(range, set.toArray(val, to));
+            final TIntArrayList visited = new TIntArrayList();
+            set.forEachInRange(val, to, new TIntProcedure() {
+                public boolean execute(int value) {
+                    visited.add(value);
+                    return true;
+                }
+            });
+            assertArrayEquals(range, visited.toNativeArray());
+        }
+        assertEquals(0, set.toArray(5, 5).length);
+        assertEquals(0, set.toArray(5, -5).length);
+
+        TIntSortedSet copy = (TIntSortedSet) serialize(set);
+        assertEquals(set, copy);
+        assertEquals(set.hashCode(), copy.hashCode());
+        assertEquals(set, set.clone());
+    }
+
+    /**
+     * Checks floor (0), ceiling (1), lower (2) or higher (3) of
+     * <tt>collection</tt> against the expected result, <tt>null</tt>
+     * if there is none.
+     */
+    private static void assertNavigation(Integer expected, Object collection, int which, int key) {
+        try {
+            int actual;
+            if (collection instanceof TIntSortedSet) {
+                TIntSortedSet set = (TIntSortedSet) collection;
+                actual = which == 0 ? set.floor(key) : which == 1 ? set.ceiling(key) : which == 2 ? set.lower(key)
+                    : set.higher(key);
+            } else {
+                TIntIntSortedMap map = (TIntIntSortedMap) collection;
+                actual = which == 0 ? map.floorKey(key) : which == 1 ? map.ceilingKey(key)
+                    : which == 2 ? map.lowerKey(key) : map.higherKey(key);
+            }
+            assertNotNull("expected no element for " + key + " in mode " + which, expected);
+            assertEquals(expected.intValue(), actual);
+        } catch (NoSuchElementException e) {
+            assertNull("expected " + expected + " for " + key + " in mode " + which, expected);
+        }
+    }
+
+    private static void assertNoSuchElement(TLongIntSortedMap map, long key, boolean floor) {
+        try {
+            if (floor) {
+                map.floorKey(key);
+            } else {
+                map.ceilingKey(key);
+            }
+            fail("There is no such key for " + key);
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    private static TIntSortedSet toSet(TreeSet<Integer> values) {
+        TIntSortedSet set = new TIntSortedSet();
+        for (Integer val : values) {
+            set.add(val);
+        }
+        return set;
+    }
+
+    private static int[] toArray(Iterable<Integer> values) {
+        TIntArrayList list = new TIntArrayList();
+        for (Integer val : values) {
+            list.add(val);
+        }
+        return list.toNativeArray();
+    }
+
+    private static Object serialize(Object object) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(object);
+        out.close();
+        return new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    }
+}
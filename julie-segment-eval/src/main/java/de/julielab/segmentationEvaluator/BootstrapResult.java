@@ -0,0 +1,80 @@
+/** 
+ * BootstrapResult.java
+ * 
+ * Copyright (c) 2026, JULIE Lab. 
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Common Public License v1.0 
+ *
+ * Author: JULIE Lab
+ * 
+ * Current version: 1.0.6
+ * Since version:   1.0.6
+ *
+ * Creation date: Oct 16, 2026 
+ * 
+ * The bootstrap estimate of the F-score of one label, or of the
+ * difference of the F-scores of two systems: the value on the whole
+ * corpus, a confidence interval and, for comparisons, the significance.
+ **/
+
+package de.julielab.segmentationEvaluator;
+
+public class BootstrapResult {
+
+	private String evalLabel;
+	private double value;
+	private double lower;
+	private double upper;
+	private double pValue;
+
+	public BootstrapResult(String evalLabel, double value, double lower, double upper, double pValue) {
+		this.evalLabel = evalLabel;
+		this.value = value;
+		this.lower = lower;
+		this.upper = upper;
+		this.pValue = pValue;
+	}
+
+	public String getEvalLabel() {
+		return evalLabel;
+	}
+
+	/**
+	 * @return The F-score, or the difference of the F-scores of two
+	 *         systems, on the whole corpus.
+	 */
+	public double getValue() {
+		return value;
+	}
+
+	/**
+	 * @return The lower bound of the confidence interval.
+	 */
+	public double getLower() {
+		return lower;
+	}
+
+	/**
+	 * @return The upper bound of the confidence interval.
+	 */
+	public double getUpper() {
+		return upper;
+	}
+
+	/**
+	 * @return For a comparison of two systems, the fraction of bootstrap
+	 *         samples in which the system that is better on the whole
+	 *         corpus is not better; <code>NaN</code> otherwise.
+	 */
+	public double getPValue() {
+		return pValue;
+	}
+
+	public String toString() {
+		String ret = evalLabel + ": " + value + " [" + lower + ", " + upper + "]";
+		if (!Double.isNaN(pValue)) {
+			ret += " (p: " + pValue + ")";
+		}
+		return ret;
+	}
+}
@@ -55,7 +55,7 @@ public class Converter {
 	 * @param line
 	 * @return
 	 */
-	private IOToken lineToIOToken(String line) {
+	IOToken lineToIOToken(String line) {
 		String[] parts = null;
 		IOToken ioToken =  null;
 		// replace blanc lines by outside tags
@@ -20,6 +20,7 @@ package de.julielab.segmentationEvaluator;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 
 
 public class EvaluationApplication {
@@ -31,8 +32,6 @@ public class EvaluationApplication {
 			System.exit(0);
 		}
 		
-		IOToken[] gold = null;
-		IOToken[] pred = null;
 		EvaluationResult[] result = null;
 		Converter conv = null;
         
@@ -51,17 +50,17 @@ public class EvaluationApplication {
 			System.err.println(e);
 		}
 		
+		// stream both files instead of loading them into memory
 		try {
-			gold = conv.textToIOTokens(new File(args[0]));
-			pred = conv.textToIOTokens(new File(args[1]));
+			result = StreamingEvaluator.evaluate(new File(args[0]), new File(args[1]), conv);
 		} catch (FileNotFoundException e) {
 			System.err.println("Error: Gold file or pred file does not exist.");
 			System.exit(-1);
+		} catch (IOException e) {
+			System.err.println("Error: " + e.getMessage());
+			System.exit(-1);
 		}
 		
-	
-		result = Evaluator.evaluate(gold, pred);
-		
 		for (int i=0; i<result.length; i++) {
 			System.out.println(result[i]);
 		}
@@ -0,0 +1,131 @@
+/** 
+ * EvaluationCounts.java
+ * 
+ * Copyright (c) 2026, JULIE Lab. 
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Common Public License v1.0 
+ *
+ * Author: JULIE Lab
+ * 
+ * Current version: 1.0.6
+ * Since version:   1.0.6
+ *
+ * Creation date: Oct 16, 2026 
+ * 
+ * The span counts of an evaluation for every label: the number of
+ * gold spans, of predicted spans and of correctly predicted spans.
+ * Counts of separately evaluated documents can be added up.
+ **/
+
+package de.julielab.segmentationEvaluator;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class EvaluationCounts {
+
+	static final int TP = 0;
+
+	static final int GOLD = 1;
+
+	static final int PRED = 2;
+
+	/**
+	 * the counters of each label, in the order the labels were first seen
+	 * in a completed span
+	 */
+	private final LinkedHashMap<String, int[]> counts = new LinkedHashMap<String, int[]>();
+
+	/**
+	 * @return The counters of <code>label</code>, indexed by TP, GOLD
+	 *         and PRED.
+	 */
+	int[] countsFor(String label) {
+		int[] labelCounts = counts.get(label);
+		if (labelCounts == null) {
+			labelCounts = new int[3];
+			counts.put(label, labelCounts);
+		}
+		return labelCounts;
+	}
+
+	/**
+	 * Adds the counts of another evaluation, e.g. of another document, to
+	 * these counts.
+	 * 
+	 * @param other
+	 *            The counts to add.
+	 */
+	public void add(EvaluationCounts other) {
+		for (Iterator<Map.Entry<String, int[]>> iter = other.counts.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<String, int[]> entry = iter.next();
+			int[] labelCounts = countsFor(entry.getKey());
+			int[] otherCounts = entry.getValue();
+			labelCounts[TP] += otherCounts[TP];
+			labelCounts[GOLD] += otherCounts[GOLD];
+			labelCounts[PRED] += otherCounts[PRED];
+		}
+	}
+
+	/**
+	 * @return All labels found in a gold or predicted span.
+	 */
+	public String[] getLabels() {
+		return counts.keySet().toArray(new String[counts.size()]);
+	}
+
+	/**
+	 * @return The number of correctly predicted spans of <code>label</code>.
+	 */
+	public int getTp(String label) {
+		int[] labelCounts = counts.get(label);
+		return labelCounts == null ? 0 : labelCounts[TP];
+	}
+
+	/**
+	 * @return The number of gold spans of <code>label</code>.
+	 */
+	public int getGoldCount(String label) {
+		int[] labelCounts = counts.get(label);
+		return labelCounts == null ? 0 : labelCounts[GOLD];
+	}
+
+	/**
+	 * @return The number of predicted spans of <code>label</code>.
+	 */
+	public int getPredictedCount(String label) {
+		int[] labelCounts = counts.get(label);
+		return labelCounts == null ? 0 : labelCounts[PRED];
+	}
+
+	/**
+	 * @return An array of EvaluationResult objects, like
+	 *         {@link Evaluator#evaluate(IOToken[], IOToken[])} returns. The
+	 *         overall performance is found at index 0, the results for
+	 *         every label of the gold standard follow. Labels only found in
+	 *         the prediction are not evaluated.
+	 */
+	public EvaluationResult[] getResults() {
+		ArrayList<EvaluationResult> results = new ArrayList<EvaluationResult>();
+		int tpOver = 0;
+		int fpOver = 0;
+		int fnOver = 0;
+		results.add(null);
+		for (Iterator<Map.Entry<String, int[]>> iter = counts.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<String, int[]> entry = iter.next();
+			int[] labelCounts = entry.getValue();
+			if (labelCounts[GOLD] > 0) {
+				int fn = labelCounts[GOLD] - labelCounts[TP];
+				int fp = labelCounts[PRED] - labelCounts[TP];
+				results.add(new EvaluationResult(labelCounts[TP], fn, fp, entry.getKey()));
+				tpOver += labelCounts[TP];
+				fnOver += fn;
+				fpOver += fp;
+			}
+		}
+		results.set(0, new EvaluationResult(tpOver, fnOver, fpOver));
+		return results.toArray(new EvaluationResult[results.size()]);
+	}
+}
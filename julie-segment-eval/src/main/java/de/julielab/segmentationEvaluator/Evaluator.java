@@ -19,7 +19,6 @@
 package de.julielab.segmentationEvaluator;
 
 import java.util.HashMap;
-import java.util.Iterator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +36,8 @@ public class Evaluator {
 	 * @param prediction A prediction to be compared with the gold standard.
 	 * @return An array of EvaluationResult object. The overall performance if
      *         found at index 0, the results for every single label follows.
+     *         Large corpora can be evaluated from files with the
+     *         {@link StreamingEvaluator} instead.
 	 */
 	public static EvaluationResult[] evaluate(IOToken[] gold, IOToken[] prediction) {
 		
@@ -52,57 +53,14 @@ public class Evaluator {
 			throw ex;
 		}
 		
-		// check that tokens are the same
+		LOGGER.info("Beginning evaluation");
+
+		// the streaming evaluator also checks that the tokens are the same
+		StreamingEvaluator evaluator = new StreamingEvaluator();
 		for (int i = 0; i < prediction.length; i++) {
-			String predToken = prediction[i].getText();
-			String goldToken = gold[i].getText();
-			if (!predToken.equals(goldToken)) {
-				String info = "Tokens in gold file differnt from tokens in prediction: " + predToken + " <-> " + goldToken;
-				IllegalStateException ex = new IllegalStateException(info);
-				LOGGER.error(info,ex);
-				throw ex;
-			}
-		}
-		
-        LOGGER.info("Beginning evaluation");
-      
-        LOGGER.info("Computing spans of annotation: gold");
-		HashMap<String, HashMap<String, String>> goldSpans = getAnnotationSpans(gold);
-        LOGGER.info("Computing spans of annotation: prediction");
-		HashMap<String, HashMap<String, String>> predSpans = getAnnotationSpans(prediction);
-		
-		EvaluationResult[] results = new EvaluationResult[goldSpans.keySet().size()+1];
-		
-		// evaluation for each single label
-		int i = 1;
-		for (Iterator iter = goldSpans.keySet().iterator(); iter.hasNext();) {
-			
-			EvaluationResult evalRes = null;
-			String label = (String) iter.next();
-			if (predSpans.get(label) == null) {
-        
-				evalRes = new EvaluationResult(0, goldSpans.get(label).size(), 0, label);
-			}
-			else {
-                LOGGER.debug("Single evaluation of label \""+label+"\"");
-				int[] evalValues = evaluateSingle(goldSpans.get(label), predSpans.get(label));
-				evalRes = new EvaluationResult(evalValues[0], evalValues[1], evalValues[2], label);
-			}
-			results[i] = evalRes;
-			++i;
+			evaluator.add(gold[i], prediction[i]);
 		}
-		
-		// overall evaluation
-		int tpOver = 0;
-		int fpOver = 0;
-		int fnOver = 0;
-		
-		for (i=1; i<results.length; i++) {
-			tpOver += results[i].getTp();
-			fpOver += results[i].getFp();
-			fnOver += results[i].getFn();
-		}
-		results[0] = new EvaluationResult(tpOver, fnOver, fpOver);
+		EvaluationResult[] results = evaluator.getResults();
 		
 		return results;
 	}
@@ -156,32 +114,6 @@ public class Evaluator {
 	
 	return results;
 	}
-		
-	private static int[] evaluateSingle(HashMap<String, String> goldSpan, HashMap<String, String> predSpan) {
-      
-		int tp = 0;
-		int allFound = predSpan.size();
-		int allExist = goldSpan.size();
-
-		// now check the blocks
-		for (Iterator iter = predSpan.keySet().iterator(); iter.hasNext();) {
-			String offset = (String) iter.next();
-			if (goldSpan.containsKey(offset)) {
-				String labelsEval = (String) predSpan.get(offset);
-				String labelsGold = (String) goldSpan.get(offset);
-				if (labelsEval.equals(labelsGold)) {
-					tp++;
-				}
-			}
-		}
-		
-		int[] ret = new int[3];
-		ret[0] = tp;
-		ret[1] = allExist-tp;
-		ret[2] = allFound-tp;
-		
-		return ret;
-	}
 	
 	/**
 	 * @param taglist An array of IOTokens corresponding to an IO or IOB document.
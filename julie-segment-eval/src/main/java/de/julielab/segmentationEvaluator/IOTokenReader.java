@@ -0,0 +1,71 @@
+/** 
+ * IOTokenReader.java
+ * 
+ * Copyright (c) 2026, JULIE Lab. 
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Common Public License v1.0 
+ *
+ * Author: JULIE Lab
+ * 
+ * Current version: 1.0.6
+ * Since version:   1.0.6
+ *
+ * Creation date: Oct 16, 2026 
+ * 
+ * Reads the IOTokens of a file in IO or IOB format one by one, so that
+ * large corpora can be evaluated without loading them into memory.
+ **/
+
+package de.julielab.segmentationEvaluator;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+
+public class IOTokenReader implements Closeable {
+
+	private final BufferedReader reader;
+
+	private final Converter converter;
+
+	/**
+	 * @param src
+	 *            The text in IO or IOB format.
+	 * @param converter
+	 *            The Converter for the format of the text.
+	 */
+	public IOTokenReader(Reader src, Converter converter) {
+		this.reader = src instanceof BufferedReader ? (BufferedReader) src : new BufferedReader(src);
+		this.converter = converter;
+	}
+
+	/**
+	 * @param src
+	 *            File in IO or IOB Format.
+	 * @param converter
+	 *            The Converter for the format of the file.
+	 * @throws FileNotFoundException
+	 */
+	public IOTokenReader(File src, Converter converter) throws FileNotFoundException {
+		this(new FileReader(src), converter);
+	}
+
+	/**
+	 * @return The next IOToken, or <code>null</code> at the end of the
+	 *         input. Blank lines are returned as outside tokens, like
+	 *         {@link Converter#textToIOTokens(File)} does.
+	 * @throws IOException
+	 */
+	public IOToken next() throws IOException {
+		String line = reader.readLine();
+		return line == null ? null : converter.lineToIOToken(line);
+	}
+
+	public void close() throws IOException {
+		reader.close();
+	}
+}
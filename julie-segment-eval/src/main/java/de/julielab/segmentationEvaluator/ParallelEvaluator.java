@@ -0,0 +1,435 @@
+/** 
+ * ParallelEvaluator.java
+ * 
+ * Copyright (c) 2026, JULIE Lab. 
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Common Public License v1.0 
+ *
+ * Author: JULIE Lab
+ * 
+ * Current version: 1.0.6
+ * Since version:   1.0.6
+ *
+ * Creation date: Oct 16, 2026 
+ * 
+ * Evaluates a corpus of documents in parallel. The documents are split
+ * into shards that are counted by the tasks of an ExecutorService, each
+ * in a single pass for all labels, and the counts are added up.
+ *
+ * Additionally, confidence intervals of the F-scores and the
+ * significance of the difference between two systems are estimated by
+ * (paired) bootstrap resampling of the documents. Each bootstrap sample
+ * only adds up the counts of the drawn documents, so a thousand samples
+ * of a large corpus take seconds.
+ **/
+
+package de.julielab.segmentationEvaluator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+public class ParallelEvaluator {
+
+	/**
+	 * the number of tasks per thread, so that shards of different cost
+	 * are balanced
+	 */
+	private static final int TASKS_PER_THREAD = 4;
+
+	private final ExecutorService executor;
+
+	private final int threads;
+
+	/**
+	 * @param executor
+	 *            The executor running the evaluation tasks. It is not shut
+	 *            down by this evaluator.
+	 * @param threads
+	 *            The number of threads of the executor.
+	 */
+	public ParallelEvaluator(ExecutorService executor, int threads) {
+		this.executor = executor;
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * @param gold
+	 *            The gold standard documents.
+	 * @param prediction
+	 *            The predicted documents, in the same order.
+	 * @return An array of EvaluationResult objects. The overall performance
+	 *         is found at index 0, the results for every label of the gold
+	 *         standard follow.
+	 */
+	public EvaluationResult[] evaluate(List<IOToken[]> gold, List<IOToken[]> prediction) {
+		EvaluationCounts total = new EvaluationCounts();
+		for (EvaluationCounts counts : countDocuments(gold, prediction, false)) {
+			total.add(counts);
+		}
+		return total.getResults();
+	}
+
+	/**
+	 * Counts the spans of every document separately, e.g. as input for
+	 * the bootstrap methods.
+	 * 
+	 * @param gold
+	 *            The gold standard documents.
+	 * @param prediction
+	 *            The predicted documents, in the same order.
+	 * @return The counts of each document.
+	 */
+	public EvaluationCounts[] count(List<IOToken[]> gold, List<IOToken[]> prediction) {
+		List<EvaluationCounts> counts = countDocuments(gold, prediction, true);
+		return counts.toArray(new EvaluationCounts[counts.size()]);
+	}
+
+	/**
+	 * Counts the documents in shards.
+	 * 
+	 * @param perDocument
+	 *            Whether to return the counts of every document or only
+	 *            those of every shard.
+	 */
+	private List<EvaluationCounts> countDocuments(final List<IOToken[]> gold, final List<IOToken[]> prediction,
+			final boolean perDocument) {
+		if (gold.size() != prediction.size()) {
+			throw new IllegalStateException("Different number of documents for gold and prediction: "
+					+ gold.size() + " <-> " + prediction.size());
+		}
+		List<Callable<List<EvaluationCounts>>> tasks = new ArrayList<Callable<List<EvaluationCounts>>>();
+		int shards = Math.min(gold.size(), threads * TASKS_PER_THREAD);
+		for (int shard = 0; shard < shards; shard++) {
+			final int from = (int) ((long) gold.size() * shard / shards);
+			final int to = (int) ((long) gold.size() * (shard + 1) / shards);
+			tasks.add(new Callable<List<EvaluationCounts>>() {
+				public List<EvaluationCounts> call() {
+					List<EvaluationCounts> counts = new ArrayList<EvaluationCounts>();
+					EvaluationCounts shardCounts = new EvaluationCounts();
+					for (int i = from; i < to; i++) {
+						IOToken[] goldTokens = gold.get(i);
+						IOToken[] predTokens = prediction.get(i);
+						if (goldTokens.length != predTokens.length) {
+							throw new IllegalStateException("Different number of tokens for gold and prediction in document "
+									+ i + ": " + goldTokens.length + " <-> " + predTokens.length);
+						}
+						StreamingEvaluator evaluator = new StreamingEvaluator();
+						for (int j = 0; j < goldTokens.length; j++) {
+							evaluator.add(goldTokens[j], predTokens[j]);
+						}
+						if (perDocument) {
+							counts.add(evaluator.getCounts());
+						} else {
+							shardCounts.add(evaluator.getCounts());
+						}
+					}
+					if (!perDocument) {
+						counts.add(shardCounts);
+					}
+					return counts;
+				}
+			});
+		}
+		List<EvaluationCounts> counts = new ArrayList<EvaluationCounts>();
+		for (List<EvaluationCounts> shardCounts : invokeAll(tasks)) {
+			counts.addAll(shardCounts);
+		}
+		return counts;
+	}
+
+	/**
+	 * Estimates confidence intervals of the F-scores by bootstrap
+	 * resampling of the documents.
+	 * 
+	 * @param documents
+	 *            The counts of every document, see
+	 *            {@link #count(List, List)}.
+	 * @param samples
+	 *            The number of bootstrap samples, e.g. 1000.
+	 * @param confidence
+	 *            The confidence level, e.g. 0.95.
+	 * @param seed
+	 *            The seed of the random numbers; the results don't depend
+	 *            on the number of threads.
+	 * @return The overall F-score at index 0, followed by the F-scores of
+	 *         every label of the gold standard, each with its percentile
+	 *         confidence interval.
+	 */
+	public BootstrapResult[] bootstrap(EvaluationCounts[] documents, int samples, double confidence, long seed) {
+		checkSampling(samples, confidence);
+		LabelIndex labels = new LabelIndex(documents, null);
+		int[][] packed = labels.pack(documents);
+		double[] value = labels.fscores(labels.sum(packed, null));
+		double[][] replicates = resample(labels, packed, null, samples, seed);
+		return labels.results(value, replicates, confidence, false);
+	}
+
+	/**
+	 * Compares two systems by paired bootstrap resampling: both systems
+	 * are evaluated on the same samples of documents. The p-value is the
+	 * fraction of samples in which the system that is better on the whole
+	 * corpus is not better (Koehn, 2004).
+	 * 
+	 * @param systemA
+	 *            The counts of every document for the first system.
+	 * @param systemB
+	 *            The counts of every document for the second system, in the
+	 *            same order.
+	 * @param samples
+	 *            The number of bootstrap samples, e.g. 1000.
+	 * @param confidence
+	 *            The confidence level of the interval of the difference,
+	 *            e.g. 0.95.
+	 * @param seed
+	 *            The seed of the random numbers.
+	 * @return The difference of the overall F-scores of system A and B at
+	 *         index 0, followed by the differences for every label of the
+	 *         gold standard, each with its confidence interval and p-value.
+	 */
+	public BootstrapResult[] pairedBootstrap(EvaluationCounts[] systemA, EvaluationCounts[] systemB, int samples,
+			double confidence, long seed) {
+		checkSampling(samples, confidence);
+		if (systemA.length != systemB.length) {
+			throw new IllegalArgumentException("Different number of documents for the systems: " + systemA.length
+					+ " <-> " + systemB.length);
+		}
+		LabelIndex labels = new LabelIndex(systemA, systemB);
+		int[][] packedA = labels.pack(systemA);
+		int[][] packedB = labels.pack(systemB);
+		double[] valueA = labels.fscores(labels.sum(packedA, null));
+		double[] valueB = labels.fscores(labels.sum(packedB, null));
+		double[] value = new double[valueA.length];
+		for (int i = 0; i < value.length; i++) {
+			value[i] = valueA[i] - valueB[i];
+		}
+		double[][] replicates = resample(labels, packedA, packedB, samples, seed);
+		return labels.results(value, replicates, confidence, true);
+	}
+
+	private static void checkSampling(int samples, double confidence) {
+		if (samples <= 0) {
+			throw new IllegalArgumentException("The number of bootstrap samples must be positive: " + samples);
+		}
+		if (!(confidence > 0 && confidence < 1)) {
+			throw new IllegalArgumentException("The confidence level must be between 0 and 1: " + confidence);
+		}
+	}
+
+	/**
+	 * Computes the F-scores, or their differences if <code>packedB</code>
+	 * is given, of every bootstrap sample.
+	 * 
+	 * @return The scores, indexed by sample and label.
+	 */
+	private double[][] resample(final LabelIndex labels, final int[][] packedA, final int[][] packedB, int samples,
+			long seed) {
+		final double[][] replicates = new double[samples][];
+		// The seeds of adjacent samples must not be adjacent, as the first
+		// numbers of Randoms with adjacent seeds are correlated
+		final long[] seeds = new long[samples];
+		Random master = new Random(seed);
+		for (int sample = 0; sample < samples; sample++) {
+			seeds[sample] = master.nextLong();
+		}
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+		int chunks = Math.min(samples, threads * TASKS_PER_THREAD);
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			final int from = (int) ((long) samples * chunk / chunks);
+			final int to = (int) ((long) samples * (chunk + 1) / chunks);
+			tasks.add(new Callable<Object>() {
+				public Object call() {
+					int[] draws = new int[packedA[0].length - 1];
+					for (int sample = from; sample < to; sample++) {
+						// one generator per sample, independent of the chunks
+						Random random = new Random(seeds[sample]);
+						Arrays.fill(draws, 0);
+						for (int i = 0; i < draws.length; i++) {
+							draws[random.nextInt(draws.length)]++;
+						}
+						double[] scores = labels.fscores(labels.sum(packedA, draws));
+						if (packedB != null) {
+							double[] scoresB = labels.fscores(labels.sum(packedB, draws));
+							for (int i = 0; i < scores.length; i++) {
+								scores[i] -= scoresB[i];
+							}
+						}
+						replicates[sample] = scores;
+					}
+					return null;
+				}
+			});
+		}
+		invokeAll(tasks);
+		return replicates;
+	}
+
+	private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+		List<T> results = new ArrayList<T>();
+		try {
+			for (Future<T> future : executor.invokeAll(tasks)) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Evaluation interrupted", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		return results;
+	}
+
+	/**
+	 * Numbers the labels of the gold standard and packs the counts of the
+	 * documents into arrays for fast resampling.
+	 */
+	private static class LabelIndex {
+
+		/** the labels with a gold span, in the order of the results */
+		private final String[] labels;
+
+		private final LinkedHashMap<String, Integer> ids = new LinkedHashMap<String, Integer>();
+
+		private LabelIndex(EvaluationCounts[] documents, EvaluationCounts[] otherDocuments) {
+			EvaluationCounts total = new EvaluationCounts();
+			for (EvaluationCounts counts : documents) {
+				total.add(counts);
+			}
+			if (otherDocuments != null) {
+				for (EvaluationCounts counts : otherDocuments) {
+					total.add(counts);
+				}
+			}
+			for (String label : total.getLabels()) {
+				// labels only found in a prediction are not evaluated
+				if (total.getGoldCount(label) > 0) {
+					ids.put(label, ids.size());
+				}
+			}
+			labels = ids.keySet().toArray(new String[ids.size()]);
+		}
+
+		/**
+		 * Packs the label ids and counts of the evaluated labels of all
+		 * documents as consecutive quadruples into one array, so that the
+		 * documents are summed up in a sequential pass over memory.
+		 * 
+		 * @return The packed counts, preceded by the offsets of the
+		 *         documents into them.
+		 */
+		private int[][] pack(EvaluationCounts[] documents) {
+			int[] offsets = new int[documents.length + 1];
+			int[] counts = new int[16];
+			int n = 0;
+			for (int d = 0; d < documents.length; d++) {
+				offsets[d] = n;
+				for (String label : documents[d].getLabels()) {
+					Integer id = ids.get(label);
+					if (id != null) {
+						if (n + 4 > counts.length) {
+							int[] tmp = new int[counts.length * 2];
+							System.arraycopy(counts, 0, tmp, 0, n);
+							counts = tmp;
+						}
+						int[] labelCounts = documents[d].countsFor(label);
+						counts[n++] = id.intValue();
+						counts[n++] = labelCounts[EvaluationCounts.TP];
+						counts[n++] = labelCounts[EvaluationCounts.GOLD];
+						counts[n++] = labelCounts[EvaluationCounts.PRED];
+					}
+				}
+			}
+			offsets[documents.length] = n;
+			return new int[][] { offsets, counts };
+		}
+
+		/**
+		 * Adds up the counts of the documents, each weighted by the number
+		 * of times it was drawn.
+		 * 
+		 * @param draws
+		 *            How often each document was drawn, <code>null</code>
+		 *            to add every document once.
+		 * @return The counts indexed by 3 * label id + TP, GOLD or PRED.
+		 */
+		private long[] sum(int[][] packed, int[] draws) {
+			int[] offsets = packed[0];
+			int[] counts = packed[1];
+			long[] sums = new long[labels.length * 3];
+			for (int d = 0; d < offsets.length - 1; d++) {
+				int weight = draws == null ? 1 : draws[d];
+				if (weight == 0) {
+					continue;
+				}
+				for (int j = offsets[d]; j < offsets[d + 1]; j += 4) {
+					int offset = counts[j] * 3;
+					sums[offset + EvaluationCounts.TP] += (long) weight * counts[j + 1];
+					sums[offset + EvaluationCounts.GOLD] += (long) weight * counts[j + 2];
+					sums[offset + EvaluationCounts.PRED] += (long) weight * counts[j + 3];
+				}
+			}
+			return sums;
+		}
+
+		/**
+		 * @return The overall F-score at index 0 followed by the F-score of
+		 *         every label.
+		 */
+		private double[] fscores(long[] sums) {
+			double[] scores = new double[labels.length + 1];
+			long tp = 0;
+			long gold = 0;
+			long pred = 0;
+			for (int i = 0; i < labels.length; i++) {
+				long labelTp = sums[i * 3 + EvaluationCounts.TP];
+				long labelGold = sums[i * 3 + EvaluationCounts.GOLD];
+				long labelPred = sums[i * 3 + EvaluationCounts.PRED];
+				scores[i + 1] = fscore(labelTp, labelGold, labelPred);
+				tp += labelTp;
+				gold += labelGold;
+				pred += labelPred;
+			}
+			scores[0] = fscore(tp, gold, pred);
+			return scores;
+		}
+
+		/**
+		 * The harmonic mean of precision tp / pred and recall tp / gold, as
+		 * computed by {@link EvaluationResult#getFscore()}.
+		 */
+		private static double fscore(long tp, long gold, long pred) {
+			return tp == 0 ? 0 : 2.0 * tp / (gold + pred);
+		}
+
+		private BootstrapResult[] results(double[] value, double[][] replicates, double confidence,
+				boolean paired) {
+			BootstrapResult[] results = new BootstrapResult[value.length];
+			double[] column = new double[replicates.length];
+			int lowerIndex = (int) Math.floor((1 - confidence) / 2 * replicates.length);
+			int upperIndex = Math.max(lowerIndex, (int) Math.ceil((1 + confidence) / 2 * replicates.length) - 1);
+			for (int i = 0; i < value.length; i++) {
+				int notBetter = 0;
+				for (int sample = 0; sample < replicates.length; sample++) {
+					column[sample] = replicates[sample][i];
+					if (value[i] >= 0 ? column[sample] <= 0 : column[sample] >= 0) {
+						notBetter++;
+					}
+				}
+				Arrays.sort(column);
+				double pValue = paired ? (double) notBetter / replicates.length : Double.NaN;
+				results[i] = new BootstrapResult(i == 0 ? "Overall" : labels[i - 1], value[i],
+						column[lowerIndex], column[Math.min(upperIndex, column.length - 1)], pValue);
+			}
+			return results;
+		}
+	}
+}
@@ -19,6 +19,7 @@ package de.julielab.segmentationEvaluator;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.Locale;
@@ -37,8 +38,6 @@ public class SimpleEvaluationApplication {
 			System.exit(0);
 		}
 
-		IOToken[] gold = null;
-		IOToken[] pred = null;
 		EvaluationResult[] result = null;
 		Converter conv = null;
 
@@ -55,16 +54,17 @@ public class SimpleEvaluationApplication {
 			System.err.println(e);
 		}
 
+		// stream both files instead of loading them into memory
 		try {
-			gold = conv.textToIOTokens(new File(args[0]));
-			pred = conv.textToIOTokens(new File(args[1]));
+			result = StreamingEvaluator.evaluate(new File(args[0]), new File(args[1]), conv);
 		} catch (FileNotFoundException e) {
 			System.err.println("Gold file or pred file does not exist.");
 			System.exit(0);
+		} catch (IOException e) {
+			System.err.println("Error: " + e.getMessage());
+			System.exit(-1);
 		}
 
-		result = Evaluator.evaluate(gold, pred);
-
 		if (result.length > 0) {
 			System.out.println(df.format(result[0].getRecall()) + "\t"
 					+ df.format(result[0].getPrecision()) + "\t"
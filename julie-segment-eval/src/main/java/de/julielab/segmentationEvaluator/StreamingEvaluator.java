@@ -0,0 +1,216 @@
+/** 
+ * StreamingEvaluator.java
+ * 
+ * Copyright (c) 2026, JULIE Lab. 
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Common Public License v1.0 
+ *
+ * Author: JULIE Lab
+ * 
+ * Current version: 1.0.6
+ * Since version:   1.0.6
+ *
+ * Creation date: Oct 16, 2026 
+ * 
+ * Computes the same EvaluationResults as the Evaluator in a single pass
+ * over the gold standard and the prediction. The tokens are consumed
+ * in lock-step, so large corpora can be evaluated from files with
+ * memory proportional to the number of labels only.
+ *
+ * A span ends at the token in front of the one that closes it. Thus, a
+ * gold span and a predicted span with the same offsets are completed at
+ * the same token, and a true positive is recognized as soon as both
+ * spans are completed; no spans need to be stored.
+ **/
+
+package de.julielab.segmentationEvaluator;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class StreamingEvaluator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StreamingEvaluator.class);
+
+	private final SpanTracker goldSpans = new SpanTracker();
+
+	private final SpanTracker predSpans = new SpanTracker();
+
+	private final EvaluationCounts counts = new EvaluationCounts();
+
+	/**
+	 * the number of tokens consumed so far
+	 */
+	private int position;
+
+	/**
+	 * Consumes the next token of the gold standard and of the prediction.
+	 * 
+	 * @param gold
+	 *            The next gold standard token.
+	 * @param prediction
+	 *            The corresponding predicted token.
+	 * @throws IllegalStateException
+	 *             If the texts of the tokens differ.
+	 */
+	public void add(IOToken gold, IOToken prediction) {
+		if (!prediction.getText().equals(gold.getText())) {
+			String info = "Tokens in gold file differnt from tokens in prediction: " + prediction.getText()
+					+ " <-> " + gold.getText();
+			IllegalStateException ex = new IllegalStateException(info);
+			LOGGER.error(info, ex);
+			throw ex;
+		}
+
+		goldSpans.next(gold, position);
+		predSpans.next(prediction, position);
+		position++;
+
+		if (goldSpans.completedLabel != null) {
+			counts.countsFor(goldSpans.completedLabel)[EvaluationCounts.GOLD]++;
+		}
+		if (predSpans.completedLabel != null) {
+			int[] labelCounts = counts.countsFor(predSpans.completedLabel);
+			labelCounts[EvaluationCounts.PRED]++;
+			if (goldSpans.completedBegin == predSpans.completedBegin
+					&& predSpans.completedLabel.equals(goldSpans.completedLabel)) {
+				labelCounts[EvaluationCounts.TP]++;
+			}
+		}
+	}
+
+	/**
+	 * @return The number of token pairs consumed so far.
+	 */
+	public int getTokenCount() {
+		return position;
+	}
+
+	/**
+	 * @return The span counts of the tokens consumed so far.
+	 */
+	public EvaluationCounts getCounts() {
+		return counts;
+	}
+
+	/**
+	 * @return An array of EvaluationResult objects for the tokens consumed
+	 *         so far, like {@link Evaluator#evaluate(IOToken[], IOToken[])}
+	 *         returns. The overall performance is found at index 0, the
+	 *         results for every label of the gold standard follow.
+	 */
+	public EvaluationResult[] getResults() {
+		return counts.getResults();
+	}
+
+	/**
+	 * Evaluates a prediction file against a gold standard file without
+	 * loading them into memory.
+	 * 
+	 * @param gold
+	 *            The gold standard file.
+	 * @param prediction
+	 *            The prediction file.
+	 * @param converter
+	 *            The Converter for the format of both files.
+	 * @return An array of EvaluationResult objects, see
+	 *         {@link #getResults()}.
+	 * @throws IOException
+	 * @throws IllegalStateException
+	 *             If the files contain different tokens.
+	 */
+	public static EvaluationResult[] evaluate(File gold, File prediction, Converter converter) throws IOException {
+		IOTokenReader goldReader = new IOTokenReader(gold, converter);
+		try {
+			IOTokenReader predReader = new IOTokenReader(prediction, converter);
+			try {
+				return evaluate(goldReader, predReader);
+			} finally {
+				predReader.close();
+			}
+		} finally {
+			goldReader.close();
+		}
+	}
+
+	/**
+	 * Evaluates the tokens of two readers in lock-step.
+	 * 
+	 * @param gold
+	 *            The gold standard tokens.
+	 * @param prediction
+	 *            The predicted tokens.
+	 * @return An array of EvaluationResult objects, see
+	 *         {@link #getResults()}.
+	 * @throws IOException
+	 * @throws IllegalStateException
+	 *             If the readers return different tokens or a different
+	 *             number of tokens.
+	 */
+	public static EvaluationResult[] evaluate(IOTokenReader gold, IOTokenReader prediction) throws IOException {
+		LOGGER.info("Beginning evaluation");
+		StreamingEvaluator evaluator = new StreamingEvaluator();
+		IOToken goldToken;
+		IOToken predToken;
+		while ((goldToken = gold.next()) != null & (predToken = prediction.next()) != null) {
+			evaluator.add(goldToken, predToken);
+		}
+		if (goldToken != null || predToken != null) {
+			String info = "Different number of tokens for gold and prediction: "
+					+ (goldToken != null ? "more than " : "") + evaluator.getTokenCount() + " <-> "
+					+ (predToken != null ? "more than " : "") + evaluator.getTokenCount();
+			IllegalStateException ex = new IllegalStateException(info);
+			LOGGER.error(info, ex);
+			throw ex;
+		}
+		return evaluator.getResults();
+	}
+
+	/**
+	 * Follows the annotation spans of one token sequence, applying the
+	 * rules of {@link Evaluator#getAnnotationSpans(IOToken[])}: a span
+	 * starts with a token that is not outside and ends in front of a
+	 * token marked B or O or with a different label. A span that is still
+	 * open at the end of the sequence is not counted.
+	 */
+	private static class SpanTracker {
+		private boolean inside;
+		private int begin = -1;
+		private String oldLabel;
+
+		/**
+		 * the label of the span completed by the last token, or
+		 * <code>null</code>
+		 */
+		private String completedLabel;
+
+		/**
+		 * the first token of the span completed by the last token
+		 */
+		private int completedBegin = -1;
+
+		private void next(IOToken ioToken, int i) {
+			String currLabel = ioToken.getLabel();
+			String currIobmark = ioToken.getIobMark();
+			completedLabel = null;
+			if (!inside) {
+				if (!currIobmark.equals("O")) {
+					inside = true;
+					begin = i;
+				}
+			} else if (currIobmark.equals("B") || currIobmark.equals("O")
+					|| (oldLabel != null && !oldLabel.equals(currLabel))) {
+				completedLabel = oldLabel;
+				completedBegin = begin;
+				begin = i;
+				if (currIobmark.equals("O")) {
+					inside = false;
+				}
+			}
+			oldLabel = currLabel;
+		}
+	}
+}
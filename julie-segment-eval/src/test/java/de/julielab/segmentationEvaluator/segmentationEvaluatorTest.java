@@ -3,7 +3,11 @@ package de.julielab.segmentationEvaluator;
 import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -114,9 +118,9 @@ public class segmentationEvaluatorTest extends TestCase {
 		assertTrue (allOK);
 	}
 	
-	public void testEvaluateSingle() throws Exception {
+	public void testEvaluateSingleLabel() throws Exception {
 		
-        LOGGER.info("Testing method \"evaluateSingle\" of class Evaluator");
+        LOGGER.info("Testing the counts of a single label in method \"evaluate\" of class Evaluator");
       
 		File pennbioIO = new File(PENNBIO_IO);
 		/* In this file, two malignancy-sequences were split by an 0.
@@ -129,57 +133,16 @@ public class segmentationEvaluatorTest extends TestCase {
 		IOToken[] ioTokens = conv.textToIOTokens(pennbioIO);
 		IOToken[] ioTokensPred = conv.textToIOTokens(pennbioIOError);
 		
-		HashMap<String, HashMap<String,String>> predSpans = null;
-		HashMap<String, HashMap<String,String>> goldSpans = null;
-		
-		Method evaluateSingle = null;
-		Method getAnnotationSpans = null;
-		int[] ret = null;
-		Object[] actualAnnoParams = {ioTokens};
-		Object[] actualEvalParams = new Object[2];
-		
-		Class[] formalParamsEval = {HashMap.class,HashMap.class};
-		Class[] formalParamsAnno = {IOToken[].class};
-		try {
-			evaluateSingle = Evaluator.class.getDeclaredMethod("evaluateSingle", formalParamsEval);
-			getAnnotationSpans = Evaluator.class.getDeclaredMethod("getAnnotationSpans", formalParamsAnno);
-			evaluateSingle.setAccessible(true);
-			getAnnotationSpans.setAccessible(true);
-		} catch (SecurityException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		} catch (NoSuchMethodException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		
-		
-		try {
-			goldSpans = (HashMap<String, HashMap<String,String>>)getAnnotationSpans.invoke(Evaluator.class, actualAnnoParams);
-			actualAnnoParams[0] = ioTokensPred;
-			predSpans = (HashMap<String, HashMap<String,String>>)getAnnotationSpans.invoke(Evaluator.class, actualAnnoParams);
-			actualEvalParams[0] = goldSpans.get("malignancy");
-			actualEvalParams[1] = predSpans.get("malignancy");
-			ret = (int[])evaluateSingle.invoke(Evaluator.class, actualEvalParams);
-		} catch (IllegalArgumentException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		} catch (IllegalAccessException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		} catch (InvocationTargetException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
+		EvaluationResult result = Evaluator.evaluate(ioTokens, ioTokensPred, "malignancy");
 		
 		//                 tp              fn              fp
-        boolean allOK = ret[0] == 40 && ret[1] == 2 && ret[2] == 4;
+        boolean allOK = result.getTp() == 40 && result.getFn() == 2 && result.getFp() == 4;
         
         if (allOK) {
           LOGGER.info("Everything okay");
         }
         else {
-          LOGGER.error("Error with method \"evaluateSingle\" of class Evaluator");
+          LOGGER.error("Error with the counts of method \"evaluate\" of class Evaluator");
         }
 		
 		assertTrue (allOK);
@@ -254,4 +217,97 @@ public class segmentationEvaluatorTest extends TestCase {
         
 		assertTrue (allOK);
 	}
+	
+	public void testStreamingEvaluate() throws Exception {
+		
+	    LOGGER.info("Testing method \"evaluate\" of class StreamingEvaluator");
+      
+		File pennbioIO = new File(PENNBIO_IO);
+		File pennbioIOError = new File(PENNBIO_IO_ERROR);
+		Converter conv = new Converter(Converter.TYPE_IO);
+		
+		EvaluationResult[] expected = Evaluator.evaluate(conv.textToIOTokens(pennbioIO),
+				conv.textToIOTokens(pennbioIOError));
+		EvaluationResult[] results = StreamingEvaluator.evaluate(pennbioIO, pennbioIOError, conv);
+		
+		assertEquals(expected.length, results.length);
+		for (int i=0; i<results.length; i++) {
+			assertEquals(expected[i].toString(), results[i].toString());
+		}
+		
+		// two malignancy-sequences were split in the prediction
+		assertEquals(2, results[0].getFn());
+		assertEquals(4, results[0].getFp());
+	}
+	
+	public void testParallelEvaluate() throws Exception {
+		
+	    LOGGER.info("Testing class ParallelEvaluator");
+      
+		Converter conv = new Converter(Converter.TYPE_IO);
+		IOToken[] ioTokensGold = conv.textToIOTokens(new File(PENNBIO_IO));
+		IOToken[] ioTokensPred = conv.textToIOTokens(new File(PENNBIO_IO_ERROR));
+		
+		// split the corpus into documents of 50 tokens each
+		List<IOToken[]> goldDocs = new ArrayList<IOToken[]>();
+		List<IOToken[]> predDocs = new ArrayList<IOToken[]>();
+		for (int i = 0; i < ioTokensGold.length; i += 50) {
+			int length = Math.min(50, ioTokensGold.length - i);
+			IOToken[] gold = new IOToken[length];
+			IOToken[] pred = new IOToken[length];
+			System.arraycopy(ioTokensGold, i, gold, 0, length);
+			System.arraycopy(ioTokensPred, i, pred, 0, length);
+			goldDocs.add(gold);
+			predDocs.add(pred);
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			ParallelEvaluator evaluator = new ParallelEvaluator(executor, 2);
+			
+			EvaluationCounts total = new EvaluationCounts();
+			EvaluationCounts[] counts = evaluator.count(goldDocs, predDocs);
+			for (int i = 0; i < counts.length; i++) {
+				total.add(counts[i]);
+			}
+			EvaluationResult[] results = evaluator.evaluate(goldDocs, predDocs);
+			assertEquals(total.getResults()[0].toString(), results[0].toString());
+			
+			BootstrapResult[] intervals = evaluator.bootstrap(counts, 200, 0.95, 1);
+			assertEquals(results.length, intervals.length);
+			assertEquals(results[0].getFscore(), intervals[0].getValue(), 1e-9);
+			assertTrue(intervals[0].getLower() <= intervals[0].getValue());
+			assertTrue(intervals[0].getUpper() >= intervals[0].getValue());
+			
+			// the intervals depend on the seed only, not on the number of threads
+			BootstrapResult[] sequential = new ParallelEvaluator(executor, 1).bootstrap(counts, 200, 0.95, 1);
+			for (int i = 0; i < intervals.length; i++) {
+				assertEquals(intervals[i].toString(), sequential[i].toString());
+			}
+			
+			// a system compared with itself is never better
+			BootstrapResult[] comparison = evaluator.pairedBootstrap(counts, counts, 200, 0.95, 1);
+			assertEquals(0.0, comparison[0].getValue(), 0.0);
+			assertEquals(1.0, comparison[0].getPValue(), 0.0);
+
+			int[] badSamples = { 0, -1, 200, 200, 200 };
+			double[] badConfidences = { 0.95, 0.95, 0, 1, Double.NaN };
+			for (int i = 0; i < badSamples.length; i++) {
+				try {
+					evaluator.bootstrap(counts, badSamples[i], badConfidences[i], 1);
+					fail("Accepted " + badSamples[i] + " samples with confidence " + badConfidences[i]);
+				} catch (IllegalArgumentException e) {
+					// expected
+				}
+				try {
+					evaluator.pairedBootstrap(counts, counts, badSamples[i], badConfidences[i], 1);
+					fail("Accepted " + badSamples[i] + " samples with confidence " + badConfidences[i]);
+				} catch (IllegalArgumentException e) {
+					// expected
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
 }
@@ -0,0 +1,111 @@
+/**
+ * JulieXMLGzipBenchmark.java
+ *
+ * Copyright (c) 2026, JULIE Lab.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ *
+ * Current version: 1.0
+ * Since version:   1.0
+ *
+ * Creation date: 17.10.2026
+ **/
+
+package de.julielab.xml.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.julielab.xml.JulieXMLConstants;
+import de.julielab.xml.JulieXMLTools;
+
+/**
+ * Extracts all rows of a document with
+ * {@link JulieXMLTools#constructRowIterator(byte[], int, String, List, String, ExecutorService)} without compression
+ * (<code>off</code>), with compression of the text field on the extracting thread (<code>on</code>) and with
+ * compression on an executor of <code>compressionThreads</code> threads (<code>executor</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JulieXMLGzipBenchmark {
+
+	/** the number of records in the document */
+	@Param({ "20000" })
+	public int records;
+
+	/** <code>off</code>, <code>on</code> or <code>executor</code> */
+	@Param({ "off", "on", "executor" })
+	public String gzip;
+
+	/** the number of threads of the compression executor */
+	@Param({ "2" })
+	public int compressionThreads;
+
+	private byte[] data;
+	private List<Map<String, String>> fields;
+	private ExecutorService executor;
+
+	@Setup
+	public void setup() throws Exception {
+		StringBuilder sb = new StringBuilder("<docs>");
+		for (int i = 0; i < records; i++) {
+			sb.append("<doc><id>").append(i).append("</id><text>");
+			for (int j = 0; j < 50; j++)
+				sb.append("token").append((i * 31 + j) % 997).append(' ');
+			sb.append("</text></doc>");
+		}
+		data = sb.append("</docs>").toString().getBytes("UTF-8");
+
+		fields = new ArrayList<Map<String, String>>();
+		Map<String, String> field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "id");
+		field.put(JulieXMLConstants.XPATH, "id");
+		fields.add(field);
+		field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "text");
+		field.put(JulieXMLConstants.XPATH, "text");
+		field.put((String) JulieXMLConstants.GZIP, String.valueOf(!"off".equals(gzip)));
+		fields.add(field);
+
+		if ("executor".equals(gzip))
+			executor = Executors.newFixedThreadPool(compressionThreads);
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (executor != null)
+			executor.shutdown();
+	}
+
+	@Benchmark
+	public void extractRows(Blackhole bh) {
+		Iterator<Map<String, Object>> it = JulieXMLTools.constructRowIterator(data, 1024, "/docs/doc", fields,
+				"benchmark", executor);
+		while (it.hasNext())
+			bh.consume(it.next());
+	}
+}
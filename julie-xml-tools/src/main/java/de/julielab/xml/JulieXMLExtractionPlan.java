@@ -0,0 +1,339 @@
+/**
+ * JulieXMLExtractionPlan.java
+ *
+ * Copyright (c) 2026, JULIE Lab.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ *
+ * Current version: 1.0
+ * Since version:   1.0
+ *
+ * Creation date: 16.10.2026
+ **/
+
+package de.julielab.xml;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ximpleware.AutoPilot;
+import com.ximpleware.VTDException;
+import com.ximpleware.VTDGen;
+import com.ximpleware.VTDNav;
+
+/**
+ * A compiled form of a <code>forEach</code> XPath and a list of field definitions for extracting rows from many
+ * documents, e.g. from database blobs, one after the other.
+ * <p>
+ * {@link JulieXMLTools#constructRowIterator(byte[], int, String, List, String)} creates a new <code>VTDGen</code>,
+ * determines the namespaces of the document and compiles all XPath expressions for each document anew. An extraction
+ * plan does this work only once per thread: Each thread using the plan gets its own <code>VTDGen</code> whose buffers
+ * are reused for each document (see {@link VTDGen#setDoc_BR(byte[])}) and its own set of compiled
+ * <code>AutoPilot</code>s which are bound to the navigator of each new document. The XPaths are only recompiled if
+ * the namespace declarations of a document differ from those of the previous document.
+ * </p>
+ * <p>
+ * The plan itself is thread safe. The iterators it returns, however, are only valid until the same thread requests the
+ * next iterator from the plan since they share the parser and <code>AutoPilot</code>s of the thread.
+ * </p>
+ */
+public class JulieXMLExtractionPlan {
+
+	private static final Logger LOG = LoggerFactory.getLogger(JulieXMLExtractionPlan.class);
+
+	/**
+	 * Matches a namespace prefix in an XPath expression, i.e. a colon that is not part of an axis specifier.
+	 */
+	private static final Pattern NS_PREFIX = Pattern.compile("[\\w.-]:[\\w*]");
+
+	/**
+	 * The parser and compiled XPaths of one thread.
+	 */
+	private class Extractor {
+		private final VTDGen vg = new VTDGen();
+		private AutoPilot forEachPilot;
+		private Map<String, FieldValueSource> navigators;
+		private Map<String, String> compiledNamespaces;
+		/**
+		 * The value sources in the order of the plan's schema.
+		 */
+		private final FieldValueSource[] sources = new FieldValueSource[fieldNames.length];
+		private final JulieXMLRow row = new JulieXMLRow(fieldNames, fieldIndexes);
+		private boolean asynchronous;
+
+		public VTDNav parse(byte[] data) throws VTDException {
+			vg.setDoc_BR(data);
+			vg.parse(true);
+			return vg.getNav();
+		}
+
+		public Iterator<Map<String, Object>> rowIterator(VTDNav vn, String identifier) throws VTDException {
+			int startIndex = bind(vn, identifier);
+			return new RowIterator(forEachPilot, startIndex, navigators);
+		}
+
+		public boolean forEachRow(VTDNav vn, String identifier, JulieXMLRowVisitor visitor) throws VTDException {
+			Object[] values = row.values;
+			for (int index = bind(vn, identifier); index != -1; index = forEachPilot.evalXPath()) {
+				try {
+					for (int i = 0; i < sources.length; i++)
+						values[i] = sources[i].getFieldValue();
+					if (asynchronous) {
+						for (int i = 0; i < values.length; i++)
+							values[i] = JulieXMLTools.awaitCompression(values[i]);
+					}
+				} catch (VTDException e) {
+					throw e;
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new IllegalStateException("Could not extract the field values of document " + identifier, e);
+				}
+				if (!visitor.visit(row)) {
+					forEachPilot.resetXPath();
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Binds the compiled XPaths to <code>vn</code> and moves the forEach pilot to its first match.
+		 * 
+		 * @return The VTD index of the first match of the forEach XPath.
+		 */
+		private int bind(VTDNav vn, String identifier) throws VTDException {
+			Map<String, String> namespaces = namespaceMap;
+			if (namespaces == null)
+				namespaces = usesNamespaces ? JulieXMLTools.buildNamespaceMap(vn.duplicateNav()) : Collections
+						.<String, String> emptyMap();
+			if (forEachPilot == null || !namespaces.equals(compiledNamespaces)) {
+				forEachPilot = new AutoPilot(vn);
+				JulieXMLTools.declareNamespaces(forEachPilot, namespaces);
+				forEachPilot.selectXPath(forEachXpath);
+				navigators = JulieXMLTools.buildFieldValueSources(vn, namespaces, fields, identifier,
+						compressionExecutor);
+				compiledNamespaces = namespaces;
+			} else {
+				forEachPilot.resetXPath();
+				forEachPilot.bind(vn);
+				for (Map<String, String> field : fields) {
+					String fieldName = field.get(JulieXMLConstants.NAME);
+					FieldValueSource source = navigators.get(fieldName);
+					if (source instanceof XPathNavigator) {
+						((XPathNavigator) source).bind(vn);
+					} else if (source instanceof FileNameValueSource) {
+						String[] path = identifier.split("/");
+						navigators.put(fieldName, new FileNameValueSource(path[path.length - 1], field));
+					} else if (source instanceof TimestampValueSource) {
+						navigators.put(fieldName, new TimestampValueSource());
+					}
+				}
+			}
+			for (int i = 0; i < fieldNames.length; i++)
+				sources[i] = navigators.get(fieldNames[i]);
+			asynchronous = JulieXMLTools.compressesAsynchronously(navigators.values());
+			int startIndex = forEachPilot.evalXPath();
+			if (startIndex == -1)
+				LOG.info("Couldn't find XPath: " + forEachXpath + " in document " + identifier);
+			return startIndex;
+		}
+	}
+
+	private final String forEachXpath;
+	private final List<Map<String, String>> fields;
+	private final Map<String, String> namespaceMap;
+	private final boolean usesNamespaces;
+	private final String[] fieldNames;
+	private final Map<String, Integer> fieldIndexes;
+	private final ExecutorService compressionExecutor;
+
+	private final ThreadLocal<Extractor> extractors = new ThreadLocal<Extractor>() {
+		@Override
+		protected Extractor initialValue() {
+			return new Extractor();
+		}
+	};
+
+	/**
+	 * Creates a plan that determines the namespace declarations of each document if any of the XPath expressions uses
+	 * namespace prefixes.
+	 *
+	 * @param forEachXpath
+	 *            An XPath expression determining the XML elements for each of which one row should be created.
+	 * @param fields
+	 *            The fields to be returned with each data row. The list must not be changed after the creation of the
+	 *            plan.
+	 */
+	public JulieXMLExtractionPlan(String forEachXpath, List<Map<String, String>> fields) {
+		this(forEachXpath, fields, null);
+	}
+
+	/**
+	 * Creates a plan with fixed namespace declarations. The namespace declarations of the documents themselves are
+	 * ignored, which saves the namespace scan over each document.
+	 *
+	 * @param forEachXpath
+	 *            An XPath expression determining the XML elements for each of which one row should be created.
+	 * @param fields
+	 *            The fields to be returned with each data row. The list must not be changed after the creation of the
+	 *            plan.
+	 * @param namespaceMap
+	 *            A map from namespace prefixes used in the XPath expressions to namespace URIs; may be
+	 *            <code>null</code> to determine the namespaces from each document.
+	 */
+	public JulieXMLExtractionPlan(String forEachXpath, List<Map<String, String>> fields,
+			Map<String, String> namespaceMap) {
+		this(forEachXpath, fields, namespaceMap, null);
+	}
+
+	/**
+	 * Creates a plan with fixed namespace declarations that compresses the values of {@link JulieXMLConstants#GZIP}
+	 * fields on <code>compressionExecutor</code> while the XPath expressions of the next row are evaluated. The
+	 * executor is not shut down by the plan.
+	 *
+	 * @param forEachXpath
+	 *            An XPath expression determining the XML elements for each of which one row should be created.
+	 * @param fields
+	 *            The fields to be returned with each data row. The list must not be changed after the creation of the
+	 *            plan.
+	 * @param namespaceMap
+	 *            A map from namespace prefixes used in the XPath expressions to namespace URIs; may be
+	 *            <code>null</code> to determine the namespaces from each document.
+	 * @param compressionExecutor
+	 *            The executor to compress field values on or <code>null</code> to compress them on the calling thread.
+	 */
+	public JulieXMLExtractionPlan(String forEachXpath, List<Map<String, String>> fields,
+			Map<String, String> namespaceMap, ExecutorService compressionExecutor) {
+		this.compressionExecutor = compressionExecutor;
+		this.forEachXpath = forEachXpath;
+		this.fields = fields;
+		this.namespaceMap = namespaceMap;
+		boolean usesNamespaces = NS_PREFIX.matcher(forEachXpath.replace("::", "")).find();
+		for (Map<String, String> field : fields) {
+			for (String key : new String[] { JulieXMLConstants.XPATH, JulieXMLConstants.FOR_EACH }) {
+				String xpath = field.get(key);
+				if (xpath != null)
+					usesNamespaces |= NS_PREFIX.matcher(xpath.replace("::", "")).find();
+			}
+		}
+		this.usesNamespaces = usesNamespaces;
+
+		// the row schema: all fields that have a value source, in the order of their definition
+		fieldIndexes = new LinkedHashMap<String, Integer>();
+		for (Map<String, String> field : fields) {
+			String fieldName = field.get(JulieXMLConstants.NAME);
+			if (JulieXMLTools.hasValueSource(field) && !fieldIndexes.containsKey(fieldName))
+				fieldIndexes.put(fieldName, fieldIndexes.size());
+		}
+		fieldNames = fieldIndexes.keySet().toArray(new String[fieldIndexes.size()]);
+	}
+
+	/**
+	 * Parses <code>data</code> with the parser of the calling thread and returns the rows of the document.
+	 *
+	 * @param data
+	 *            Byte array containing an XML document.
+	 * @param identifier
+	 *            A string identifying the XML document in <code>data</code>, needed for error messages and
+	 *            {@link JulieXMLConstants#EXTRACT_FROM_FILENAME} fields.
+	 * @return An iterator over all rows extracted from <code>data</code>, valid until the calling thread uses this
+	 *         plan again.
+	 * @throws VTDException
+	 *             If the document cannot be parsed or an XPath expression is invalid.
+	 */
+	public Iterator<Map<String, Object>> rowIterator(byte[] data, String identifier) throws VTDException {
+		Extractor extractor = extractors.get();
+		return extractor.rowIterator(extractor.parse(data), identifier);
+	}
+
+	/**
+	 * Returns the rows of the document navigated by <code>vn</code>, using the compiled XPaths of the calling thread.
+	 *
+	 * @param vn
+	 *            The navigator over the XML document to retrieve records from. It should point to the document root.
+	 * @param identifier
+	 *            A string identifying the XML document, needed for error messages and
+	 *            {@link JulieXMLConstants#EXTRACT_FROM_FILENAME} fields.
+	 * @return An iterator over all rows extracted from the document, valid until the calling thread uses this plan
+	 *         again.
+	 * @throws VTDException
+	 *             If an XPath expression is invalid.
+	 */
+	public Iterator<Map<String, Object>> rowIterator(VTDNav vn, String identifier) throws VTDException {
+		return extractors.get().rowIterator(vn, identifier);
+	}
+
+	/**
+	 * Parses <code>data</code> with the parser of the calling thread and passes each row of the document to
+	 * <code>visitor</code>. In contrast to {@link #rowIterator(byte[], String)}, no objects are created per row: The
+	 * same {@link JulieXMLRow} object is passed to <code>visitor</code> for all rows.
+	 * 
+	 * @param data
+	 *            Byte array containing an XML document.
+	 * @param identifier
+	 *            A string identifying the XML document in <code>data</code>, needed for error messages and
+	 *            {@link JulieXMLConstants#EXTRACT_FROM_FILENAME} fields.
+	 * @param visitor
+	 *            The callback receiving the rows.
+	 * @return <code>false</code> if <code>visitor</code> stopped the extraction, <code>true</code> otherwise.
+	 * @throws VTDException
+	 *             If the document cannot be parsed or an XPath expression is invalid.
+	 */
+	public boolean forEachRow(byte[] data, String identifier, JulieXMLRowVisitor visitor) throws VTDException {
+		Extractor extractor = extractors.get();
+		return extractor.forEachRow(extractor.parse(data), identifier, visitor);
+	}
+
+	/**
+	 * Passes each row of the document navigated by <code>vn</code> to <code>visitor</code>, see
+	 * {@link #forEachRow(byte[], String, JulieXMLRowVisitor)}.
+	 * 
+	 * @param vn
+	 *            The navigator over the XML document to retrieve records from. It should point to the document root.
+	 * @param identifier
+	 *            A string identifying the XML document, needed for error messages and
+	 *            {@link JulieXMLConstants#EXTRACT_FROM_FILENAME} fields.
+	 * @param visitor
+	 *            The callback receiving the rows.
+	 * @return <code>false</code> if <code>visitor</code> stopped the extraction, <code>true</code> otherwise.
+	 * @throws VTDException
+	 *             If an XPath expression is invalid.
+	 */
+	public boolean forEachRow(VTDNav vn, String identifier, JulieXMLRowVisitor visitor) throws VTDException {
+		return extractors.get().forEachRow(vn, identifier, visitor);
+	}
+
+	/**
+	 * @param fieldName
+	 *            The name of a field.
+	 * @return The slot index of the field in the {@link JulieXMLRow}s of this plan or -1 if there is no such field.
+	 */
+	public int getFieldIndex(String fieldName) {
+		Integer index = fieldIndexes.get(fieldName);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * @return The names of the fields of the {@link JulieXMLRow}s of this plan, ordered by their slot index.
+	 */
+	public String[] getFieldNames() {
+		return fieldNames.clone();
+	}
+
+	public String getForEachXpath() {
+		return forEachXpath;
+	}
+
+	public List<Map<String, String>> getFields() {
+		return fields;
+	}
+}
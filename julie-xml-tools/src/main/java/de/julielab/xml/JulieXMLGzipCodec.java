@@ -0,0 +1,296 @@
+/**
+ * JulieXMLGzipCodec.java
+ *
+ * Copyright (c) 2026, JULIE Lab.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ *
+ * Current version: 1.0
+ * Since version:   1.0
+ *
+ * Creation date: 16.10.2026
+ **/
+
+package de.julielab.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import com.ximpleware.VTDNav;
+
+/**
+ * GZIP compression of byte arrays with pooled <code>Deflater</code>s and <code>Inflater</code>s. In contrast to
+ * <code>GZIPOutputStream</code> and <code>GZIPInputStream</code>, no native zlib stream is allocated per call and the
+ * output arrays are allocated with their final size in most cases: The compressed size is bounded like zlib's
+ * <code>deflateBound()</code> does, the decompressed size is read from the GZIP trailer.
+ * <p>
+ * Each call takes a zlib stream from the pool and returns it when it is done. The pool keeps at most
+ * {@link #MAX_IDLE} idle streams; surplus streams are <code>end()</code>ed right away, so the native memory does not
+ * depend on the number of threads that ever used the codec.
+ * </p>
+ * <p>
+ * The produced data is a standard GZIP member and can be read by <code>GZIPInputStream</code>.
+ * </p>
+ */
+class JulieXMLGzipCodec {
+
+	private static final int GZIP_MAGIC = 0x8b1f;
+	private static final int HEADER_SIZE = 10;
+	private static final int TRAILER_SIZE = 8;
+
+	// header flags
+	private static final int FHCRC = 2;
+	private static final int FEXTRA = 4;
+	private static final int FNAME = 8;
+	private static final int FCOMMENT = 16;
+
+	/**
+	 * The header written by <code>GZIPOutputStream</code>: magic number, deflate method, no flags, no modification
+	 * time, no extra flags, unknown operating system.
+	 */
+	private static final byte[] HEADER = new byte[] { (byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), Deflater.DEFLATED,
+			0, 0, 0, 0, 0, 0, 0 };
+
+	/**
+	 * The maximum number of idle zlib streams of each kind kept for reuse.
+	 */
+	static final int MAX_IDLE = 2 * Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * A bounded pool of zlib streams.
+	 */
+	static abstract class Pool<T> {
+		private final ConcurrentLinkedQueue<T> idle = new ConcurrentLinkedQueue<T>();
+		private final AtomicInteger numIdle = new AtomicInteger();
+
+		protected abstract T create();
+
+		protected abstract void end(T stream);
+
+		T acquire() {
+			T stream = idle.poll();
+			if (stream == null)
+				return create();
+			numIdle.decrementAndGet();
+			return stream;
+		}
+
+		/**
+		 * Returns a reset stream to the pool, or ends it if the pool is full.
+		 */
+		void release(T stream) {
+			if (numIdle.incrementAndGet() <= MAX_IDLE) {
+				idle.add(stream);
+			} else {
+				numIdle.decrementAndGet();
+				end(stream);
+			}
+		}
+
+		int numIdle() {
+			return numIdle.get();
+		}
+	}
+
+	static final Pool<Deflater> deflaters = new Pool<Deflater>() {
+		@Override
+		protected Deflater create() {
+			return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		}
+
+		@Override
+		protected void end(Deflater deflater) {
+			deflater.end();
+		}
+	};
+
+	static final Pool<Inflater> inflaters = new Pool<Inflater>() {
+		@Override
+		protected Inflater create() {
+			return new Inflater(true);
+		}
+
+		@Override
+		protected void end(Inflater inflater) {
+			inflater.end();
+		}
+	};
+
+	private JulieXMLGzipCodec() {
+	}
+
+	/**
+	 * @return An upper bound of the size of the GZIP compressed form of <code>length</code> bytes.
+	 */
+	static int gzipBound(int length) {
+		// deflateBound() of zlib for the default settings plus a safety margin for stored blocks
+		long bound = (long) length + (length >> 12) + (length >> 14) + (length >> 25) + 13 + 5 * (length / 16383 + 1);
+		return (int) Math.min(Integer.MAX_VALUE - 8, bound + HEADER_SIZE + TRAILER_SIZE);
+	}
+
+	/**
+	 * Compresses <code>data</code> into the GZIP format.
+	 */
+	static byte[] gzip(byte[] data) {
+		Deflater deflater = deflaters.acquire();
+		byte[] out = new byte[gzipBound(data.length)];
+		System.arraycopy(HEADER, 0, out, 0, HEADER_SIZE);
+		int pos = HEADER_SIZE;
+		try {
+			deflater.setInput(data);
+			deflater.finish();
+			while (!deflater.finished()) {
+				if (pos == out.length - TRAILER_SIZE)
+					out = Arrays.copyOf(out, out.length + (out.length >> 1) + TRAILER_SIZE);
+				pos += deflater.deflate(out, pos, out.length - TRAILER_SIZE - pos);
+			}
+		} finally {
+			deflater.reset();
+			deflaters.release(deflater);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		writeInt(out, pos, (int) crc.getValue());
+		writeInt(out, pos + 4, data.length);
+		pos += TRAILER_SIZE;
+		return pos == out.length ? out : Arrays.copyOf(out, pos);
+	}
+
+	/**
+	 * Decompresses GZIP data as produced by {@link #gzip(byte[])} or <code>GZIPOutputStream</code>.
+	 * 
+	 * @throws IOException
+	 *             If <code>gzipData</code> is not in the GZIP format or corrupt.
+	 */
+	static byte[] gunzip(byte[] gzipData) throws IOException {
+		if (gzipData.length < HEADER_SIZE + TRAILER_SIZE || readShort(gzipData, 0) != GZIP_MAGIC)
+			throw new ZipException("Not in GZIP format");
+		if (gzipData[2] != Deflater.DEFLATED)
+			throw new ZipException("Unsupported compression method");
+		int flags = gzipData[3] & 0xff;
+		int pos = HEADER_SIZE;
+		if ((flags & FEXTRA) != 0)
+			pos += 2 + readShort(gzipData, pos);
+		if ((flags & FNAME) != 0)
+			pos = skipZeroTerminated(gzipData, pos);
+		if ((flags & FCOMMENT) != 0)
+			pos = skipZeroTerminated(gzipData, pos);
+		if ((flags & FHCRC) != 0)
+			pos += 2;
+		if (pos > gzipData.length - TRAILER_SIZE)
+			throw new ZipException("Corrupt GZIP header");
+
+		// the trailer holds the uncompressed size modulo 2^32
+		int expectedSize = readInt(gzipData, gzipData.length - 4);
+		// deflate cannot compress better than about 1:1032, so don't trust larger sizes of corrupt trailers
+		long maxSize = Math.min(Integer.MAX_VALUE - 8, 1032L * gzipData.length);
+		byte[] out = new byte[expectedSize > 0 && expectedSize <= maxSize ? expectedSize : Math.max(64,
+				Math.min(gzipData.length * 4, (int) maxSize))];
+		int length = 0;
+		int remaining;
+		Inflater inflater = inflaters.acquire();
+		try {
+			inflater.setInput(gzipData, pos, gzipData.length - pos);
+			while (!inflater.finished()) {
+				if (length == out.length)
+					out = Arrays.copyOf(out, Math.max(64, out.length << 1));
+				int n = inflater.inflate(out, length, out.length - length);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					throw new ZipException("Unexpected end of GZIP data");
+				length += n;
+			}
+			remaining = inflater.getRemaining();
+		} catch (DataFormatException e) {
+			throw new ZipException(e.getMessage());
+		} finally {
+			inflater.reset();
+			inflaters.release(inflater);
+		}
+		if (remaining > TRAILER_SIZE) {
+			// concatenated GZIP members; leave these rare cases to the stream implementation
+			return JulieXMLTools.readStream(new GZIPInputStream(new ByteArrayInputStream(gzipData)), 1024);
+		}
+		if (remaining < TRAILER_SIZE)
+			throw new ZipException("Missing GZIP trailer");
+		CRC32 crc = new CRC32();
+		crc.update(out, 0, length);
+		int trailer = gzipData.length - TRAILER_SIZE;
+		if (readInt(gzipData, trailer) != (int) crc.getValue() || readInt(gzipData, trailer + 4) != length)
+			throw new ZipException("Corrupt GZIP trailer");
+		return length == out.length ? out : Arrays.copyOf(out, length);
+	}
+
+	/**
+	 * Compresses <code>data</code> on <code>executor</code>.
+	 * 
+	 * @return The pending compression which yields the compressed data.
+	 */
+	static PendingCompression gzipAsync(final byte[] data, ExecutorService executor) {
+		return new PendingCompression(executor.submit(new Callable<byte[]>() {
+			public byte[] call() {
+				return gzip(data);
+			}
+		}));
+	}
+
+	/**
+	 * A placeholder for a field value which is being compressed on the compression executor passed to
+	 * {@link JulieXMLTools#constructRowIterator(VTDNav, String, java.util.List, String, ExecutorService)}.
+	 * Placeholders never leave the row iterators, they are replaced by the compressed data by
+	 * {@link JulieXMLTools#awaitCompression(Object)}.
+	 */
+	static class PendingCompression {
+		private final Future<byte[]> future;
+
+		PendingCompression(Future<byte[]> future) {
+			this.future = future;
+		}
+
+		byte[] get() {
+			try {
+				return future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for the compression of a field value", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Compression of a field value failed", e.getCause());
+			}
+		}
+	}
+
+	private static int skipZeroTerminated(byte[] data, int pos) throws ZipException {
+		while (pos < data.length && data[pos] != 0)
+			++pos;
+		if (pos == data.length)
+			throw new ZipException("Corrupt GZIP header");
+		return pos + 1;
+	}
+
+	private static int readShort(byte[] data, int pos) {
+		return (data[pos] & 0xff) | ((data[pos + 1] & 0xff) << 8);
+	}
+
+	private static int readInt(byte[] data, int pos) {
+		return readShort(data, pos) | (readShort(data, pos + 2) << 16);
+	}
+
+	private static void writeInt(byte[] data, int pos, int value) {
+		data[pos] = (byte) value;
+		data[pos + 1] = (byte) (value >> 8);
+		data[pos + 2] = (byte) (value >> 16);
+		data[pos + 3] = (byte) (value >> 24);
+	}
+}
@@ -14,16 +14,27 @@
  **/
 
 /**
- * 
+ *
  */
 package de.julielab.xml;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.Pipe;
 import java.nio.channels.Pipe.SinkChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.ximpleware.extended.IByteBuffer;
 import com.ximpleware.extended.ParseExceptionHuge;
@@ -33,11 +44,31 @@ import com.ximpleware.extended.ParseExceptionHuge;
  * <code>XMLMemMappedBuffer<code> of VTD XML 2.11 and added <code>writeToPipe</code>
  * for having a method to get fragments of an XML document without writing these
  * fragments directly to a file.
- * 
+ * <p>
+ * In contrast to the original, all methods of <code>IByteBuffer</code> are
+ * implemented. Bulk reads ({@link #getBytes(int, int)},
+ * {@link #getFragment(long, long)}) copy directly from the mapped pages and may
+ * span page boundaries. Since the data is never copied to the Java heap as a
+ * whole, this buffer is the means of choice for XML files larger than 2GB. The
+ * mappings are released deterministically by {@link #close()}. Since touching
+ * an unmapped page crashes the JVM, <code>close()</code> must not be called
+ * while other threads still read from the buffer; the prefetching threads
+ * started by {@link #adviseSequential(long)} are stopped by
+ * <code>close()</code> itself.
+ * </p>
+ *
  * @author faessler
- * 
+ *
  */
-public class JulieXMLMemMappedBuffer implements IByteBuffer {
+public class JulieXMLMemMappedBuffer implements IByteBuffer, Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(JulieXMLMemMappedBuffer.class);
+
+	/**
+	 * The typical size of an operating system memory page, used to touch pages
+	 * for prefetching.
+	 */
+	private static final int OS_PAGE_SIZE = 4096;
 
 	MappedByteBuffer input[];
 	FileChannel fc;
@@ -45,8 +76,31 @@ public class JulieXMLMemMappedBuffer implements IByteBuffer {
 	String fn;
 	long length;
 
+	private final int pageShift;
+	private final int pageMask;
+	private final int pageSize;
+
+	/**
+	 * The threads started by {@link #adviseSequential(long)}, stopped before
+	 * the mappings are released.
+	 */
+	private final List<Thread> prefetchers = new ArrayList<Thread>();
+
 	public JulieXMLMemMappedBuffer() {
+		this(30);
+	}
 
+	/**
+	 * Only meant for testing, allows to use smaller pages than the default of
+	 * 1GB.
+	 *
+	 * @param pageShift
+	 *            The binary logarithm of the page size.
+	 */
+	JulieXMLMemMappedBuffer(int pageShift) {
+		this.pageShift = pageShift;
+		this.pageSize = 1 << pageShift;
+		this.pageMask = pageSize - 1;
 	}
 
 	public long length() {
@@ -54,7 +108,25 @@ public class JulieXMLMemMappedBuffer implements IByteBuffer {
 	}
 
 	public byte byteAt(long index) {
-		return input[(int) (index >> 30)].get((int) (index & 0x3fffffff));
+		// Called by the parser for every byte, so a closed buffer is noticed
+		// by the failed access rather than checked beforehand.
+		try {
+			return input[(int) (index >> pageShift)].get((int) (index & pageMask));
+		} catch (NullPointerException e) {
+			throw new IllegalStateException("The buffer of " + fn + " has been closed or no file has been read.");
+		}
+	}
+
+	/**
+	 * @return The mapped pages.
+	 * @throws IllegalStateException
+	 *             If the buffer has been closed.
+	 */
+	private MappedByteBuffer[] pages() {
+		MappedByteBuffer[] pages = input;
+		if (pages == null)
+			throw new IllegalStateException("The buffer of " + fn + " has been closed or no file has been read.");
+		return pages;
 	}
 
 	public void readFile(String fileName) throws java.io.IOException,
@@ -68,41 +140,92 @@ public class JulieXMLMemMappedBuffer implements IByteBuffer {
 		}
 		raf = new RandomAccessFile(fileName, "r");
 		fc = raf.getChannel();
-		int pageNumber = (int) (l >> 30) + (((l & 0x3fffffffL) == 0) ? 0 : 1);
+		int pageNumber = (int) (l >> pageShift) + (((l & pageMask) == 0) ? 0 : 1);
 
 		input = new MappedByteBuffer[pageNumber];
 		long l2 = 0;
 		for (int i = 0; i < pageNumber; i++) {
 			if (i < (pageNumber - 1)) {
-				// bufferArray[i] = new byte[1<<30];
-				input[i] = fc.map(FileChannel.MapMode.READ_ONLY, l2, 1 << 30);
-				l2 = l2 + (1 << 30);
+				input[i] = fc.map(FileChannel.MapMode.READ_ONLY, l2, pageSize);
+				l2 = l2 + pageSize;
 			} else {
-				// bufferArray[i] = new byte[(int)l];
 				input[i] = fc.map(FileChannel.MapMode.READ_ONLY, l2, l
-						- ((long) i << 30));
+						- ((long) i << pageShift));
 			}
-			// input[i] = new RandomAccessFile(fileName, "r").getChannel()
-			// .map(FileChannel.MapMode.READ_ONLY, 0,(1<<32)-1);
 		}
-		// if (fc!=null)
-		// fc.close();
-		// if (raf!=null)
-		// raf.close();
 	}
 
 	/**
-	 * NOt implemented yet
+	 * Returns the whole document as a byte array. This is only possible for
+	 * documents smaller than 2GB.
+	 *
+	 * @throws IllegalStateException
+	 *             If the document is too large to fit into a byte array.
 	 */
 	public byte[] getBytes() {
-		return null;
+		if (length > Integer.MAX_VALUE - 8)
+			throw new IllegalStateException("The document " + fn + " has " + length
+					+ " bytes and thus is too large to be returned as a byte array.");
+		return getBytes(0, (int) length);
 	}
 
 	/**
-	 * not implemented yet
+	 * Return a byte array filled with content from underlying byte storage.
+	 *
+	 * @param offset
+	 *            int bytes offset (not UTF char unit)
+	 * @param len
+	 *            int
+	 * @return byte[]
 	 */
 	public byte[] getBytes(int offset, int len) {
-		return (byte[]) null;
+		return getBytes((long) offset, len);
+	}
+
+	/**
+	 * Return a byte array filled with content from underlying byte storage. The
+	 * requested range may span multiple pages.
+	 *
+	 * @param offset
+	 *            bytes offset (not UTF char unit)
+	 * @param len
+	 *            number of bytes to return
+	 * @return byte[]
+	 */
+	public byte[] getBytes(long offset, int len) {
+		if (offset < 0 || len < 0 || offset + len > length)
+			throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + len)
+					+ ") exceeds the document of length " + length);
+		MappedByteBuffer[] pages = pages();
+		byte[] bytes = new byte[len];
+		int copied = 0;
+		while (copied < len) {
+			long position = offset + copied;
+			// Use a duplicate to leave the position of the shared page untouched.
+			ByteBuffer page = pages[(int) (position >> pageShift)].duplicate();
+			page.position((int) (position & pageMask));
+			int n = Math.min(len - copied, page.remaining());
+			page.get(bytes, copied, n);
+			copied += n;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns the XML fragment given by its offset and length, analogously to
+	 * {@link JulieXMLBuffer#getFragment(long, long)}.
+	 *
+	 * @param os
+	 *            bytes offset of the fragment
+	 * @param len
+	 *            length of the fragment in bytes
+	 * @return The bytes of the fragment.
+	 */
+	public byte[] getFragment(long os, long len) {
+		if (len > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("A fragment of " + len
+					+ " bytes is too large to be returned as a byte array.");
+		return getBytes(os, (int) len);
 	}
 
 	/**
@@ -111,11 +234,7 @@ public class JulieXMLMemMappedBuffer implements IByteBuffer {
 	 */
 	public void writeToFileOutputStream(java.io.FileOutputStream ost, long os,
 			long len) throws java.io.IOException {
-
-		FileChannel ostChannel = ost.getChannel();
-
-		fc.transferTo(os, len, ostChannel);
-
+		transferTo(os, len, ost.getChannel());
 	}
 
 	/**
@@ -127,7 +246,154 @@ public class JulieXMLMemMappedBuffer implements IByteBuffer {
 
 		SinkChannel sinkChannel = pipe.sink();
 
-		fc.transferTo(os, len, sinkChannel);
+		transferTo(os, len, sinkChannel);
+
+	}
 
+	/**
+	 * <code>FileChannel.transferTo</code> may transfer fewer bytes than
+	 * requested, so loop until the whole segment is written.
+	 */
+	private void transferTo(long os, long len, WritableByteChannel target) throws IOException {
+		if (fc == null)
+			throw new IllegalStateException("The buffer has been closed.");
+		while (len > 0) {
+			long transferred = fc.transferTo(os, len, target);
+			if (transferred <= 0)
+				throw new IOException("Could not transfer the segment at offset " + os + " of " + fn);
+			os += transferred;
+			len -= transferred;
+		}
+	}
+
+	/**
+	 * Hints that the given range of the document will be read soon, comparable
+	 * to <code>madvise(MADV_WILLNEED)</code>. The operating system pages of the
+	 * range are touched so that they are read from disk ahead of the actual
+	 * access, e.g. from a separate thread while the parser works on the
+	 * preceding part of the document.
+	 *
+	 * @param offset
+	 *            The offset of the range in bytes.
+	 * @param len
+	 *            The length of the range in bytes.
+	 * @return A value depending on the touched bytes; meaningless, only there
+	 *         to keep the JIT from optimizing the reads away.
+	 */
+	public int prefetch(long offset, long len) {
+		return prefetch(pages(), offset, len);
+	}
+
+	private int prefetch(MappedByteBuffer[] pages, long offset, long len) {
+		long end = Math.min(length, offset + len);
+		int sum = 0;
+		for (long i = Math.max(0, offset); i < end; i += OS_PAGE_SIZE)
+			sum += pages[(int) (i >> pageShift)].get((int) (i & pageMask));
+		return sum;
+	}
+
+	/**
+	 * Hints that the whole document will be read sequentially. Starts a daemon
+	 * thread that prefetches the document from the beginning in steps of
+	 * <code>chunkSize</code> bytes. The thread is stopped by {@link #close()}.
+	 *
+	 * @param chunkSize
+	 *            The number of bytes to prefetch in one step.
+	 * @return The started prefetching thread.
+	 */
+	public Thread adviseSequential(final long chunkSize) {
+		final MappedByteBuffer[] pages = pages();
+		// Small steps so that an interruption by close() is noticed soon.
+		final long step = Math.max(OS_PAGE_SIZE, Math.min(chunkSize, 1 << 20));
+		Thread prefetcher = new Thread("prefetcher-" + fn) {
+			@Override
+			public void run() {
+				int sum = 0;
+				for (long offset = 0; offset < length && !isInterrupted(); offset += step)
+					sum += prefetch(pages, offset, step);
+				LOG.trace("Prefetching of {} finished ({})", fn, sum);
+			}
+		};
+		prefetcher.setDaemon(true);
+		synchronized (prefetchers) {
+			prefetchers.add(prefetcher);
+		}
+		prefetcher.start();
+		return prefetcher;
+	}
+
+	/**
+	 * Stops the prefetching threads, releases the memory mappings and closes
+	 * the underlying file. Afterwards, all reading methods throw an
+	 * {@link IllegalStateException}.
+	 */
+	public void close() throws IOException {
+		MappedByteBuffer[] pages = input;
+		input = null;
+		stopPrefetchers();
+		if (pages != null) {
+			for (MappedByteBuffer page : pages)
+				unmap(page);
+		}
+		if (fc != null)
+			fc.close();
+		if (raf != null)
+			raf.close();
+		fc = null;
+		raf = null;
+	}
+
+	/**
+	 * Interrupts the prefetching threads and waits for them to end; the pages
+	 * must not be unmapped while they are read.
+	 */
+	private void stopPrefetchers() {
+		List<Thread> threads;
+		synchronized (prefetchers) {
+			threads = new ArrayList<Thread>(prefetchers);
+			prefetchers.clear();
+		}
+		boolean interrupted = false;
+		for (Thread prefetcher : threads) {
+			prefetcher.interrupt();
+			while (prefetcher.isAlive()) {
+				try {
+					prefetcher.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Java offers no API to release a memory mapping before the buffer is
+	 * garbage collected. Use the internal cleaner mechanism of the JDK if
+	 * available, else leave the mapping to the garbage collector.
+	 */
+	private static void unmap(MappedByteBuffer buffer) {
+		try {
+			// Java 9 and newer
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			invokeCleaner.invoke(theUnsafe.get(null), buffer);
+			return;
+		} catch (Exception e) {
+			// fall through to the Java 8 way
+		}
+		try {
+			Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer);
+			if (cleaner != null)
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+		} catch (Exception e) {
+			LOG.debug("Could not unmap memory mapped buffer, leaving it to the garbage collector: {}",
+					e.getMessage());
+		}
 	}
 }
@@ -0,0 +1,399 @@
+/**
+ * JulieXMLRecordSplitter.java
+ *
+ * Copyright (c) 2026, JULIE Lab.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ *
+ * Current version: 1.0
+ * Since version:   1.0
+ *
+ * Creation date: 16.10.2026
+ **/
+
+package de.julielab.xml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cuts an XML stream into the fragments that are matched by a <code>forEach</code> XPath expression without ever
+ * holding more than one record in memory.
+ * <p>
+ * The splitter works on the raw bytes of the stream and only recognizes as much of the XML syntax as is required to
+ * find element boundaries (tags, comments, CDATA sections, processing instructions and the document type
+ * declaration). It thus requires an ASCII compatible document encoding like UTF-8 or ISO-8859-1.
+ * </p>
+ * <p>
+ * Each fragment returned by {@link #next()} is a well-formed XML document consisting of the original XML declaration,
+ * the original document type declaration, the original start tags of all ancestors of the record element (including
+ * their attributes and namespace declarations), the record element itself and the closing tags of the ancestors. Thus,
+ * absolute XPath expressions pointing into the record element return the same values on the fragment as on the
+ * complete document, and entities declared in the internal subset of the document type declaration can be resolved
+ * by a parser that supports them. Note that VTD-XML, as used by {@link JulieXMLTools}, does not expand such custom
+ * entities; documents using them fail to parse there with or without splitting.
+ * </p>
+ * <p>
+ * Only the last location step of the <code>forEach</code> expression is used to detect record elements. If the
+ * expression is a simple absolute path, record elements are additionally required to appear at the depth given by the
+ * path. Otherwise, e.g. for expressions containing the descendant axis <code>//</code>, each element with the correct
+ * name is a record candidate. Predicates are not evaluated by the splitter but by the XPath evaluation on the
+ * fragments, which is why positional predicates on the record step are not supported.
+ * </p>
+ */
+public class JulieXMLRecordSplitter implements Iterator<byte[]> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(JulieXMLRecordSplitter.class);
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final InputStream is;
+	private final byte[] buffer;
+	private int pos;
+	private int limit;
+
+	private final String recordName;
+	private final int recordDepth;
+
+	/**
+	 * The raw start tags of the currently open elements outside of records.
+	 */
+	private final List<byte[]> ancestorTags = new ArrayList<byte[]>();
+	private final List<String> ancestorNames = new ArrayList<String>();
+	private byte[] xmlDeclaration;
+	private byte[] doctypeDeclaration;
+
+	private final ByteArrayOutputStream markup = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream fragment = new ByteArrayOutputStream();
+
+	private byte[] next;
+	private boolean finished;
+
+	/**
+	 * @param is
+	 *            The stream to read the XML document from. The stream is closed when its end is reached.
+	 * @param bufferSize
+	 *            Size of the read buffer.
+	 * @param forEachXpath
+	 *            An XPath expression determining the record elements.
+	 * @throws IllegalArgumentException
+	 *             If the last location step of <code>forEachXpath</code> does not select elements by name.
+	 */
+	public JulieXMLRecordSplitter(InputStream is, int bufferSize, String forEachXpath) {
+		this.is = is;
+		this.buffer = new byte[bufferSize];
+
+		String path = removePredicates(forEachXpath).trim();
+		String[] steps = path.split("/");
+		String lastStep = steps[steps.length - 1];
+		if (lastStep.length() == 0 || lastStep.equals("*") || lastStep.contains("::") || lastStep.startsWith("@")
+				|| lastStep.contains("(") || lastStep.equals(".") || lastStep.equals(".."))
+			throw new IllegalArgumentException("The forEach XPath expression \"" + forEachXpath
+					+ "\" does not select elements by name and cannot be used to split an XML stream into records.");
+		recordName = localName(lastStep);
+		if (path.startsWith("/") && !path.contains("//") && !path.contains("*") && !path.contains("|"))
+			recordDepth = steps.length - 1;
+		else
+			recordDepth = -1;
+	}
+
+	public boolean hasNext() {
+		if (next == null && !finished) {
+			try {
+				next = readRecord();
+			} catch (IOException e) {
+				LOG.error("Error while reading XML records: ", e);
+				finish();
+			}
+		}
+		return next != null;
+	}
+
+	public byte[] next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		byte[] ret = next;
+		next = null;
+		return ret;
+	}
+
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Reads the stream up to the end of the next record element.
+	 *
+	 * @return The next record, wrapped into its ancestors, or <code>null</code> if the stream is exhausted.
+	 * @throws IOException
+	 */
+	private byte[] readRecord() throws IOException {
+		int openElements = 0;
+		boolean inRecord = false;
+		while (skipText(inRecord)) {
+			markup.reset();
+			markup.write('<');
+			int type = readMarkup();
+			if (type == -1)
+				break;
+			if (inRecord) {
+				markup.writeTo(record);
+				if (type == START_TAG)
+					++openElements;
+				else if (type == END_TAG)
+					--openElements;
+				if (openElements == 0)
+					return buildFragment();
+				continue;
+			}
+			byte[] tag = markup.toByteArray();
+			switch (type) {
+			case START_TAG:
+			case EMPTY_TAG:
+				String name = tagName(tag);
+				if ((recordDepth == -1 || recordDepth == ancestorNames.size() + 1)
+						&& recordName.equals(localName(name))) {
+					record.reset();
+					record.write(tag, 0, tag.length);
+					if (type == EMPTY_TAG)
+						return buildFragment();
+					inRecord = true;
+					openElements = 1;
+				} else if (type == START_TAG) {
+					ancestorTags.add(tag);
+					ancestorNames.add(name);
+				}
+				break;
+			case END_TAG:
+				if (!ancestorNames.isEmpty()) {
+					ancestorTags.remove(ancestorTags.size() - 1);
+					ancestorNames.remove(ancestorNames.size() - 1);
+				}
+				break;
+			case PROCESSING_INSTRUCTION:
+				if (xmlDeclaration == null && ancestorNames.isEmpty() && tagName(tag).equals("?xml"))
+					xmlDeclaration = tag;
+				break;
+			case DOCTYPE_DECLARATION:
+				if (doctypeDeclaration == null && ancestorNames.isEmpty())
+					doctypeDeclaration = tag;
+				break;
+			default:
+				break;
+			}
+		}
+		if (inRecord)
+			LOG.warn("The XML stream ended within a record element; the incomplete record is discarded.");
+		finish();
+		return null;
+	}
+
+	private byte[] buildFragment() {
+		fragment.reset();
+		if (xmlDeclaration != null)
+			fragment.write(xmlDeclaration, 0, xmlDeclaration.length);
+		if (doctypeDeclaration != null)
+			fragment.write(doctypeDeclaration, 0, doctypeDeclaration.length);
+		for (byte[] ancestorTag : ancestorTags)
+			fragment.write(ancestorTag, 0, ancestorTag.length);
+		try {
+			record.writeTo(fragment);
+		} catch (IOException e) {
+			// cannot happen for ByteArrayOutputStreams
+			throw new IllegalStateException(e);
+		}
+		for (int i = ancestorNames.size() - 1; i >= 0; i--) {
+			byte[] endTag = ("</" + ancestorNames.get(i) + ">").getBytes(UTF8);
+			fragment.write(endTag, 0, endTag.length);
+		}
+		return fragment.toByteArray();
+	}
+
+	private static final int START_TAG = 0;
+	private static final int EMPTY_TAG = 1;
+	private static final int END_TAG = 2;
+	private static final int PROCESSING_INSTRUCTION = 3;
+	private static final int DOCTYPE_DECLARATION = 4;
+	private static final int OTHER = 5;
+
+	/**
+	 * Skips the character data up to the next '&lt;', copying it to {@link #record} if <code>inRecord</code> is set.
+	 * The data is scanned and copied in runs within the read buffer.
+	 *
+	 * @return <code>true</code> if a '&lt;' has been read, <code>false</code> if the stream ended before.
+	 * @throws IOException
+	 */
+	private boolean skipText(boolean inRecord) throws IOException {
+		while (true) {
+			if (pos == limit && !fill())
+				return false;
+			int start = pos;
+			while (pos < limit && buffer[pos] != '<')
+				++pos;
+			if (inRecord)
+				record.write(buffer, start, pos - start);
+			if (pos < limit) {
+				++pos;
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Reads the markup following a '&lt;' into {@link #markup}, up to and including the closing '&gt;'.
+	 *
+	 * @return The markup type or -1 if the stream ended within the markup.
+	 * @throws IOException
+	 */
+	private int readMarkup() throws IOException {
+		int b = read();
+		if (b == -1)
+			return -1;
+		markup.write(b);
+		if (b == '?')
+			return readUntil('?', 1) ? PROCESSING_INSTRUCTION : -1;
+		if (b == '!') {
+			b = read();
+			if (b == -1)
+				return -1;
+			markup.write(b);
+			if (b == '-')
+				return readUntil('-', 2) ? OTHER : -1;
+			if (b == '[')
+				return readUntil(']', 2) ? OTHER : -1;
+			// document type declaration, possibly with an internal subset
+			int brackets = 0;
+			int quote = 0;
+			while ((b = read()) != -1) {
+				markup.write(b);
+				if (quote != 0) {
+					if (b == quote)
+						quote = 0;
+				} else if (b == '"' || b == '\'')
+					quote = b;
+				else if (b == '[')
+					++brackets;
+				else if (b == ']')
+					--brackets;
+				else if (b == '>' && brackets == 0)
+					return DOCTYPE_DECLARATION;
+			}
+			return -1;
+		}
+		int type = b == '/' ? END_TAG : START_TAG;
+		int last = b;
+		int quote = 0;
+		// element tags make up most of the markup, so they are copied in runs
+		while (pos < limit || fill()) {
+			int start = pos;
+			while (pos < limit) {
+				b = buffer[pos++] & 0xff;
+				if (quote != 0) {
+					if (b == quote)
+						quote = 0;
+				} else if (b == '"' || b == '\'')
+					quote = b;
+				else if (b == '>') {
+					markup.write(buffer, start, pos - start);
+					return type == START_TAG && last == '/' ? EMPTY_TAG : type;
+				}
+				last = b;
+			}
+			markup.write(buffer, start, pos - start);
+		}
+		return -1;
+	}
+
+	/**
+	 * Reads into {@link #markup} until at least <code>count</code> times <code>c</code> followed by '&gt;' has been
+	 * read. Used for processing instructions, comments and CDATA sections ending with "?&gt;", "--&gt;" and
+	 * "]]&gt;", respectively.
+	 */
+	private boolean readUntil(int c, int count) throws IOException {
+		int b;
+		int run = 0;
+		while ((b = read()) != -1) {
+			markup.write(b);
+			if (b == '>' && run >= count)
+				return true;
+			run = b == c ? run + 1 : 0;
+		}
+		return false;
+	}
+
+	private int read() throws IOException {
+		if (pos == limit && !fill())
+			return -1;
+		return buffer[pos++] & 0xff;
+	}
+
+	/**
+	 * Refills the read buffer after all of its bytes have been consumed.
+	 *
+	 * @return <code>false</code> if the stream is exhausted.
+	 */
+	private boolean fill() throws IOException {
+		if (finished)
+			return false;
+		limit = is.read(buffer);
+		pos = 0;
+		if (limit <= 0) {
+			limit = 0;
+			return false;
+		}
+		return true;
+	}
+
+	private void finish() {
+		finished = true;
+		try {
+			is.close();
+		} catch (IOException e) {
+			LOG.warn("Could not close XML stream: ", e);
+		}
+	}
+
+	/**
+	 * @return The qualified name of the tag, processing instruction names are prefixed with '?', end tag names with
+	 *         '/'.
+	 */
+	private static String tagName(byte[] tag) {
+		int end = 1;
+		while (end < tag.length && tag[end] != ' ' && tag[end] != '\t' && tag[end] != '\n' && tag[end] != '\r'
+				&& tag[end] != '>' && !(tag[end] == '/' && end > 1))
+			++end;
+		if (end > 2 && tag[end - 1] == '?')
+			--end;
+		return new String(tag, 1, end - 1, UTF8);
+	}
+
+	private static String localName(String qName) {
+		int colon = qName.indexOf(':');
+		return colon == -1 ? qName : qName.substring(colon + 1);
+	}
+
+	private static String removePredicates(String xpath) {
+		StringBuilder sb = new StringBuilder();
+		int depth = 0;
+		for (int i = 0; i < xpath.length(); i++) {
+			char c = xpath.charAt(i);
+			if (c == '[')
+				++depth;
+			else if (c == ']')
+				--depth;
+			else if (depth == 0)
+				sb.append(c);
+		}
+		return sb.toString();
+	}
+}
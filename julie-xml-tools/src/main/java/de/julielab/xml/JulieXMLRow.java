@@ -0,0 +1,154 @@
+/**
+ * JulieXMLRow.java
+ *
+ * Copyright (c) 2026, JULIE Lab.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ *
+ * Current version: 1.0
+ * Since version:   1.0
+ *
+ * Creation date: 16.10.2026
+ **/
+
+package de.julielab.xml;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An array backed data row. The fields of the row are determined by the schema of a
+ * {@link JulieXMLExtractionPlan}: Each field has a fixed slot index which can be retrieved by
+ * {@link JulieXMLExtractionPlan#getFieldIndex(String)} once and then be used to access the field values of all rows
+ * without any hashing.
+ * <p>
+ * Rows passed to a {@link JulieXMLRowVisitor} are reused for the next row. Use {@link #toMap()} to keep a copy of the
+ * row values.
+ * </p>
+ */
+public class JulieXMLRow {
+
+	private final String[] fieldNames;
+	private final Map<String, Integer> fieldIndexes;
+	final Object[] values;
+
+	JulieXMLRow(String[] fieldNames, Map<String, Integer> fieldIndexes) {
+		this.fieldNames = fieldNames;
+		this.fieldIndexes = fieldIndexes;
+		this.values = new Object[fieldNames.length];
+	}
+
+	/**
+	 * @return The number of fields of this row.
+	 */
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * @param index
+	 *            The slot index of a field.
+	 * @return The name of the field at <code>index</code>.
+	 */
+	public String getFieldName(int index) {
+		return fieldNames[index];
+	}
+
+	/**
+	 * @param index
+	 *            The slot index of a field.
+	 * @return The value of the field at <code>index</code>.
+	 */
+	public Object getValue(int index) {
+		return values[index];
+	}
+
+	/**
+	 * @param fieldName
+	 *            The name of a field.
+	 * @return The value of the field with name <code>fieldName</code> or <code>null</code> if there is no such field.
+	 */
+	public Object getValue(String fieldName) {
+		Integer index = fieldIndexes.get(fieldName);
+		return index == null ? null : values[index];
+	}
+
+	/**
+	 * @return A <code>HashMap</code> holding a copy of the current values of this row, the same as the row iterators of
+	 *         {@link JulieXMLTools} return.
+	 */
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new HashMap<String, Object>(values.length * 4 / 3 + 1);
+		for (int i = 0; i < values.length; i++)
+			map.put(fieldNames[i], values[i]);
+		return map;
+	}
+
+	/**
+	 * @return A read-only <code>Map</code> view of this row which reflects the values of the row as they change.
+	 */
+	public Map<String, Object> asMap() {
+		return new AbstractMap<String, Object>() {
+
+			@Override
+			public Object get(Object key) {
+				return key instanceof String ? getValue((String) key) : null;
+			}
+
+			@Override
+			public boolean containsKey(Object key) {
+				return key instanceof String && fieldIndexes.containsKey(key);
+			}
+
+			@Override
+			public int size() {
+				return values.length;
+			}
+
+			@Override
+			public Set<Map.Entry<String, Object>> entrySet() {
+				return new AbstractSet<Map.Entry<String, Object>>() {
+
+					@Override
+					public Iterator<Map.Entry<String, Object>> iterator() {
+						return new Iterator<Map.Entry<String, Object>>() {
+							private int index = 0;
+
+							public boolean hasNext() {
+								return index < values.length;
+							}
+
+							public Map.Entry<String, Object> next() {
+								if (!hasNext())
+									throw new NoSuchElementException();
+								Map.Entry<String, Object> entry = new SimpleImmutableEntry<String, Object>(
+										fieldNames[index], values[index]);
+								++index;
+								return entry;
+							}
+
+							public void remove() {
+								throw new UnsupportedOperationException();
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return values.length;
+					}
+				};
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return toMap().toString();
+	}
+}
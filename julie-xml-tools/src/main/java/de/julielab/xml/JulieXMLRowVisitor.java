@@ -0,0 +1,28 @@
+/**
+ * JulieXMLRowVisitor.java
+ *
+ * Copyright (c) 2026, JULIE Lab.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ *
+ * Current version: 1.0
+ * Since version:   1.0
+ *
+ * Creation date: 16.10.2026
+ **/
+
+package de.julielab.xml;
+
+/**
+ * Callback for the rows extracted by {@link JulieXMLExtractionPlan#forEachRow(byte[], String, JulieXMLRowVisitor)}.
+ */
+public interface JulieXMLRowVisitor {
+	/**
+	 * Called for each extracted row.
+	 * 
+	 * @param row
+	 *            The current row. The row object is reused for the next row and must not be kept.
+	 * @return <code>false</code> to stop the extraction, <code>true</code> otherwise.
+	 */
+	public boolean visit(JulieXMLRow row);
+}
@@ -15,8 +15,7 @@
 
 package de.julielab.xml;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -25,13 +24,17 @@ import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.sql.Timestamp;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipInputStream;
 
 import org.apache.commons.lang3.StringUtils;
@@ -54,6 +57,7 @@ import com.ximpleware.extended.AutoPilotHuge;
 import com.ximpleware.extended.EOFExceptionHuge;
 import com.ximpleware.extended.EncodingExceptionHuge;
 import com.ximpleware.extended.EntityExceptionHuge;
+import com.ximpleware.extended.IByteBuffer;
 import com.ximpleware.extended.NavExceptionHuge;
 import com.ximpleware.extended.ParseExceptionHuge;
 import com.ximpleware.extended.VTDExceptionHuge;
@@ -62,6 +66,8 @@ import com.ximpleware.extended.VTDNavHuge;
 import com.ximpleware.extended.XPathEvalExceptionHuge;
 import com.ximpleware.extended.XPathParseExceptionHuge;
 
+import de.julielab.xml.JulieXMLGzipCodec.PendingCompression;
+
 /**
  * Utility class offering convenience methods.
  * 
@@ -90,7 +96,10 @@ public class JulieXMLTools {
 	 *            An XPath expression determining the XML elements to retrieve data records from.
 	 * @param fields
 	 *            List of attribute-value pairs determining the record fields returned by the iterator.
-	 * @return An iterator over all rows extracted from the XMl document pointed to by <code>fileName</code>.
+	 * @return An iterator over all rows extracted from the XMl document pointed to by <code>fileName</code>. If the file
+	 *         is read by the VTD-XML-Huge parser, the iterator maps the file into memory and is {@link Closeable}; it
+	 *         releases the mapping when all rows have been read, so an iterator that is not read to the end should be
+	 *         closed.
 	 */
 	public static Iterator<Map<String, Object>> constructRowIterator(String fileName, int bufferSize,
 			String forEachXpath, final List<Map<String, String>> fields, boolean largeFileSize) {
@@ -98,15 +107,7 @@ public class JulieXMLTools {
 			if (largeFileSize) {
 				return constructRowIteratorHuge(fileName, forEachXpath, fields);
 			} else {
-				InputStream is = null;
-				if (fileName.endsWith(".gz") || fileName.endsWith(".gzip")) {
-					is = new GZIPInputStream(new FileInputStream(fileName));
-				} else if (fileName.endsWith(".zip")) {
-					is = new ZipInputStream(new FileInputStream(fileName));
-					((ZipInputStream) is).getNextEntry();
-				} else {
-					is = new FileInputStream(fileName);
-				}
+				InputStream is = openInputStream(fileName);
 				VTDNav vn = getVTDNav(is, bufferSize);
 				return constructRowIterator(vn, forEachXpath, fields, fileName);
 			}
@@ -138,6 +139,129 @@ public class JulieXMLTools {
 		return null;
 	}
 
+	/**
+	 * Opens the file at <code>fileName</code>, decompressing it on the fly if the file name ends with ".gz", ".gzip" or
+	 * ".zip". For ZIP archives, the first entry is read.
+	 * 
+	 * @param fileName
+	 *            The file to open.
+	 * @return A stream over the (uncompressed) file contents.
+	 * @throws IOException
+	 */
+	private static InputStream openInputStream(String fileName) throws IOException {
+		InputStream is = null;
+		if (fileName.endsWith(".gz") || fileName.endsWith(".gzip")) {
+			is = new GZIPInputStream(new FileInputStream(fileName));
+		} else if (fileName.endsWith(".zip")) {
+			is = new ZipInputStream(new FileInputStream(fileName));
+			((ZipInputStream) is).getNextEntry();
+		} else {
+			is = new FileInputStream(fileName);
+		}
+		return is;
+	}
+
+	/**
+	 * Streaming counterpart of {@link #constructRowIterator(String, int, String, List, boolean)}.
+	 * 
+	 * <p>
+	 * Instead of reading and parsing the whole file at once, the file is cut into the record fragments determined by
+	 * <code>forEachXpath</code> which are then parsed one after the other. Thus, memory consumption is bounded by the
+	 * size of the largest record and the first rows are returned right away, regardless of the file size. For details
+	 * see {@link #constructStreamingRowIterator(InputStream, int, String, List, String)}.
+	 * 
+	 * @param fileName
+	 *            XML file to return data rows from, may be (g)zipped.
+	 * @param bufferSize
+	 *            Size of buffers while reading the file at <code>fileName</code>.
+	 * @param forEachXpath
+	 *            An XPath expression determining the XML elements to retrieve data records from.
+	 * @param fields
+	 *            List of attribute-value pairs determining the record fields returned by the iterator.
+	 * @return An iterator over all rows extracted from the XMl document pointed to by <code>fileName</code>.
+	 */
+	public static Iterator<Map<String, Object>> constructStreamingRowIterator(String fileName, int bufferSize,
+			String forEachXpath, List<Map<String, String>> fields) {
+		try {
+			InputStream is = openInputStream(fileName);
+			return constructStreamingRowIterator(is, bufferSize, forEachXpath, fields, fileName);
+		} catch (FileNotFoundException e) {
+			LOG.error(String.format("File %s could not be found.", fileName));
+			e.printStackTrace();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the same rows as {@link #constructRowIterator(VTDNav, String, List, String)} would for the whole document
+	 * read from <code>is</code> but never parses more than one record at a time.
+	 * 
+	 * <p>
+	 * The stream is split into the elements matched by <code>forEachXpath</code> by a {@link JulieXMLRecordSplitter}.
+	 * Each record is wrapped into the start tags of its ancestors so that the - absolute - <code>forEachXpath</code>
+	 * and the field XPaths can be evaluated unchanged on the record. As a consequence, field XPaths must point into the
+	 * record element; values outside of the record elements are not available in streaming mode. All other field
+	 * attributes, e.g. {@link JulieXMLConstants#RETURN_XML_FRAGMENT} or {@link JulieXMLConstants#GZIP}, work exactly
+	 * as for the non-streaming iterators.
+	 * </p>
+	 * 
+	 * @param is
+	 *            The stream to read the XML document from. It is closed when all rows have been read.
+	 * @param bufferSize
+	 *            Size of buffers while reading from <code>is</code>.
+	 * @param forEachXpath
+	 *            An XPath expression determining the XML elements for each of which one row should be created. Only
+	 *            the last location step is used to find the record elements in the stream, see
+	 *            {@link JulieXMLRecordSplitter}.
+	 * @param fields
+	 *            The fields to be returned with each data row.
+	 * @param identifier
+	 *            A string identifying the XML document in <code>is</code>, needed for error messages and
+	 *            {@link JulieXMLConstants#EXTRACT_FROM_FILENAME} fields.
+	 * @return An iterator over all rows extracted from the XMl document read from <code>is</code>.
+	 */
+	public static Iterator<Map<String, Object>> constructStreamingRowIterator(InputStream is, int bufferSize,
+			final String forEachXpath, final List<Map<String, String>> fields, final String identifier) {
+		final JulieXMLRecordSplitter splitter = new JulieXMLRecordSplitter(is, bufferSize, forEachXpath);
+		// All records share the same structure, so compile the XPaths only
+		// once and re-use the parser buffers.
+		final JulieXMLExtractionPlan plan = new JulieXMLExtractionPlan(forEachXpath, fields);
+		return new Iterator<Map<String, Object>>() {
+
+			private Iterator<Map<String, Object>> recordRows;
+
+			public boolean hasNext() {
+				while (recordRows == null || !recordRows.hasNext()) {
+					if (!splitter.hasNext())
+						return false;
+					byte[] record = splitter.next();
+					try {
+						// the rows of the last record have all been returned
+						// at this point so its parser state is not needed
+						// any more
+						recordRows = plan.rowIterator(record, identifier);
+					} catch (VTDException e) {
+						LOG.error("Error while parsing a record of document " + identifier + ": ", e);
+						recordRows = null;
+					}
+				}
+				return true;
+			}
+
+			public Map<String, Object> next() {
+				if (!hasNext())
+					return null;
+				return recordRows.next();
+			}
+
+			public void remove() {
+			}
+
+		};
+	}
+
 	/**
 	 * @param fileName
 	 * @param forEachXpath
@@ -154,13 +278,26 @@ public class JulieXMLTools {
 		if (fileName.endsWith(".gz") || fileName.endsWith(".gzip") || fileName.endsWith(".zip")) {
 			LOG.warn("File " + fileName + " seems to be (g)zipped - huge files must be uncompressed!");
 		}
-		JulieXMLBuffer buffer = new JulieXMLBuffer();
+		// Map the file into memory instead of reading it onto the heap; the
+		// mapping is released as soon as all rows have been read or the
+		// iterator is closed.
+		JulieXMLMemMappedBuffer buffer = new JulieXMLMemMappedBuffer();
 		buffer.readFile(fileName);
-		VTDGenHuge vg = new VTDGenHuge();
-		vg.setDoc(buffer);
-		vg.parse(true);
-		VTDNavHuge vn = vg.getNav();
-		return constructRowIterator(vn, forEachXpath, fields, fileName);
+		Iterator<Map<String, Object>> rowIterator = null;
+		try {
+			// The parser reads the whole file front to back, so read the pages
+			// from disk ahead of it.
+			buffer.adviseSequential(1 << 20);
+			VTDGenHuge vg = new VTDGenHuge();
+			vg.setDoc(buffer);
+			vg.parse(true);
+			VTDNavHuge vn = vg.getNav();
+			rowIterator = constructRowIterator(vn, forEachXpath, fields, fileName);
+		} finally {
+			if (rowIterator == null)
+				buffer.close();
+		}
+		return rowIterator == null ? null : new HugeRowIterator(rowIterator, buffer);
 	}
 
 	/**
@@ -181,15 +318,29 @@ public class JulieXMLTools {
 	 * @param identifier
 	 *            A string identifying the XML document in <code>data</code>, needed for error messages.
 	 * @return An iterator over all rows extracted from the XMl document pointed to by <code>fileName</code>.
+	 * @see JulieXMLExtractionPlan for repeatedly extracting rows from many small documents
 	 */
 	public static Iterator<Map<String, Object>> constructRowIterator(byte[] data, int bufferSize, String forEachXpath,
 			List<Map<String, String>> fields, String identifier) {
+		return constructRowIterator(data, bufferSize, forEachXpath, fields, identifier, null);
+	}
+
+	/**
+	 * Like {@link #constructRowIterator(byte[], int, String, List, String)} but compresses the values of
+	 * {@link JulieXMLConstants#GZIP} fields on <code>compressionExecutor</code>, see
+	 * {@link #constructRowIterator(VTDNav, String, List, String, ExecutorService)}.
+	 * 
+	 * @param compressionExecutor
+	 *            The executor to compress field values on or <code>null</code> to compress them on the calling thread.
+	 */
+	public static Iterator<Map<String, Object>> constructRowIterator(byte[] data, int bufferSize, String forEachXpath,
+			List<Map<String, String>> fields, String identifier, ExecutorService compressionExecutor) {
 		try {
 			VTDGen vg = new VTDGen();
 			vg.setDoc(data);
 			vg.parse(true);
 			VTDNav vn = vg.getNav();
-			return constructRowIterator(vn, forEachXpath, fields, identifier);
+			return constructRowIterator(vn, forEachXpath, fields, identifier, compressionExecutor);
 		} catch (ParseException e) {
 			LOG.error("Error while parsing document " + identifier);
 			e.printStackTrace();
@@ -358,9 +509,25 @@ public class JulieXMLTools {
 	 *            The fields to be returned with each data row.
 	 * @return An iterator over all rows extracted from the XMl document navigated by <code>vn</code>.
 	 */
-	public static Iterator<Map<String, Object>> constructRowIterator(final VTDNav vn, String forEachXpath,
-			final List<Map<String, String>> fields, String identifier) {
-		final AutoPilot ap = new AutoPilot(vn);
+	public static Iterator<Map<String, Object>> constructRowIterator(VTDNav vn, String forEachXpath,
+			List<Map<String, String>> fields, String identifier) {
+		return constructRowIterator(vn, forEachXpath, fields, identifier, null);
+	}
+
+	/**
+	 * Like {@link #constructRowIterator(VTDNav, String, List, String)} but compresses the values of
+	 * {@link JulieXMLConstants#GZIP} fields on <code>compressionExecutor</code> while the XPath expressions of the
+	 * next row are evaluated. The returned rows are exactly the same as without an executor.
+	 * <p>
+	 * The executor is not shut down by the iterator.
+	 * </p>
+	 * 
+	 * @param compressionExecutor
+	 *            The executor to compress field values on or <code>null</code> to compress them on the calling thread.
+	 */
+	public static Iterator<Map<String, Object>> constructRowIterator(VTDNav vn, String forEachXpath,
+			List<Map<String, String>> fields, String identifier, ExecutorService compressionExecutor) {
+		AutoPilot ap = new AutoPilot(vn);
 		try {
 			Map<String, String> namespaceMap = buildNamespaceMap(vn.duplicateNav());
 
@@ -371,95 +538,10 @@ public class JulieXMLTools {
 			if (startIndex == -1)
 				LOG.info("Couldn't find XPath: " + forEachXpath + " in document " + identifier);
 
-			final Map<String, FieldValueSource> navigators = new HashMap<String, FieldValueSource>();
-			for (Map<String, String> field : fields) {
-				String xPath = field.get(JulieXMLConstants.XPATH);
-				final Options options = new Options();
-				String fieldName = field.get(JulieXMLConstants.NAME);
-				if (xPath != null) {
-					AutoPilot pilot = new AutoPilot(vn);
-					AutoPilot pilotForEach = new AutoPilot(vn);
-					String fieldForEach = field.get(JulieXMLConstants.FOR_EACH);
-
-					declareNamespaces(pilot, namespaceMap);
-					declareNamespaces(pilotForEach, namespaceMap);
-
-					// Default: The XPath attribute directly holds the path to
-					// the desired value. The ForEachAP is the main navigator,
-					// so it must select the XPath if no specific ForEachXPath
-					// is given.
-					pilotForEach.selectXPath(xPath);
-					pilot.selectXPath(xPath);
-					if (fieldForEach != null) {
-						pilotForEach = new AutoPilot(vn);
-						pilotForEach.selectXPath(fieldForEach);
-					} else {
-						// If there is no ForEachXPath indeed, the ForEachAP
-						// always selects the path. The XPathAP is nearly
-						// unemployed now: It just needs to point to the spot
-						// the ForEachXPath navigated to.
-						pilot.selectXPath(".");
-					}
-
-					options.returnXMLFragment = Boolean.parseBoolean(field.get(JulieXMLConstants.RETURN_XML_FRAGMENT));
-					options.returnArray = Boolean.parseBoolean(field.get(JulieXMLConstants.RETURN_ARRAY));
-					// options.returnAttributeValue = xPath
-					// .matches(REGEX_XPATH_ATTR);
-					options.resolveEntities = Boolean.parseBoolean(field.get(JulieXMLConstants.RESOLVE_ENTITIES));
-					options.concatString = field.get(JulieXMLConstants.CONCAT_STRING);
-					if (options.concatString == null)
-						options.concatString = ",";
-					options.performGzip = Boolean.parseBoolean(field.get(JulieXMLConstants.GZIP));
-					navigators.put(fieldName, new XPathNavigator(vn, pilotForEach, pilot, options));
-				} else if (Boolean.parseBoolean(field.get(JulieXMLConstants.EXTRACT_FROM_FILENAME))) {
-					String[] path = identifier.split("/");
-					navigators.put(fieldName, new FileNameValueSource(path[path.length - 1], field));
-				} else if (Boolean.parseBoolean(field.get(JulieXMLConstants.TIMESTAMP))) {
-					navigators.put(fieldName, new TimestampValueSource());
-				} else {
-					LOG.warn("Field with name \""
-							+ fieldName
-							+ "\" does not define a source to get a value from (e.g. XML XPath or file name) and will not have imported any values.");
-				}
-			}
-
-			return new Iterator<Map<String, Object>>() {
-
-				int index = startIndex;
-
-				public boolean hasNext() {
-					return index != -1;
-				}
-
-				public Map<String, Object> next() {
-					if (!hasNext())
-						return null;
-					Map<String, Object> row = new HashMap<String, Object>();
-					try {
-						for (String fieldName : navigators.keySet()) {
-							FieldValueSource navi = navigators.get(fieldName);
-							Object fieldValue = navi.getFieldValue();
+			Map<String, FieldValueSource> navigators = buildFieldValueSources(vn, namespaceMap, fields, identifier,
+					compressionExecutor);
 
-							row.put(fieldName, fieldValue);
-						}
-						index = ap.evalXPath();
-						return row;
-					} catch (XPathEvalException e) {
-						e.printStackTrace();
-					} catch (NavException e) {
-						e.printStackTrace();
-					} catch (IOException e) {
-						e.printStackTrace();
-					} catch (Exception e) {
-						e.printStackTrace();
-					}
-					return null;
-				}
-
-				public void remove() {
-				}
-
-			};
+			return new RowIterator(ap, startIndex, navigators);
 		} catch (XPathEvalException e) {
 			e.printStackTrace();
 		} catch (NavException e) {
@@ -472,12 +554,193 @@ public class JulieXMLTools {
 		return null;
 	}
 
-	private static void declareNamespaces(AutoPilot ap, Map<String, String> namespaceMap) {
+	/**
+	 * Parallel counterpart of {@link #constructRowIterator(VTDNav, String, List, String)}.
+	 * 
+	 * <p>
+	 * The elements matched by <code>forEachXpath</code> are determined up front and split into chunks which are
+	 * processed by <code>numThreads</code> worker threads. Each worker extracts its rows from its own duplicate of
+	 * <code>vn</code> (see {@link VTDNav#duplicateNav()}) with its own set of <code>AutoPilot</code>s, so the workers
+	 * never share navigation state. The rows are exactly those that the single-threaded iterator returns for the same
+	 * arguments. If <code>ordered</code> is <code>true</code>, they are also returned in the same order; otherwise,
+	 * rows are returned chunk by chunk in the order in which the chunks are finished. As with the single-threaded
+	 * iterator, a row whose values cannot be extracted is logged and returned as <code>null</code>.
+	 * </p>
+	 * <p>
+	 * Only a bounded number of chunks is extracted ahead of the consumer of the iterator. The worker threads are
+	 * daemon threads which are shut down when the iterator is exhausted or fails. An iterator that is not read to the
+	 * end should be closed with {@link ParallelRowIterator#close()}.
+	 * </p>
+	 * 
+	 * @param vn
+	 *            The {@link VTDNav} object which navigates over the XML document to retrieve records from. The
+	 *            <code>forEachXpath</code> must select elements.
+	 * @param forEachXpath
+	 *            An XPath expression determining the XML elements for each of which one row should be created.
+	 * @param fields
+	 *            The fields to be returned with each data row.
+	 * @param identifier
+	 *            Used in error messages.
+	 * @param numThreads
+	 *            The number of worker threads.
+	 * @param ordered
+	 *            Whether the rows should be returned in document order.
+	 * @return An iterator over all rows extracted from the XMl document navigated by <code>vn</code>.
+	 */
+	public static ParallelRowIterator constructParallelRowIterator(VTDNav vn, String forEachXpath,
+			List<Map<String, String>> fields, String identifier, int numThreads, boolean ordered) {
+		return constructParallelRowIterator(vn, forEachXpath, fields, identifier, null, numThreads, ordered);
+	}
+
+	/**
+	 * Like {@link #constructParallelRowIterator(VTDNav, String, List, String, int, boolean)} but runs the extraction
+	 * on an executor of the caller, e.g. one that is shared by the iterators of many documents. The executor is not
+	 * shut down by the iterator.
+	 * 
+	 * @param executor
+	 *            The executor to extract the rows on, or <code>null</code> to create a pool owned by the iterator.
+	 * @param numThreads
+	 *            The number of threads of <code>executor</code> to use; the iterator keeps up to twice as many chunks
+	 *            in progress.
+	 */
+	public static ParallelRowIterator constructParallelRowIterator(VTDNav vn, String forEachXpath,
+			List<Map<String, String>> fields, String identifier, ExecutorService executor, int numThreads,
+			boolean ordered) {
+		try {
+			Map<String, String> namespaceMap = buildNamespaceMap(vn.duplicateNav());
+
+			VTDNav forEachNav = vn.duplicateNav();
+			AutoPilot ap = new AutoPilot(forEachNav);
+			declareNamespaces(ap, namespaceMap);
+			ap.selectXPath(forEachXpath);
+			int[] recordIndices = new int[64];
+			int numRecords = 0;
+			int index;
+			while ((index = ap.evalXPath()) != -1) {
+				if (numRecords == recordIndices.length)
+					recordIndices = Arrays.copyOf(recordIndices, numRecords * 2);
+				recordIndices[numRecords++] = index;
+			}
+			if (numRecords == 0)
+				LOG.info("Couldn't find XPath: " + forEachXpath + " in document " + identifier);
+
+			return new ParallelRowIterator(vn, namespaceMap, fields, identifier, recordIndices, numRecords,
+					executor, numThreads, ordered);
+		} catch (XPathParseException e) {
+			e.printStackTrace();
+		} catch (VTDException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the value sources for <code>fields</code>. All XPath based sources are bound to <code>vn</code> and
+	 * evaluate their XPath expressions relative to the current position of <code>vn</code>.
+	 * 
+	 * @param vn
+	 *            The navigator the field XPaths should be evaluated on.
+	 * @param namespaceMap
+	 *            Namespace prefixes and their URIs to declare for the field XPaths.
+	 * @param fields
+	 *            The field definitions.
+	 * @param identifier
+	 *            Used in error messages and for {@link JulieXMLConstants#EXTRACT_FROM_FILENAME} fields.
+	 * @param compressionExecutor
+	 *            The executor to compress the values of {@link JulieXMLConstants#GZIP} fields on, may be
+	 *            <code>null</code>.
+	 * @return A map from field names to the sources of the field values.
+	 * @throws VTDException
+	 */
+	static Map<String, FieldValueSource> buildFieldValueSources(VTDNav vn, Map<String, String> namespaceMap,
+			List<Map<String, String>> fields, String identifier, ExecutorService compressionExecutor)
+			throws VTDException {
+		Map<String, FieldValueSource> navigators = new HashMap<String, FieldValueSource>();
+		for (Map<String, String> field : fields) {
+			String xPath = field.get(JulieXMLConstants.XPATH);
+			final Options options = new Options();
+			String fieldName = field.get(JulieXMLConstants.NAME);
+			if (xPath != null) {
+				AutoPilot pilot = new AutoPilot(vn);
+				AutoPilot pilotForEach = new AutoPilot(vn);
+				String fieldForEach = field.get(JulieXMLConstants.FOR_EACH);
+
+				declareNamespaces(pilot, namespaceMap);
+				declareNamespaces(pilotForEach, namespaceMap);
+
+				// Default: The XPath attribute directly holds the path to
+				// the desired value. The ForEachAP is the main navigator,
+				// so it must select the XPath if no specific ForEachXPath
+				// is given.
+				pilotForEach.selectXPath(xPath);
+				pilot.selectXPath(xPath);
+				if (fieldForEach != null) {
+					pilotForEach = new AutoPilot(vn);
+					pilotForEach.selectXPath(fieldForEach);
+				} else {
+					// If there is no ForEachXPath indeed, the ForEachAP
+					// always selects the path. The XPathAP is nearly
+					// unemployed now: It just needs to point to the spot
+					// the ForEachXPath navigated to.
+					pilot.selectXPath(".");
+				}
+
+				options.returnXMLFragment = Boolean.parseBoolean(field.get(JulieXMLConstants.RETURN_XML_FRAGMENT));
+				options.returnArray = Boolean.parseBoolean(field.get(JulieXMLConstants.RETURN_ARRAY));
+				// options.returnAttributeValue = xPath
+				// .matches(REGEX_XPATH_ATTR);
+				options.resolveEntities = Boolean.parseBoolean(field.get(JulieXMLConstants.RESOLVE_ENTITIES));
+				options.concatString = field.get(JulieXMLConstants.CONCAT_STRING);
+				if (options.concatString == null)
+					options.concatString = ",";
+				options.performGzip = Boolean.parseBoolean(field.get(JulieXMLConstants.GZIP));
+				if (options.performGzip)
+					options.compressionExecutor = compressionExecutor;
+				navigators.put(fieldName, new XPathNavigator(vn, pilotForEach, pilot, options));
+			} else if (Boolean.parseBoolean(field.get(JulieXMLConstants.EXTRACT_FROM_FILENAME))) {
+				String[] path = identifier.split("/");
+				navigators.put(fieldName, new FileNameValueSource(path[path.length - 1], field));
+			} else if (Boolean.parseBoolean(field.get(JulieXMLConstants.TIMESTAMP))) {
+				navigators.put(fieldName, new TimestampValueSource());
+			} else {
+				LOG.warn("Field with name \""
+						+ fieldName
+						+ "\" does not define a source to get a value from (e.g. XML XPath or file name) and will not have imported any values.");
+			}
+		}
+		return navigators;
+	}
+
+	/**
+	 * Creates one data row by retrieving the values of all <code>navigators</code> at the current position of their
+	 * underlying navigator.
+	 */
+	static Map<String, Object> createRow(Map<String, FieldValueSource> navigators) throws Exception {
+		Map<String, Object> row = new HashMap<String, Object>(navigators.size() * 4 / 3 + 1);
+		for (Map.Entry<String, FieldValueSource> entry : navigators.entrySet()) {
+			Object fieldValue = entry.getValue().getFieldValue();
+
+			row.put(entry.getKey(), fieldValue);
+		}
+		return row;
+	}
+
+	/**
+	 * Returns whether a value source is created for <code>field</code> by
+	 * {@link #buildFieldValueSources(VTDNav, Map, List, String, ExecutorService)}.
+	 */
+	static boolean hasValueSource(Map<String, String> field) {
+		return field.get(JulieXMLConstants.XPATH) != null
+				|| Boolean.parseBoolean(field.get(JulieXMLConstants.EXTRACT_FROM_FILENAME))
+				|| Boolean.parseBoolean(field.get(JulieXMLConstants.TIMESTAMP));
+	}
+
+	static void declareNamespaces(AutoPilot ap, Map<String, String> namespaceMap) {
 		for (Map.Entry<String, String> entry : namespaceMap.entrySet())
 			ap.declareXPathNameSpace(entry.getKey(), entry.getValue());
 	}
 
-	private static Map<String, String> buildNamespaceMap(VTDNav vn) throws VTDException {
+	static Map<String, String> buildNamespaceMap(VTDNav vn) throws VTDException {
 		Map<String, String> namespaceMap = new HashMap<String, String>();
 
 		AutoPilot ap = new AutoPilot(vn);
@@ -577,26 +840,43 @@ public class JulieXMLTools {
 		return streamContent;
 	}
 
+	/**
+	 * Compresses <code>data</code> into the GZIP format. The <code>Deflater</code> used for compression is reused by
+	 * subsequent calls of the same thread.
+	 */
 	public static byte[] gzipData(byte[] data) {
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		try {
-			GZIPOutputStream os = new GZIPOutputStream(baos);
-			os.write(data);
-			os.close();
-			return baos.toByteArray();
-		} catch (UnsupportedEncodingException e) {
-			e.printStackTrace();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-		return null;
+		return JulieXMLGzipCodec.gzip(data);
 	}
 
+	/**
+	 * Decompresses GZIP data, e.g. field values extracted with the {@link JulieXMLConstants#GZIP} option. The
+	 * <code>Inflater</code> used for decompression is reused by subsequent calls of the same thread.
+	 */
 	public static byte[] unGzipData(byte[] gzipData) throws IOException {
-		ByteArrayInputStream bais = new ByteArrayInputStream(gzipData);
-		GZIPInputStream gzipInputStream = new GZIPInputStream(bais);
-		byte[] data = JulieXMLTools.readStream(gzipInputStream, 1024);
-		return data;
+		return JulieXMLGzipCodec.gunzip(gzipData);
+	}
+
+	/**
+	 * Returns the compressed data if <code>value</code> is being compressed on the compression executor, waiting for
+	 * the compression to finish, and <code>value</code> itself otherwise.
+	 */
+	static Object awaitCompression(Object value) {
+		if (value instanceof PendingCompression)
+			return ((PendingCompression) value).get();
+		return value;
+	}
+
+	/**
+	 * Returns whether one of the <code>navigators</code> compresses its values asynchronously so that the values
+	 * must be passed to {@link #awaitCompression(Object)} before a row is returned.
+	 */
+	static boolean compressesAsynchronously(Collection<FieldValueSource> navigators) {
+		for (FieldValueSource navigator : navigators) {
+			if (navigator instanceof AbstractFieldValueSource
+					&& ((AbstractFieldValueSource) navigator).compressesAsynchronously())
+				return true;
+		}
+		return false;
 	}
 
 	public static URL getSolrServerURL(String urlStr, boolean calledByCLI, Logger LOG) {
@@ -724,16 +1004,31 @@ interface FieldValueSource {
 }
 
 abstract class AbstractFieldValueSource implements FieldValueSource {
-	protected byte[] gzipContent(Object content) {
+	/**
+	 * Compresses <code>content</code>, on <code>executor</code> if it is not <code>null</code>. In the latter case,
+	 * the returned value is a {@link PendingCompression}.
+	 */
+	protected Object gzipContent(Object content, ExecutorService executor) {
 		try {
 			// TODO extend for array
-			if (content instanceof String)
-				return JulieXMLTools.gzipData(((String) content).getBytes("UTF-8"));
+			if (content instanceof String) {
+				byte[] data = ((String) content).getBytes("UTF-8");
+				if (executor != null)
+					return JulieXMLGzipCodec.gzipAsync(data, executor);
+				return JulieXMLTools.gzipData(data);
+			}
 		} catch (UnsupportedEncodingException e) {
 			e.printStackTrace();
 		}
 		return null;
 	}
+
+	/**
+	 * @return Whether the values of this source may be {@link PendingCompression}s.
+	 */
+	public boolean compressesAsynchronously() {
+		return false;
+	}
 }
 
 class ConstantFieldValueSource implements FieldValueSource {
@@ -776,6 +1071,134 @@ class Options {
 	public String concatString;
 	public boolean resolveEntities;
 	public boolean performGzip;
+	public ExecutorService compressionExecutor;
+}
+
+/**
+ * Returns one row for each match of the forEach <code>AutoPilot</code>. The field values are retrieved at the position
+ * the forEach <code>AutoPilot</code> moved the underlying navigator to.
+ */
+class RowIterator implements Iterator<Map<String, Object>> {
+
+	private final AutoPilot ap;
+	private final Map<String, FieldValueSource> navigators;
+	private int index;
+	/**
+	 * The number of rows created ahead while their values are being compressed on the compression executor.
+	 */
+	private static final int COMPRESSION_LOOKAHEAD = 64;
+
+	/**
+	 * Whether field values are compressed on the compression executor. Then, the rows for the next matches are
+	 * already created while the values of the current row are being compressed.
+	 */
+	private final boolean asynchronous;
+	private final Deque<Map<String, Object>> pendingRows = new ArrayDeque<Map<String, Object>>();
+
+	/**
+	 * @param ap
+	 *            The forEach <code>AutoPilot</code>, already moved to its first match.
+	 * @param startIndex
+	 *            The index of the first match of <code>ap</code>.
+	 * @param navigators
+	 *            The field value sources, bound to the same navigator as <code>ap</code>.
+	 */
+	public RowIterator(AutoPilot ap, int startIndex, Map<String, FieldValueSource> navigators) {
+		this.ap = ap;
+		this.index = startIndex;
+		this.navigators = navigators;
+		this.asynchronous = JulieXMLTools.compressesAsynchronously(navigators.values());
+	}
+
+	public boolean hasNext() {
+		return index != -1 || !pendingRows.isEmpty();
+	}
+
+	public Map<String, Object> next() {
+		if (!hasNext())
+			return null;
+		try {
+			if (asynchronous) {
+				while (index != -1 && pendingRows.size() < COMPRESSION_LOOKAHEAD)
+					pendingRows.add(createRow());
+				Map<String, Object> row = pendingRows.poll();
+				for (Map.Entry<String, Object> entry : row.entrySet())
+					entry.setValue(JulieXMLTools.awaitCompression(entry.getValue()));
+				return row;
+			}
+			return createRow();
+		} catch (XPathEvalException e) {
+			e.printStackTrace();
+		} catch (NavException e) {
+			e.printStackTrace();
+		} catch (IOException e) {
+			e.printStackTrace();
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	public void remove() {
+	}
+
+	/**
+	 * Creates the row for the current match and moves to the next match.
+	 */
+	private Map<String, Object> createRow() throws Exception {
+		Map<String, Object> row = JulieXMLTools.createRow(navigators);
+		index = ap.evalXPath();
+		return row;
+	}
+
+}
+
+/**
+ * Returns the rows of a file read by the VTD-XML-Huge parser and releases the memory mapping of the file when all rows
+ * have been read or when the iterator is closed.
+ */
+class HugeRowIterator implements Iterator<Map<String, Object>>, Closeable {
+
+	private final Iterator<Map<String, Object>> rowIterator;
+	private final JulieXMLMemMappedBuffer buffer;
+	private boolean closed = false;
+
+	public HugeRowIterator(Iterator<Map<String, Object>> rowIterator, JulieXMLMemMappedBuffer buffer) {
+		this.rowIterator = rowIterator;
+		this.buffer = buffer;
+	}
+
+	public boolean hasNext() {
+		boolean hasNext = !closed && rowIterator.hasNext();
+		if (!hasNext && !closed) {
+			try {
+				close();
+			} catch (IOException e) {
+				JulieXMLTools.LOG.warn("Could not close the buffer of an exhausted row iterator: ", e);
+			}
+		}
+		return hasNext;
+	}
+
+	public Map<String, Object> next() {
+		if (!hasNext())
+			return null;
+		return rowIterator.next();
+	}
+
+	public void remove() {
+	}
+
+	/**
+	 * Releases the memory mapping of the file. Afterwards, {@link #hasNext()} returns <code>false</code>.
+	 */
+	public void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		buffer.close();
+	}
+
 }
 
 /**
@@ -803,6 +1226,20 @@ class XPathNavigator extends AbstractFieldValueSource {
 		this.options = options;
 	}
 
+	/**
+	 * Binds this navigator to another document, keeping the compiled XPath expressions.
+	 * 
+	 * @param nv
+	 *            The navigator over the new document.
+	 */
+	public void bind(VTDNav nv) {
+		this.vn = nv;
+		apFE.resetXPath();
+		apFE.bind(nv);
+		apXP.resetXPath();
+		apXP.bind(nv);
+	}
+
 	public Object getFieldValue() throws XPathEvalException, NavException, NavException, IOException,
 			XPathEvalException {
 		List<String> retList = new ArrayList<String>();
@@ -828,11 +1265,16 @@ class XPathNavigator extends AbstractFieldValueSource {
 			else
 				retobj = retList.get(0);
 			if (options.performGzip)
-				return gzipContent(retobj);
+				return gzipContent(retobj, options.compressionExecutor);
 			return retobj;
 		}
 		return null;
 	}
+
+	@Override
+	public boolean compressesAsynchronously() {
+		return options.performGzip && options.compressionExecutor != null;
+	}
 }
 
 /**
@@ -874,22 +1316,21 @@ class XPathNavigatorHuge extends AbstractFieldValueSource {
 				// it is likely he wants it to be valid XML, so don't
 				// resolve
 				// entities.
-				try {
-					// getting the XML fragment in the VTD-XML-Huge version
-					// is a bit messy; we need to get the data storage
-					// object
-					// and write the required data into an OutputStream
-					// which
-					// we can read.
-					JulieXMLBuffer mb = (JulieXMLBuffer) vn.getXML();
-					byte[] fragmentBytes = mb.getFragment(offset, length);
+				// getting the XML fragment in the VTD-XML-Huge version
+				// is a bit messy; we need to get the data storage
+				// object and copy the required data from it.
+				IByteBuffer xml = vn.getXML();
+				if (xml instanceof JulieXMLMemMappedBuffer) {
+					byte[] fragmentBytes = ((JulieXMLMemMappedBuffer) xml).getFragment(offset, length);
 					retList.add(new String(fragmentBytes));
-				} catch (ClassCastException e) {
-					JulieXMLTools.LOG.error("Casting from com.ximpleware.extended.IByteBuffer to "
-							+ JulieXMLBuffer.class.getName() + " failed. You must pass an Instance of"
+				} else if (xml instanceof JulieXMLBuffer) {
+					byte[] fragmentBytes = ((JulieXMLBuffer) xml).getFragment(offset, length);
+					retList.add(new String(fragmentBytes));
+				} else {
+					JulieXMLTools.LOG.error("Cannot extract XML fragments from " + xml.getClass().getName()
+							+ ". You must pass an Instance of " + JulieXMLMemMappedBuffer.class.getName() + " or "
 							+ JulieXMLBuffer.class.getName()
 							+ " to the VTDGenHuge object which contains the XML data to be parsed.");
-					e.printStackTrace();
 				}
 			} else {
 				retList.add(apXP.evalXPathToString());
@@ -905,7 +1346,7 @@ class XPathNavigatorHuge extends AbstractFieldValueSource {
 				retobj = StringUtils.join(retList, options.concatString);
 			else retobj = retList.get(0);
 			if (options.performGzip)
-				return gzipContent(retobj);
+				return gzipContent(retobj, null);
 			return retobj;
 		}
 		
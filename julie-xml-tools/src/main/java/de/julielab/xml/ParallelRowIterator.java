@@ -0,0 +1,233 @@
+/**
+ * ParallelRowIterator.java
+ *
+ * Copyright (c) 2026, JULIE Lab.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ *
+ * Current version: 1.0
+ * Since version:   1.0
+ *
+ * Creation date: 16.10.2026
+ **/
+
+package de.julielab.xml;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ximpleware.VTDException;
+import com.ximpleware.VTDNav;
+
+/**
+ * Row iterator backing {@link JulieXMLTools#constructParallelRowIterator(VTDNav, String, List, String, int, boolean)}.
+ * <p>
+ * The VTD indices of all record elements are known in advance. They are cut into chunks that are submitted to a thread
+ * pool. At most <code>2 * numThreads</code> chunks are in progress or finished but not yet consumed at any time.
+ * </p>
+ * <p>
+ * The iterator either owns its thread pool or uses an executor given by the caller. An owned pool is shut down when
+ * the iterator is exhausted, when the extraction fails or when {@link #close()} is called; its threads also terminate
+ * when they have been idle for a minute, so an abandoned iterator does not keep them forever. An executor given by the
+ * caller is never shut down, {@link #close()} only cancels the chunks still pending.
+ * </p>
+ */
+public class ParallelRowIterator implements Iterator<Map<String, Object>>, Closeable {
+
+	/**
+	 * The navigator and field value sources for one worker. An extractor is only ever used by one thread at a time.
+	 */
+	private class RowExtractor {
+		private final VTDNav nav;
+		private final Map<String, FieldValueSource> navigators;
+
+		public RowExtractor() throws VTDException {
+			nav = vn.duplicateNav();
+			// the workers already run in parallel, so they compress their values themselves
+			navigators = JulieXMLTools.buildFieldValueSources(nav, namespaceMap, fields, identifier, null);
+		}
+
+		public List<Map<String, Object>> extract(int from, int to) {
+			List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>(to - from);
+			for (int i = from; i < to; i++) {
+				try {
+					nav.recoverNode(recordIndices[i]);
+					rows.add(JulieXMLTools.createRow(navigators));
+				} catch (Exception e) {
+					JulieXMLTools.LOG.error("Error while extracting the row for the element with VTD index "
+							+ recordIndices[i] + " in document " + identifier + ": ", e);
+					// like the sequential RowIterator, keep the position of the failed row
+					rows.add(null);
+				}
+			}
+			return rows;
+		}
+	}
+
+	private static final AtomicInteger poolNumber = new AtomicInteger();
+
+	private final VTDNav vn;
+	private final Map<String, String> namespaceMap;
+	private final List<Map<String, String>> fields;
+	private final String identifier;
+	private final int[] recordIndices;
+	private final int numRecords;
+	private final int chunkSize;
+	private final int maxChunksAhead;
+	private final boolean ordered;
+
+	private final ExecutorService executor;
+	private final boolean ownsExecutor;
+	private final CompletionService<List<Map<String, Object>>> completionService;
+	private final Queue<RowExtractor> idleExtractors = new ConcurrentLinkedQueue<RowExtractor>();
+	/**
+	 * The submitted but not yet consumed chunks in submission order.
+	 */
+	private final Deque<Future<List<Map<String, Object>>>> pendingChunks = new ArrayDeque<Future<List<Map<String, Object>>>>();
+	private int numPendingChunks;
+	private int nextChunkStart;
+
+	private Iterator<Map<String, Object>> currentChunk = Collections.<Map<String, Object>> emptyList().iterator();
+
+	/**
+	 * @param executor
+	 *            The executor to run the extraction on or <code>null</code> to create a pool of
+	 *            <code>numThreads</code> threads owned by this iterator.
+	 */
+	ParallelRowIterator(VTDNav vn, Map<String, String> namespaceMap, List<Map<String, String>> fields,
+			String identifier, int[] recordIndices, int numRecords, ExecutorService executor, int numThreads,
+			boolean ordered) {
+		if (numThreads < 1)
+			throw new IllegalArgumentException("The number of threads must be positive but was " + numThreads);
+		this.vn = vn;
+		this.namespaceMap = namespaceMap;
+		this.fields = fields;
+		this.identifier = identifier;
+		this.recordIndices = recordIndices;
+		this.numRecords = numRecords;
+		this.ordered = ordered;
+		// several chunks per thread for load balancing, but not too small to keep the overhead low
+		this.chunkSize = Math.max(16, Math.min(1000, numRecords / (numThreads * 8)));
+		this.maxChunksAhead = 2 * numThreads;
+
+		this.ownsExecutor = executor == null;
+		this.executor = ownsExecutor ? createPool(numThreads) : executor;
+		this.completionService = new ExecutorCompletionService<List<Map<String, Object>>>(this.executor);
+		submitChunks();
+	}
+
+	private static ExecutorService createPool(int numThreads) {
+		final int poolId = poolNumber.incrementAndGet();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(numThreads, numThreads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+					private final AtomicInteger threadNumber = new AtomicInteger();
+
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "julie-xml-row-extractor-" + poolId + "-"
+								+ threadNumber.incrementAndGet());
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	private void submitChunks() {
+		while (numPendingChunks < maxChunksAhead && nextChunkStart < numRecords) {
+			final int from = nextChunkStart;
+			final int to = Math.min(numRecords, from + chunkSize);
+			Callable<List<Map<String, Object>>> task = new Callable<List<Map<String, Object>>>() {
+				public List<Map<String, Object>> call() throws Exception {
+					RowExtractor extractor = idleExtractors.poll();
+					if (extractor == null)
+						extractor = new RowExtractor();
+					try {
+						return extractor.extract(from, to);
+					} finally {
+						idleExtractors.add(extractor);
+					}
+				}
+			};
+			// the completion service would keep finished chunks in its queue, so only use it when it is actually
+			// used to take the chunks
+			pendingChunks.add(ordered ? executor.submit(task) : completionService.submit(task));
+			++numPendingChunks;
+			nextChunkStart = to;
+		}
+		if (numPendingChunks == 0 && ownsExecutor)
+			executor.shutdown();
+	}
+
+	public boolean hasNext() {
+		while (!currentChunk.hasNext()) {
+			if (numPendingChunks == 0)
+				return false;
+			try {
+				Future<List<Map<String, Object>>> chunk;
+				if (ordered) {
+					chunk = pendingChunks.poll();
+				} else {
+					chunk = completionService.take();
+					pendingChunks.remove(chunk);
+				}
+				currentChunk = chunk.get().iterator();
+			} catch (InterruptedException e) {
+				close();
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for rows of document " + identifier, e);
+			} catch (ExecutionException e) {
+				close();
+				throw new IllegalStateException("Row extraction failed for document " + identifier, e.getCause());
+			}
+			--numPendingChunks;
+			submitChunks();
+		}
+		return true;
+	}
+
+	public Map<String, Object> next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		return currentChunk.next();
+	}
+
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Stops the extraction. Rows that have already been extracted but not returned are discarded, {@link #hasNext()}
+	 * returns <code>false</code> afterwards.
+	 */
+	public void close() {
+		for (Future<List<Map<String, Object>>> chunk : pendingChunks)
+			chunk.cancel(true);
+		pendingChunks.clear();
+		numPendingChunks = 0;
+		nextChunkStart = numRecords;
+		currentChunk = Collections.<Map<String, Object>> emptyList().iterator();
+		if (ownsExecutor)
+			executor.shutdownNow();
+	}
+}
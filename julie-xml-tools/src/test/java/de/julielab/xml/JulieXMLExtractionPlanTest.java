@@ -0,0 +1,129 @@
+/**
+ * JulieXMLExtractionPlanTest.java
+ *
+ * Copyright (c) 2026, JULIE Lab.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ *
+ * Current version: 1.0
+ * Since version:   1.0
+ *
+ * Creation date: 16.10.2026
+ **/
+
+package de.julielab.xml;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for the JulieXMLExtractionPlan class.
+ */
+public class JulieXMLExtractionPlanTest {
+
+	private static List<Map<String, Object>> toList(Iterator<Map<String, Object>> it) {
+		List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+		while (it.hasNext())
+			rows.add(it.next());
+		return rows;
+	}
+
+	@Test
+	public void testRepeatedExtraction() throws Exception {
+		String[] documents = new String[] {
+				"<docs xmlns:m=\"http://m\"><doc><id>1</id><m:title>a</m:title></doc><doc><id>2</id></doc></docs>",
+				"<docs xmlns:m=\"http://m\"><doc><id>3</id><m:title>b</m:title><m:title>c</m:title></doc></docs>",
+				"<docs xmlns:m=\"http://m\"><other/></docs>",
+				// another namespace for the same prefix requires recompilation
+				"<docs xmlns:m=\"http://n\"><doc><id>4</id><m:title>d</m:title></doc></docs>",
+				"<docs xmlns:m=\"http://m\"><doc><id>5</id><m:title>e</m:title></doc></docs>" };
+
+		List<Map<String, String>> fields = new ArrayList<Map<String, String>>();
+		Map<String, String> field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "id");
+		field.put(JulieXMLConstants.XPATH, "id");
+		fields.add(field);
+		field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "title");
+		field.put(JulieXMLConstants.XPATH, "m:title");
+		fields.add(field);
+		field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "file");
+		field.put(JulieXMLConstants.EXTRACT_FROM_FILENAME, "true");
+		field.put(JulieXMLConstants.REGEX, "\\.xml");
+		field.put(JulieXMLConstants.REPLACE_WITH, "");
+		fields.add(field);
+
+		JulieXMLExtractionPlan plan = new JulieXMLExtractionPlan("/docs/doc", fields);
+		int numRows = 0;
+		for (int i = 0; i < documents.length; i++) {
+			byte[] data = documents[i].getBytes("UTF-8");
+			String identifier = "dir/doc" + i + ".xml";
+			List<Map<String, Object>> expected = toList(JulieXMLTools.constructRowIterator(data, 1024, "/docs/doc",
+					fields, identifier));
+			List<Map<String, Object>> actual = toList(plan.rowIterator(data, identifier));
+			assertEquals(expected, actual);
+			numRows += actual.size();
+		}
+		assertEquals(5, numRows);
+	}
+
+	@Test
+	public void testForEachRow() throws Exception {
+		byte[] data = "<docs><doc><id>1</id><title>a</title></doc><doc><id>2</id></doc><doc><id>3</id></doc></docs>"
+				.getBytes("UTF-8");
+		List<Map<String, String>> fields = new ArrayList<Map<String, String>>();
+		Map<String, String> field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "id");
+		field.put(JulieXMLConstants.XPATH, "id");
+		fields.add(field);
+		field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "title");
+		field.put(JulieXMLConstants.XPATH, "title");
+		fields.add(field);
+		field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "nosource");
+		fields.add(field);
+
+		JulieXMLExtractionPlan plan = new JulieXMLExtractionPlan("/docs/doc", fields);
+		assertArrayEquals(new String[] { "id", "title" }, plan.getFieldNames());
+		assertEquals(1, plan.getFieldIndex("title"));
+		assertEquals(-1, plan.getFieldIndex("nosource"));
+
+		final List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+		final int idIndex = plan.getFieldIndex("id");
+		boolean completed = plan.forEachRow(data, "doc.xml", new JulieXMLRowVisitor() {
+			public boolean visit(JulieXMLRow row) {
+				assertEquals(row.getValue("id"), row.getValue(idIndex));
+				assertEquals(row.toMap(), row.asMap());
+				assertNull(row.asMap().get(Integer.valueOf(0)));
+				assertFalse(row.asMap().containsKey(Integer.valueOf(0)));
+				assertNull(row.asMap().get("nosuchfield"));
+				rows.add(row.toMap());
+				return true;
+			}
+		});
+		assertTrue(completed);
+		assertEquals(toList(JulieXMLTools.constructRowIterator(data, 1024, "/docs/doc", fields, "doc.xml")), rows);
+
+		// stopping the extraction
+		rows.clear();
+		completed = plan.forEachRow(data, "doc.xml", new JulieXMLRowVisitor() {
+			public boolean visit(JulieXMLRow row) {
+				rows.add(row.toMap());
+				return rows.size() < 2;
+			}
+		});
+		assertFalse(completed);
+		assertEquals(2, rows.size());
+		// the plan must be usable again after stopping
+		assertEquals(3, toList(plan.rowIterator(data, "doc.xml")).size());
+	}
+}
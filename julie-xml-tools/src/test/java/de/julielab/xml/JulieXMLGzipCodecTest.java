@@ -0,0 +1,135 @@
+/**
+ * JulieXMLGzipCodecTest.java
+ *
+ * Copyright (c) 2026, JULIE Lab.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ *
+ * Current version: 1.0
+ * Since version:   1.0
+ *
+ * Creation date: 16.10.2026
+ **/
+
+package de.julielab.xml;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+/**
+ * Tests for the JulieXMLGzipCodec class.
+ */
+public class JulieXMLGzipCodecTest {
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		Random random = new Random(1);
+		byte[] incompressible = new byte[100000];
+		random.nextBytes(incompressible);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 10000; i++)
+			sb.append("<e>").append(i % 17).append("</e>");
+		byte[][] inputs = new byte[][] { new byte[0], "a".getBytes("UTF-8"), sb.toString().getBytes("UTF-8"),
+				incompressible };
+		for (byte[] input : inputs) {
+			byte[] compressed = JulieXMLTools.gzipData(input);
+			assertArrayEquals(input, JulieXMLTools.unGzipData(compressed));
+			// compatibility with the JDK streams in both directions
+			assertArrayEquals(input, JulieXMLTools.readStream(new GZIPInputStream(new ByteArrayInputStream(
+					compressed)), 1024));
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			GZIPOutputStream os = new GZIPOutputStream(baos);
+			os.write(input);
+			os.close();
+			assertArrayEquals(input, JulieXMLTools.unGzipData(baos.toByteArray()));
+		}
+		// concatenated members
+		byte[] first = JulieXMLTools.gzipData("ab".getBytes("UTF-8"));
+		byte[] second = JulieXMLTools.gzipData("cd".getBytes("UTF-8"));
+		byte[] concatenated = new byte[first.length + second.length];
+		System.arraycopy(first, 0, concatenated, 0, first.length);
+		System.arraycopy(second, 0, concatenated, first.length, second.length);
+		assertEquals("abcd", new String(JulieXMLTools.unGzipData(concatenated), "UTF-8"));
+	}
+
+	@Test
+	public void testAsynchronousCompression() throws Exception {
+		StringBuilder sb = new StringBuilder("<docs>");
+		for (int i = 0; i < 100; i++)
+			sb.append("<doc><id>").append(i).append("</id><text>text of document ").append(i)
+					.append("</text></doc>");
+		byte[] data = sb.append("</docs>").toString().getBytes("UTF-8");
+		List<Map<String, String>> fields = new ArrayList<Map<String, String>>();
+		Map<String, String> field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "id");
+		field.put(JulieXMLConstants.XPATH, "id");
+		fields.add(field);
+		field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "text");
+		field.put(JulieXMLConstants.XPATH, "text");
+		field.put((String) JulieXMLConstants.GZIP, "true");
+		fields.add(field);
+
+		List<Map<String, Object>> expected = toList(JulieXMLTools.constructRowIterator(data, 1024, "/docs/doc",
+				fields, "test"));
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Map<String, Object>> actual = toList(JulieXMLTools.constructRowIterator(data, 1024, "/docs/doc",
+					fields, "test", executor));
+			assertEquals(expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).get("id"), actual.get(i).get("id"));
+				assertArrayEquals((byte[]) expected.get(i).get("text"), (byte[]) actual.get(i).get("text"));
+				assertEquals("text of document " + i,
+						new String(JulieXMLTools.unGzipData((byte[]) actual.get(i).get("text")), "UTF-8"));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testPoolIsBounded() throws Exception {
+		final byte[] data = "<doc>pooled</doc>".getBytes("UTF-8");
+		Thread[] threads = new Thread[JulieXMLGzipCodec.MAX_IDLE * 2];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				public void run() {
+					try {
+						for (int j = 0; j < 100; j++)
+							assertArrayEquals(data, JulieXMLGzipCodec.gunzip(JulieXMLGzipCodec.gzip(data)));
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertTrue(JulieXMLGzipCodec.deflaters.numIdle() <= JulieXMLGzipCodec.MAX_IDLE);
+		assertTrue(JulieXMLGzipCodec.inflaters.numIdle() <= JulieXMLGzipCodec.MAX_IDLE);
+		assertTrue(JulieXMLGzipCodec.deflaters.numIdle() > 0);
+	}
+
+	private static List<Map<String, Object>> toList(Iterator<Map<String, Object>> it) {
+		List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+		while (it.hasNext())
+			rows.add(it.next());
+		return rows;
+	}
+}
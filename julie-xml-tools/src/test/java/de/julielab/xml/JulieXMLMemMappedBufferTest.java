@@ -0,0 +1,123 @@
+/**
+ * JulieXMLMemMappedBufferTest.java
+ *
+ * Copyright (c) 2026, JULIE Lab.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ *
+ * Current version: 1.0
+ * Since version:   1.0
+ *
+ * Creation date: 16.10.2026
+ **/
+
+package de.julielab.xml;
+
+import static org.junit.Assert.*;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for the JulieXMLMemMappedBuffer class.
+ */
+public class JulieXMLMemMappedBufferTest {
+
+	private static final String XML = "<set><record><id>1</id></record><record><id>2</id></record>"
+			+ "<record><id>3</id></record></set>";
+
+	private File writeTempFile(String content) throws Exception {
+		File file = File.createTempFile("memmapped", ".xml");
+		file.deleteOnExit();
+		FileOutputStream fos = new FileOutputStream(file);
+		fos.write(content.getBytes("UTF-8"));
+		fos.close();
+		return file;
+	}
+
+	@Test
+	public void testBulkReadsAcrossPages() throws Exception {
+		File file = writeTempFile(XML);
+		// use pages of 16 bytes so that nearly every read spans pages
+		JulieXMLMemMappedBuffer buffer = new JulieXMLMemMappedBuffer(4);
+		buffer.readFile(file.getAbsolutePath());
+		assertEquals(XML.length(), buffer.length());
+		for (int i = 0; i < XML.length(); i++)
+			assertEquals(XML.charAt(i), (char) buffer.byteAt(i));
+		assertEquals(XML, new String(buffer.getBytes(), "UTF-8"));
+		assertEquals(XML.substring(10, 50), new String(buffer.getBytes(10, 40), "UTF-8"));
+		assertEquals(XML.substring(15, 17), new String(buffer.getFragment(15, 2), "UTF-8"));
+
+		File out = File.createTempFile("memmapped", ".xml");
+		out.deleteOnExit();
+		FileOutputStream fos = new FileOutputStream(out);
+		buffer.writeToFileOutputStream(fos, 5, 40);
+		fos.close();
+		FileInputStream fis = new FileInputStream(out);
+		assertEquals(XML.substring(5, 45), new String(JulieXMLTools.readStream(fis, 8), "UTF-8"));
+
+		buffer.prefetch(0, buffer.length());
+		buffer.close();
+	}
+
+	@Test
+	public void testCloseStopsPrefetcher() throws Exception {
+		StringBuilder sb = new StringBuilder("<set>");
+		for (int i = 0; i < 100000; i++)
+			sb.append("<record><id>").append(i).append("</id></record>");
+		sb.append("</set>");
+		File file = writeTempFile(sb.toString());
+		JulieXMLMemMappedBuffer buffer = new JulieXMLMemMappedBuffer(12);
+		buffer.readFile(file.getAbsolutePath());
+		Thread prefetcher = buffer.adviseSequential(4096);
+		buffer.close();
+		assertFalse(prefetcher.isAlive());
+		try {
+			buffer.byteAt(0);
+			fail("A closed buffer must not be read");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		try {
+			buffer.getBytes(0, 10);
+			fail("A closed buffer must not be read");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testHugeRowIterator() throws Exception {
+		File file = writeTempFile(XML);
+		List<Map<String, String>> fields = new ArrayList<Map<String, String>>();
+		Map<String, String> field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "xml");
+		field.put(JulieXMLConstants.XPATH, ".");
+		field.put(JulieXMLConstants.RETURN_XML_FRAGMENT, "true");
+		fields.add(field);
+		Iterator<Map<String, Object>> it = JulieXMLTools.constructRowIterator(file.getAbsolutePath(), 1024,
+				"/set/record", fields, true);
+		List<Object> fragments = new ArrayList<Object>();
+		while (it.hasNext())
+			fragments.add(it.next().get("xml"));
+		assertEquals(3, fragments.size());
+		assertEquals("<record><id>2</id></record>", fragments.get(1));
+
+		// an iterator that is not read to the end releases the file when it is closed
+		it = JulieXMLTools.constructRowIterator(file.getAbsolutePath(), 1024, "/set/record", fields, true);
+		assertTrue(it instanceof Closeable);
+		assertEquals("<record><id>1</id></record>", it.next().get("xml"));
+		((Closeable) it).close();
+		assertFalse(it.hasNext());
+		((Closeable) it).close();
+	}
+}
@@ -17,10 +17,26 @@ package de.julielab.xml;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
 
 import org.junit.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
 
 import com.ximpleware.AutoPilot;
 import com.ximpleware.VTDException;
@@ -107,4 +123,135 @@ public class JulieXmlToolsTest {
 		String elementText = JulieXMLTools.getElementText(vn);
 		assertEquals("this is mixed text content", elementText);
 	}
+
+	@Test
+	public void testStreamingRowIterator() throws Exception {
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<!DOCTYPE MedlineCitationSet [<!ELEMENT MedlineCitationSet ANY>]>\n"
+				+ "<MedlineCitationSet xmlns:m=\"http://www.example.org/m\">"
+				+ "<!-- a comment with <MedlineCitation> -> inside -->"
+				+ "<MedlineCitation Status=\"a > b\"><PMID>1</PMID><m:Title>first</m:Title></MedlineCitation>"
+				+ "<Other><MedlineCitation><PMID>0</PMID></MedlineCitation></Other>"
+				+ "<MedlineCitation><PMID>2</PMID><m:Title><![CDATA[second <MedlineCitation>]]></m:Title></MedlineCitation>"
+				+ "<MedlineCitation/>"
+				+ "<MedlineCitation><PMID>3</PMID><MedlineCitation><PMID>nested</PMID></MedlineCitation></MedlineCitation>"
+				+ "</MedlineCitationSet>";
+		String forEach = "/MedlineCitationSet/MedlineCitation";
+
+		List<Map<String, String>> fields = new ArrayList<Map<String, String>>();
+		Map<String, String> field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "pmid");
+		field.put(JulieXMLConstants.XPATH, "PMID");
+		fields.add(field);
+		field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "title");
+		field.put(JulieXMLConstants.XPATH, "m:Title");
+		fields.add(field);
+		field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "xml");
+		field.put(JulieXMLConstants.XPATH, ".");
+		field.put(JulieXMLConstants.RETURN_XML_FRAGMENT, "true");
+		fields.add(field);
+
+		List<Map<String, Object>> expectedRows = new ArrayList<Map<String, Object>>();
+		Iterator<Map<String, Object>> it = JulieXMLTools.constructRowIterator(xml.getBytes("UTF-8"), 1024, forEach,
+				fields, "test");
+		while (it.hasNext())
+			expectedRows.add(it.next());
+
+		List<Map<String, Object>> streamedRows = new ArrayList<Map<String, Object>>();
+		// a small buffer so that markup is split across buffer boundaries
+		it = JulieXMLTools.constructStreamingRowIterator(new ByteArrayInputStream(xml.getBytes("UTF-8")), 7, forEach,
+				fields, "test");
+		while (it.hasNext())
+			streamedRows.add(it.next());
+
+		assertEquals(4, expectedRows.size());
+		assertEquals(expectedRows, streamedRows);
+		assertEquals("second <MedlineCitation>", streamedRows.get(1).get("title"));
+	}
+
+	@Test
+	public void testRecordSplitterKeepsDoctype() throws Exception {
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<!DOCTYPE set [<!ENTITY gene \"BRCA1\">]>\n"
+				+ "<set><record><name>&gene; mutation</name></record><record><name>other</name></record></set>";
+		JulieXMLRecordSplitter splitter = new JulieXMLRecordSplitter(new ByteArrayInputStream(xml.getBytes("UTF-8")),
+				5, "/set/record");
+		List<String> names = new ArrayList<String>();
+		DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+		while (splitter.hasNext()) {
+			String fragment = new String(splitter.next(), "UTF-8");
+			assertTrue(fragment.contains("<!DOCTYPE set [<!ENTITY gene \"BRCA1\">]>"));
+			Document doc = builder.parse(new InputSource(new StringReader(fragment)));
+			names.add(doc.getElementsByTagName("name").item(0).getTextContent());
+		}
+		assertEquals(Arrays.asList("BRCA1 mutation", "other"), names);
+	}
+
+	@Test
+	public void testParallelRowIterator() throws Exception {
+		StringBuilder sb = new StringBuilder("<set>");
+		for (int i = 0; i < 5000; i++) {
+			sb.append("<record><id>").append(i).append("</id>");
+			if (i % 3 == 0)
+				sb.append("<name>n").append(i).append("</name><name>m").append(i).append("</name>");
+			sb.append("</record>");
+		}
+		sb.append("</set>");
+		VTDGen vg = new VTDGen();
+		vg.setDoc(sb.toString().getBytes("UTF-8"));
+		vg.parse(true);
+		VTDNav vn = vg.getNav();
+
+		List<Map<String, String>> fields = new ArrayList<Map<String, String>>();
+		Map<String, String> field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "id");
+		field.put(JulieXMLConstants.XPATH, "id");
+		fields.add(field);
+		field = new HashMap<String, String>();
+		field.put(JulieXMLConstants.NAME, "names");
+		field.put(JulieXMLConstants.XPATH, "name");
+		field.put(JulieXMLConstants.CONCAT_STRING, "|");
+		fields.add(field);
+
+		List<Map<String, Object>> expectedRows = new ArrayList<Map<String, Object>>();
+		Iterator<Map<String, Object>> it = JulieXMLTools.constructRowIterator(vn.duplicateNav(), "/set/record",
+				fields, "test");
+		while (it.hasNext())
+			expectedRows.add(it.next());
+		assertEquals(5000, expectedRows.size());
+		assertEquals("n3|m3", expectedRows.get(3).get("names"));
+
+		List<Map<String, Object>> orderedRows = new ArrayList<Map<String, Object>>();
+		it = JulieXMLTools.constructParallelRowIterator(vn, "/set/record", fields, "test", 4, true);
+		while (it.hasNext())
+			orderedRows.add(it.next());
+		assertEquals(expectedRows, orderedRows);
+
+		List<Map<String, Object>> unorderedRows = new ArrayList<Map<String, Object>>();
+		it = JulieXMLTools.constructParallelRowIterator(vn, "/set/record", fields, "test", 4, false);
+		while (it.hasNext())
+			unorderedRows.add(it.next());
+		assertEquals(expectedRows.size(), unorderedRows.size());
+		assertEquals(new HashSet<Map<String, Object>>(expectedRows), new HashSet<Map<String, Object>>(unorderedRows));
+
+		// a shared executor is not shut down, closing the iterator stops it early
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			ParallelRowIterator parallel = JulieXMLTools.constructParallelRowIterator(vn, "/set/record", fields,
+					"test", executor, 2, true);
+			assertEquals(expectedRows.get(0), parallel.next());
+			parallel.close();
+			assertFalse(parallel.hasNext());
+			assertFalse(executor.isShutdown());
+			List<Map<String, Object>> sharedRows = new ArrayList<Map<String, Object>>();
+			it = JulieXMLTools.constructParallelRowIterator(vn, "/set/record", fields, "test", executor, 2, true);
+			while (it.hasNext())
+				sharedRows.add(it.next());
+			assertEquals(expectedRows, sharedRows);
+		} finally {
+			executor.shutdown();
+		}
+	}
 }
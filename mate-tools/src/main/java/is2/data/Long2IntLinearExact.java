@@ -0,0 +1,53 @@
+package is2.data;
+
+import de.julielab.gnu.trove.TLongIntLinearHashMap;
+
+
+/**
+ * Maps for the Hash Kernel the long values to the int values, like {@link Long2IntExact},
+ * but with a linear probing map over a power of two table.
+ *
+ * In contrast to {@link Long2IntExact}, each instance has its own map.
+ */
+final public class Long2IntLinearExact implements Long2IntInterface {
+
+	private final TLongIntLinearHashMap mapt;
+
+	private int cnt=0;
+
+
+	public Long2IntLinearExact() {
+		this(115911564);
+	}
+
+
+	public Long2IntLinearExact(int s) {
+		size=s;
+		mapt = new TLongIntLinearHashMap();
+	}
+
+
+	/** Integer counter for long2int */
+	final private int size;
+
+
+	public  int size() {return size;}
+
+
+	/* (non-Javadoc)
+	 * @see is2.data.Long2IntInterface#l2i(long)
+	 */
+	final public int l2i(long l) {
+		if (l<0) return -1;
+
+		int i = mapt.get(l);
+		if (i!=0) return i;
+
+		if (cnt<size-1) {
+			cnt++;
+			mapt.put(l, cnt);
+			return cnt;
+		}
+		return -1;
+	}
+}
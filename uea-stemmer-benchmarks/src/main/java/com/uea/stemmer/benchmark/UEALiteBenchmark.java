@@ -0,0 +1,126 @@
+package com.uea.stemmer.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.uea.stemmer.UEALite;
+
+/**
+ * Stems a large token stream with {@link UEALite}.  The tokens are
+ * drawn from a Zipf distribution over a vocabulary of inflected words,
+ * as in running text, and are stemmed as <tt>String</tt>s, as slices of
+ * one <tt>char[]</tt> buffer and with {@link UEALite#stemAll}.  The
+ * stemmer is shared by all threads; pass their number with <tt>-t</tt>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UEALiteBenchmark {
+
+    private static final String[] ROOTS = {
+        "walk", "talk", "add", "bind", "read", "hold", "plan", "run", "stop", "beg",
+        "mark", "test", "state", "cause", "move", "lead", "load", "head", "fill", "call",
+        "sign", "turn", "bless", "miss", "act", "print", "chang", "treat", "stat", "resolv",
+        "protein", "gene", "cell", "receptor", "kinas", "transcrib", "express", "regulat", "activat", "inhibit"
+    };
+
+    private static final String[] SUFFIXES = {
+        "", "s", "es", "ed", "ing", "ings", "er", "ers", "ion", "ions",
+        "ness", "ly", "ies", "ied", "ment", "ments", "able", "ive", "ives", "ated"
+    };
+
+    /** the number of tokens in the stream */
+    @Param({"1000000"})
+    public int tokens;
+
+    /** the number of distinct words */
+    @Param({"20000"})
+    public int vocabulary;
+
+    /** the cache size of the stemmer, <tt>0</tt> disables the cache */
+    @Param({"0", "16384"})
+    public int cacheSize;
+
+    private String[] stream;
+    private char[] buffer;
+    private int[] offsets;
+    private UEALite stemmer;
+
+    @Setup
+    public void setUp() {
+        String[] words = new String[vocabulary];
+        Random random = new Random(42);
+        for (int i = 0; i < vocabulary; i++) {
+            StringBuilder word = new StringBuilder(ROOTS[random.nextInt(ROOTS.length)]);
+            // compounds give a larger vocabulary than the roots alone
+            for (int parts = random.nextInt(3); parts > 0; parts--) {
+                word.append(ROOTS[random.nextInt(ROOTS.length)]);
+            }
+            word.append(SUFFIXES[random.nextInt(SUFFIXES.length)]);
+            if (random.nextInt(10) == 0) {
+                word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+            }
+            words[i] = word.toString();
+        }
+
+        // the cumulative Zipf distribution with exponent 1
+        double[] cumulative = new double[vocabulary];
+        double sum = 0;
+        for (int i = 0; i < vocabulary; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        stream = new String[tokens];
+        offsets = new int[tokens + 1];
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < tokens; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            // new strings, as a tokenizer would create them
+            stream[i] = new String(words[rank < 0 ? -rank - 1 : rank]);
+            offsets[i] = text.length();
+            text.append(stream[i]);
+        }
+        offsets[tokens] = text.length();
+        buffer = text.toString().toCharArray();
+        stemmer = new UEALite(20, 8, cacheSize);
+    }
+
+    @Benchmark
+    public int stem() {
+        int length = 0;
+        for (String token : stream) {
+            length += stemmer.stem(token).getWord().length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int stemSlices() {
+        int length = 0;
+        for (int i = 0; i < tokens; i++) {
+            length += stemmer.stem(buffer, offsets[i], offsets[i + 1] - offsets[i]).getWord().length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public String[] stemAll() {
+        return stemmer.stemAll(stream);
+    }
+}
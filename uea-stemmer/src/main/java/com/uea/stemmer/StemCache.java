@@ -0,0 +1,93 @@
+package com.uea.stemmer;
+
+/**
+ * <p>A bounded cache of the stems of word types for {@link UEALite}.</p>
+ *
+ * <p>The cache is direct mapped: each word has exactly one slot, chosen by its hash code, and a
+ * word entering a slot evicts the word in it. Frequent words thus tend to stay in the cache while
+ * the memory stays fixed. Lookups are possible for <code>char[]</code> slices and other character
+ * sequences without creating a <code>String</code>.</p>
+ *
+ * <p>The cache is safe for use by concurrent threads without locking: the slots hold immutable
+ * entries whose fields are final, so a thread sees either the complete old or the complete new
+ * entry of a slot. Concurrent puts may lose entries, which only costs another computation of the
+ * stem.</p>
+ *
+ * @author JULIE Lab
+ */
+final class StemCache {
+
+    private static final class Entry {
+        final String word;
+        final int hash;
+        final Word stem;
+
+        Entry( String word, int hash, Word stem ) {
+            this.word = word;
+            this.hash = hash;
+            this.stem = stem;
+        }
+    }
+
+    private final Entry[] entries;
+    private final int mask;
+
+    /**
+     * @param capacity the number of slots, rounded up to a power of two
+     */
+    StemCache( int capacity ) {
+        int slots = Integer.highestOneBit( Math.max( 1, capacity ) );
+        if( slots < capacity ) slots <<= 1;
+        entries = new Entry[slots];
+        mask = slots - 1;
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+
+    Word get( String word ) {
+        int hash = word.hashCode();
+        Entry entry = entries[slot( hash )];
+        return entry != null && entry.hash == hash && entry.word.equals( word ) ? entry.stem : null;
+    }
+
+    Word get( CharSequence word ) {
+        int hash = 0;
+        int length = word.length();
+        for( int i = 0; i < length; i++ ) {
+            hash = 31 * hash + word.charAt( i );
+        }
+        Entry entry = entries[slot( hash )];
+        if( entry == null || entry.hash != hash || entry.word.length() != length ) return null;
+        for( int i = 0; i < length; i++ ) {
+            if( entry.word.charAt( i ) != word.charAt( i ) ) return null;
+        }
+        return entry.stem;
+    }
+
+    Word get( char[] buffer, int offset, int length ) {
+        int hash = 0;
+        for( int i = offset; i < offset + length; i++ ) {
+            hash = 31 * hash + buffer[i];
+        }
+        Entry entry = entries[slot( hash )];
+        if( entry == null || entry.hash != hash || entry.word.length() != length ) return null;
+        for( int i = 0; i < length; i++ ) {
+            if( entry.word.charAt( i ) != buffer[offset + i] ) return null;
+        }
+        return entry.stem;
+    }
+
+    void put( String word, Word stem ) {
+        int hash = word.hashCode();
+        entries[slot( hash )] = new Entry( word, hash, stem );
+    }
+
+    /**
+     * Maps a hash code to a slot, mixing the high bits into the low ones used by the mask.
+     */
+    private int slot( int hash ) {
+        return ( hash ^ ( hash >>> 16 ) ) & mask;
+    }
+}
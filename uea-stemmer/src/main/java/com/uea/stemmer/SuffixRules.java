@@ -0,0 +1,469 @@
+package com.uea.stemmer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>The suffix rules of {@link UEALite}, compiled into a trie of the reversed suffixes.</p>
+ *
+ * <p>The rules are listed in the order of the original chain of <code>endsWith</code> tests and,
+ * as in the chain, the first rule whose suffix ends a word applies. Instead of testing one rule
+ * after the other, the trie is walked from the last character of a word towards its first. This
+ * visits all rules whose suffix ends the word, the longest suffix having seven characters, and
+ * the one listed first among them wins. A rule that is listed after another rule with the same
+ * suffix never applies and is dropped.</p>
+ *
+ * <p>The rules are immutable and safe for use by concurrent threads.</p>
+ *
+ * @author JULIE Lab
+ */
+final class SuffixRules {
+
+    static final SuffixRules RULES = new SuffixRules();
+
+    /** the rule leaves the word as it is */
+    private static final int KEEP = 0;
+    /** the rule replaces a suffix of the word */
+    private static final int REPLACE = 1;
+    /** the rule replaces the first occurrence of a string, which isn't necessarily the suffix */
+    private static final int REPLACE_FIRST = 2;
+    /** the rule removes the suffix and one of two identical word characters in front of it */
+    private static final int REMOVE_DOUBLED = 3;
+
+    private final List<String> suffixes = new ArrayList<String>();
+    private final List<Integer> kinds = new ArrayList<Integer>();
+    private final List<String> targets = new ArrayList<String>();
+    private final List<String> replacements = new ArrayList<String>();
+    private final List<Double> rulenos = new ArrayList<Double>();
+
+    private final int[] kind;
+    private final String[] target;
+    private final String[] replacement;
+    private final double[] ruleno;
+
+    /** the characters labelling the edges to the children of each node, the root being node 0 */
+    private char[][] labels = new char[1][0];
+    /** the children of each node */
+    private int[][] children = new int[1][0];
+    /** the rule of each node or -1 */
+    private int[] rule = { -1 };
+    /** the first rule in the subtree of each node, used to stop walks that can't find an earlier rule */
+    private int[] firstRule;
+    private int nodes = 1;
+
+    private SuffixRules() {
+        remove( "aceous", "aceous", 1 );
+        remove( "ces", "s", 2 );
+        keep( "cs", 3 );
+        keep( "sis", 4 );
+        keep( "tis", 5 );
+        keep( "ss", 6 );
+
+        // plural change - this differs from Perl v1.03
+        keep( "eed", 7 );
+        remove( "eeds", "s", 7 );
+
+        remove( "ued", "d", 8 );
+        remove( "ues", "s", 9 );
+        remove( "ees", "s", 10 );
+        remove( "iases", "es", 11.4 );
+        remove( "uses", "s", 11.3 );
+        remove( "sses", "es", 11.2 );
+        replace( "eses", "es", "is", 11.1 );
+        remove( "ses", "s", 11 );
+        remove( "tled", "d", 12.5 );
+        remove( "pled", "d", 12.4 );
+        remove( "bled", "d", 12.3 );
+        remove( "eled", "ed", 12.2 );
+        remove( "lled", "ed", 12.1 );
+        remove( "led", "ed", 12 );
+        remove( "ened", "ed", 13.7 );
+        remove( "ained", "ed", 13.6 );
+        remove( "erned", "ed", 13.5 );
+        remove( "rned", "ed", 13.4 );
+        remove( "nned", "ned", 13.3 );
+        remove( "oned", "ed", 13.2 );
+        remove( "gned", "ed", 13.1 );
+        remove( "ned", "d", 13 );
+        remove( "ifted", "ed", 14 );
+        remove( "ected", "ed", 15 );
+        remove( "vided", "d", 16 );
+        remove( "ved", "d", 17 );
+        remove( "ced", "d", 18 );
+        remove( "erred", "red", 19 );
+        remove( "urred", "red", 20.5 );
+        remove( "lored", "ed", 20.4 );
+        remove( "eared", "ed", 20.3 );
+        replaceFirst( "tored", "ed", "e", 20.2 );
+        remove( "ered", "ed", 20.1 );
+
+        // plural change - this differs from Perl v1.03
+        remove( "red", "d", 20 );
+        remove( "reds", "ds", 20 );
+
+        remove( "tted", "ted", 21 );
+        remove( "noted", "d", 22.4 );
+        remove( "leted", "d", 22.3 );
+        remove( "uted", "d", 22.2 );
+        remove( "ated", "d", 22.1 );
+        remove( "ted", "ed", 22 );
+        remove( "anges", "s", 23 );
+        remove( "aining", "ing", 24 );
+        remove( "acting", "ing", 25 );
+
+        // plural change - this differs from Perl v1.03
+        remove( "tting", "ting", 26 );
+        remove( "ttings", "tings", 26 );
+
+        replaceFirst( "viding", "ing", "e", 27 );
+        remove( "ssed", "ed", 28 );
+        remove( "sed", "d", 29 );
+        remove( "titudes", "s", 30 );
+        remove( "umed", "d", 31 );
+        remove( "ulted", "ed", 32 );
+        replaceFirst( "uming", "ing", "e", 33 );
+        remove( "fulness", "ness", 34 );
+        remove( "ousness", "ness", 35 );
+
+        // in the perl version these are all in one regrex ( r[aeiou]bed$ )
+        remove( "rabed", "d", 36.1 );
+        remove( "rebed", "d", 36.1 );
+        remove( "ribed", "d", 36.1 );
+        remove( "robed", "d", 36.1 );
+        remove( "rubed", "d", 36.1 );
+
+        // plural change - this differs from Perl v1.03
+        remove( "bed", "ed", 36 );
+        remove( "beds", "eds", 36 );
+
+        remove( "ssing", "ing", 37 );
+        remove( "ssings", "ings", 37 );
+
+        remove( "ulting", "ing", 38 );
+
+        // plural change - this differs from Perl v1.03
+        replaceFirst( "ving", "ing", "e", 39 );
+        replaceFirst( "vings", "ings", "e", 39 );
+
+        remove( "eading", "ing", 40.7 );
+        remove( "eadings", "ings", 40.7 );
+        remove( "oading", "ing", 40.6 );
+        remove( "oadings", "ings", 40.6 );
+        remove( "eding", "ing", 40.5 );
+        remove( "edings", "ings", 40.5 );
+        remove( "dding", "ding", 40.4 );
+        remove( "ddings", "dings", 40.4 );
+        remove( "lding", "ing", 40.3 );
+        remove( "ldings", "ings", 40.3 );
+        remove( "rding", "ing", 40.2 );
+        remove( "rdings", "ings", 40.2 );
+        remove( "nding", "ing", 40.1 );
+        remove( "ndings", "ings", 40.1 );
+
+        // plural change - this differs from Perl v1.03
+        replaceFirst( "ding", "ing", "e", 40 );
+        replaceFirst( "dings", "ings", "e", 40 );
+
+        remove( "lling", "ling", 41 );
+        remove( "llings", "lings", 41 );
+
+        remove( "ealing", "ing", 42.4 );
+        remove( "ealings", "ings", 42.4 );
+
+        remove( "oling", "ing", 42.3 );
+        remove( "olings", "ings", 42.3 );
+
+        remove( "ailing", "ing", 42.2 );
+        remove( "ailings", "ings", 42.2 );
+
+        remove( "eling", "ing", 42.1 );
+        remove( "elings", "ings", 42.1 );
+
+        replace( "ling", "ing", "e", 42 );
+        replace( "lings", "ings", "e", 42 );
+
+        remove( "nged", "d", 43.2 );
+        remove( "gged", "ged", 43.1 );
+        remove( "ged", "d", 43 );
+
+        // plural change - this differs from Perl v1.03
+        remove( "mming", "ming", 44.3 );
+        remove( "mmings", "mings", 44.3 );
+
+        remove( "rming", "ing", 44.2 );
+        remove( "lming", "ing", 44.1 );
+
+        // plural change - this differs from Perl v1.03
+        replace( "ming", "ing", "e", 44 );
+        replace( "mings", "ings", "e", 44 );
+
+        remove( "nging", "ing", 45.2 );
+        remove( "ngings", "ings", 45.2 );
+
+        remove( "gging", "ging", 45.1 );
+        remove( "ggings", "gings", 45.1 );
+
+        replace( "ging", "ing", "e", 45 );
+        replace( "gings", "ings", "e", 45 );
+
+        remove( "aning", "ing", 46.6 );
+        remove( "ening", "ing", 46.5 );
+        remove( "gning", "ing", 46.4 );
+        remove( "nning", "ning", 46.3 );
+        remove( "oning", "ing", 46.2 );
+        remove( "rning", "ing", 46.1 );
+        replace( "ning", "ing", "e", 46 );
+
+        // plural change - this differs from Perl v1.03
+        remove( "sting", "ing", 47 );
+        remove( "stings", "ings", 47 );
+
+        // plural change - this differs from Perl v1.03
+        remove( "eting", "ing", 48.4 );
+        remove( "etings", "ings", 48.4 );
+
+        remove( "pting", "ing", 48.3 );
+
+        // plural change - this differs from Perl v1.03
+        remove( "nting", "ing", 48.2 );
+        remove( "ntings", "ings", 48.2 );
+
+        remove( "cting", "ing", 48.1 );
+
+        // plural change - this differs from Perl v1.03
+        replace( "ting", "ing", "e", 48 );
+        replace( "tings", "ings", "e", 48 );
+
+        remove( "ssed", "ed", 49 );
+        remove( "les", "s", 50 );
+        remove( "tes", "s", 51 );
+        remove( "zed", "d", 52 );
+        remove( "lled", "ed", 53 );
+
+        // plural change - this differs from Perl v1.03
+        replaceFirst( "iring", "ing", "e", 54.4 );
+        replaceFirst( "irings", "ings", "e", 54.4 );
+
+        replaceFirst( "uring", "ing", "e", 54.3 );
+        replaceFirst( "urings", "ings", "e", 54.3 );
+
+        replaceFirst( "ncing", "ing", "e", 54.2 );
+        replaceFirst( "ncings", "ings", "e", 54.2 );
+
+        replaceFirst( "zing", "ing", "e", 54.1 );
+
+        // plural change - this differs from Perl v1.03
+        replaceFirst( "sing", "ing", "e", 54 );
+        replaceFirst( "sings", "ings", "e", 54 );
+
+        remove( "lling", "ing", 55 );
+        replaceFirst( "ied", "ied", "y", 56 );
+        replaceFirst( "ating", "ing", "e", 57 );
+
+        // plural change - this differs from Perl v1.03
+        keep( "thing", 58.1 );
+
+        remove( "things", "s", 58.1 );
+
+        removeDoubled( "ing", 58 );
+
+        replaceFirst( "ies", "ies", "y", 59 );
+        replaceFirst( "lves", "ves", "f", 60.1 );
+        remove( "ves", "s", 60 );
+        remove( "aped", "d", 61.3 );
+        remove( "uded", "d", 61.2 );
+        remove( "oded", "d", 61.1 );
+        remove( "ated", "d", 61 );
+        removeDoubled( "ed", 62 );
+        remove( "pes", "s", 63.8 );
+        remove( "mes", "s", 63.7 );
+        remove( "ones", "s", 63.6 );
+        remove( "izes", "s", 63.5 );
+        remove( "ures", "s", 63.4 );
+        remove( "ines", "s", 63.3 );
+        remove( "ides", "s", 63.2 );
+        remove( "ges", "s", 63.1 );
+        remove( "es", "es", 63 );
+        replaceFirst( "is", "is", "e", 64 );
+        keep( "ous", 65 );
+        keep( "ums", 66 );
+        keep( "us", 67 );
+        remove( "s", "s", 68 );
+
+
+
+
+        int rules = suffixes.size();
+        kind = new int[rules];
+        target = new String[rules];
+        replacement = new String[rules];
+        ruleno = new double[rules];
+        for( int r = 0; r < rules; r++ ) {
+            kind[r] = kinds.get( r );
+            target[r] = targets.get( r );
+            replacement[r] = replacements.get( r );
+            ruleno[r] = rulenos.get( r );
+            insert( suffixes.get( r ), r );
+        }
+        firstRule = new int[nodes];
+        computeFirstRule( 0 );
+    }
+
+    private void keep( String suffix, double no ) {
+        add( suffix, KEEP, null, null, no );
+    }
+
+    private void remove( String suffix, String removed, double no ) {
+        add( suffix, REPLACE, removed, "", no );
+    }
+
+    private void replace( String suffix, String removed, String appended, double no ) {
+        add( suffix, REPLACE, removed, appended, no );
+    }
+
+    private void replaceFirst( String suffix, String regex, String replacement, double no ) {
+        add( suffix, REPLACE_FIRST, regex, replacement, no );
+    }
+
+    /**
+     * The rule <code>.*\w\w&lt;suffix&gt;s?$</code>.
+     */
+    private void removeDoubled( String suffix, double no ) {
+        add( suffix, REMOVE_DOUBLED, suffix, null, no );
+        // the plural is part of the same rule, so no other rule may come in between
+        add( suffix + "s", REMOVE_DOUBLED, suffix + "s", null, no );
+    }
+
+    private void add( String suffix, int kind, String target, String replacement, double no ) {
+        suffixes.add( suffix );
+        kinds.add( kind );
+        targets.add( target );
+        replacements.add( replacement );
+        rulenos.add( no );
+    }
+
+    private void insert( String suffix, int r ) {
+        int node = 0;
+        for( int i = suffix.length() - 1; i >= 0; i-- ) {
+            int child = child( node, suffix.charAt( i ) );
+            if( child < 0 ) {
+                child = addChild( node, suffix.charAt( i ) );
+            }
+            node = child;
+        }
+        if( rule[node] < 0 ) {
+            rule[node] = r;
+        } else if( kind[rule[node]] == REMOVE_DOUBLED ) {
+            // the earlier rule doesn't apply to all words with the suffix, so the later one doesn't shadow it
+            throw new IllegalStateException( "Rule " + ruleno[r] + " conflicts with rule " + ruleno[rule[node]] );
+        }
+    }
+
+    private int addChild( int node, char c ) {
+        if( nodes == rule.length ) {
+            char[][] newLabels = new char[nodes * 2][];
+            int[][] newChildren = new int[nodes * 2][];
+            int[] newRule = new int[nodes * 2];
+            System.arraycopy( labels, 0, newLabels, 0, nodes );
+            System.arraycopy( children, 0, newChildren, 0, nodes );
+            System.arraycopy( rule, 0, newRule, 0, nodes );
+            labels = newLabels;
+            children = newChildren;
+            rule = newRule;
+        }
+        int child = nodes++;
+        labels[child] = new char[0];
+        children[child] = new int[0];
+        rule[child] = -1;
+
+        int degree = labels[node].length;
+        char[] newLabels = new char[degree + 1];
+        int[] newChildren = new int[degree + 1];
+        System.arraycopy( labels[node], 0, newLabels, 0, degree );
+        System.arraycopy( children[node], 0, newChildren, 0, degree );
+        newLabels[degree] = c;
+        newChildren[degree] = child;
+        labels[node] = newLabels;
+        children[node] = newChildren;
+        return child;
+    }
+
+    private int computeFirstRule( int node ) {
+        int first = rule[node] < 0 ? Integer.MAX_VALUE : rule[node];
+        for( int child : children[node] ) {
+            first = Math.min( first, computeFirstRule( child ) );
+        }
+        firstRule[node] = first;
+        return first;
+    }
+
+    private int child( int node, char c ) {
+        char[] l = labels[node];
+        for( int i = 0; i < l.length; i++ ) {
+            if( l[i] == c ) return children[node][i];
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the first rule that applies to <code>word</code>, or -1 if there is none.
+     *
+     * @param singleLine whether the word is free of line terminators, which <code>.</code> doesn't match
+     */
+    int match( String word, boolean singleLine ) {
+        int best = Integer.MAX_VALUE;
+        int node = 0;
+        for( int i = word.length() - 1; i >= 0 && firstRule[node] < best; i-- ) {
+            node = child( node, word.charAt( i ) );
+            if( node < 0 ) break;
+            int r = rule[node];
+            if( r >= 0 && r < best && ( kind[r] != REMOVE_DOUBLED || doubledApplies( word, i, singleLine ) ) ) {
+                best = r;
+            }
+        }
+        return best == Integer.MAX_VALUE ? -1 : best;
+    }
+
+    /**
+     * Applies <code>rule</code>, which was matched against <code>word</code>.
+     */
+    String apply( int r, String word ) {
+        switch( kind[r] ) {
+            case REPLACE:
+                String stem = word.substring( 0, word.length() - target[r].length() );
+                return replacement[r].length() == 0 ? stem : stem.concat( replacement[r] );
+            case REPLACE_FIRST:
+                int at = word.indexOf( target[r] );
+                return word.substring( 0, at ) + replacement[r] + word.substring( at + target[r].length() );
+            case REMOVE_DOUBLED:
+                String stemmed = word.substring( 0, word.length() - target[r].length() );
+                int length = stemmed.length();
+                if( length >= 2 && stemmed.charAt( length - 1 ) == stemmed.charAt( length - 2 )
+                        && isWordCharacter( stemmed.charAt( length - 1 ) ) ) {
+                    stemmed = stemmed.substring( 0, length - 1 );
+                }
+                return stemmed;
+            default:
+                return word;
+        }
+    }
+
+    double ruleno( int r ) {
+        return ruleno[r];
+    }
+
+    /**
+     * Tells whether two word characters precede the suffix starting at <code>start</code>.
+     */
+    private static boolean doubledApplies( String word, int start, boolean singleLine ) {
+        return singleLine && start >= 2 && isWordCharacter( word.charAt( start - 1 ) )
+                && isWordCharacter( word.charAt( start - 2 ) );
+    }
+
+    /**
+     * The character class <code>\w</code>.
+     */
+    static boolean isWordCharacter( char c ) {
+        return ( c >= 'a' && c <= 'z' ) || ( c >= 'A' && c <= 'Z' ) || ( c >= '0' && c <= '9' ) || c == '_';
+    }
+}
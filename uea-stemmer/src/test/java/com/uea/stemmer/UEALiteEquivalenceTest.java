@@ -0,0 +1,114 @@
+package com.uea.stemmer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Compares the stems and rule numbers of {@link UEALite} with those of the original port,
+ * {@link OriginalUEALite}, on a word list that reaches every suffix rule and every special case.
+ */
+public class UEALiteEquivalenceTest {
+
+    /** the suffixes tested by the rules of the original port, in their order */
+    private static final String[] RULE_SUFFIXES = {
+        "aceous", "ces", "cs", "sis", "tis", "ss", "eed", "eeds", "ued", "ues", "ees", "iases", "uses", "sses",
+        "eses", "ses", "tled", "pled", "bled", "eled", "lled", "led", "ened", "ained", "erned", "rned", "nned",
+        "oned", "gned", "ned", "ifted", "ected", "vided", "ved", "ced", "erred", "urred", "lored", "eared",
+        "tored", "ered", "red", "reds", "tted", "noted", "leted", "uted", "ated", "ted", "anges", "aining",
+        "acting", "tting", "ttings", "viding", "ssed", "sed", "titudes", "umed", "ulted", "uming", "fulness",
+        "ousness", "rabed", "rebed", "ribed", "robed", "rubed", "bed", "beds", "ssing", "ssings", "ulting",
+        "ving", "vings", "eading", "eadings", "oading", "oadings", "eding", "edings", "dding", "ddings", "lding",
+        "ldings", "rding", "rdings", "nding", "ndings", "ding", "dings", "lling", "llings", "ealing", "ealings",
+        "oling", "olings", "ailing", "ailings", "eling", "elings", "ling", "lings", "nged", "gged", "ged",
+        "mming", "mmings", "rming", "lming", "ming", "mings", "nging", "ngings", "gging", "ggings", "ging",
+        "gings", "aning", "ening", "gning", "nning", "oning", "rning", "ning", "sting", "stings", "eting",
+        "etings", "pting", "nting", "ntings", "cting", "ting", "tings", "les", "tes", "zed", "iring", "irings",
+        "uring", "urings", "ncing", "ncings", "zing", "sing", "sings", "ied", "ating", "thing", "things", "ies",
+        "lves", "ves", "aped", "uded", "oded", "pes", "mes", "ones", "izes", "ures", "ines", "ides", "ges", "es",
+        "is", "ous", "ums", "us", "s",
+        // the regular expressions of rules 58 and 62 and their duplicate character check
+        "ing", "ings", "ed", "eds", "kking", "kkings", "kked", "kkeds", "1ing", "_ed"
+    };
+
+    private static final String[] ROOTS = {
+        "", "a", "b", "s", "ab", "walk", "talk", "bind", "plan", "stop", "bless", "state", "chang", "protein",
+        "kinas", "transcrib", "regulat", "Walk", "WALK", "x1", "x_", "caf\u00e9", "na\u00efv", "\u00dcber",
+        "stra\u00df"
+    };
+
+    private static final String[] SPECIAL = {
+        "is", "as", "this", "has", "was", "during", "Is", "deoxyribonucleicacid", "deoxyribonucleicacids",
+        "John's", "JOHN'S", "teachers'", "don't", "we've", "they're", "I'm", "can't've", "'", "''s", "rock'n'roll",
+        "0", "12345", "123s", "1-2", "well-being", "-ing", "ing-", "a--b", "re-read-ing", "snake_case", "_",
+        "CAVASSOO", "CAVASSOOS", "DNAs", "DNA", "S", "Ss", "sS", "mRNAs", "McDonalds", "iPhones", "aBc",
+        "\u00c4RGER", "\u00c4rgers", "A\u00c4s", "walk\nings", "two\nlines-", "tab\tbed", "snake\n_", "X\nY",
+        "", " ", "ings", "eds", "ed", "s", "es", "ies", "thing", "things", "sing", "ring", "king"
+    };
+
+    @Test
+    public void testSameStemsAsOriginal() {
+        OriginalUEALite original = new OriginalUEALite();
+        UEALite cached = new UEALite();
+        UEALite uncached = new UEALite( original.getMaxWordLength(), original.getMaxAcronymLength(), 0 );
+        String[] words = words();
+        String[] expected = new String[words.length];
+        for( int i = 0; i < words.length; i++ ) {
+            Word reference = original.stem( words[i] );
+            expected[i] = reference.getWord();
+            assertSame( words[i], reference, uncached.stem( words[i] ) );
+            // the first call fills the cache, the second one reads it
+            assertSame( words[i], reference, cached.stem( words[i] ) );
+            assertSame( words[i], reference, cached.stem( new StringBuilder( words[i] ) ) );
+            char[] buffer = ( "<" + words[i] + ">" ).toCharArray();
+            assertSame( words[i], reference, cached.stem( buffer, 1, words[i].length() ) );
+            assertSame( words[i], reference, uncached.stem( buffer, 1, words[i].length() ) );
+        }
+        assertArrayEquals( expected, new UEALite().stemAll( words ) );
+        assertArrayEquals( expected, cached.stemAll( words ) );
+    }
+
+    @Test
+    public void testSameStemsWithOtherLimits() {
+        OriginalUEALite original = new OriginalUEALite( 6, 3 );
+        UEALite stemmer = new UEALite( 6, 3 );
+        for( String word : words() ) {
+            assertSame( word, original.stem( word ), stemmer.stem( word ) );
+        }
+    }
+
+    /**
+     * Returns the special cases, every rule suffix appended to each root and all lower case words of
+     * up to three letters from the letters of the suffixes.
+     */
+    private static String[] words() {
+        List<String> words = new ArrayList<String>();
+        for( String word : SPECIAL ) words.add( word );
+        for( String root : ROOTS ) {
+            for( String suffix : RULE_SUFFIXES ) {
+                words.add( root + suffix );
+                words.add( root + suffix.toUpperCase() );
+            }
+        }
+        String letters = "abdeilnorstuv";
+        for( int i = 0; i < letters.length(); i++ ) {
+            words.add( letters.substring( i, i + 1 ) );
+            for( int j = 0; j < letters.length(); j++ ) {
+                words.add( "" + letters.charAt( i ) + letters.charAt( j ) );
+                for( int k = 0; k < letters.length(); k++ ) {
+                    words.add( "" + letters.charAt( i ) + letters.charAt( j ) + letters.charAt( k ) );
+                }
+            }
+        }
+        return words.toArray( new String[words.size()] );
+    }
+
+    private static void assertSame( String word, Word expected, Word actual ) {
+        assertEquals( "stem of \"" + word + "\"", expected.getWord(), actual.getWord() );
+        assertEquals( "rule of \"" + word + "\"", expected.ruleno, actual.ruleno, 0 );
+    }
+}